@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Benchmark reproducible de los dos modos de ejecución (hilos de plataforma y perfil virtual-threads)
+# sobre GET /api/v1/plants/ y POST /auth/login. Cada modo arranca la aplicación empaquetada desde
+# cero (desde target/classes y el classpath de Maven, ya que el war no es ejecutable), con la limitación de frecuencia desactivada para medir el servidor y no el limitador.
+#
+# Uso (desde flora/): benchmark/run-benchmark.sh [concurrencia] [duración] [calentamiento]
+#   benchmark/run-benchmark.sh 64 30s 10s
+# El modo virtual-threads necesita Java 21 o superior; con una JVM anterior la aplicación avisa al
+# arrancar y los resultados de ese modo corresponden a hilos de plataforma.
+# La variable MVN permite usar otro Maven (MVN=mvn). Los resultados se añaden a target/benchmark/results-<fecha>.csv.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${1:-64}
+DURATION=${2:-30s}
+WARMUP=${3:-10s}
+PORT=${PORT:-8080}
+MVN=${MVN:-sh ./mvnw}
+OUT_DIR=target/benchmark
+OUT="$OUT_DIR/results-$(date +%Y%m%d-%H%M%S).csv"
+mkdir -p "$OUT_DIR"
+
+$MVN -q -B test-compile dependency:build-classpath -Dmdep.outputFile=target/benchmark/classpath.txt
+CLASSPATH_APP="target/classes:$(cat "$OUT_DIR/classpath.txt")"
+
+echo "java: $(java -version 2>&1 | head -n 1), núcleos: $(nproc), concurrencia: $CONCURRENCY"
+
+for MODE in platform virtual-threads; do
+    # El perfil dev carga los usuarios de ejemplo con los que inicia sesión el benchmark
+    PROFILE=(--spring.profiles.active=dev)
+    if [ "$MODE" = virtual-threads ]; then
+        PROFILE=(--spring.profiles.active=dev,virtual-threads)
+    fi
+    java -cp "$CLASSPATH_APP" es.iespuerto.mr.flora.FloraApplication --server.port="$PORT" "${PROFILE[@]}" \
+        --flora.ratelimit.enabled=false --flora.jwt.access-token.ttl=1h > "$OUT_DIR/$MODE.log" 2>&1 &
+    PID=$!
+    trap 'kill $PID 2>/dev/null || true' EXIT
+    for _ in $(seq 1 120); do
+        grep -q "Started FloraApplication" "$OUT_DIR/$MODE.log" && break
+        kill -0 "$PID" 2>/dev/null || { cat "$OUT_DIR/$MODE.log"; exit 1; }
+        sleep 1
+    done
+    grep -E "hilos (virtuales|de plataforma)" "$OUT_DIR/$MODE.log" || true
+
+    for ENDPOINT in plants login; do
+        java -cp target/test-classes es.iespuerto.mr.flora.benchmark.LoadBenchmark \
+            --base-url "http://localhost:$PORT" --mode "$MODE" --endpoint "$ENDPOINT" \
+            --concurrency "$CONCURRENCY" --duration "$DURATION" --warmup "$WARMUP" --out "$OUT"
+    done
+
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+    trap - EXIT
+done
+
+echo
+column -s, -t "$OUT" 2>/dev/null || cat "$OUT"
@@ -1,6 +1,7 @@
 package es.iespuerto.mr.flora.controller;
 
 import java.util.Collection;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,22 +11,45 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import es.iespuerto.mr.flora.dto.TokenResponse;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.exception.ServiceUnavailableException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
 import es.iespuerto.mr.flora.security.CustomUserDetailsService;
+import es.iespuerto.mr.flora.security.JwtPrincipal;
 import es.iespuerto.mr.flora.security.JwtUtils;
+import es.iespuerto.mr.flora.service.refresh.RefreshTokenService;
+import es.iespuerto.mr.flora.service.revocation.TokenRevocationService;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Controlador REST encargado de gestionar la autenticación de usuarios.
  * Proporciona un endpoint para que los usuarios inicien sesión, validando las credenciales
- * y generando un token JWT que se devuelve al usuario.
+ * y generando un token JWT que se devuelve al usuario. El usuario se carga una sola vez, a través
+ * del {@link CustomUserDetailsService} que usa el {@link AuthenticationManager}, y el token se
+ * construye con la {@link Authentication} que este devuelve.
+ *
+ * <p>Los tokens de acceso duran pocos minutos. Junto a cada uno se entrega un token de refresco
+ * que {@code /auth/refresh} cambia por un token de acceso nuevo y otro de refresco, sin volver a
+ * verificar la contraseña: la renovación cuesta una firma HMAC y una búsqueda por índice en lugar
+ * de un hash BCrypt. Los roles se toman del {@link CustomUserDetailsService}, cuya caché evita ir a
+ * la base de datos y refleja los cambios de rol.</p>
+ *
+ * <p>También permite cerrar la sesión, revocando el token presentado, y a un administrador revocar
+ * todos los tokens emitidos hasta el momento para un usuario. Las revocaciones las gestiona el
+ * {@link TokenRevocationService}.</p>
  * 
  * @see CustomUserDetailsService
  * @see JwtUtils
+ * @see TokenRevocationService
  * @see AuthenticationManager
  */
 @RestController
@@ -33,11 +57,6 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/auth")
 public class AuthController {
 
-    /**
-     * Servicio personalizado para cargar los detalles de usuario desde la base de datos.
-     */
-    private CustomUserDetailsService userDetailsService;    
-
     /**
      * Utilidad para la generación de tokens JWT.
      */
@@ -48,6 +67,21 @@ public class AuthController {
      */
     private AuthenticationManager authenticationManager;
 
+    /**
+     * Servicio de revocación de tokens.
+     */
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * Servicio de tokens de refresco.
+     */
+    private RefreshTokenService refreshTokenService;
+
+    /**
+     * Servicio que carga los usuarios, con caché, para renovar sus tokens.
+     */
+    private CustomUserDetailsService userDetailsService;
+
     /**
      * Inyecta el {@link AuthenticationManager} para la gestión de la autenticación.
      * 
@@ -69,22 +103,44 @@ public class AuthController {
     }
 
     /**
-     * Inyecta el servicio personalizado {@link CustomUserDetailsService} para cargar los detalles de usuario.
-     * 
-     * @param userDetailsService El servicio que gestiona los detalles del usuario.
+     * Inyecta el {@link TokenRevocationService} para revocar tokens.
+     *
+     * @param tokenRevocationService El servicio que gestiona las revocaciones de tokens.
+     */
+    @Autowired
+    public void setTokenRevocationService(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * Inyecta el {@link RefreshTokenService} para emitir y rotar tokens de refresco.
+     *
+     * @param refreshTokenService El servicio que gestiona los tokens de refresco.
+     */
+    @Autowired
+    public void setRefreshTokenService(RefreshTokenService refreshTokenService) {
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    /**
+     * Inyecta el {@link CustomUserDetailsService} con el que se obtienen los roles al renovar un token.
+     *
+     * @param userDetailsService El servicio que carga los detalles del usuario.
      */
     @Autowired
-    public void setCustomUserDetailsService(CustomUserDetailsService userDetailsService) {
+    public void setUserDetailsService(CustomUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
     /**
      * Endpoint para el inicio de sesión de un usuario. Valida las credenciales proporcionadas (nombre de usuario y contraseña),
-     * y si son correctas, genera y devuelve un token JWT. En caso de credenciales incorrectas, devuelve un error 401.
+     * y si son correctas, genera y devuelve un token JWT de acceso y un token de refresco. En caso de credenciales
+     * incorrectas, devuelve un error 401.
+     * Si el ejecutor de hashes de contraseñas está saturado, devuelve un error 429 o 503 con la cabecera Retry-After.
      * 
      * @param username El nombre de usuario que el usuario quiere usar para iniciar sesión.
      * @param password La contraseña asociada al nombre de usuario.
-     * @return Un {@link ResponseEntity} que contiene el token JWT en caso de éxito, o un mensaje de error en caso de fallo.
+     * @return Un {@link ResponseEntity} que contiene los tokens en caso de éxito, o un mensaje de error en caso de fallo.
      */
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestParam String username, @RequestParam String password) {
@@ -93,15 +149,18 @@ public class AuthController {
             Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(username, password));
 
-            // Carga los detalles del usuario desde el servicio
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            // Obtiene las autoridades del usuario (roles)
-            Collection<? extends GrantedAuthority> autorities = userDetails.getAuthorities();
-            // Genera el token JWT y lo devuelve
-            return ResponseEntity.ok(jwtUtils.generateToken(userDetails.getUsername(), autorities));
+            // Obtiene las autoridades (roles) de la autenticación, sin volver a cargar el usuario
+            Collection<? extends GrantedAuthority> autorities = authentication.getAuthorities();
+            // Genera el token JWT y el primer token de refresco de la sesión, y los devuelve
+            return ResponseEntity.ok(tokens(jwtUtils.generateToken(authentication.getName(), autorities),
+                    refreshTokenService.issue(authentication.getName())));
         } catch(BadCredentialsException eb) {
             // Maneja el caso de credenciales inválidas
             log.error("Se ha producido un error por credenciales invalidas:{}", eb.getMessage());
+        } catch (TooManyRequestsException | ServiceUnavailableException eo) {
+            // El ejecutor de hashes está saturado: se responde con 429 o 503 y la cabecera Retry-After
+            log.warn("Inicio de sesión rechazado por sobrecarga:{}", eo.getMessage());
+            throw eo;
         } catch (Exception e) {
             // Maneja cualquier otro error no controlado
             log.error("Se ha producido un error no controlado:{}", e.getMessage());
@@ -109,4 +168,74 @@ public class AuthController {
         // Si las credenciales no son válidas, se responde con un error 401
         return ResponseEntity.status(401).body("Invalid username or password");
     }
+
+    /**
+     * Endpoint para renovar los tokens. Cambia un token de refresco por un token de acceso nuevo y
+     * otro de refresco; el token presentado deja de servir. Si se presenta un token de refresco ya
+     * usado, se revocan todos los de su sesión.
+     *
+     * @param refreshToken El token de refresco obtenido en el inicio de sesión o en la última renovación.
+     * @return Un {@link ResponseEntity} que contiene los tokens nuevos, o un error 401 si el token de refresco no es válido.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestParam String refreshToken) {
+        Optional<RefreshTokenService.Rotation> rotation = refreshTokenService.rotate(refreshToken);
+        if (rotation.isEmpty()) {
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+        String username = rotation.get().getUsername();
+        try {
+            // Los roles se leen de nuevo (normalmente de la caché) por si han cambiado desde el inicio de sesión
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            return ResponseEntity.ok(tokens(jwtUtils.generateToken(user.getUsername(), user.getAuthorities()),
+                    rotation.get().getToken()));
+        } catch (UsernameNotFoundException e) {
+            // El usuario se ha borrado: sus tokens de refresco ya no sirven
+            log.warn("Renovación de tokens de un usuario inexistente:{}", username);
+            refreshTokenService.revokeUser(username);
+            return ResponseEntity.status(401).body("Invalid refresh token");
+        }
+    }
+
+    /**
+     * Endpoint para cerrar la sesión. Revoca el token enviado en la cabecera de autorización,
+     * que deja de ser válido aunque no haya expirado, y, si se indica, el token de refresco de la sesión.
+     *
+     * @param authorization La cabecera de autorización con el token JWT ("Bearer ...").
+     * @param refreshToken El token de refresco de la sesión, opcional.
+     * @return Un {@link ResponseEntity} vacío con el código 204, o un error 401 si el token no es válido.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+            @RequestParam(required = false) String refreshToken) {
+        Optional<JwtPrincipal> principal = authorization == null ? Optional.empty() : jwtUtils.verify(authorization);
+        // Un token revocado ya no identifica a nadie
+        if (principal.isEmpty() || tokenRevocationService.isRevoked(principal.get())) {
+            return ResponseEntity.status(401).body("Invalid token");
+        }
+        tokenRevocationService.revokeToken(principal.get());
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint para que un administrador revoque todos los tokens emitidos hasta el momento para un usuario,
+     * incluidos sus tokens de refresco. Los tokens que el usuario obtenga después siguen siendo válidos.
+     *
+     * @param username El nombre del usuario cuyos tokens se revocan.
+     * @return Un {@link ResponseEntity} vacío con el código 204.
+     * @throws ResourceNotFoundException Si no existe ningún usuario con ese nombre.
+     */
+    @PostMapping("/revoke/{username}")
+    public ResponseEntity<Void> revokeUser(@PathVariable String username) throws ResourceNotFoundException {
+        tokenRevocationService.revokeUser(username);
+        refreshTokenService.revokeUser(username);
+        return ResponseEntity.noContent().build();
+    }
+
+    private TokenResponse tokens(String accessToken, String refreshToken) {
+        return new TokenResponse(accessToken, refreshToken, jwtUtils.getTokenLifetime().toSeconds());
+    }
 }
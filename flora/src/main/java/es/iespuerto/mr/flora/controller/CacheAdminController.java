@@ -0,0 +1,75 @@
+package es.iespuerto.mr.flora.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.service.cache.CacheRegionStats;
+import es.iespuerto.mr.flora.service.cache.SecondLevelCacheStatistics;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+/**
+ * Controlador REST de administración que muestra el estado de la caché de segundo nivel de
+ * Hibernate: sus regiones, el número de entradas, los aciertos y fallos con su proporción y las
+ * invalidaciones. Solo pueden usarlo los administradores.
+ * 
+ * @see SecondLevelCacheStatistics
+ * @see CacheRegionStats
+ */
+@RestController
+@RequestMapping("/api/v1/admin")
+public class CacheAdminController {
+
+    private SecondLevelCacheStatistics cacheStatistics;
+
+    /**
+     * Inyecta las estadísticas de la caché de segundo nivel.
+     * 
+     * @param cacheStatistics El componente que lee las estadísticas de cada región.
+     */
+    @Autowired
+    public void setCacheStatistics(SecondLevelCacheStatistics cacheStatistics) {
+        this.cacheStatistics = cacheStatistics;
+    }
+
+    /**
+     * Obtiene las estadísticas de todas las regiones de la caché de segundo nivel.
+     * 
+     * @return Una lista de {@link CacheRegionStats}, una por región de entidades y otra para los resultados de consultas.
+     */
+    @Operation(summary = "Get the statistics of every second-level cache region")
+    @GetMapping("/cache")
+    public List<CacheRegionStats> getCacheRegions() {
+        return cacheStatistics.regions();
+    }
+
+    /**
+     * Obtiene las estadísticas de una región de la caché de segundo nivel.
+     * 
+     * @param region El nombre de la región.
+     * @return Un objeto {@link ResponseEntity} con las estadísticas de la región.
+     * @throws ResourceNotFoundException Si no existe la región.
+     */
+    @Operation(summary = "Get the statistics of a second-level cache region")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Cache region not found")
+    })
+    @GetMapping("/cache/{region}")
+    public ResponseEntity<CacheRegionStats> getCacheRegion(@PathVariable(value = "region") String region)
+            throws ResourceNotFoundException {
+        CacheRegionStats stats = cacheStatistics.region(region);
+        if (stats == null) {
+            throw new ResourceNotFoundException("Cache region not found for this name :: " + region);
+        }
+        return ResponseEntity.ok().body(stats);
+    }
+}
@@ -3,16 +3,24 @@ package es.iespuerto.mr.flora.controller;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Category;
 import es.iespuerto.mr.flora.service.CategoryServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -55,14 +63,48 @@ public class CategoriesController {
     }
 
     /**
-     * Obtiene todas las categorías disponibles.
+     * Obtiene todas las categorías en formato JSON con una ETag fuerte derivada de la versión de la tabla.
+     * Si el cliente envía {@code If-None-Match} con la ETag vigente se responde 304 sin consultar
+     * la base de datos ni serializar nada; en otro caso se devuelve el JSON ya serializado para
+     * esa versión.
      *
-     * @return Lista de categorías.
+     * @param request la petición, usada para evaluar {@code If-None-Match}.
+     * @return el listado serializado con su ETag, o 304 si el cliente ya lo tiene.
      */
     @Operation(summary = "Get all categories")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = Category.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    })
     @GetMapping("/categories/")
-    public List<Category> getAllCategories() {
-        return categoryService.getAllCategories();
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+        String etag = categoryService.getCategoriesETag();
+        if (request.checkNotModified(etag)) {
+            // checkNotModified ya ha escrito la ETag en la respuesta
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        JsonSnapshot snapshot = categoryService.getAllCategoriesJson();
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    /**
+     * Exporta todas las categorías en formato NDJSON (un objeto JSON por línea) cuando el cliente envía
+     * {@code Accept: application/x-ndjson}. Las filas se escriben en la respuesta a medida que se leen
+     * de la base de datos, por lo que la memoria usada no depende del número de categorías.
+     *
+     * @return una respuesta cuyo cuerpo se escribe de forma asíncrona.
+     */
+    @Operation(summary = "Export all categories as NDJSON")
+    @GetMapping(value = "/categories/", produces = NdjsonExporter.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportCategories() {
+        StreamingResponseBody body = out -> categoryService.exportCategories(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.APPLICATION_NDJSON))
+                .body(body);
     }
 
     /**
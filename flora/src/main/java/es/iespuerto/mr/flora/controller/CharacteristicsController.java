@@ -3,11 +3,18 @@ package es.iespuerto.mr.flora.controller;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Characteristic;
 import es.iespuerto.mr.flora.service.CharacteristicServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,9 +24,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -45,14 +53,48 @@ public class CharacteristicsController {
     }
 
     /**
-     * Obtiene todas las características de la base de datos.
+     * Obtiene todas las características en formato JSON con una ETag fuerte derivada de la versión de la tabla.
+     * Si el cliente envía {@code If-None-Match} con la ETag vigente se responde 304 sin consultar
+     * la base de datos ni serializar nada; en otro caso se devuelve el JSON ya serializado para
+     * esa versión.
      *
-     * @return una lista de todas las características.
+     * @param request la petición, usada para evaluar {@code If-None-Match}.
+     * @return el listado serializado con su ETag, o 304 si el cliente ya lo tiene.
      */
     @Operation(summary = "Get all characteristics")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = Characteristic.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    })
     @GetMapping("/characteristics/")
-    public List<Characteristic> getAllCharacteristics() {
-        return characteristicService.getAllCharacteristics();
+    public ResponseEntity<byte[]> getAllCharacteristics(WebRequest request) {
+        String etag = characteristicService.getCharacteristicsETag();
+        if (request.checkNotModified(etag)) {
+            // checkNotModified ya ha escrito la ETag en la respuesta
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        JsonSnapshot snapshot = characteristicService.getAllCharacteristicsJson();
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    /**
+     * Exporta todas las características en formato NDJSON (un objeto JSON por línea) cuando el cliente envía
+     * {@code Accept: application/x-ndjson}. Las filas se escriben en la respuesta a medida que se leen
+     * de la base de datos, por lo que la memoria usada no depende del número de características.
+     *
+     * @return una respuesta cuyo cuerpo se escribe de forma asíncrona.
+     */
+    @Operation(summary = "Export all characteristics as NDJSON")
+    @GetMapping(value = "/characteristics/", produces = NdjsonExporter.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportCharacteristics() {
+        StreamingResponseBody body = out -> characteristicService.exportCharacteristics(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.APPLICATION_NDJSON))
+                .body(body);
     }
 
     /**
@@ -13,6 +13,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
+import es.iespuerto.mr.flora.dto.UserFavorites;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import es.iespuerto.mr.flora.service.FavoriteServiceInterface;
@@ -55,6 +58,45 @@ public class FavoritesController {
         return favoriteService.getAllFavoritePlants();
     }
 
+    /**
+     * Obtiene los ids de las plantas favoritas de un usuario.
+     *
+     * @param userId El ID del usuario.
+     * @return Los ids de sus plantas favoritas, en orden ascendente.
+     * @throws ResourceNotFoundException Si el usuario no existe.
+     */
+    @Operation(summary = "Get the favorite plants of a user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Favorites found"),
+            @ApiResponse(responseCode = "404", description = "User not found")
+    })
+    @GetMapping("/users/{id}/favorites")
+    public UserFavorites getUserFavorites(@PathVariable(value = "id") int userId) throws ResourceNotFoundException {
+        return favoriteService.getUserFavorites(userId);
+    }
+
+    /**
+     * Agrega y elimina varios favoritos de un usuario en una sola transacción.
+     * Repetir el mismo lote no vuelve a escribir nada.
+     *
+     * @param userId El ID del usuario.
+     * @param batch Las plantas a agregar y a eliminar.
+     * @return Cuántos favoritos se agregaron y eliminaron, y los favoritos resultantes del usuario.
+     * @throws ResourceNotFoundException Si el usuario o alguna de las plantas a agregar no existe.
+     */
+    @Operation(summary = "Add and remove several favorites of a user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch applied"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "404", description = "User or plant not found")
+    })
+    @PostMapping("/users/{id}/favorites/batch")
+    public FavoriteBatchResult applyFavoriteBatch(@PathVariable(value = "id") int userId,
+                                                  @RequestBody FavoriteBatch batch) throws ResourceNotFoundException {
+        batch.setUserId(userId);
+        return favoriteService.applyFavoriteBatch(batch);
+    }
+
     /**
      * Agrega un nuevo favorito.
      *
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,12 +15,21 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import es.iespuerto.mr.flora.dto.NearbyLocation;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Location;
 import es.iespuerto.mr.flora.service.LocationServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
@@ -48,14 +59,48 @@ public class LocationsController {
     }
 
     /**
-     * Obtiene todas las ubicaciones de la base de datos.
+     * Obtiene todas las ubicaciones en formato JSON con una ETag fuerte derivada de la versión de la tabla.
+     * Si el cliente envía {@code If-None-Match} con la ETag vigente se responde 304 sin consultar
+     * la base de datos ni serializar nada; en otro caso se devuelve el JSON ya serializado para
+     * esa versión.
      *
-     * @return una lista de todas las ubicaciones.
+     * @param request la petición, usada para evaluar {@code If-None-Match}.
+     * @return el listado serializado con su ETag, o 304 si el cliente ya lo tiene.
      */
     @Operation(summary = "Get all locations")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = Location.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    })
     @GetMapping("/locations/")
-    public List<Location> getAllLocations() {
-        return locationService.getAllLocations();
+    public ResponseEntity<byte[]> getAllLocations(WebRequest request) {
+        String etag = locationService.getLocationsETag();
+        if (request.checkNotModified(etag)) {
+            // checkNotModified ya ha escrito la ETag en la respuesta
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        JsonSnapshot snapshot = locationService.getAllLocationsJson();
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    /**
+     * Exporta todas las ubicaciones en formato NDJSON (un objeto JSON por línea) cuando el cliente envía
+     * {@code Accept: application/x-ndjson}. Las filas se escriben en la respuesta a medida que se leen
+     * de la base de datos, por lo que la memoria usada no depende del número de ubicaciones.
+     *
+     * @return una respuesta cuyo cuerpo se escribe de forma asíncrona.
+     */
+    @Operation(summary = "Export all locations as NDJSON")
+    @GetMapping(value = "/locations/", produces = NdjsonExporter.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportLocations() {
+        StreamingResponseBody body = out -> locationService.exportLocations(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.APPLICATION_NDJSON))
+                .body(body);
     }
 
     /**
@@ -76,6 +121,48 @@ public class LocationsController {
         return ResponseEntity.ok().body(location);
     }
 
+    /**
+     * Obtiene las ubicaciones más cercanas a un punto, ordenadas por distancia.
+     *
+     * @param latitude la latitud del punto, en grados.
+     * @param longitude la longitud del punto, en grados.
+     * @param k el número máximo de ubicaciones a devolver.
+     * @return las ubicaciones más cercanas con su distancia en kilómetros.
+     */
+    @Operation(summary = "Get the locations nearest to a point")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates")
+    })
+    @GetMapping("/locations/near")
+    public List<NearbyLocation> getNearestLocations(@RequestParam(value = "lat") double latitude,
+                                                    @RequestParam(value = "lon") double longitude,
+                                                    @RequestParam(value = "k", defaultValue = "5") int k) {
+        return locationService.findNearestLocations(latitude, longitude, k);
+    }
+
+    /**
+     * Obtiene las ubicaciones situadas dentro de un rectángulo de coordenadas.
+     *
+     * @param minLat el límite sur del rectángulo.
+     * @param minLon el límite oeste del rectángulo.
+     * @param maxLat el límite norte del rectángulo.
+     * @param maxLon el límite este del rectángulo.
+     * @return las ubicaciones cuya posición o cuyos límites caen dentro del rectángulo.
+     */
+    @Operation(summary = "Get the locations inside a bounding box")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid bounding box")
+    })
+    @GetMapping("/locations/bbox")
+    public List<Location> getLocationsWithin(@RequestParam(value = "minLat") double minLat,
+                                             @RequestParam(value = "minLon") double minLon,
+                                             @RequestParam(value = "maxLat") double maxLat,
+                                             @RequestParam(value = "maxLon") double maxLon) {
+        return locationService.findLocationsWithin(minLat, minLon, maxLat, maxLon);
+    }
+
     /**
      * Crea una nueva ubicación.
      *
@@ -0,0 +1,113 @@
+package es.iespuerto.mr.flora.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.iespuerto.mr.flora.dto.PlantFacets;
+import es.iespuerto.mr.flora.dto.PlantFilterResult;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.service.PlantFacetServiceInterface;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+/**
+ * Controlador que relaciona las plantas con sus categorías, ubicaciones y características y
+ * permite filtrar las plantas por ellas.
+ *
+ * Endpoints disponibles:
+ * - GET /api/v1/plants/filter : Filtra las plantas por categorías, ubicaciones y características.
+ * - GET /api/v1/plant/{id}/facets : Obtiene las categorías, ubicaciones y características de una planta.
+ * - PUT /api/v1/update/plant/{id}/facets : Sustituye las categorías, ubicaciones y características de una planta.
+ *
+ * @see PlantFacetServiceInterface
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class PlantFacetsController {
+
+    private PlantFacetServiceInterface facetService;
+
+    /**
+     * Inyección de dependencias para el servicio de facetas.
+     *
+     * @param facetService el servicio que gestiona las facetas de las plantas.
+     */
+    @Autowired
+    public void setFacetService(PlantFacetServiceInterface facetService) {
+        this.facetService = facetService;
+    }
+
+    /**
+     * Filtra las plantas por sus facetas. Los valores de una misma faceta se combinan con OR y las
+     * distintas facetas con AND; por ejemplo, {@code ?category=5&location=1&characteristic=1}
+     * devuelve las suculentas del Teide que florecen en primavera. Junto a la página de plantas se
+     * devuelve, para cada faceta, cuántas plantas del resultado tiene cada valor. El filtro se
+     * resuelve en memoria y solo se leen de la base de datos las plantas de la página.
+     *
+     * @param categoryIds los IDs de las categorías seleccionadas.
+     * @param locationIds los IDs de las ubicaciones seleccionadas.
+     * @param characteristicIds los IDs de las características seleccionadas.
+     * @param after el cursor opaco devuelto en {@code nextCursor} por la página anterior; vacío para la primera página.
+     * @param limit el número máximo de plantas a devolver.
+     * @return la página de plantas, el total y los recuentos por faceta.
+     */
+    @Operation(summary = "Filter plants by category, location and characteristic, with facet counts")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/plants/filter")
+    public PlantFilterResult filterPlants(@RequestParam(value = "category", required = false) List<Integer> categoryIds,
+                                          @RequestParam(value = "location", required = false) List<Integer> locationIds,
+                                          @RequestParam(value = "characteristic", required = false) List<Integer> characteristicIds,
+                                          @RequestParam(value = "after", required = false) String after,
+                                          @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return facetService.filterPlants(categoryIds, locationIds, characteristicIds, after, limit);
+    }
+
+    /**
+     * Obtiene las categorías, ubicaciones y características de una planta.
+     *
+     * @param plantId el ID de la planta.
+     * @return los IDs de sus categorías, ubicaciones y características.
+     * @throws ResourceNotFoundException si la planta no existe.
+     */
+    @Operation(summary = "Get the categories, locations and characteristics of a plant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Plant not found")
+    })
+    @GetMapping("/plant/{id}/facets")
+    public PlantFacets getPlantFacets(@PathVariable(value = "id") int plantId) throws ResourceNotFoundException {
+        return facetService.getPlantFacets(plantId);
+    }
+
+    /**
+     * Sustituye las categorías, ubicaciones y características de una planta. Una lista que no se
+     * envía deja esa faceta sin cambios.
+     *
+     * @param plantId el ID de la planta.
+     * @param facets los nuevos IDs de categorías, ubicaciones y características.
+     * @return las facetas de la planta tras la actualización.
+     * @throws ResourceNotFoundException si la planta o alguno de los valores no existe.
+     */
+    @Operation(summary = "Replace the categories, locations and characteristics of a plant")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Plant facets updated successfully"),
+            @ApiResponse(responseCode = "404", description = "Plant, category, location or characteristic not found")
+    })
+    @PutMapping("/update/plant/{id}/facets")
+    public PlantFacets updatePlantFacets(@PathVariable(value = "id") int plantId,
+                                         @RequestBody PlantFacets facets) throws ResourceNotFoundException {
+        return facetService.updatePlantFacets(plantId, facets);
+    }
+}
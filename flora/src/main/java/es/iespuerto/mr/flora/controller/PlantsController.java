@@ -1,10 +1,15 @@
 package es.iespuerto.mr.flora.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,13 +17,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.dto.PlantPage;
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.dto.PopularPlant;
+import es.iespuerto.mr.flora.dto.RelatedPlant;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Plant;
 import es.iespuerto.mr.flora.service.PlantServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.importer.PlantImportFormat;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
@@ -48,14 +68,129 @@ public class PlantsController {
     }
 
     /**
-     * Obtiene todas las plantas de la base de datos.
+     * Obtiene todas las plantas en formato JSON con una ETag fuerte derivada de la versión de la tabla.
+     * Si el cliente envía {@code If-None-Match} con la ETag vigente se responde 304 sin consultar
+     * la base de datos ni serializar nada; en otro caso se devuelve el JSON ya serializado para
+     * esa versión.
      *
-     * @return una lista de todas las plantas.
+     * @param request la petición, usada para evaluar {@code If-None-Match}.
+     * @return el listado serializado con su ETag, o 304 si el cliente ya lo tiene.
      */
     @Operation(summary = "Get all plants")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    array = @ArraySchema(schema = @Schema(implementation = Plant.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match")
+    })
     @GetMapping("/plants/")
-    public List<Plant> getAllPlants() {
-        return plantService.getAllPlants();
+    public ResponseEntity<byte[]> getAllPlants(WebRequest request) {
+        String etag = plantService.getPlantsETag();
+        if (request.checkNotModified(etag)) {
+            // checkNotModified ya ha escrito la ETag en la respuesta
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        JsonSnapshot snapshot = plantService.getAllPlantsJson();
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    /**
+     * Exporta todas las plantas en formato NDJSON (un objeto JSON por línea) cuando el cliente envía
+     * {@code Accept: application/x-ndjson}. Las filas se escriben en la respuesta a medida que se leen
+     * de la base de datos, por lo que la memoria usada no depende del número de plantas.
+     *
+     * @return una respuesta cuyo cuerpo se escribe de forma asíncrona.
+     */
+    @Operation(summary = "Export all plants as NDJSON")
+    @GetMapping(value = "/plants/", produces = NdjsonExporter.APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportPlants() {
+        StreamingResponseBody body = out -> plantService.exportPlants(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonExporter.APPLICATION_NDJSON))
+                .body(body);
+    }
+
+    /**
+     * Obtiene una página de plantas ordenadas por ID mediante paginación por cursor (keyset).
+     * Se activa cuando la petición incluye el parámetro {@code limit}.
+     *
+     * @param after el cursor opaco devuelto en {@code nextCursor} por la página anterior; vacío para la primera página.
+     * @param limit el número máximo de plantas a devolver.
+     * @return la página solicitada junto con el cursor de la siguiente.
+     */
+    @Operation(summary = "Get plants page (keyset pagination)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping(value = "/plants/", params = "limit")
+    public PlantPage getPlantsPage(@RequestParam(value = "after", required = false) String after,
+                                   @RequestParam(value = "limit") int limit) {
+        return plantService.getPlantsPage(after, limit);
+    }
+
+    /**
+     * Busca plantas por nombre común o científico sin distinguir mayúsculas ni acentos
+     * ("tulipan" encuentra "Tulipán"). La búsqueda se resuelve en memoria, sin consultar la base de datos.
+     *
+     * @param query el texto a buscar.
+     * @param limit el número máximo de resultados.
+     * @return las plantas encontradas, ordenadas de mayor a menor parecido.
+     */
+    @Operation(summary = "Search plants by name")
+    @GetMapping("/plants/search")
+    public List<PlantSummary> searchPlants(@RequestParam(value = "q") String query,
+                                           @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return plantService.searchPlants(query, limit);
+    }
+
+    /**
+     * Sugiere plantas cuyo nombre común o científico empieza por el prefijo indicado, ordenadas
+     * por el número de usuarios que las tienen como favoritas. Pensado para autocompletar mientras se escribe.
+     *
+     * @param prefix el texto escrito hasta el momento.
+     * @param limit el número máximo de sugerencias.
+     * @return las plantas sugeridas, de más a menos populares.
+     */
+    @Operation(summary = "Suggest plants by name prefix")
+    @GetMapping("/plants/suggest")
+    public List<PlantSummary> suggestPlants(@RequestParam(value = "prefix") String prefix,
+                                            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return plantService.suggestPlants(prefix, limit);
+    }
+
+    /**
+     * Obtiene el ranking de las plantas con más favoritos, actualizado en tiempo real.
+     *
+     * @param limit el número máximo de plantas (como mucho 100).
+     * @return las plantas más populares, de más a menos favoritos.
+     */
+    @Operation(summary = "Get the most favorited plants")
+    @GetMapping("/plants/popular")
+    public List<PopularPlant> getPopularPlants(@RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return plantService.getPopularPlants(limit);
+    }
+
+    /**
+     * Obtiene las plantas que más a menudo marcan como favoritas los usuarios a los que les gusta la planta indicada.
+     *
+     * @param plantId el ID de la planta.
+     * @param limit el número máximo de plantas (como mucho 50).
+     * @return las plantas relacionadas, de más a menos parecidas.
+     * @throws ResourceNotFoundException si no se encuentra la planta con el ID proporcionado.
+     */
+    @Operation(summary = "Get plants related by favorites")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Related plants found"),
+            @ApiResponse(responseCode = "404", description = "Plant not found")
+    })
+    @GetMapping("/plants/{id}/related")
+    public List<RelatedPlant> getRelatedPlants(@PathVariable(value = "id") int plantId,
+                                               @RequestParam(value = "limit", defaultValue = "10") int limit)
+            throws ResourceNotFoundException {
+        return plantService.getRelatedPlants(plantId, limit);
     }
 
     /**
@@ -92,6 +227,30 @@ public class PlantsController {
         return plantService.createPlant(plant);
     }
 
+    /**
+     * Importa plantas de forma masiva desde un fichero CSV ({@code text/csv}) o un array JSON
+     * ({@code application/json}). El fichero se lee en streaming y las plantas se guardan por lotes,
+     * por lo que admite ficheros de cientos de miles de filas. Las filas no válidas se indican en el
+     * informe y no impiden importar el resto.
+     *
+     * @param contentType el formato del cuerpo de la petición.
+     * @param batchSize el número de plantas por lote; si no se indica se usa {@code flora.import.batch-size}.
+     * @param body el contenido del fichero.
+     * @return un informe con las filas importadas, los errores por fila y el rendimiento obtenido.
+     * @throws IOException si no se puede leer el cuerpo de la petición.
+     */
+    @Operation(summary = "Bulk import plants from CSV or JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Bad request")
+    })
+    @PostMapping(value = "/add/plants/import", consumes = {PlantImportFormat.TEXT_CSV, MediaType.APPLICATION_JSON_VALUE})
+    public PlantImportReport importPlants(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                          @RequestParam(value = "batchSize", required = false) Integer batchSize,
+                                          InputStream body) throws IOException {
+        return plantService.importPlants(body, PlantImportFormat.fromContentType(contentType), batchSize);
+    }
+
     /**
      * Actualiza una planta existente.
      *
@@ -0,0 +1,62 @@
+package es.iespuerto.mr.flora.controller;
+
+import java.security.Principal;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.model.Sighting;
+import es.iespuerto.mr.flora.service.SightingServiceInterface;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+/**
+ * Controlador REST para registrar avistamientos de plantas.
+ *
+ * <p>Los avistamientos se aceptan en memoria y se guardan en segundo plano, por lo que la
+ * respuesta es 202 Accepted y el avistamiento devuelto aún no tiene ID. El avistamiento se
+ * atribuye siempre al usuario autenticado; el {@code userId} del cuerpo se ignora.</p>
+ */
+@RestController
+@RequestMapping("/api/v1")
+public class SightingsController {
+
+    private SightingServiceInterface sightingService;
+
+    /**
+     * Establece el servicio de avistamientos.
+     *
+     * @param sightingService el servicio de avistamientos.
+     */
+    @Autowired
+    public void setSightingService(SightingServiceInterface sightingService) {
+        this.sightingService = sightingService;
+    }
+
+    /**
+     * Registra un avistamiento de una planta hecho por el usuario autenticado.
+     *
+     * @param principal el usuario autenticado.
+     * @param sighting el avistamiento: planta, ubicación opcional, fecha y posición GPS opcional.
+     * @return el avistamiento aceptado, tal y como se guardará.
+     * @throws ResourceNotFoundException si el usuario, la planta o la ubicación no existen.
+     */
+    @Operation(summary = "Report a plant sighting")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Sighting accepted"),
+            @ApiResponse(responseCode = "400", description = "Invalid sighting"),
+            @ApiResponse(responseCode = "404", description = "Plant or location not found"),
+            @ApiResponse(responseCode = "429", description = "Too many sightings, retry after the given seconds")
+    })
+    @PostMapping("/sightings")
+    public ResponseEntity<Sighting> addSighting(Principal principal, @RequestBody Sighting sighting)
+            throws ResourceNotFoundException {
+        return ResponseEntity.accepted().body(sightingService.recordSighting(principal.getName(), sighting));
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.service.UserServiceInterface;
@@ -44,13 +45,13 @@ public class UsersController {
     }
 
     /**
-     * Obtiene todos los usuarios registrados.
+     * Obtiene todos los usuarios registrados con su id, su nombre y el nombre de su rol, sin la contraseña.
      * 
-     * @return Una lista de usuarios.
+     * @return Una lista de {@link UserSummary}, uno por usuario.
      */
     @Operation(summary = "Get all users")
     @GetMapping("/users/")
-    public List<User> getAllUsers() {
+    public List<UserSummary> getAllUsers() {
         return userService.getAllUsers();
     }
 
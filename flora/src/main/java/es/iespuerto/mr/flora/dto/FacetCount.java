@@ -0,0 +1,78 @@
+package es.iespuerto.mr.flora.dto;
+
+/**
+ * Number of plants of a filter result that have a given facet value, such as a category.
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ *
+ * @see PlantFilterResult
+ */
+public class FacetCount {
+
+    private int id;
+    private int count;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public FacetCount() {
+    }
+
+    /**
+     * Creates a count for a facet value.
+     *
+     * @param id The ID of the category, location or characteristic.
+     * @param count The number of matching plants that have it.
+     */
+    public FacetCount(int id, int count) {
+        this.id = id;
+        this.count = count;
+    }
+
+    /**
+     * Gets the ID of the category, location or characteristic.
+     *
+     * @return The ID of the facet value.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the category, location or characteristic.
+     *
+     * @param id The ID to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the number of matching plants that have the facet value.
+     *
+     * @return The number of plants.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Sets the number of matching plants that have the facet value.
+     *
+     * @param count The number to set.
+     */
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * Returns a string representation of the count.
+     *
+     * @return A string representing the count.
+     */
+    @Override
+    public String toString() {
+        return "FacetCount [id=" + id + ", count=" + count + "]";
+    }
+}
@@ -0,0 +1,103 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of favorites to add and remove for a user in a single call.
+ *
+ * <p>Adding a plant the user already has and removing one the user does not have are no-ops,
+ * so a client can safely retry the same batch.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ */
+public class FavoriteBatch {
+
+    private int userId;
+    private List<Integer> add = new ArrayList<>();
+    private List<Integer> remove = new ArrayList<>();
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public FavoriteBatch() {
+    }
+
+    /**
+     * Creates a batch for a user.
+     *
+     * @param userId The ID of the user.
+     * @param add The IDs of the plants to mark as favorite.
+     * @param remove The IDs of the plants to unmark.
+     */
+    public FavoriteBatch(int userId, List<Integer> add, List<Integer> remove) {
+        this.userId = userId;
+        this.add = add;
+        this.remove = remove;
+    }
+
+    /**
+     * Gets the ID of the user.
+     *
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user.
+     *
+     * @param userId The ID to set.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the IDs of the plants to mark as favorite.
+     *
+     * @return The plant IDs to add.
+     */
+    public List<Integer> getAdd() {
+        return add;
+    }
+
+    /**
+     * Sets the IDs of the plants to mark as favorite.
+     *
+     * @param add The plant IDs to add.
+     */
+    public void setAdd(List<Integer> add) {
+        this.add = add;
+    }
+
+    /**
+     * Gets the IDs of the plants to unmark.
+     *
+     * @return The plant IDs to remove.
+     */
+    public List<Integer> getRemove() {
+        return remove;
+    }
+
+    /**
+     * Sets the IDs of the plants to unmark.
+     *
+     * @param remove The plant IDs to remove.
+     */
+    public void setRemove(List<Integer> remove) {
+        this.remove = remove;
+    }
+
+    /**
+     * Returns a string representation of the batch.
+     *
+     * @return A string representing the batch.
+     */
+    @Override
+    public String toString() {
+        return "FavoriteBatch [userId=" + userId + ", add=" + add + ", remove=" + remove + "]";
+    }
+}
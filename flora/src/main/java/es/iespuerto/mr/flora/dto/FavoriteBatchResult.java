@@ -0,0 +1,124 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.Arrays;
+
+/**
+ * The outcome of a {@link FavoriteBatch}: how many favorites were actually added and removed,
+ * and the favorites of the user once the batch was applied.
+ *
+ * <p>Retrying a batch that was already applied reports zero added and zero removed.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ */
+public class FavoriteBatchResult {
+
+    private int userId;
+    private int added;
+    private int removed;
+    private int[] plantIds = new int[0];
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public FavoriteBatchResult() {
+    }
+
+    /**
+     * Creates the outcome of a batch.
+     *
+     * @param userId The ID of the user.
+     * @param added The number of favorites inserted.
+     * @param removed The number of favorites deleted.
+     * @param plantIds The favorite plant IDs of the user after the batch, in ascending order.
+     */
+    public FavoriteBatchResult(int userId, int added, int removed, int[] plantIds) {
+        this.userId = userId;
+        this.added = added;
+        this.removed = removed;
+        this.plantIds = plantIds;
+    }
+
+    /**
+     * Gets the ID of the user.
+     *
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user.
+     *
+     * @param userId The ID to set.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the number of favorites inserted.
+     *
+     * @return The number of favorites added.
+     */
+    public int getAdded() {
+        return added;
+    }
+
+    /**
+     * Sets the number of favorites inserted.
+     *
+     * @param added The number to set.
+     */
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    /**
+     * Gets the number of favorites deleted.
+     *
+     * @return The number of favorites removed.
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Sets the number of favorites deleted.
+     *
+     * @param removed The number to set.
+     */
+    public void setRemoved(int removed) {
+        this.removed = removed;
+    }
+
+    /**
+     * Gets the favorite plant IDs of the user after the batch.
+     *
+     * @return The plant IDs, in ascending order.
+     */
+    public int[] getPlantIds() {
+        return plantIds;
+    }
+
+    /**
+     * Sets the favorite plant IDs of the user after the batch.
+     *
+     * @param plantIds The plant IDs to set.
+     */
+    public void setPlantIds(int[] plantIds) {
+        this.plantIds = plantIds;
+    }
+
+    /**
+     * Returns a string representation of the outcome.
+     *
+     * @return A string representing the outcome.
+     */
+    @Override
+    public String toString() {
+        return "FavoriteBatchResult [userId=" + userId + ", added=" + added + ", removed=" + removed
+                + ", plantIds=" + Arrays.toString(plantIds) + "]";
+    }
+}
@@ -0,0 +1,140 @@
+package es.iespuerto.mr.flora.dto;
+
+/**
+ * A location returned by a nearest-location query, with its distance to the queried point.
+ *
+ * <p>The distance is zero when the point falls inside the bounds of the location; otherwise it is
+ * the great-circle distance to the position of the location.</p>
+ */
+public class NearbyLocation {
+
+    private int id;
+    private String name;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public NearbyLocation() {
+    }
+
+    /**
+     * Creates a result with the given values.
+     *
+     * @param id The location id.
+     * @param name The name of the location.
+     * @param latitude The latitude of the location.
+     * @param longitude The longitude of the location.
+     * @param distanceKm The distance to the queried point, in kilometres.
+     */
+    public NearbyLocation(int id, String name, double latitude, double longitude, double distanceKm) {
+        this.id = id;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+    }
+
+    /**
+     * Gets the location id.
+     *
+     * @return The location id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the location id.
+     *
+     * @param id The location id to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the name of the location.
+     *
+     * @return The name of the location.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the location.
+     *
+     * @param name The name to set.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the latitude of the location.
+     *
+     * @return The latitude, in degrees.
+     */
+    public double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the latitude of the location.
+     *
+     * @param latitude The latitude to set, in degrees.
+     */
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Gets the longitude of the location.
+     *
+     * @return The longitude, in degrees.
+     */
+    public double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the longitude of the location.
+     *
+     * @param longitude The longitude to set, in degrees.
+     */
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Gets the distance to the queried point.
+     *
+     * @return The distance, in kilometres.
+     */
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    /**
+     * Sets the distance to the queried point.
+     *
+     * @param distanceKm The distance to set, in kilometres.
+     */
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    /**
+     * Returns a string representation of the result.
+     *
+     * @return A string representing the result.
+     */
+    @Override
+    public String toString() {
+        return "NearbyLocation [id=" + id + ", name=" + name + ", latitude=" + latitude + ", longitude=" + longitude
+                + ", distanceKm=" + distanceKm + "]";
+    }
+}
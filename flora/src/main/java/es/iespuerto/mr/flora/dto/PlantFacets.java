@@ -0,0 +1,125 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The categories, locations and characteristics linked to a plant.
+ *
+ * <p>When used to update a plant, each list replaces the current links of its facet; a
+ * {@code null} list leaves that facet unchanged.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ */
+public class PlantFacets {
+
+    private int plantId;
+    private List<Integer> categoryIds = new ArrayList<>();
+    private List<Integer> locationIds = new ArrayList<>();
+    private List<Integer> characteristicIds = new ArrayList<>();
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PlantFacets() {
+    }
+
+    /**
+     * Creates the facets of a plant.
+     *
+     * @param plantId The ID of the plant.
+     * @param categoryIds The IDs of its categories.
+     * @param locationIds The IDs of its locations.
+     * @param characteristicIds The IDs of its characteristics.
+     */
+    public PlantFacets(int plantId, List<Integer> categoryIds, List<Integer> locationIds, List<Integer> characteristicIds) {
+        this.plantId = plantId;
+        this.categoryIds = categoryIds;
+        this.locationIds = locationIds;
+        this.characteristicIds = characteristicIds;
+    }
+
+    /**
+     * Gets the ID of the plant.
+     *
+     * @return The ID of the plant.
+     */
+    public int getPlantId() {
+        return plantId;
+    }
+
+    /**
+     * Sets the ID of the plant.
+     *
+     * @param plantId The ID to set.
+     */
+    public void setPlantId(int plantId) {
+        this.plantId = plantId;
+    }
+
+    /**
+     * Gets the IDs of the categories of the plant.
+     *
+     * @return The category IDs, in ascending order.
+     */
+    public List<Integer> getCategoryIds() {
+        return categoryIds;
+    }
+
+    /**
+     * Sets the IDs of the categories of the plant.
+     *
+     * @param categoryIds The category IDs to set.
+     */
+    public void setCategoryIds(List<Integer> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+
+    /**
+     * Gets the IDs of the locations of the plant.
+     *
+     * @return The location IDs, in ascending order.
+     */
+    public List<Integer> getLocationIds() {
+        return locationIds;
+    }
+
+    /**
+     * Sets the IDs of the locations of the plant.
+     *
+     * @param locationIds The location IDs to set.
+     */
+    public void setLocationIds(List<Integer> locationIds) {
+        this.locationIds = locationIds;
+    }
+
+    /**
+     * Gets the IDs of the characteristics of the plant.
+     *
+     * @return The characteristic IDs, in ascending order.
+     */
+    public List<Integer> getCharacteristicIds() {
+        return characteristicIds;
+    }
+
+    /**
+     * Sets the IDs of the characteristics of the plant.
+     *
+     * @param characteristicIds The characteristic IDs to set.
+     */
+    public void setCharacteristicIds(List<Integer> characteristicIds) {
+        this.characteristicIds = characteristicIds;
+    }
+
+    /**
+     * Returns a string representation of the facets.
+     *
+     * @return A string representing the facets.
+     */
+    @Override
+    public String toString() {
+        return "PlantFacets [plantId=" + plantId + ", categoryIds=" + categoryIds + ", locationIds=" + locationIds
+                + ", characteristicIds=" + characteristicIds + "]";
+    }
+}
@@ -0,0 +1,153 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A page of the plants matching a faceted filter, with the facet counts of the whole result.
+ *
+ * <p>{@code total} is the number of matching plants, not the size of the page. Pages are
+ * ordered by plant id and {@code nextCursor} works as in {@link PlantPage}.</p>
+ *
+ * <p>The counts of a facet are computed ignoring the values selected in that same facet, so they
+ * tell how many plants each alternative value would match. Values without plants are left out.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ *
+ * @see FacetCount
+ */
+public class PlantFilterResult {
+
+    private long total;
+    private List<PlantSummary> items = new ArrayList<>();
+    private String nextCursor;
+    private List<FacetCount> categories = new ArrayList<>();
+    private List<FacetCount> locations = new ArrayList<>();
+    private List<FacetCount> characteristics = new ArrayList<>();
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PlantFilterResult() {
+    }
+
+    /**
+     * Gets the number of plants matching the filter.
+     *
+     * @return The number of matching plants.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Sets the number of plants matching the filter.
+     *
+     * @param total The number to set.
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * Gets the matching plants in this page.
+     *
+     * @return The plants in this page, ordered by id.
+     */
+    public List<PlantSummary> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the matching plants in this page.
+     *
+     * @param items The plants to set.
+     */
+    public void setItems(List<PlantSummary> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the opaque cursor of the next page.
+     *
+     * @return The cursor of the next page, or {@code null} if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the opaque cursor of the next page.
+     *
+     * @param nextCursor The cursor to set.
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the counts per category.
+     *
+     * @return The counts, most frequent first.
+     */
+    public List<FacetCount> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Sets the counts per category.
+     *
+     * @param categories The counts to set.
+     */
+    public void setCategories(List<FacetCount> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * Gets the counts per location.
+     *
+     * @return The counts, most frequent first.
+     */
+    public List<FacetCount> getLocations() {
+        return locations;
+    }
+
+    /**
+     * Sets the counts per location.
+     *
+     * @param locations The counts to set.
+     */
+    public void setLocations(List<FacetCount> locations) {
+        this.locations = locations;
+    }
+
+    /**
+     * Gets the counts per characteristic.
+     *
+     * @return The counts, most frequent first.
+     */
+    public List<FacetCount> getCharacteristics() {
+        return characteristics;
+    }
+
+    /**
+     * Sets the counts per characteristic.
+     *
+     * @param characteristics The counts to set.
+     */
+    public void setCharacteristics(List<FacetCount> characteristics) {
+        this.characteristics = characteristics;
+    }
+
+    /**
+     * Returns a string representation of the result.
+     *
+     * @return A string representing the result.
+     */
+    @Override
+    public String toString() {
+        return "PlantFilterResult [total=" + total + ", items=" + items + ", nextCursor=" + nextCursor
+                + ", categories=" + categories + ", locations=" + locations + ", characteristics=" + characteristics + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package es.iespuerto.mr.flora.dto;
+
+/**
+ * A row of a bulk plant import that could not be stored.
+ *
+ * <p>For CSV files {@code row} is the line number in the file; for JSON arrays it is the
+ * 1-based position of the element in the array.</p>
+ *
+ * @see PlantImportReport
+ */
+public class PlantImportError {
+
+    private long row;
+    private String message;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PlantImportError() {
+    }
+
+    /**
+     * Creates an error for the given row.
+     *
+     * @param row The row that was rejected.
+     * @param message Why the row was rejected.
+     */
+    public PlantImportError(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    /**
+     * Gets the row that was rejected.
+     *
+     * @return The line number (CSV) or element position (JSON) of the row.
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * Sets the row that was rejected.
+     *
+     * @param row The row to set.
+     */
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    /**
+     * Gets the reason why the row was rejected.
+     *
+     * @return The error message.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Sets the reason why the row was rejected.
+     *
+     * @param message The error message to set.
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Returns a string representation of the error.
+     *
+     * @return A string representing the error.
+     */
+    @Override
+    public String toString() {
+        return "PlantImportError [row=" + row + ", message=" + message + "]";
+    }
+}
@@ -0,0 +1,175 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk plant import.
+ *
+ * <p>Counts every row read from the input, how many were stored and how many were rejected,
+ * together with the time spent and the resulting throughput. Only the first
+ * {@value #MAX_REPORTED_ERRORS} rejected rows are listed in {@code errors}, so the report stays
+ * small even when a whole file is invalid; {@code failed} always holds the full count.</p>
+ *
+ * @see PlantImportError
+ */
+public class PlantImportReport {
+
+    /**
+     * Maximum number of rejected rows listed in the report.
+     */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private long received;
+    private long imported;
+    private long failed;
+    private int batchSize;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<PlantImportError> errors = new ArrayList<>();
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PlantImportReport() {
+    }
+
+    /**
+     * Records a rejected row. The row is counted as failed and, while there is room, listed in {@code errors}.
+     *
+     * @param row The line number (CSV) or element position (JSON) of the row.
+     * @param message Why the row was rejected.
+     */
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new PlantImportError(row, message));
+        }
+    }
+
+    /**
+     * Gets the number of rows read from the input.
+     *
+     * @return The number of rows read.
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * Sets the number of rows read from the input.
+     *
+     * @param received The number of rows to set.
+     */
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    /**
+     * Gets the number of plants stored.
+     *
+     * @return The number of plants stored.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Sets the number of plants stored.
+     *
+     * @param imported The number of plants to set.
+     */
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    /**
+     * Gets the number of rejected rows.
+     *
+     * @return The number of rejected rows.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Sets the number of rejected rows.
+     *
+     * @param failed The number of rejected rows to set.
+     */
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    /**
+     * Gets the number of plants written per JDBC batch and transaction.
+     *
+     * @return The batch size used.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of plants written per JDBC batch and transaction.
+     *
+     * @param batchSize The batch size to set.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the time spent reading and storing the input.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Sets the time spent reading and storing the input.
+     *
+     * @param elapsedMillis The elapsed time in milliseconds to set.
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the number of rows processed per second.
+     *
+     * @return The throughput of the import.
+     */
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    /**
+     * Sets the number of rows processed per second.
+     *
+     * @param rowsPerSecond The throughput to set.
+     */
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    /**
+     * Gets the first {@value #MAX_REPORTED_ERRORS} rejected rows.
+     *
+     * @return The rejected rows, in input order.
+     */
+    public List<PlantImportError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets the rejected rows.
+     *
+     * @param errors The rejected rows to set.
+     */
+    public void setErrors(List<PlantImportError> errors) {
+        this.errors = errors;
+    }
+}
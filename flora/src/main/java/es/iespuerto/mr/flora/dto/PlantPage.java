@@ -0,0 +1,77 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import es.iespuerto.mr.flora.model.Plant;
+
+/**
+ * A single page of the plant catalog obtained through keyset (cursor) pagination.
+ *
+ * <p>Pages are ordered by plant id. {@code nextCursor} is an opaque token that must be
+ * passed back as the {@code after} parameter to fetch the following page; it is
+ * {@code null} when there are no more plants.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ *
+ * @see Plant
+ */
+public class PlantPage {
+
+    private List<Plant> items = new ArrayList<>();
+    private String nextCursor;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PlantPage() {
+    }
+
+    /**
+     * Creates a page with the given items and cursor.
+     *
+     * @param items The plants in this page.
+     * @param nextCursor The cursor of the next page, or {@code null} if this is the last page.
+     */
+    public PlantPage(List<Plant> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the plants in this page.
+     *
+     * @return The plants in this page, ordered by id.
+     */
+    public List<Plant> getItems() {
+        return items;
+    }
+
+    /**
+     * Sets the plants in this page.
+     *
+     * @param items The plants to set.
+     */
+    public void setItems(List<Plant> items) {
+        this.items = items;
+    }
+
+    /**
+     * Gets the opaque cursor of the next page.
+     *
+     * @return The cursor of the next page, or {@code null} if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the opaque cursor of the next page.
+     *
+     * @param nextCursor The cursor to set.
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
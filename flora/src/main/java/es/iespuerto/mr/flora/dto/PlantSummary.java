@@ -0,0 +1,110 @@
+package es.iespuerto.mr.flora.dto;
+
+import es.iespuerto.mr.flora.model.Plant;
+
+/**
+ * Lightweight, read-only view of a {@link Plant} used by the in-memory lookup structures
+ * (search, autocomplete, rankings) so they can answer without touching the database.
+ *
+ * <p>Only the id and the names are kept; clients that need the full entity can fetch it
+ * through {@code GET /api/v1/plant/{id}}.</p>
+ */
+public class PlantSummary {
+
+    private int id;
+    private String commonName;
+    private String scientificName;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PlantSummary() {
+    }
+
+    /**
+     * Creates a summary with the given values.
+     *
+     * @param id The plant id.
+     * @param commonName The common name of the plant.
+     * @param scientificName The scientific name of the plant.
+     */
+    public PlantSummary(int id, String commonName, String scientificName) {
+        this.id = id;
+        this.commonName = commonName;
+        this.scientificName = scientificName;
+    }
+
+    /**
+     * Creates a summary of the given plant.
+     *
+     * @param plant The plant to summarize.
+     * @return A new summary holding the id and names of the plant.
+     */
+    public static PlantSummary of(Plant plant) {
+        return new PlantSummary(plant.getId(), plant.getCommonName(), plant.getScientificName());
+    }
+
+    /**
+     * Gets the plant id.
+     *
+     * @return The plant id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the plant id.
+     *
+     * @param id The plant id to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the common name of the plant.
+     *
+     * @return The common name.
+     */
+    public String getCommonName() {
+        return commonName;
+    }
+
+    /**
+     * Sets the common name of the plant.
+     *
+     * @param commonName The common name to set.
+     */
+    public void setCommonName(String commonName) {
+        this.commonName = commonName;
+    }
+
+    /**
+     * Gets the scientific name of the plant.
+     *
+     * @return The scientific name.
+     */
+    public String getScientificName() {
+        return scientificName;
+    }
+
+    /**
+     * Sets the scientific name of the plant.
+     *
+     * @param scientificName The scientific name to set.
+     */
+    public void setScientificName(String scientificName) {
+        this.scientificName = scientificName;
+    }
+
+    /**
+     * Returns a string representation of the summary.
+     *
+     * @return A string representing the summary.
+     */
+    @Override
+    public String toString() {
+        return "PlantSummary [id=" + id + ", commonName=" + commonName + ", scientificName=" + scientificName + "]";
+    }
+}
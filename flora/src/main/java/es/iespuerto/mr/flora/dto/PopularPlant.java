@@ -0,0 +1,119 @@
+package es.iespuerto.mr.flora.dto;
+
+/**
+ * A plant in the ranking of the most favorited plants, with its number of favorites.
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ */
+public class PopularPlant {
+
+    private int id;
+    private String commonName;
+    private String scientificName;
+    private long favorites;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public PopularPlant() {
+    }
+
+    /**
+     * Creates a ranking entry with the given values.
+     *
+     * @param id The plant id.
+     * @param commonName The common name of the plant.
+     * @param scientificName The scientific name of the plant.
+     * @param favorites The number of users who marked the plant as favorite.
+     */
+    public PopularPlant(int id, String commonName, String scientificName, long favorites) {
+        this.id = id;
+        this.commonName = commonName;
+        this.scientificName = scientificName;
+        this.favorites = favorites;
+    }
+
+    /**
+     * Gets the plant id.
+     *
+     * @return The plant id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the plant id.
+     *
+     * @param id The plant id to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the common name of the plant.
+     *
+     * @return The common name.
+     */
+    public String getCommonName() {
+        return commonName;
+    }
+
+    /**
+     * Sets the common name of the plant.
+     *
+     * @param commonName The common name to set.
+     */
+    public void setCommonName(String commonName) {
+        this.commonName = commonName;
+    }
+
+    /**
+     * Gets the scientific name of the plant.
+     *
+     * @return The scientific name.
+     */
+    public String getScientificName() {
+        return scientificName;
+    }
+
+    /**
+     * Sets the scientific name of the plant.
+     *
+     * @param scientificName The scientific name to set.
+     */
+    public void setScientificName(String scientificName) {
+        this.scientificName = scientificName;
+    }
+
+    /**
+     * Gets the number of users who marked the plant as favorite.
+     *
+     * @return The number of favorites.
+     */
+    public long getFavorites() {
+        return favorites;
+    }
+
+    /**
+     * Sets the number of users who marked the plant as favorite.
+     *
+     * @param favorites The number of favorites to set.
+     */
+    public void setFavorites(long favorites) {
+        this.favorites = favorites;
+    }
+
+    /**
+     * Returns a string representation of the ranking entry.
+     *
+     * @return A string representing the ranking entry.
+     */
+    @Override
+    public String toString() {
+        return "PopularPlant [id=" + id + ", commonName=" + commonName + ", scientificName=" + scientificName
+                + ", favorites=" + favorites + "]";
+    }
+}
@@ -0,0 +1,143 @@
+package es.iespuerto.mr.flora.dto;
+
+/**
+ * A plant often marked as favorite together with another one.
+ *
+ * <p>{@code sharedUsers} is the number of users who like both plants and {@code score} their
+ * cosine similarity, between 0 and 1, which the results are ordered by.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ */
+public class RelatedPlant {
+
+    private int id;
+    private String commonName;
+    private String scientificName;
+    private int sharedUsers;
+    private double score;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public RelatedPlant() {
+    }
+
+    /**
+     * Creates a related plant with the given values.
+     *
+     * @param id The plant id.
+     * @param commonName The common name of the plant.
+     * @param scientificName The scientific name of the plant.
+     * @param sharedUsers The number of users who like both plants.
+     * @param score The similarity of both plants.
+     */
+    public RelatedPlant(int id, String commonName, String scientificName, int sharedUsers, double score) {
+        this.id = id;
+        this.commonName = commonName;
+        this.scientificName = scientificName;
+        this.sharedUsers = sharedUsers;
+        this.score = score;
+    }
+
+    /**
+     * Gets the plant id.
+     *
+     * @return The plant id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the plant id.
+     *
+     * @param id The plant id to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the common name of the plant.
+     *
+     * @return The common name.
+     */
+    public String getCommonName() {
+        return commonName;
+    }
+
+    /**
+     * Sets the common name of the plant.
+     *
+     * @param commonName The common name to set.
+     */
+    public void setCommonName(String commonName) {
+        this.commonName = commonName;
+    }
+
+    /**
+     * Gets the scientific name of the plant.
+     *
+     * @return The scientific name.
+     */
+    public String getScientificName() {
+        return scientificName;
+    }
+
+    /**
+     * Sets the scientific name of the plant.
+     *
+     * @param scientificName The scientific name to set.
+     */
+    public void setScientificName(String scientificName) {
+        this.scientificName = scientificName;
+    }
+
+    /**
+     * Gets the number of users who like both plants.
+     *
+     * @return The number of shared users.
+     */
+    public int getSharedUsers() {
+        return sharedUsers;
+    }
+
+    /**
+     * Sets the number of users who like both plants.
+     *
+     * @param sharedUsers The number to set.
+     */
+    public void setSharedUsers(int sharedUsers) {
+        this.sharedUsers = sharedUsers;
+    }
+
+    /**
+     * Gets the cosine similarity of both plants.
+     *
+     * @return The similarity, between 0 and 1.
+     */
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the cosine similarity of both plants.
+     *
+     * @param score The similarity to set.
+     */
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    /**
+     * Returns a string representation of the related plant.
+     *
+     * @return A string representing the related plant.
+     */
+    @Override
+    public String toString() {
+        return "RelatedPlant [id=" + id + ", commonName=" + commonName + ", scientificName=" + scientificName
+                + ", sharedUsers=" + sharedUsers + ", score=" + score + "]";
+    }
+}
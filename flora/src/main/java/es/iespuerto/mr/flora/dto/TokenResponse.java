@@ -0,0 +1,116 @@
+package es.iespuerto.mr.flora.dto;
+
+/**
+ * The tokens handed to a client after a login or a refresh: a short-lived access token for the
+ * {@code Authorization} header and a refresh token to obtain the next one.
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized by Jackson.</p>
+ */
+public class TokenResponse {
+
+    private String accessToken;
+    private String refreshToken;
+    private String tokenType = "Bearer";
+    private long expiresIn;
+
+    /**
+     * Default constructor required by Jackson.
+     */
+    public TokenResponse() {
+    }
+
+    /**
+     * Creates a response with the given tokens.
+     *
+     * @param accessToken The JWT access token.
+     * @param refreshToken The refresh token.
+     * @param expiresIn The number of seconds the access token is valid for.
+     */
+    public TokenResponse(String accessToken, String refreshToken, long expiresIn) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+
+    /**
+     * Gets the access token.
+     *
+     * @return The JWT access token.
+     */
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Sets the access token.
+     *
+     * @param accessToken The JWT access token to set.
+     */
+    public void setAccessToken(String accessToken) {
+        this.accessToken = accessToken;
+    }
+
+    /**
+     * Gets the refresh token.
+     *
+     * @return The refresh token.
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    /**
+     * Sets the refresh token.
+     *
+     * @param refreshToken The refresh token to set.
+     */
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    /**
+     * Gets the type of the access token.
+     *
+     * @return Always "Bearer".
+     */
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    /**
+     * Sets the type of the access token.
+     *
+     * @param tokenType The token type to set.
+     */
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+
+    /**
+     * Gets the number of seconds the access token is valid for.
+     *
+     * @return The lifetime of the access token in seconds.
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    /**
+     * Sets the number of seconds the access token is valid for.
+     *
+     * @param expiresIn The lifetime in seconds to set.
+     */
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
+    /**
+     * Returns a string representation of the response, without the tokens.
+     *
+     * @return A string representing the response.
+     */
+    @Override
+    public String toString() {
+        return "TokenResponse [tokenType=" + tokenType + ", expiresIn=" + expiresIn + "]";
+    }
+}
@@ -0,0 +1,81 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.Arrays;
+
+/**
+ * The plants a user has marked as favorite.
+ *
+ * <p>Only the plant ids are returned, as a primitive array in ascending order, so the size of the
+ * response depends on the favorites of the user and not on the rest of the table.</p>
+ *
+ * <p>The class exposes a default constructor and setters so it can be serialized both by
+ * Jackson (REST) and JAXB (SOAP).</p>
+ */
+public class UserFavorites {
+
+    private int userId;
+    private int[] plantIds = new int[0];
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public UserFavorites() {
+    }
+
+    /**
+     * Creates the favorites of a user.
+     *
+     * @param userId The ID of the user.
+     * @param plantIds The IDs of the favorite plants, in ascending order.
+     */
+    public UserFavorites(int userId, int[] plantIds) {
+        this.userId = userId;
+        this.plantIds = plantIds;
+    }
+
+    /**
+     * Gets the ID of the user.
+     *
+     * @return The ID of the user.
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user.
+     *
+     * @param userId The ID to set.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the IDs of the favorite plants.
+     *
+     * @return The plant IDs, in ascending order.
+     */
+    public int[] getPlantIds() {
+        return plantIds;
+    }
+
+    /**
+     * Sets the IDs of the favorite plants.
+     *
+     * @param plantIds The plant IDs to set.
+     */
+    public void setPlantIds(int[] plantIds) {
+        this.plantIds = plantIds;
+    }
+
+    /**
+     * Returns a string representation of the favorites.
+     *
+     * @return A string representing the favorites.
+     */
+    @Override
+    public String toString() {
+        return "UserFavorites [userId=" + userId + ", plantIds=" + Arrays.toString(plantIds) + "]";
+    }
+}
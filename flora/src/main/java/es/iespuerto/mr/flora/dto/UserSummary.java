@@ -0,0 +1,100 @@
+package es.iespuerto.mr.flora.dto;
+
+import es.iespuerto.mr.flora.model.User;
+
+/**
+ * Read model of a {@link User} for listings: the id, the name and the name of the role.
+ *
+ * <p>It is built by {@code UserRepository.findAllSummaries()} with a single query that joins the
+ * role, so listing users does not load each role on its own, and it never carries the password
+ * hash. Clients that need the full user can fetch it through {@code GET /api/v1/user/{id}}.</p>
+ */
+public class UserSummary {
+
+    private int id;
+    private String name;
+    private String roleName;
+
+    /**
+     * Default constructor required by JAXB.
+     */
+    public UserSummary() {
+    }
+
+    /**
+     * Creates a summary with the given values.
+     *
+     * @param id The user id.
+     * @param name The name of the user.
+     * @param roleName The name of the role of the user, or {@code null} if it has none.
+     */
+    public UserSummary(int id, String name, String roleName) {
+        this.id = id;
+        this.name = name;
+        this.roleName = roleName;
+    }
+
+    /**
+     * Gets the user id.
+     *
+     * @return The user id.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the user id.
+     *
+     * @param id The user id to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the name of the user.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the user.
+     *
+     * @param name The name to set.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the role of the user.
+     *
+     * @return The role name, or {@code null} if the user has no role.
+     */
+    public String getRoleName() {
+        return roleName;
+    }
+
+    /**
+     * Sets the name of the role of the user.
+     *
+     * @param roleName The role name to set.
+     */
+    public void setRoleName(String roleName) {
+        this.roleName = roleName;
+    }
+
+    /**
+     * Returns a string representation of the summary.
+     *
+     * @return A string representing the summary.
+     */
+    @Override
+    public String toString() {
+        return "UserSummary [id=" + id + ", name=" + name + ", roleName=" + roleName + "]";
+    }
+}
@@ -2,6 +2,7 @@ package es.iespuerto.mr.flora.exception;
 
 import java.util.Date;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,10 +17,17 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
  * <p>This class extends {@link ResponseEntityExceptionHandler} to leverage the default Spring Boot exception handling.
  * It uses {@link ControllerAdvice} to allow global exception handling across the entire application.</p>
  * 
- * <p>The class contains two exception handler methods:</p>
+ * <p>The class contains the following exception handler methods:</p>
  * <ul>
  *   <li>{@link #resourceNotFoundException(ResourceNotFoundException, WebRequest)} - Handles {@link ResourceNotFoundException}
  *       and returns a 404 NOT FOUND response with error details.</li>
+ *   <li>{@link #invalidRequestException(InvalidRequestException, WebRequest)} - Handles {@link InvalidRequestException},
+ *       such as a malformed pagination cursor, and returns a 400 BAD REQUEST response with error details. Other
+ *       {@link IllegalArgumentException}s are not client errors and fall through to the 500 handler.</li>
+ *   <li>{@link #tooManyRequestsException(TooManyRequestsException, WebRequest)} - Handles {@link TooManyRequestsException},
+ *       such as a full ingestion buffer, and returns a 429 TOO MANY REQUESTS response with a {@code Retry-After} header.</li>
+ *   <li>{@link #serviceUnavailableException(ServiceUnavailableException, WebRequest)} - Handles {@link ServiceUnavailableException},
+ *       such as a password check that timed out, and returns a 503 SERVICE UNAVAILABLE response with a {@code Retry-After} header.</li>
  *   <li>{@link #globleExcpetionHandler(Exception, WebRequest)} - Handles all other exceptions and returns a 500
  *       INTERNAL SERVER ERROR response with error details.</li>
  * </ul>
@@ -34,6 +42,7 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
  * </ul>
  * 
  * @see ResourceNotFoundException
+ * @see InvalidRequestException
  * @see Exception
  * @see ErrorDetails
  */
@@ -53,6 +62,51 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles {@link InvalidRequestException} and returns a 400 BAD REQUEST response with error details.
+     *
+     * @param ex the exception thrown
+     * @param request the web request
+     * @return a {@link ResponseEntity} containing the error details and HTTP status BAD REQUEST (400)
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<?> invalidRequestException(InvalidRequestException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles {@link TooManyRequestsException} and returns a 429 TOO MANY REQUESTS response with error details
+     * and a {@code Retry-After} header.
+     *
+     * @param ex the exception thrown
+     * @param request the web request
+     * @return a {@link ResponseEntity} containing the error details and HTTP status TOO MANY REQUESTS (429)
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> tooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
+    /**
+     * Handles {@link ServiceUnavailableException} and returns a 503 SERVICE UNAVAILABLE response with error details
+     * and a {@code Retry-After} header.
+     *
+     * @param ex the exception thrown
+     * @param request the web request
+     * @return a {@link ResponseEntity} containing the error details and HTTP status SERVICE UNAVAILABLE (503)
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> serviceUnavailableException(ServiceUnavailableException ex, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorDetails);
+    }
+
     /**
      * Handles all other exceptions and returns a 500 INTERNAL SERVER ERROR response with error details.
      *
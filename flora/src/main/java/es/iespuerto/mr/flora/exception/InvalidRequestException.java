@@ -0,0 +1,39 @@
+package es.iespuerto.mr.flora.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a value sent by the client is invalid, for example a malformed pagination
+ * cursor, a coordinate out of range or an unsupported content type. Its message is meant to be
+ * shown to the client, so it must only describe the input that was rejected.
+ *
+ * <p>It is mapped to a 400 Bad Request response by {@link GlobalExceptionHandler}. Any other
+ * {@link IllegalArgumentException} is a programming or configuration error and becomes a 500.</p>
+ *
+ * @see HttpStatus#BAD_REQUEST
+ */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidRequestException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new {@link InvalidRequestException} with the specified detail message.
+     *
+     * @param message The detail message describing the rejected input.
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a new {@link InvalidRequestException} with the specified detail message and cause.
+     *
+     * @param message The detail message describing the rejected input.
+     * @param cause The error raised while parsing the input.
+     */
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
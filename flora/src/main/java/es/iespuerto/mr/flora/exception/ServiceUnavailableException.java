@@ -0,0 +1,42 @@
+package es.iespuerto.mr.flora.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the server accepted a piece of work but could not finish it in time,
+ * for example because a worker pool is overloaded. The client should retry after
+ * {@link #getRetryAfterSeconds()}.
+ *
+ * <p>It is mapped to a 503 Service Unavailable response with a {@code Retry-After} header by
+ * {@link GlobalExceptionHandler}.</p>
+ *
+ * @see HttpStatus#SERVICE_UNAVAILABLE
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@link ServiceUnavailableException}.
+     *
+     * @param message The detail message describing the exception.
+     * @param retryAfterSeconds The number of seconds the client should wait before retrying.
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gets the number of seconds the client should wait before retrying.
+     *
+     * @return The value of the {@code Retry-After} header.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,41 @@
+package es.iespuerto.mr.flora.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the server cannot take more work right now, for example because an
+ * ingestion buffer is full. The client should retry after {@link #getRetryAfterSeconds()}.
+ *
+ * <p>It is mapped to a 429 Too Many Requests response with a {@code Retry-After} header by
+ * {@link GlobalExceptionHandler}.</p>
+ *
+ * @see HttpStatus#TOO_MANY_REQUESTS
+ */
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@link TooManyRequestsException}.
+     *
+     * @param message The detail message describing the exception.
+     * @param retryAfterSeconds The number of seconds the client should wait before retrying.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Gets the number of seconds the client should wait before retrying.
+     *
+     * @return The value of the {@code Retry-After} header.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,8 @@
 package es.iespuerto.mr.flora.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -24,6 +27,7 @@ import jakarta.persistence.Table;
  * <ul>
  *   <li>{@code @Entity} - Specifies that the class is an entity and is mapped to a database table.</li>
  *   <li>{@code @Table} - Specifies the name of the database table to be used for mapping.</li>
+ *   <li>{@code @Cache} - Keeps categories in the "categories" region of the second-level cache.</li>
  *   <li>{@code @Id} - Specifies the primary key of an entity.</li>
  *   <li>{@code @GeneratedValue} - Provides for the specification of generation strategies for the values of primary keys.</li>
  *   <li>{@code @Column} - Used to specify the mapped column for a persistent property or field.</li>
@@ -54,6 +58,7 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 public class Category {
 
     private int id;
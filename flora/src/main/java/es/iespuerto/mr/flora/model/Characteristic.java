@@ -1,5 +1,8 @@
 package es.iespuerto.mr.flora.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -17,6 +20,7 @@ import jakarta.persistence.Table;
  * <ul>
  *   <li>{@link Entity} - Specifies that the class is an entity, representing a table in the database.</li>
  *   <li>{@link Table} - Specifies the name of the table in the database to which the entity is mapped.</li>
+ *   <li>{@link Cache} - Keeps characteristics in the "characteristics" region of the second-level cache.</li>
  *   <li>{@link Id} - Specifies the primary key of the entity.</li>
  *   <li>{@link GeneratedValue} - Specifies the strategy used to generate the primary key value.</li>
  *   <li>{@link Column} - Specifies the mapping of the field to a column in the table.</li>
@@ -45,6 +49,7 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "characteristics")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "characteristics")
 public class Characteristic {
 
     private int id;
@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 /**
  * Entity class representing a favorite plant for a user.
@@ -36,7 +37,9 @@ import jakarta.persistence.Table;
  * <p>Annotations:</p>
  * <ul>
  *   <li>{@code @Entity}: Specifies that this class is a JPA entity.</li>
- *   <li>{@code @Table(name = "favorite_plants")}: Specifies the table to which this entity is mapped.</li>
+ *   <li>{@code @Table(name = "favorite_plants")}: Specifies the table to which this entity is mapped. The
+ *   unique {@code (user_id, plant_id)} constraint keeps a user from having the same favorite twice, and its
+ *   index lets the favorites of one user be read without scanning the table.</li>
  *   <li>{@code @Id}: Marks the {@code id} field as the primary key.</li>
  *   <li>{@code @GeneratedValue(strategy = GenerationType.AUTO)}: Indicates that the {@code id} should be auto-generated.</li>
  *   <li>{@code @Column(name = "user_id", nullable = false)}: Specifies the column for the {@code userId} field, ensuring it is not nullable.</li>
@@ -44,7 +47,8 @@ import jakarta.persistence.Table;
  * </ul>
  */
 @Entity
-@Table(name = "favorite_plants")
+@Table(name = "favorite_plants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_favorite_plants", columnNames = {"user_id", "plant_id"}))
 public class Favorite {
     private int id;
     private int userId;
@@ -1,5 +1,8 @@
 package es.iespuerto.mr.flora.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -8,10 +11,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
 /**
- * Represents a location entity with an id and a name.
+ * Represents a location entity with an id, a name and, optionally, its geographic position.
  * This class is mapped to the "locations" table in the database.
  * 
  * <p>
+ * The position is a WGS84 latitude and longitude in decimal degrees. A location covering an
+ * area, such as a national park, may also have {@code bounds}: a polygon written as
+ * {@code "lat lon, lat lon, ..."} with at least three vertices. Both are optional, so a location
+ * created with just a name is still valid; it simply does not take part in spatial queries.
+ * </p>
+ * 
+ * <p>
  * The {@code Location} class provides constructors to create a location
  * with a specified name or without any parameters. It includes getter and
  * setter methods for the id and name properties, which are annotated for
@@ -26,6 +36,11 @@ import jakarta.persistence.Table;
  * </p>
  * 
  * <p>
+ * Locations are read far more often than they change, so they are kept in the "locations"
+ * region of the second-level cache; updates through JPA keep the cached copies current.
+ * </p>
+ * 
+ * <p>
  * The {@code toString} method is overridden to provide a string representation
  * of the location object, including its id and name.
  * </p>
@@ -34,10 +49,14 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "locations")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "locations")
 public class Location {
 
     private int id;
     private String name;
+    private Double latitude;
+    private Double longitude;
+    private String bounds;
 
     /**
      * Default constructor.
@@ -95,6 +114,63 @@ public class Location {
         this.name = name;
     }
 
+    /**
+     * Gets the latitude of the location, in decimal degrees.
+     * 
+     * @return the latitude, or {@code null} if the location has no position
+     */
+    @Column(name = "latitude")
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the latitude of the location, in decimal degrees.
+     * 
+     * @param latitude the new latitude, between -90 and 90
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Gets the longitude of the location, in decimal degrees.
+     * 
+     * @return the longitude, or {@code null} if the location has no position
+     */
+    @Column(name = "longitude")
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the longitude of the location, in decimal degrees.
+     * 
+     * @param longitude the new longitude, between -180 and 180
+     */
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Gets the polygon bounding the area of the location.
+     * 
+     * @return the vertices as {@code "lat lon, lat lon, ..."}, or {@code null} if the location is a single point
+     */
+    @Column(name = "bounds", length = 4000)
+    public String getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Sets the polygon bounding the area of the location.
+     * 
+     * @param bounds the vertices as {@code "lat lon, lat lon, ..."}, or {@code null} for none
+     */
+    public void setBounds(String bounds) {
+        this.bounds = bounds;
+    }
+
     /**
      * Returns a string representation of the location object, including its id and name.
      * 
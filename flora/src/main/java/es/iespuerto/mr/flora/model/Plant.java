@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -36,7 +37,9 @@ import jakarta.persistence.Table;
  *   <li>@Entity - Specifies that the class is an entity and is mapped to a database table.</li>
  *   <li>@Table (name = "plants") - Specifies the name of the database table to be used for mapping.</li>
  *   <li>@Id - Specifies the primary key of an entity.</li>
- *   <li>@GeneratedValue(strategy = GenerationType.AUTO) - Provides for the specification of generation strategies for the values of primary keys.</li>
+ *   <li>@GeneratedValue(strategy = GenerationType.SEQUENCE) - Ids come from the pooled {@code plants_seq} sequence.</li>
+ *   <li>@SequenceGenerator(allocationSize = 50) - Reserves 50 ids per round trip so inserts can be sent in JDBC batches.
+ *       The sequence starts at 101, leaving the lower ids to the seed data.</li>
  *   <li>@Column(name = "common_name", nullable = false) - Specifies the mapped column for a persistent property or field.</li>
  *   <li>@Column(name = "scientific_name", nullable = false) - Specifies the mapped column for a persistent property or field.</li>
  * </ul>
@@ -72,7 +75,8 @@ public class Plant {
      * @return The ID of the plant.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plants_seq")
+    @SequenceGenerator(name = "plants_seq", sequenceName = "plants_seq", initialValue = 101, allocationSize = 50)
     public int getId() {
         return id;
     }
@@ -0,0 +1,117 @@
+package es.iespuerto.mr.flora.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Transient;
+
+/**
+ * Base class of the rows that link a plant with a value of one of its facets: a category, a
+ * location or a characteristic.
+ *
+ * <p>Like {@link Favorite}, an association only stores ids. Every subclass maps its own table and
+ * renames the {@code value_id} column with {@code @AttributeOverride}, so the repositories can
+ * query all of them through the same {@code plantId} and {@code valueId} properties.</p>
+ */
+@MappedSuperclass
+public abstract class PlantAssociation {
+
+    private int id;
+    private int plantId;
+    private int valueId;
+
+    /**
+     * Default constructor for JPA.
+     */
+    protected PlantAssociation() {
+    }
+
+    /**
+     * Creates an association between a plant and a facet value.
+     *
+     * @param plantId The ID of the plant.
+     * @param valueId The ID of the category, location or characteristic.
+     */
+    protected PlantAssociation(int plantId, int valueId) {
+        this.plantId = plantId;
+        this.valueId = valueId;
+    }
+
+    /**
+     * Gets the unique identifier of the association.
+     *
+     * @return The ID of the association.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the association.
+     *
+     * @param id The ID to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the plant.
+     *
+     * @return The ID of the plant.
+     */
+    @Column(name = "plant_id", nullable = false)
+    public int getPlantId() {
+        return plantId;
+    }
+
+    /**
+     * Sets the ID of the plant.
+     *
+     * @param plantId The ID of the plant to set.
+     */
+    public void setPlantId(int plantId) {
+        this.plantId = plantId;
+    }
+
+    /**
+     * Gets the ID of the category, location or characteristic linked to the plant.
+     *
+     * @return The ID of the facet value.
+     */
+    @Column(name = "value_id", nullable = false)
+    public int getValueId() {
+        return valueId;
+    }
+
+    /**
+     * Sets the ID of the category, location or characteristic linked to the plant.
+     *
+     * @param valueId The ID of the facet value to set.
+     */
+    public void setValueId(int valueId) {
+        this.valueId = valueId;
+    }
+
+    /**
+     * Gets the name of the facet value column, for log and error messages.
+     *
+     * @return The name of the column holding the facet value.
+     */
+    @Transient
+    protected abstract String getValueName();
+
+    /**
+     * Returns a string representation of the association.
+     *
+     * @return A string representing the association.
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [id=" + id + ", plantId=" + plantId + ", " + getValueName() + "=" + valueId + "]";
+    }
+}
@@ -0,0 +1,50 @@
+package es.iespuerto.mr.flora.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Links a {@link Plant} with one of its {@link Category} entries.
+ *
+ * <p>A plant can be linked to the same category only once. The {@code category_id} index serves the
+ * lookups made when a category is deleted.</p>
+ */
+@Entity
+@Table(name = "plant_categories",
+        uniqueConstraints = @UniqueConstraint(name = "uk_plant_categories", columnNames = {"plant_id", "category_id"}),
+        indexes = @Index(name = "idx_plant_categories_category", columnList = "category_id"))
+@AttributeOverride(name = "valueId", column = @Column(name = "category_id", nullable = false))
+public class PlantCategory extends PlantAssociation {
+
+    /**
+     * Default constructor for JPA.
+     */
+    public PlantCategory() {
+    }
+
+    /**
+     * Creates a link between a plant and a category.
+     *
+     * @param plantId The ID of the plant.
+     * @param categoryId The ID of the category.
+     */
+    public PlantCategory(int plantId, int categoryId) {
+        super(plantId, categoryId);
+    }
+
+    /**
+     * Gets the name of the category column.
+     *
+     * @return {@code "categoryId"}.
+     */
+    @Override
+    @Transient
+    protected String getValueName() {
+        return "categoryId";
+    }
+}
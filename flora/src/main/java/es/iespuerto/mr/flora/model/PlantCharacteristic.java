@@ -0,0 +1,50 @@
+package es.iespuerto.mr.flora.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Links a {@link Plant} with one of its {@link Characteristic} entries.
+ *
+ * <p>A plant can be linked to the same characteristic only once. The {@code characteristic_id} index serves the
+ * lookups made when a characteristic is deleted.</p>
+ */
+@Entity
+@Table(name = "plant_characteristics",
+        uniqueConstraints = @UniqueConstraint(name = "uk_plant_characteristics", columnNames = {"plant_id", "characteristic_id"}),
+        indexes = @Index(name = "idx_plant_characteristics_characteristic", columnList = "characteristic_id"))
+@AttributeOverride(name = "valueId", column = @Column(name = "characteristic_id", nullable = false))
+public class PlantCharacteristic extends PlantAssociation {
+
+    /**
+     * Default constructor for JPA.
+     */
+    public PlantCharacteristic() {
+    }
+
+    /**
+     * Creates a link between a plant and a characteristic.
+     *
+     * @param plantId The ID of the plant.
+     * @param characteristicId The ID of the characteristic.
+     */
+    public PlantCharacteristic(int plantId, int characteristicId) {
+        super(plantId, characteristicId);
+    }
+
+    /**
+     * Gets the name of the characteristic column.
+     *
+     * @return {@code "characteristicId"}.
+     */
+    @Override
+    @Transient
+    protected String getValueName() {
+        return "characteristicId";
+    }
+}
@@ -0,0 +1,50 @@
+package es.iespuerto.mr.flora.model;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * Links a {@link Plant} with one of its {@link Location} entries.
+ *
+ * <p>A plant can be linked to the same location only once. The {@code location_id} index serves the
+ * lookups made when a location is deleted.</p>
+ */
+@Entity
+@Table(name = "plant_locations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_plant_locations", columnNames = {"plant_id", "location_id"}),
+        indexes = @Index(name = "idx_plant_locations_location", columnList = "location_id"))
+@AttributeOverride(name = "valueId", column = @Column(name = "location_id", nullable = false))
+public class PlantLocation extends PlantAssociation {
+
+    /**
+     * Default constructor for JPA.
+     */
+    public PlantLocation() {
+    }
+
+    /**
+     * Creates a link between a plant and a location.
+     *
+     * @param plantId The ID of the plant.
+     * @param locationId The ID of the location.
+     */
+    public PlantLocation(int plantId, int locationId) {
+        super(plantId, locationId);
+    }
+
+    /**
+     * Gets the name of the location column.
+     *
+     * @return {@code "locationId"}.
+     */
+    @Override
+    @Transient
+    protected String getValueName() {
+        return "locationId";
+    }
+}
@@ -0,0 +1,216 @@
+package es.iespuerto.mr.flora.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a refresh token, with which a client obtains new access tokens
+ * without sending the password again.
+ * This class is mapped to the "refresh_tokens" table in the database.
+ *
+ * <p>Only the SHA-256 hash of the token is stored, so the table cannot be used to refresh.
+ * Each refresh uses the token up and issues a new one in the same family; presenting a token
+ * that was already used means it was copied, and the whole family is deleted.</p>
+ *
+ * <p>Fields:</p>
+ * <ul>
+ *   <li>{@code id} - The unique identifier for the refresh token.</li>
+ *   <li>{@code tokenHash} - The hex SHA-256 hash of the token.</li>
+ *   <li>{@code familyId} - The id shared by every token obtained from the same login.</li>
+ *   <li>{@code username} - The name of the user the token belongs to.</li>
+ *   <li>{@code issuedAt} - When the token was issued.</li>
+ *   <li>{@code expiresAt} - When the token expires.</li>
+ *   <li>{@code usedAt} - When the token was exchanged for a new one, or {@code null} if it was not.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_hash", columnList = "token_hash", unique = true),
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_username", columnList = "username"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshToken {
+    private long id;
+    private String tokenHash;
+    private String familyId;
+    private String username;
+    private Instant issuedAt;
+    private Instant expiresAt;
+    private Instant usedAt;
+
+    /**
+     * Default constructor for the RefreshToken class.
+     */
+    public RefreshToken() {
+    }
+
+    /**
+     * Constructor for creating an unused refresh token.
+     *
+     * @param tokenHash The hex SHA-256 hash of the token.
+     * @param familyId The id of the family of the token.
+     * @param username The name of the user the token belongs to.
+     * @param issuedAt When the token was issued.
+     * @param expiresAt When the token expires.
+     */
+    public RefreshToken(String tokenHash, String familyId, String username, Instant issuedAt, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.username = username;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the unique identifier of the refresh token.
+     *
+     * @return The unique identifier of the refresh token.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the refresh token.
+     *
+     * @param id The unique identifier to be set.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the hash of the token.
+     *
+     * @return The hex SHA-256 hash of the token.
+     */
+    @Column(name = "token_hash", nullable = false, length = 64)
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    /**
+     * Sets the hash of the token.
+     *
+     * @param tokenHash The hex SHA-256 hash of the token.
+     */
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    /**
+     * Gets the id of the family of the token.
+     *
+     * @return The family id.
+     */
+    @Column(name = "family_id", nullable = false, length = 36)
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    /**
+     * Sets the id of the family of the token.
+     *
+     * @param familyId The family id to be set.
+     */
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    /**
+     * Gets the name of the user the token belongs to.
+     *
+     * @return The user name.
+     */
+    @Column(name = "username", nullable = false)
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the name of the user the token belongs to.
+     *
+     * @param username The user name to be set.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Gets when the token was issued.
+     *
+     * @return The time of issue.
+     */
+    @Column(name = "issued_at", nullable = false)
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Sets when the token was issued.
+     *
+     * @param issuedAt The time of issue.
+     */
+    public void setIssuedAt(Instant issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    /**
+     * Gets when the token expires.
+     *
+     * @return The expiration time.
+     */
+    @Column(name = "expires_at", nullable = false)
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Sets when the token expires.
+     *
+     * @param expiresAt The expiration time.
+     */
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets when the token was exchanged for a new one.
+     *
+     * @return The time of use, or {@code null} if the token was not used.
+     */
+    @Column(name = "used_at")
+    public Instant getUsedAt() {
+        return usedAt;
+    }
+
+    /**
+     * Sets when the token was exchanged for a new one.
+     *
+     * @param usedAt The time of use.
+     */
+    public void setUsedAt(Instant usedAt) {
+        this.usedAt = usedAt;
+    }
+
+    /**
+     * Returns a string representation of the refresh token, without its hash.
+     *
+     * @return A string representing the refresh token.
+     */
+    @Override
+    public String toString() {
+        return "RefreshToken [id=" + id + ", familyId=" + familyId + ", username=" + username
+                + ", issuedAt=" + issuedAt + ", expiresAt=" + expiresAt + ", usedAt=" + usedAt + "]";
+    }
+}
@@ -2,6 +2,9 @@ package es.iespuerto.mr.flora.model;
 
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
@@ -19,10 +22,14 @@ import jakarta.persistence.Table;
  * Esta clase está mapeada a la tabla 'roles' en la base de datos y contiene atributos como un identificador único (id),
  * el nombre del rol, y un conjunto de usuarios que tienen asignado este rol.
  * 
+ * <p>Los roles se guardan en la región "roles" de la caché de segundo nivel, de modo que cargar el
+ * rol de un {@link User} no consulta la base de datos.</p>
+ * 
  * @see User
  */
 @Entity
 @Table(name = "roles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class Role {
 
@@ -0,0 +1,208 @@
+package es.iespuerto.mr.flora.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing a sighting of a plant reported by a user in the field.
+ * This class is mapped to the "sightings" table in the database.
+ *
+ * <p>A sighting references an existing {@link User}, {@link Plant} and, optionally, {@link Location}
+ * by id, records when the plant was observed and, if the device had a fix, the GPS position.</p>
+ *
+ * <p>Sightings are not saved through JPA one by one: they are buffered in memory and written in
+ * multi-row inserts by {@code SightingIngestor}, which is why the id is an identity column filled
+ * in by the database.</p>
+ *
+ * <p>Fields:</p>
+ * <ul>
+ *   <li>{@code id} - The unique identifier for the sighting.</li>
+ *   <li>{@code userId} - The ID of the user who reported the sighting, always the authenticated user.</li>
+ *   <li>{@code plantId} - The ID of the plant that was seen.</li>
+ *   <li>{@code locationId} - The ID of the location where it was seen, if known.</li>
+ *   <li>{@code observedAt} - When the plant was seen.</li>
+ *   <li>{@code latitude} and {@code longitude} - The GPS position, if known.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "sightings", indexes = @Index(name = "idx_sightings_plant_observed", columnList = "plant_id, observed_at"))
+public class Sighting {
+    private long id;
+    private int userId;
+    private int plantId;
+    private Integer locationId;
+    private Instant observedAt;
+    private Double latitude;
+    private Double longitude;
+
+    /**
+     * Default constructor for the Sighting class.
+     */
+    public Sighting() {
+    }
+
+    /**
+     * Constructor for creating a sighting of a plant by a user at a given time.
+     *
+     * @param userId The ID of the user who reported the sighting.
+     * @param plantId The ID of the plant that was seen.
+     * @param observedAt When the plant was seen.
+     */
+    public Sighting(int userId, int plantId, Instant observedAt) {
+        this.userId = userId;
+        this.plantId = plantId;
+        this.observedAt = observedAt;
+    }
+
+    /**
+     * Gets the unique identifier of the sighting.
+     *
+     * @return The unique identifier of the sighting.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the sighting.
+     *
+     * @param id The unique identifier to be set.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the ID of the user who reported the sighting.
+     *
+     * @return The user ID.
+     */
+    @Column(name = "user_id", nullable = false)
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user who reported the sighting.
+     *
+     * @param userId The ID of the user to be set.
+     */
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Gets the ID of the plant that was seen.
+     *
+     * @return The plant ID.
+     */
+    @Column(name = "plant_id", nullable = false)
+    public int getPlantId() {
+        return plantId;
+    }
+
+    /**
+     * Sets the ID of the plant that was seen.
+     *
+     * @param plantId The ID of the plant to be set.
+     */
+    public void setPlantId(int plantId) {
+        this.plantId = plantId;
+    }
+
+    /**
+     * Gets the ID of the location where the plant was seen.
+     *
+     * @return The location ID, or {@code null} if unknown.
+     */
+    @Column(name = "location_id")
+    public Integer getLocationId() {
+        return locationId;
+    }
+
+    /**
+     * Sets the ID of the location where the plant was seen.
+     *
+     * @param locationId The ID of the location, or {@code null} if unknown.
+     */
+    public void setLocationId(Integer locationId) {
+        this.locationId = locationId;
+    }
+
+    /**
+     * Gets when the plant was seen.
+     *
+     * @return The time of the observation.
+     */
+    @Column(name = "observed_at", nullable = false)
+    public Instant getObservedAt() {
+        return observedAt;
+    }
+
+    /**
+     * Sets when the plant was seen.
+     *
+     * @param observedAt The time of the observation.
+     */
+    public void setObservedAt(Instant observedAt) {
+        this.observedAt = observedAt;
+    }
+
+    /**
+     * Gets the GPS latitude of the sighting.
+     *
+     * @return The latitude in decimal degrees, or {@code null} if unknown.
+     */
+    @Column(name = "latitude")
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    /**
+     * Sets the GPS latitude of the sighting.
+     *
+     * @param latitude The latitude in decimal degrees, or {@code null} if unknown.
+     */
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    /**
+     * Gets the GPS longitude of the sighting.
+     *
+     * @return The longitude in decimal degrees, or {@code null} if unknown.
+     */
+    @Column(name = "longitude")
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    /**
+     * Sets the GPS longitude of the sighting.
+     *
+     * @param longitude The longitude in decimal degrees, or {@code null} if unknown.
+     */
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Returns a string representation of the sighting.
+     *
+     * @return A string representing the sighting.
+     */
+    @Override
+    public String toString() {
+        return "Sighting [id=" + id + ", userId=" + userId + ", plantId=" + plantId + ", locationId=" + locationId
+                + ", observedAt=" + observedAt + ", latitude=" + latitude + ", longitude=" + longitude + "]";
+    }
+}
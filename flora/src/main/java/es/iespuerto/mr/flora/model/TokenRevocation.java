@@ -0,0 +1,167 @@
+package es.iespuerto.mr.flora.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entity class representing the revocation of access tokens before they expire.
+ * This class is mapped to the "token_revocations" table in the database.
+ *
+ * <p>A revocation either names a single token by its id ({@code jti}), when a user logs out, or
+ * has no token id and revokes every token of the user issued up to {@code revokedAt}, when an
+ * administrator revokes a user. In both cases {@code expiresAt} is the instant after which the
+ * revoked tokens would have expired anyway, so the row can be deleted.</p>
+ *
+ * <p>Fields:</p>
+ * <ul>
+ *   <li>{@code id} - The unique identifier for the revocation.</li>
+ *   <li>{@code tokenId} - The id of the revoked token, or {@code null} for every token of the user.</li>
+ *   <li>{@code username} - The name of the user the tokens belong to.</li>
+ *   <li>{@code revokedAt} - When the tokens were revoked.</li>
+ *   <li>{@code expiresAt} - When the revoked tokens expire.</li>
+ * </ul>
+ */
+@Entity
+@Table(name = "token_revocations", indexes = @Index(name = "idx_token_revocations_expires", columnList = "expires_at"))
+public class TokenRevocation {
+    private long id;
+    private String tokenId;
+    private String username;
+    private Instant revokedAt;
+    private Instant expiresAt;
+
+    /**
+     * Default constructor for the TokenRevocation class.
+     */
+    public TokenRevocation() {
+    }
+
+    /**
+     * Constructor for creating a revocation.
+     *
+     * @param tokenId The id of the revoked token, or {@code null} for every token of the user.
+     * @param username The name of the user the tokens belong to.
+     * @param revokedAt When the tokens were revoked.
+     * @param expiresAt When the revoked tokens expire.
+     */
+    public TokenRevocation(String tokenId, String username, Instant revokedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the unique identifier of the revocation.
+     *
+     * @return The unique identifier of the revocation.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the revocation.
+     *
+     * @param id The unique identifier to be set.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the id of the revoked token.
+     *
+     * @return The token id, or {@code null} if every token of the user is revoked.
+     */
+    @Column(name = "token_id", length = 64)
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Sets the id of the revoked token.
+     *
+     * @param tokenId The token id, or {@code null} for every token of the user.
+     */
+    public void setTokenId(String tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    /**
+     * Gets the name of the user the tokens belong to.
+     *
+     * @return The user name.
+     */
+    @Column(name = "username", nullable = false)
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Sets the name of the user the tokens belong to.
+     *
+     * @param username The user name to be set.
+     */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Gets when the tokens were revoked.
+     *
+     * @return The time of the revocation.
+     */
+    @Column(name = "revoked_at", nullable = false)
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    /**
+     * Sets when the tokens were revoked.
+     *
+     * @param revokedAt The time of the revocation.
+     */
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    /**
+     * Gets when the revoked tokens expire.
+     *
+     * @return The expiration time.
+     */
+    @Column(name = "expires_at", nullable = false)
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Sets when the revoked tokens expire.
+     *
+     * @param expiresAt The expiration time.
+     */
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Returns a string representation of the revocation.
+     *
+     * @return A string representing the revocation.
+     */
+    @Override
+    public String toString() {
+        return "TokenRevocation [id=" + id + ", tokenId=" + tokenId + ", username=" + username
+                + ", revokedAt=" + revokedAt + ", expiresAt=" + expiresAt + "]";
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 /**
  * Represents a user in the system.
@@ -19,7 +20,8 @@ import jakarta.persistence.Table;
  * <p>Annotations used:</p>
  * <ul>
  *   <li>{@code @Entity} - Marks this class as a JPA entity, meaning it corresponds to a table in the database.</li>
- *   <li>{@code @Table} - Specifies the name of the table in the database for this entity.</li>
+ *   <li>{@code @Table} - Specifies the name of the table in the database for this entity and the unique
+ *       constraint on {@code name}: every login looks users up by name and expects a single match.</li>
  *   <li>{@code @JsonInclude(JsonInclude.Include.NON_NULL)} - Indicates that null properties should be excluded from the JSON serialization.</li>
  *   <li>{@code @Id} - Marks the id field as the primary key for this entity.</li>
  *   <li>{@code @GeneratedValue} - Specifies that the id field should be automatically generated.</li>
@@ -44,7 +46,7 @@ import jakarta.persistence.Table;
  * @see Role
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = @UniqueConstraint(name = "uk_users_name", columnNames = "name"))
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class User {
 
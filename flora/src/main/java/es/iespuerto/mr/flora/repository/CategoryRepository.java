@@ -1,9 +1,15 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import es.iespuerto.mr.flora.model.Category;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Category} entities.
@@ -16,4 +22,25 @@ import es.iespuerto.mr.flora.model.Category;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
+    /**
+     * Finds every category. The result is kept in the query cache and the categories themselves in
+     * the second-level cache, so repeated calls do not reach the database until a category changes.
+     *
+     * @return All the categories.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Category> findAll();
+
+    /**
+     * Streams every category ordered by id, reading {@link StreamingHints#FETCH_SIZE} rows per round trip.
+     * The entities are loaded read-only; the caller must consume the stream inside a transaction and close it.
+     *
+     * @return A lazily populated stream of categories.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Category> streamAllByOrderByIdAsc();
 }
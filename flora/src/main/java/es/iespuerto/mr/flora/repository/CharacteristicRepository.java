@@ -1,9 +1,15 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import es.iespuerto.mr.flora.model.Characteristic;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Characteristic} entities.
@@ -19,4 +25,26 @@ import es.iespuerto.mr.flora.model.Characteristic;
  */
 @Repository
 public interface CharacteristicRepository extends JpaRepository<Characteristic, Integer> {
+
+    /**
+     * Finds every characteristic. The result is kept in the query cache and the characteristics themselves in
+     * the second-level cache, so repeated calls do not reach the database until a characteristic changes.
+     *
+     * @return All the characteristics.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Characteristic> findAll();
+
+    /**
+     * Streams every characteristic ordered by id, reading {@link StreamingHints#FETCH_SIZE} rows per round trip.
+     * The entities are loaded read-only; the caller must consume the stream inside a transaction and close it.
+     *
+     * @return A lazily populated stream of characteristics.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Characteristic> streamAllByOrderByIdAsc();
 }
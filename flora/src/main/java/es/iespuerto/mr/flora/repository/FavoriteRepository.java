@@ -1,6 +1,12 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import es.iespuerto.mr.flora.model.Favorite;
@@ -21,4 +27,105 @@ import es.iespuerto.mr.flora.model.Favorite;
  */
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, Integer> {
+
+    /**
+     * Counts how many users have marked each plant as a favorite.
+     * Plants without favorites are not returned.
+     *
+     * @return One row per favorited plant with its number of favorites.
+     */
+    @Query("select f.plantId as plantId, count(f) as favorites from Favorite f group by f.plantId")
+    List<PlantFavoriteCount> countFavoritesByPlant();
+
+    /**
+     * Gets the ids of the plants a user has marked as favorite, read from the unique
+     * {@code (user_id, plant_id)} index without loading the entities.
+     *
+     * @param userId The id of the user.
+     * @return The distinct plant ids, in ascending order.
+     */
+    @Query("select distinct f.plantId from Favorite f where f.userId = :userId order by f.plantId")
+    List<Integer> findPlantIdsByUserId(@Param("userId") int userId);
+
+    /**
+     * Gets the ids of the users that have marked a plant as favorite, read from the
+     * {@code plant_id} index.
+     *
+     * @param plantId The id of the plant.
+     * @return The user ids.
+     */
+    @Query("select f.userId from Favorite f where f.plantId = :plantId")
+    List<Integer> findUserIdsByPlantId(@Param("plantId") int plantId);
+
+    /**
+     * Finds the favorite of a user for a plant.
+     *
+     * @param userId The id of the user.
+     * @param plantId The id of the plant.
+     * @return The favorite, if the user has marked the plant.
+     */
+    Optional<Favorite> findByUserIdAndPlantId(int userId, int plantId);
+
+    /**
+     * Deletes the favorite of a user for a plant. Unlike {@link #delete(Object)}, the returned
+     * count tells whether this call removed the row or it was already gone.
+     *
+     * @param userId The id of the user.
+     * @param plantId The id of the plant.
+     * @return The number of rows deleted, 0 or 1.
+     */
+    @Modifying
+    @Query("delete from Favorite f where f.userId = :userId and f.plantId = :plantId")
+    int deleteByUserIdAndPlantId(@Param("userId") int userId, @Param("plantId") int plantId);
+
+    /**
+     * Deletes a favorite by its id. Unlike {@link #deleteById(Object)}, the returned count tells
+     * whether this call removed the row or it was already gone.
+     *
+     * @param id The id of the favorite.
+     * @return The number of rows deleted, 0 or 1.
+     */
+    @Modifying
+    @Query("delete from Favorite f where f.id = :id")
+    int deleteFavoriteById(@Param("id") int id);
+
+    /**
+     * Deletes every favorite of a user in a single statement.
+     *
+     * @param userId The id of the user.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from Favorite f where f.userId = :userId")
+    int deleteByUserId(@Param("userId") int userId);
+
+    /**
+     * Deletes every favorite of a plant in a single statement.
+     *
+     * @param plantId The id of the plant.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from Favorite f where f.plantId = :plantId")
+    int deleteByPlantId(@Param("plantId") int plantId);
+
+    /**
+     * Projection holding the number of favorites of a plant.
+     */
+    interface PlantFavoriteCount {
+
+        /**
+         * Gets the plant id.
+         *
+         * @return The plant id.
+         */
+        int getPlantId();
+
+        /**
+         * Gets the number of favorites of the plant.
+         *
+         * @return The number of favorites.
+         */
+        long getFavorites();
+    }
 }
@@ -1,8 +1,14 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import es.iespuerto.mr.flora.model.Location;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Location} entities.
@@ -12,4 +18,26 @@ import es.iespuerto.mr.flora.model.Location;
  * @see Location
  */
 public interface LocationRepository extends JpaRepository<Location, Integer> {
+
+    /**
+     * Finds every location. The result is kept in the query cache and the locations themselves in
+     * the second-level cache, so repeated calls do not reach the database until a location changes.
+     *
+     * @return All the locations.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Location> findAll();
+
+    /**
+     * Streams every location ordered by id, reading {@link StreamingHints#FETCH_SIZE} rows per round trip.
+     * The entities are loaded read-only; the caller must consume the stream inside a transaction and close it.
+     *
+     * @return A lazily populated stream of locations.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Location> streamAllByOrderByIdAsc();
 }
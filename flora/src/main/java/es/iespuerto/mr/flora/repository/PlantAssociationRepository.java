@@ -0,0 +1,54 @@
+package es.iespuerto.mr.flora.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import es.iespuerto.mr.flora.model.PlantAssociation;
+
+/**
+ * Queries shared by the repositories of the {@link PlantAssociation} subclasses.
+ *
+ * <p>The bulk deletes run as a single JPQL statement, without loading the rows first, and must be
+ * called inside a transaction.</p>
+ *
+ * @param <T> the type of association.
+ * @see PlantCategoryRepository
+ * @see PlantLocationRepository
+ * @see PlantCharacteristicRepository
+ */
+@NoRepositoryBean
+public interface PlantAssociationRepository<T extends PlantAssociation> extends JpaRepository<T, Integer> {
+
+    /**
+     * Finds every association of a plant.
+     *
+     * @param plantId The ID of the plant.
+     * @return The associations of the plant.
+     */
+    List<T> findByPlantId(int plantId);
+
+    /**
+     * Deletes every association of a plant.
+     *
+     * @param plantId The ID of the plant.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from #{#entityName} a where a.plantId = :plantId")
+    int deleteByPlantId(@Param("plantId") int plantId);
+
+    /**
+     * Deletes every association with a facet value, for example when a category is deleted.
+     *
+     * @param valueId The ID of the category, location or characteristic.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Query("delete from #{#entityName} a where a.valueId = :valueId")
+    int deleteByValueId(@Param("valueId") int valueId);
+}
@@ -0,0 +1,15 @@
+package es.iespuerto.mr.flora.repository;
+
+import org.springframework.stereotype.Repository;
+
+import es.iespuerto.mr.flora.model.PlantCategory;
+
+/**
+ * Repository interface for managing {@link PlantCategory} associations.
+ *
+ * @see PlantAssociationRepository
+ * @see PlantCategory
+ */
+@Repository
+public interface PlantCategoryRepository extends PlantAssociationRepository<PlantCategory> {
+}
@@ -0,0 +1,15 @@
+package es.iespuerto.mr.flora.repository;
+
+import org.springframework.stereotype.Repository;
+
+import es.iespuerto.mr.flora.model.PlantCharacteristic;
+
+/**
+ * Repository interface for managing {@link PlantCharacteristic} associations.
+ *
+ * @see PlantAssociationRepository
+ * @see PlantCharacteristic
+ */
+@Repository
+public interface PlantCharacteristicRepository extends PlantAssociationRepository<PlantCharacteristic> {
+}
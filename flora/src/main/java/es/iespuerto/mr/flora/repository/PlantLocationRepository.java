@@ -0,0 +1,15 @@
+package es.iespuerto.mr.flora.repository;
+
+import org.springframework.stereotype.Repository;
+
+import es.iespuerto.mr.flora.model.PlantLocation;
+
+/**
+ * Repository interface for managing {@link PlantLocation} associations.
+ *
+ * @see PlantAssociationRepository
+ * @see PlantLocation
+ */
+@Repository
+public interface PlantLocationRepository extends PlantAssociationRepository<PlantLocation> {
+}
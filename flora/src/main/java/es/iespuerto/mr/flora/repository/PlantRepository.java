@@ -1,9 +1,19 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import es.iespuerto.mr.flora.model.Plant;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing {@link Plant} entities.
@@ -15,4 +25,43 @@ import es.iespuerto.mr.flora.model.Plant;
  */
 @Repository
 public interface PlantRepository extends JpaRepository<Plant, Integer> {
+
+    /**
+     * Finds the plants whose id is greater than the given one, ordered by id.
+     * Used for keyset pagination: the cost of a page does not depend on how deep it is.
+     *
+     * @param id The last id already returned to the client.
+     * @param pageable The page size; the page number is always expected to be {@code 0}.
+     * @return The next plants ordered by ascending id.
+     */
+    List<Plant> findByIdGreaterThanOrderByIdAsc(int id, Pageable pageable);
+
+    /**
+     * Streams every plant ordered by id, reading {@link StreamingHints#FETCH_SIZE} rows per round trip.
+     * The entities are loaded read-only; the caller must consume the stream inside a transaction and close it.
+     *
+     * @return A lazily populated stream of plants.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Plant> streamAllByOrderByIdAsc();
+
+    /**
+     * Gets the id of every plant, without loading the entities.
+     *
+     * @return The ids of all plants.
+     */
+    @Query("select p.id from Plant p")
+    List<Integer> findAllIds();
+
+    /**
+     * Gets which of the given ids belong to an existing plant.
+     *
+     * @param ids The ids to check.
+     * @return The ids that exist, in no particular order.
+     */
+    @Query("select p.id from Plant p where p.id in :ids")
+    List<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,80 @@
+package es.iespuerto.mr.flora.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.iespuerto.mr.flora.model.RefreshToken;
+
+/**
+ * Repository interface for managing {@link RefreshToken} entities.
+ *
+ * <p>Every query goes through one of the indexes of {@code refresh_tokens}, so a refresh costs
+ * one lookup by hash and one conditional update.</p>
+ *
+ * @see JpaRepository
+ * @see RefreshToken
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Finds a refresh token by its hash.
+     *
+     * @param tokenHash The hex SHA-256 hash of the token.
+     * @return An {@link Optional} containing the token, or empty if no token has that hash.
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marks a refresh token as used, only if it was not used before. Two concurrent refreshes
+     * with the same token cannot both succeed: the second one updates no row.
+     *
+     * @param id The id of the token.
+     * @param now The current time.
+     * @return 1 if the token was marked, 0 if it was already used.
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken r set r.usedAt = :now where r.id = :id and r.usedAt is null")
+    int markUsed(@Param("id") long id, @Param("now") Instant now);
+
+    /**
+     * Deletes every token of a family.
+     *
+     * @param familyId The id of the family.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    /**
+     * Deletes every token of a user.
+     *
+     * @param username The name of the user.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.username = :username")
+    int deleteByUser(@Param("username") String username);
+
+    /**
+     * Deletes the tokens that have expired, in a single statement.
+     *
+     * @param now The current time.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
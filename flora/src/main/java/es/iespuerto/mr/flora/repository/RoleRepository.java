@@ -1,11 +1,15 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import es.iespuerto.mr.flora.model.Role;
+import jakarta.persistence.QueryHint;
 
 /**
  * Interfaz del repositorio para gestionar entidades {@link Role}.
@@ -22,10 +26,21 @@ import es.iespuerto.mr.flora.model.Role;
 public interface RoleRepository extends JpaRepository<Role, Integer> {
 
     /**
-     * Encuentra un rol por su nombre.
+     * Encuentra todos los roles. El resultado se guarda en la caché de consultas y los roles en la caché
+     * de segundo nivel, de modo que no se consulta la base de datos hasta que cambia algún rol.
+     * 
+     * @return Todos los roles.
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Role> findAll();
+
+    /**
+     * Encuentra un rol por su nombre. El resultado se guarda en la caché de consultas.
      * 
      * @param name El nombre del rol que se desea buscar.
      * @return Un {@link Optional} que contiene el rol si se encuentra, o vacío si no se encuentra.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
 }
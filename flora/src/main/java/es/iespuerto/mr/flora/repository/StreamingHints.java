@@ -0,0 +1,15 @@
+package es.iespuerto.mr.flora.repository;
+
+/**
+ * Query hint values shared by the repository methods that stream a whole table.
+ */
+public final class StreamingHints {
+
+    /**
+     * Number of rows fetched from the database per round trip by a streaming query.
+     */
+    public static final String FETCH_SIZE = "500";
+
+    private StreamingHints() {
+    }
+}
@@ -0,0 +1,47 @@
+package es.iespuerto.mr.flora.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.iespuerto.mr.flora.model.TokenRevocation;
+
+/**
+ * Repository interface for managing {@link TokenRevocation} entities.
+ *
+ * <p>Revocations are only needed until the tokens they revoke expire, so every query bounds
+ * {@code expires_at}; new rows are read by {@code revoked_at}, so every node can pick up the
+ * revocations made by the others without reading the whole table again.</p>
+ *
+ * @see JpaRepository
+ * @see TokenRevocation
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    /**
+     * Finds the revocations made from a given time on whose tokens have not expired yet.
+     *
+     * @param since The earliest revocation time to read, or the epoch to read them all.
+     * @param now The current time.
+     * @return The revocations that still matter.
+     */
+    List<TokenRevocation> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    /**
+     * Deletes the revocations whose tokens have already expired, in a single statement.
+     *
+     * @param now The current time.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from TokenRevocation r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
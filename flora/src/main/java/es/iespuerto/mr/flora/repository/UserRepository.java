@@ -1,10 +1,15 @@
 package es.iespuerto.mr.flora.repository;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.model.User;
 
 /**
@@ -14,7 +19,9 @@ import es.iespuerto.mr.flora.model.User;
  * 
  * <p>Custom query methods:</p>
  * <ul>
- *   <li>{@link #findByName(String)} - Finds a {@link User} by their name.</li>
+ *   <li>{@link #findByName(String)} - Finds a {@link User} by their name, fetching the role in the same query.</li>
+ *   <li>{@link #findIdByName(String)} - Finds the id of a user by their name, without loading the entity.</li>
+ *   <li>{@link #findAllSummaries()} - Lists every user as a {@link UserSummary} with a single query.</li>
  * </ul>
  * 
  * <p>Annotations:</p>
@@ -29,10 +36,32 @@ import es.iespuerto.mr.flora.model.User;
 public interface UserRepository extends JpaRepository<User, Integer> {
     
     /**
-     * Finds a user by their name.
+     * Finds a user by their name. The role is fetched in the same query, so building the
+     * authorities of the user on login does not need a second select.
      * 
      * @param name The name of the user to be found.
      * @return An {@link Optional} containing the found user, or empty if no user is found with the given name.
      */
+    @EntityGraph(attributePaths = "role")
     Optional<User> findByName(String name);
+
+    /**
+     * Finds the id of a user by their name, read from the unique index on the name.
+     * 
+     * @param name The name of the user.
+     * @return An {@link Optional} containing the id, or empty if no user has the given name.
+     */
+    @Query("select u.id from User u where u.name = :name")
+    Optional<Integer> findIdByName(@Param("name") String name);
+
+    /**
+     * Lists every user ordered by id, with the name of its role. The role is joined in the same
+     * query and only the three listed columns are selected, so no {@link User} entity is loaded
+     * and the password hash is never read.
+     * 
+     * @return The summaries of all the users.
+     */
+    @Query("select new es.iespuerto.mr.flora.dto.UserSummary(u.id, u.name, r.name) "
+            + "from User u left join u.role r order by u.id")
+    List<UserSummary> findAllSummaries();
 }
@@ -8,11 +8,16 @@ import org.springframework.stereotype.Service;
 
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
 
 /**
  * Servicio personalizado que implementa {@link UserDetailsService} para cargar los detalles de usuario
  * a partir de la base de datos. Este servicio obtiene los detalles del usuario desde un repositorio y
  * los utiliza para autenticar a los usuarios en el sistema.
+ *
+ * <p>Los detalles cargados se guardan en una caché acotada por nombre de usuario, de modo que un
+ * inicio de sesión repetido no consulta la base de datos. La caché se invalida al modificar o
+ * eliminar un usuario y al cambiar un rol.</p>
  * 
  * @see UserRepository
  * @see UserDetails
@@ -25,6 +30,11 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     private UserRepository userRepository;
 
+    /**
+     * Caché de detalles de usuario por nombre, invalidada por {@code UserService} y {@code RoleService}.
+     */
+    private BoundedTtlCache<String, UserDetails> userDetailsCache;
+
     /**
      * Constructor por defecto
      * @param userRepository del servicio
@@ -43,6 +53,16 @@ public class CustomUserDetailsService implements UserDetailsService {
         this.userRepository = userRepository;
     }
 
+    /**
+     * Inyecta la caché de detalles de usuario.
+     * 
+     * @param userDetailsCache La caché de {@link UserDetails} por nombre de usuario.
+     */
+    @Autowired
+    public void setUserDetailsCache(BoundedTtlCache<String, UserDetails> userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
     /**
      * Carga un {@link UserDetails} a partir del nombre de usuario proporcionado. Este método es utilizado
      * por Spring Security para autenticar y autorizar a los usuarios en el sistema.
@@ -53,15 +73,23 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Busca al usuario en la base de datos por su nombre
-        User user = userRepository.findByName(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
+        // Busca al usuario en la caché y, si no está, en la base de datos junto con su rol
+        UserDetails cached = userDetailsCache.get(username, this::loadFromDatabase);
+        if (cached == null) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+
+        // Devuelve una copia: Spring Security borra la contraseña del objeto que recibe tras autenticar
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
 
-        // Devuelve un objeto UserDetails con la información del usuario
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getName()) // Nombre de usuario
-                .password(user.getPassword()) // Contraseña
-                .authorities(user.getRole().getName().toUpperCase()) // Rol del usuario (convertido a mayúsculas)
-                .build();
+    private UserDetails loadFromDatabase(String username) {
+        return userRepository.findByName(username)
+                .map(user -> org.springframework.security.core.userdetails.User.builder()
+                        .username(user.getName()) // Nombre de usuario
+                        .password(user.getPassword()) // Contraseña
+                        .authorities(user.getRole().getName().toUpperCase()) // Rol del usuario (convertido a mayúsculas)
+                        .build())
+                .orElse(null);
     }
 }
@@ -2,17 +2,18 @@ package es.iespuerto.mr.flora.security;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import es.iespuerto.mr.flora.service.revocation.TokenRevocationService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,8 +24,16 @@ import jakarta.servlet.http.HttpServletResponse;
  * en cada solicitud HTTP y establecer la autenticación del usuario en el contexto de seguridad.
  * Este filtro procesa las solicitudes entrantes, extrae y valida el token JWT, y si es válido,
  * establece la autenticación del usuario en el contexto de seguridad de Spring.
+ *
+ * <p>El token se verifica con una única llamada a {@link JwtUtils#verify(String)}, que devuelve
+ * el usuario y sus autoridades ya construidas; un token repetido se resuelve desde la caché.</p>
+ *
+ * <p>Un token válido que haya sido revocado (por cierre de sesión o por un administrador) no
+ * autentica la solicitud. La comprobación la resuelve {@link TokenRevocationService} con un
+ * filtro de Bloom en memoria, de modo que un token no revocado no supone ninguna consulta.</p>
  * 
  * @see JwtUtils
+ * @see TokenRevocationService
  */
 @Component
 public class JwtAuthorizationFilter extends OncePerRequestFilter {
@@ -34,6 +43,11 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
      */
     private JwtUtils jwtUtils;
 
+    /**
+     * Lista de tokens revocados.
+     */
+    private TokenRevocationService tokenRevocationService;
+
     /**
      * Inyecta la dependencia de {@link JwtUtils}.
      * 
@@ -44,6 +58,16 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         this.jwtUtils = jwtUtils;
     }
 
+    /**
+     * Inyecta la dependencia de {@link TokenRevocationService}.
+     *
+     * @param tokenRevocationService El servicio que indica si un token ha sido revocado.
+     */
+    @Autowired
+    public void setTokenRevocationService(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
     /**
      * Método que se ejecuta para filtrar las solicitudes HTTP entrantes. Extrae el token JWT
      * de la cabecera de autorización, lo valida y, si es válido, establece la autenticación
@@ -65,14 +89,13 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             // Extrae el token JWT del encabezado de autorización
             String token = authHeader.substring(7);
 
-            // Valida el token JWT
-            if (jwtUtils.validateToken(token)) {
-                // Extrae el nombre de usuario del token
-                String username = jwtUtils.getUsernameFromToken(token);
-
+            // Verifica el token una sola vez y obtiene el usuario y sus roles
+            Optional<JwtPrincipal> principal = jwtUtils.verify(token);
+            // Un token revocado se trata como si no se hubiera enviado
+            if (principal.isPresent() && !tokenRevocationService.isRevoked(principal.get())) {
                 // Crea un objeto de autenticación con el nombre de usuario y sus roles
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(username, null, extractAuthoritiesFromToken(token));
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal.get().getUsername(), null, principal.get().getAuthorities());
 
                 // Establece los detalles de la autenticación
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -93,11 +116,9 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
      * @return Una lista de objetos {@link GrantedAuthority} que representan los roles del usuario.
      */
     public List<GrantedAuthority> extractAuthoritiesFromToken(String token) {
-        List<String> roles = jwtUtils.getRolesFromToken(token);
-
-        // Convierte la lista de roles a una lista de objetos {@link GrantedAuthority}
-        return roles.stream()
-                .map(role -> new SimpleGrantedAuthority(role))  
-                .collect(Collectors.toList());
+        // El principal ya contiene los roles convertidos a objetos {@link GrantedAuthority}
+        return jwtUtils.verify(token)
+                .map(JwtPrincipal::getAuthorities)
+                .orElseThrow(() -> new JwtException("Token JWT no válido"));
     }
 }
@@ -0,0 +1,216 @@
+package es.iespuerto.mr.flora.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Caché acotada de tokens JWT ya verificados, usada por {@link JwtUtils} para no repetir la
+ * verificación HMAC y el parseo del token en cada solicitud.
+ *
+ * <p>La clave de cada entrada es el resumen SHA-256 del token, de modo que la caché no guarda
+ * los tokens en claro y todas las claves ocupan lo mismo. Cada entrada vale hasta la expiración
+ * ({@code exp}) de su token; una entrada expirada se trata como un fallo y se descarta al
+ * leerla. Cuando la caché supera {@code maxSize} se descarta la entrada con menos
+ * probabilidad de volver a usarse, según lo reciente y lo frecuente de sus lecturas.</p>
+ *
+ * <p>Las entradas se guardan en una caché de Caffeine: leer un token ya verificado no toma
+ * ningún cerrojo, así que las solicitudes autenticadas no se serializan en la caché.</p>
+ *
+ * <p>Solo se guardan tokens válidos: un token que no se puede verificar nunca entra en la caché,
+ * así que enviar tokens falsos no desplaza a los buenos.</p>
+ *
+ * <p>Los aciertos, fallos, expulsiones y el tamaño se publican en Micrometer con los nombres
+ * estándar {@code cache.*} y la etiqueta {@code cache=jwt-claims}.</p>
+ */
+public class JwtClaimsCache implements MeterBinder {
+
+    /**
+     * Nombre de la caché en las métricas.
+     */
+    public static final String NAME = "jwt-claims";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    private final LongSupplier clock;
+    private final Cache<Digest, JwtPrincipal> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea una caché que mide el tiempo con {@link System#currentTimeMillis()}.
+     *
+     * @param maxSize El número máximo de tokens guardados.
+     */
+    public JwtClaimsCache(int maxSize) {
+        this(maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Crea una caché con una fuente de tiempo propia.
+     *
+     * @param maxSize El número máximo de tokens guardados.
+     * @param clock La fuente de tiempo, en milisegundos desde la época.
+     */
+    public JwtClaimsCache(int maxSize, LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.clock = clock;
+        // El mantenimiento se hace en el propio hilo y solo si el cerrojo de Caffeine está libre
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpires())
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+                .executor(Runnable::run)
+                .evictionListener((Digest key, JwtPrincipal value, RemovalCause cause) -> evictions.increment())
+                .build();
+    }
+
+    /**
+     * Calcula la clave de un token para consultar la caché.
+     *
+     * @param token El token JWT sin el prefijo "Bearer ".
+     * @return El resumen SHA-256 del token.
+     */
+    public static Digest digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        return new Digest(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * Busca el principal de un token verificado anteriormente.
+     *
+     * @param key El resumen del token.
+     * @return El principal guardado, o {@code null} si no está o su token ha expirado.
+     */
+    public JwtPrincipal get(Digest key) {
+        JwtPrincipal principal = entries.getIfPresent(key);
+        if (principal != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return principal;
+    }
+
+    /**
+     * Guarda el principal de un token recién verificado hasta que el token expire.
+     *
+     * @param key El resumen del token.
+     * @param principal El principal del token.
+     */
+    public void put(Digest key, JwtPrincipal principal) {
+        if (principal.isExpired(clock.getAsLong())) {
+            return;
+        }
+        entries.put(key, principal);
+    }
+
+    /**
+     * Elimina todas las entradas.
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    /**
+     * Obtiene el número de tokens guardados, incluidos los expirados que aún no se han descartado.
+     *
+     * @return El número de entradas.
+     */
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    /**
+     * Registra las métricas de tamaño, aciertos, fallos y expulsiones de la caché.
+     *
+     * @param registry El registro en el que se publican.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", this, JwtClaimsCache::size)
+                .tag("cache", NAME)
+                .description("The number of entries in this cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", NAME, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", NAME, "result", "miss")
+                .description("The number of times cache lookup methods have loaded a value")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", NAME)
+                .description("The number of entries evicted because of size or expiration")
+                .register(registry);
+    }
+
+    /**
+     * Política de expiración de Caffeine: cada entrada vence a la vez que su token.
+     */
+    private static final class UntilTokenExpires implements Expiry<Digest, JwtPrincipal> {
+
+        @Override
+        public long expireAfterCreate(Digest key, JwtPrincipal principal, long currentTime) {
+            long remainingMillis = principal.getExpiresAt().toEpochMilli() - TimeUnit.NANOSECONDS.toMillis(currentTime);
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(Digest key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, principal, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Digest key, JwtPrincipal principal, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Resumen SHA-256 de un token, usado como clave de la caché.
+     */
+    public static final class Digest {
+        private final byte[] bytes;
+        private final int hash;
+
+        private Digest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Digest && Arrays.equals(bytes, ((Digest) other).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package es.iespuerto.mr.flora.security;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Anillo de claves HMAC con las que se firman y verifican los tokens JWT.
+ *
+ * <p>Cada clave tiene un identificador ({@code kid}) que se escribe en la cabecera de los tokens
+ * firmados con ella. Los tokens se firman siempre con la clave activa, pero se aceptan los
+ * firmados con cualquier clave del anillo, de modo que al rotar las claves los tokens emitidos
+ * con la anterior siguen siendo válidos hasta que se retira.</p>
+ *
+ * <p>Las claves se cargan de una de estas fuentes, compartida por todos los nodos:</p>
+ * <ul>
+ *   <li>Un almacén de claves ({@code flora.jwt.keystore.path}, PKCS12 por defecto) con entradas
+ *       de clave secreta; el alias de cada entrada es su {@code kid}.</li>
+ *   <li>Un fichero de propiedades ({@code flora.jwt.keys.file}) con líneas {@code kid=clave},
+ *       donde la clave va en Base64 y tiene al menos 256 bits.</li>
+ * </ul>
+ * <p>La clave activa es la indicada en {@code flora.jwt.keys.active} o, si no se indica, la de
+ * mayor {@code kid} en orden alfabético, así que basta con usar fechas como identificadores. Para
+ * rotar se añade la clave nueva a la fuente; cada nodo vuelve a leerla periódicamente
+ * ({@code flora.jwt.keys.reload-interval}, en formato ISO-8601) si ha cambiado. La clave antigua
+ * se quita de la fuente cuando ya no quedan tokens vigentes firmados con ella.</p>
+ *
+ * <p>Si no se configura ninguna fuente, el anillo genera claves aleatorias en memoria y, si
+ * {@code flora.jwt.keys.rotation} es positivo, genera una nueva cada ese tiempo y conserva las
+ * anteriores durante {@code flora.jwt.keys.retention}. Este modo solo sirve para un único nodo:
+ * los tokens no sobreviven a un reinicio.</p>
+ *
+ * <p>El parser de tokens se construye una sola vez y localiza la clave por su {@code kid} en el
+ * conjunto de claves vigente, que es inmutable y se sustituye entero al recargar; cada clave se
+ * materializa una única vez al cargarla, así que verificar un token no reconstruye nada.</p>
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    private final LongSupplier clock;
+    private final List<Runnable> keyRemovalListeners = new CopyOnWriteArrayList<>();
+    private final JwtParser parser;
+
+    private String keysFile = "";
+    private String keystorePath = "";
+    private char[] keystorePassword = new char[0];
+    private String keystoreType = "PKCS12";
+    private String activeKid = "";
+    private Duration rotation = Duration.ZERO;
+    private Duration retention = Duration.ofHours(10);
+    private volatile KeySet keys;
+    private long sourceModified = -1;
+
+    /**
+     * Crea un anillo que mide el tiempo con {@link System#currentTimeMillis()}. Hasta que se
+     * llama a {@link #load()} contiene una única clave aleatoria.
+     */
+    public JwtKeyRing() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Crea un anillo con una fuente de tiempo propia.
+     *
+     * @param clock La fuente de tiempo, en milisegundos desde la época.
+     */
+    public JwtKeyRing(LongSupplier clock) {
+        this.clock = clock;
+        this.keys = KeySet.of(List.of(generate()), null);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolve(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Establece el fichero de propiedades del que se leen las claves.
+     *
+     * @param keysFile El valor de {@code flora.jwt.keys.file}; vacío si no se usa.
+     */
+    @Value("${flora.jwt.keys.file:}")
+    public void setKeysFile(String keysFile) {
+        this.keysFile = keysFile;
+    }
+
+    /**
+     * Establece el almacén de claves del que se leen las claves.
+     *
+     * @param keystorePath El valor de {@code flora.jwt.keystore.path}; vacío si no se usa.
+     */
+    @Value("${flora.jwt.keystore.path:}")
+    public void setKeystorePath(String keystorePath) {
+        this.keystorePath = keystorePath;
+    }
+
+    /**
+     * Establece la contraseña del almacén de claves y de sus entradas.
+     *
+     * @param keystorePassword El valor de {@code flora.jwt.keystore.password}.
+     */
+    @Value("${flora.jwt.keystore.password:}")
+    public void setKeystorePassword(String keystorePassword) {
+        this.keystorePassword = keystorePassword.toCharArray();
+    }
+
+    /**
+     * Establece el tipo del almacén de claves.
+     *
+     * @param keystoreType El valor de {@code flora.jwt.keystore.type}, por ejemplo PKCS12 o JCEKS.
+     */
+    @Value("${flora.jwt.keystore.type:PKCS12}")
+    public void setKeystoreType(String keystoreType) {
+        this.keystoreType = keystoreType;
+    }
+
+    /**
+     * Establece el {@code kid} de la clave con la que se firman los tokens.
+     *
+     * @param activeKid El valor de {@code flora.jwt.keys.active}; vacío para usar el mayor.
+     */
+    @Value("${flora.jwt.keys.active:}")
+    public void setActiveKid(String activeKid) {
+        this.activeKid = activeKid;
+    }
+
+    /**
+     * Establece cada cuánto se genera una clave nueva cuando las claves son locales.
+     *
+     * @param rotation El valor de {@code flora.jwt.keys.rotation}; cero para no rotar.
+     */
+    @Value("${flora.jwt.keys.rotation:0s}")
+    public void setRotation(Duration rotation) {
+        this.rotation = rotation;
+    }
+
+    /**
+     * Establece cuánto tiempo se sigue aceptando una clave local después de ser sustituida. Debe
+     * ser al menos la duración de los tokens.
+     *
+     * @param retention El valor de {@code flora.jwt.keys.retention}.
+     */
+    @Value("${flora.jwt.keys.retention:10h}")
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    /**
+     * Registra una acción que se ejecuta cuando una clave deja de aceptarse, por ejemplo para
+     * vaciar cachés de tokens ya verificados.
+     *
+     * @param listener La acción a ejecutar.
+     */
+    public void addKeyRemovalListener(Runnable listener) {
+        keyRemovalListeners.add(listener);
+    }
+
+    /**
+     * Carga las claves de la fuente configurada. Si la fuente no se puede leer, el arranque falla.
+     *
+     * @throws IllegalStateException Si la fuente no existe, está vacía o contiene claves no válidas.
+     */
+    @PostConstruct
+    public synchronized void load() {
+        Path source = source();
+        if (source == null) {
+            log.warn("No hay claves JWT configuradas: se usan claves aleatorias en memoria, válidas solo en este nodo");
+            return;
+        }
+        reload(source);
+    }
+
+    /**
+     * Tarea periódica de rotación: recarga la fuente si ha cambiado o, con claves locales, genera
+     * una clave nueva cuando toca y retira las que han superado su periodo de retención. Un error
+     * al recargar se registra y se conservan las claves actuales.
+     */
+    @Scheduled(fixedDelayString = "${flora.jwt.keys.reload-interval:PT1M}", initialDelayString = "${flora.jwt.keys.reload-interval:PT1M}")
+    public synchronized void rotate() {
+        Path source = source();
+        if (source != null) {
+            try {
+                if (lastModified(source) != sourceModified) {
+                    reload(source);
+                }
+            } catch (RuntimeException e) {
+                log.error("No se pudieron recargar las claves JWT de {}; se mantienen las actuales", source, e);
+            }
+            return;
+        }
+        long now = clock.getAsLong();
+        List<RingKey> current = new ArrayList<>(keys.byKid.values());
+        List<RingKey> next = new ArrayList<>();
+        if (!rotation.isZero() && now - keys.active.createdAt >= rotation.toMillis()) {
+            next.add(generate());
+            log.info("Nueva clave JWT local {}", next.get(0).kid);
+        }
+        // Keys are kept newest first: each one is retired when its successor was created
+        long successorCreatedAt = next.isEmpty() ? Long.MAX_VALUE : next.get(0).createdAt;
+        current.sort((a, b) -> Long.compare(b.createdAt, a.createdAt));
+        for (RingKey key : current) {
+            if (successorCreatedAt == Long.MAX_VALUE || now - successorCreatedAt < retention.toMillis()) {
+                next.add(key);
+            }
+            successorCreatedAt = key.createdAt;
+        }
+        install(KeySet.of(next, null));
+    }
+
+    /**
+     * Obtiene la clave con la que se firman los tokens nuevos.
+     *
+     * @return La clave activa y su {@code kid}.
+     */
+    public SigningKey signingKey() {
+        return keys.active.signingKey;
+    }
+
+    /**
+     * Obtiene el parser que verifica tokens firmados con cualquier clave del anillo. Es inmutable
+     * y seguro para usarse desde varios hilos a la vez.
+     *
+     * @return El parser de tokens.
+     */
+    public JwtParser parser() {
+        return parser;
+    }
+
+    /**
+     * Obtiene los identificadores de las claves aceptadas.
+     *
+     * @return Los {@code kid} de las claves del anillo.
+     */
+    public Set<String> kids() {
+        return keys.byKid.keySet();
+    }
+
+    private Key resolve(String kid) {
+        if (kid == null) {
+            throw new MalformedJwtException("Token without kid header");
+        }
+        RingKey key = keys.byKid.get(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key: " + kid);
+        }
+        return key.signingKey.getKey();
+    }
+
+    private Path source() {
+        if (!keystorePath.isBlank()) {
+            return Path.of(keystorePath);
+        }
+        if (!keysFile.isBlank()) {
+            return Path.of(keysFile);
+        }
+        return null;
+    }
+
+    private void reload(Path source) {
+        long modified = lastModified(source);
+        Map<String, byte[]> secrets = keystorePath.isBlank() ? readKeysFile(source) : readKeystore(source);
+        if (secrets.isEmpty()) {
+            throw new IllegalStateException("No JWT keys found in " + source);
+        }
+        long now = clock.getAsLong();
+        List<RingKey> loaded = new ArrayList<>();
+        secrets.forEach((kid, secret) -> loaded.add(new RingKey(kid, Keys.hmacShaKeyFor(secret), now)));
+        String active = activeKid.isBlank() ? Collections.max(secrets.keySet()) : activeKid;
+        if (!secrets.containsKey(active)) {
+            throw new IllegalStateException("Active JWT key " + active + " not found in " + source);
+        }
+        install(KeySet.of(loaded, active));
+        sourceModified = modified;
+        log.info("Claves JWT cargadas de {}: {} (activa {})", source, secrets.keySet(), active);
+    }
+
+    private void install(KeySet next) {
+        KeySet previous = keys;
+        keys = next;
+        if (!next.byKid.keySet().containsAll(previous.byKid.keySet())) {
+            keyRemovalListeners.forEach(Runnable::run);
+        }
+    }
+
+    private static Map<String, byte[]> readKeysFile(Path file) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read JWT keys file " + file, e);
+        }
+        Map<String, byte[]> secrets = new TreeMap<>();
+        for (String kid : properties.stringPropertyNames()) {
+            secrets.put(kid, Base64.getDecoder().decode(properties.getProperty(kid).trim()));
+        }
+        return secrets;
+    }
+
+    private Map<String, byte[]> readKeystore(Path file) {
+        Map<String, byte[]> secrets = new TreeMap<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            KeyStore keyStore = KeyStore.getInstance(keystoreType);
+            keyStore.load(in, keystorePassword);
+            Enumeration<String> aliases = keyStore.aliases();
+            while (aliases.hasMoreElements()) {
+                String alias = aliases.nextElement();
+                if (keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                    secrets.put(alias, keyStore.getKey(alias, keystorePassword).getEncoded());
+                }
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read JWT keystore " + file, e);
+        }
+        return secrets;
+    }
+
+    private static long lastModified(Path source) {
+        try {
+            return Files.getLastModifiedTime(source).toMillis();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + source, e);
+        }
+    }
+
+    private RingKey generate() {
+        long now = clock.getAsLong();
+        return new RingKey("local-" + UUID.randomUUID(), Keys.secretKeyFor(SignatureAlgorithm.HS256), now);
+    }
+
+    /**
+     * Clave de firma y su identificador.
+     */
+    public static final class SigningKey {
+        private final String kid;
+        private final Key key;
+
+        private SigningKey(String kid, Key key) {
+            this.kid = kid;
+            this.key = key;
+        }
+
+        /**
+         * Obtiene el identificador de la clave.
+         *
+         * @return El {@code kid} que se escribe en la cabecera de los tokens.
+         */
+        public String getKid() {
+            return kid;
+        }
+
+        /**
+         * Obtiene la clave HMAC.
+         *
+         * @return La clave.
+         */
+        public Key getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * Una clave del anillo y el instante en que se cargó o generó.
+     */
+    private static final class RingKey {
+        private final String kid;
+        private final SigningKey signingKey;
+        private final long createdAt;
+
+        private RingKey(String kid, Key key, long createdAt) {
+            this.kid = kid;
+            this.signingKey = new SigningKey(kid, key);
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Conjunto inmutable de claves vigentes y la clave activa.
+     */
+    private static final class KeySet {
+        private final Map<String, RingKey> byKid;
+        private final RingKey active;
+
+        private KeySet(Map<String, RingKey> byKid, RingKey active) {
+            this.byKid = byKid;
+            this.active = active;
+        }
+
+        /**
+         * Crea el conjunto; sin {@code activeKid}, la clave activa es la primera de la lista.
+         */
+        private static KeySet of(List<RingKey> keys, String activeKid) {
+            Map<String, RingKey> byKid = new LinkedHashMap<>();
+            keys.forEach(key -> byKid.put(key.kid, key));
+            RingKey active = activeKid == null ? keys.get(0) : byKid.get(activeKid);
+            return new KeySet(Collections.unmodifiableMap(byKid), active);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package es.iespuerto.mr.flora.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Datos de un token JWT ya verificado: el usuario, sus roles y el instante en que el token expira.
+ *
+ * <p>La clase es inmutable, de modo que una misma instancia puede guardarse en la caché de
+ * {@link JwtUtils} y compartirse entre todas las solicitudes que presenten el mismo token. Las
+ * autoridades se construyen una sola vez al crearla.</p>
+ *
+ * @see JwtUtils#verify(String)
+ */
+public final class JwtPrincipal {
+
+    private final String tokenId;
+    private final String username;
+    private final List<String> roles;
+    private final List<GrantedAuthority> authorities;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    /**
+     * Crea el principal de un token verificado sin identificador ni fecha de emisión.
+     *
+     * @param username El nombre de usuario (sujeto del token).
+     * @param roles Los nombres de los roles del usuario.
+     * @param expiresAt El instante de expiración del token.
+     */
+    public JwtPrincipal(String username, List<String> roles, Instant expiresAt) {
+        this(null, username, roles, null, expiresAt);
+    }
+
+    /**
+     * Crea el principal de un token verificado.
+     *
+     * @param tokenId El identificador del token ({@code jti}), o {@code null} si no tiene.
+     * @param username El nombre de usuario (sujeto del token).
+     * @param roles Los nombres de los roles del usuario.
+     * @param issuedAt El instante de emisión del token ({@code iat}), o {@code null} si no tiene.
+     * @param expiresAt El instante de expiración del token.
+     */
+    public JwtPrincipal(String tokenId, String username, List<String> roles, Instant issuedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.username = username;
+        this.roles = List.copyOf(roles);
+        this.authorities = this.roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Obtiene el identificador del token, con el que se puede revocar.
+     *
+     * @return El {@code jti} del token, o {@code null} si no tiene.
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Obtiene el nombre de usuario del token.
+     *
+     * @return El nombre de usuario.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Obtiene los nombres de los roles del token.
+     *
+     * @return Una lista inmutable con los roles.
+     */
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    /**
+     * Obtiene los roles como autoridades de Spring Security.
+     *
+     * @return Una lista inmutable de {@link GrantedAuthority}.
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Obtiene el instante de emisión del token.
+     *
+     * @return El instante de emisión, o {@code null} si el token no lo indica.
+     */
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    /**
+     * Obtiene el instante de expiración del token.
+     *
+     * @return El instante de expiración.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Indica si el token ya ha expirado en el instante dado.
+     *
+     * @param now El instante actual en milisegundos desde la época.
+     * @return {@code true} si el token ha expirado.
+     */
+    public boolean isExpired(long now) {
+        return now >= expiresAt.toEpochMilli();
+    }
+
+    /**
+     * Devuelve una representación en cadena del principal.
+     *
+     * @return Una cadena que representa el principal.
+     */
+    @Override
+    public String toString() {
+        return "JwtPrincipal [tokenId=" + tokenId + ", username=" + username + ", roles=" + roles
+                + ", issuedAt=" + issuedAt + ", expiresAt=" + expiresAt + "]";
+    }
+}
@@ -1,45 +1,110 @@
 package es.iespuerto.mr.flora.security;
 
-import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 /**
  * Clase utilitaria para generar y validar JSON Web Tokens (JWT).
  * Esta clase es responsable de crear y verificar tokens JWT, que se utilizan para la autenticación
- * y autorización en la aplicación. Utiliza el algoritmo de firma HMAC SHA-256 y una clave secreta.
+ * y autorización en la aplicación. Utiliza firmas HMAC con las claves del {@link JwtKeyRing}: cada
+ * token lleva en la cabecera el {@code kid} de la clave con la que se firmó, de modo que cualquier
+ * nodo que comparta el anillo puede verificarlo.
+ *
+ * <p>Cada token se verifica una sola vez: el resultado de {@link #verify(String)} se guarda en una
+ * {@link JwtClaimsCache} hasta la expiración del token, así que las solicitudes siguientes con el
+ * mismo token solo calculan su resumen y hacen una búsqueda en la caché.</p>
+ *
+ * <p>Los tokens de acceso duran pocos minutos ({@code flora.jwt.access-token.ttl}) y no requieren
+ * ningún acceso a la base de datos para verificarse; el cliente los renueva con un token de
+ * refresco, sin volver a enviar la contraseña.</p>
  * 
  * @see <a href="https://jwt.io">JWT.io</a>
  */
 @Component
-public class JwtUtils {
+public class JwtUtils implements MeterBinder {
 
     /**
-     * La clave secreta utilizada para firmar los tokens JWT.
-     * Esta clave es generada de forma aleatoria usando el algoritmo HMAC SHA-256.
+     * Prefijo utilizado para el encabezado de autorización del JWT.
+     * Por lo general, es "Bearer ".
      */
-    private static final Key SECRET_KEY = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private static final String JWT_PREFIX = "Bearer ";
 
     /**
-     * El tiempo de expiración del token en milisegundos (10 horas).
+     * Anillo de claves con las que se firman y verifican los tokens.
      */
-    private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 10;
+    private JwtKeyRing keyRing = new JwtKeyRing();
 
     /**
-     * Prefijo utilizado para el encabezado de autorización del JWT.
-     * Por lo general, es "Bearer ".
+     * Caché de tokens ya verificados, indexada por el resumen SHA-256 del token.
      */
-    private static final String JWT_PREFIX = "Bearer ";
+    private JwtClaimsCache claimsCache = new JwtClaimsCache(10_000);
+
+    /**
+     * Tiempo de vida de los tokens de acceso. Es corto porque se renuevan con un token de refresco.
+     */
+    private Duration tokenLifetime = Duration.ofMinutes(15);
+
+    /**
+     * Inyecta el anillo de claves. Cuando una clave deja de aceptarse se vacía la caché de tokens
+     * verificados, para que los tokens firmados con ella dejen de ser válidos al momento.
+     *
+     * @param keyRing El anillo de claves compartido por todos los nodos.
+     */
+    @Autowired
+    public void setKeyRing(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+        keyRing.addKeyRemovalListener(() -> claimsCache.invalidateAll());
+    }
+
+    /**
+     * Establece el número máximo de tokens verificados que se guardan en la caché.
+     *
+     * @param maxSize El valor de {@code flora.jwt.cache.max-size}.
+     */
+    @Value("${flora.jwt.cache.max-size:10000}")
+    public void setClaimsCacheMaxSize(int maxSize) {
+        this.claimsCache = new JwtClaimsCache(maxSize);
+    }
+
+    /**
+     * Establece el tiempo de vida de los tokens de acceso que se generan.
+     *
+     * @param tokenLifetime El valor de {@code flora.jwt.access-token.ttl}.
+     */
+    @Value("${flora.jwt.access-token.ttl:15m}")
+    public void setTokenLifetime(Duration tokenLifetime) {
+        if (tokenLifetime.isZero() || tokenLifetime.isNegative()) {
+            throw new IllegalArgumentException("tokenLifetime must be positive");
+        }
+        this.tokenLifetime = tokenLifetime;
+    }
+
+    /**
+     * Obtiene el tiempo de vida de los tokens que se generan.
+     *
+     * @return El tiempo entre la emisión y la expiración de un token.
+     */
+    public Duration getTokenLifetime() {
+        return tokenLifetime;
+    }
 
     /**
      * Obtiene los nombres de los roles a partir de una colección de autoridades.
@@ -61,28 +126,46 @@ public class JwtUtils {
      * @return El token JWT generado como una cadena.
      */
     public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
+        JwtKeyRing.SigningKey signingKey = keyRing.signingKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())                 // Identifica la clave con la que se firma
+                .setId(UUID.randomUUID().toString())                         // Identificador único, para poder revocar el token
                 .setSubject(username)                                      // Establece el nombre de usuario como el sujeto
                 .claim("roles", getRoleNames(authorities))                    // Establece los roles como una reclamación en el token
                 .setIssuedAt(new Date())                                     // Establece la fecha de emisión
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))  // Establece la fecha de expiración
-                .signWith(SECRET_KEY)                                        // Firma el token con la clave secreta
+                .setExpiration(new Date(System.currentTimeMillis() + tokenLifetime.toMillis()))  // Establece la fecha de expiración
+                .signWith(signingKey.getKey())                               // Firma el token con la clave activa
                 .compact();                                                 // Devuelve el token compacto como una cadena
     }
 
+    /**
+     * Verifica un token JWT y extrae sus datos en una sola pasada.
+     *
+     * <p>Si el token ya se verificó antes y todavía no ha expirado, el principal se obtiene de la
+     * caché con una única búsqueda por el resumen del token, sin repetir la verificación HMAC.
+     * En otro caso el token se parsea una sola vez con el parser precompilado y, si es válido,
+     * se guarda en la caché hasta su expiración.</p>
+     *
+     * @param token El token JWT, con o sin el prefijo "Bearer ".
+     * @return El principal del token, o vacío si el token no es válido o ha expirado.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        try {
+            return Optional.of(principal(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();                                   // Firma, formato o expiración no válidos
+        }
+    }
+
     /**
      * Extrae el nombre de usuario de un token JWT.
      * 
      * @param token El token JWT del cual se extrae el nombre de usuario.
      * @return El nombre de usuario contenido en el token.
+     * @throws JwtException Si el token no es válido.
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)                                  // Establece la clave secreta para la verificación
-                .build()
-                .parseClaimsJws(token.replace(JWT_PREFIX, ""))              // Parsea el token después de eliminar el prefijo "Bearer "
-                .getBody()
-                .getSubject();                                              // Obtiene el sujeto (nombre de usuario)
+        return principal(token).getUsername();
     }
 
     /**
@@ -90,14 +173,10 @@ public class JwtUtils {
      * 
      * @param token El token JWT desde el cual se extraen los roles.
      * @return Una lista de roles extraídos del token.
+     * @throws JwtException Si el token no es válido.
      */
     public List<String> getRolesFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(SECRET_KEY)                        // Establece la clave secreta para la verificación
-                            .build()
-                            .parseClaimsJws(token)                            // Parsea el token
-                            .getBody();                                       // Obtiene el cuerpo del token
-        return claims.get("roles", List.class);                          // Obtiene los roles almacenados en el token
+        return principal(token).getRoles();
     }
 
     /**
@@ -107,14 +186,37 @@ public class JwtUtils {
      * @return {@code true} si el token es válido, {@code false} en caso contrario.
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(SECRET_KEY)                              // Establece la clave secreta para la verificación
-                .build()
-                .parseClaimsJws(token.replace(JWT_PREFIX, ""));         // Parsea el token después de eliminar el prefijo "Bearer "
-            return true;                                               // Si no ocurre ninguna excepción, el token es válido
-        } catch (Exception e) {
-            return false;                                              // Si ocurre una excepción, el token no es válido
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Registra las métricas de la caché de tokens verificados.
+     *
+     * @param registry El registro en el que se publican.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        claimsCache.bindTo(registry);
+    }
+
+    private JwtPrincipal principal(String token) {
+        String jwt = token.startsWith(JWT_PREFIX) ? token.substring(JWT_PREFIX.length()) : token;
+        JwtClaimsCache.Digest key = JwtClaimsCache.digest(jwt);
+        JwtPrincipal cached = claimsCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = keyRing.parser().parseClaimsJws(jwt).getBody(); // Verifica la firma y la expiración una sola vez
+        Date expiration = claims.getExpiration();
+        List<?> roles = claims.get("roles", List.class);
+        Date issuedAt = claims.getIssuedAt();
+        JwtPrincipal principal = new JwtPrincipal(claims.getId(), claims.getSubject(),
+                roles == null ? List.of() : roles.stream().map(String::valueOf).collect(Collectors.toList()),
+                issuedAt == null ? null : issuedAt.toInstant(),
+                expiration == null ? Instant.MAX : expiration.toInstant());
+        if (expiration != null) {
+            claimsCache.put(key, principal);                           // Solo se guardan tokens con fecha de expiración
         }
+        return principal;
     }
 }
@@ -0,0 +1,62 @@
+package es.iespuerto.mr.flora.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} que delega en otro codificador pero calcula los hashes en el
+ * {@link PasswordHashingExecutor}, fuera de los hilos de Tomcat.
+ *
+ * <p>Así, tanto la comprobación de contraseñas del {@code AuthenticationManager} durante el
+ * inicio de sesión como la codificación de contraseñas nuevas quedan limitadas por el tamaño
+ * del ejecutor. {@link #upgradeEncoding(String)} no calcula ningún hash y se delega sin más.</p>
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    /**
+     * Crea el codificador.
+     *
+     * @param delegate El codificador que calcula los hashes, por ejemplo BCrypt.
+     * @param executor El ejecutor en el que se calculan.
+     */
+    public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * Codifica una contraseña en el ejecutor de hashes.
+     *
+     * @param rawPassword La contraseña en claro.
+     * @return El hash de la contraseña.
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.run(() -> delegate.encode(rawPassword));
+    }
+
+    /**
+     * Comprueba una contraseña contra su hash en el ejecutor de hashes.
+     *
+     * @param rawPassword La contraseña en claro.
+     * @param encodedPassword El hash guardado.
+     * @return {@code true} si la contraseña coincide.
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Indica si el hash debería recalcularse con parámetros más fuertes.
+     *
+     * @param encodedPassword El hash guardado.
+     * @return La respuesta del codificador delegado.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,265 @@
+package es.iespuerto.mr.flora.security;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.exception.ServiceUnavailableException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Grupo de hilos dedicado y acotado para el cálculo de hashes de contraseñas.
+ *
+ * <p>BCrypt con 12 rondas consume decenas de milisegundos de CPU por contraseña. Si se calcula
+ * en los hilos de Tomcat, una ráfaga de inicios de sesión ocupa todos los núcleos y el resto de
+ * endpoints pierde latencia. Con este ejecutor, como mucho {@code threads} hashes se calculan a
+ * la vez y como mucho {@code queueCapacity} esperan su turno; el resto de solicitudes se
+ * rechaza al momento con un {@link TooManyRequestsException} (429). Si una tarea no termina en
+ * {@code timeout}, la solicitud responde con un {@link ServiceUnavailableException} (503). Ambas
+ * respuestas llevan la cabecera {@code Retry-After}.</p>
+ *
+ * <p>Al agotarse el tiempo, una tarea que aún espera en la cola se retira de ella y nunca se
+ * ejecuta, así que no ocupa un hilo para una solicitud que ya ha recibido su 503. Una tarea que
+ * ya está calculando no se puede detener: BCrypt no atiende a las interrupciones, de modo que
+ * su hilo sigue ocupado hasta que termina el hash y su resultado se descarta.</p>
+ *
+ * <p>El tiempo de espera en la cola y el tiempo de cálculo se publican en Micrometer como
+ * {@code flora.auth.hash.queue.wait} y {@code flora.auth.hash.duration}, junto con los rechazos
+ * ({@code flora.auth.hash.rejected}) y la profundidad de la cola.</p>
+ *
+ * @see OffloadingPasswordEncoder
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final LongAdder saturated = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    private int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 32;
+    private Duration timeout = Duration.ofSeconds(5);
+    private long retryAfterSeconds = 1;
+    private volatile ThreadPoolExecutor pool;
+    private volatile Timer queueWait;
+    private volatile Timer hashTime;
+
+    /**
+     * Establece el número de hilos que calculan hashes a la vez.
+     *
+     * @param threads El valor de {@code flora.auth.hash.threads}; 0 o menos usa la mitad de los núcleos.
+     */
+    @Value("${flora.auth.hash.threads:0}")
+    public void setThreads(int threads) {
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    }
+
+    /**
+     * Establece el número de tareas que pueden esperar en la cola.
+     *
+     * @param queueCapacity El valor de {@code flora.auth.hash.queue-capacity}.
+     */
+    @Value("${flora.auth.hash.queue-capacity:32}")
+    public void setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be positive");
+        }
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Establece el tiempo máximo que una solicitud espera a que su hash se calcule.
+     *
+     * @param timeout El valor de {@code flora.auth.hash.timeout}.
+     */
+    @Value("${flora.auth.hash.timeout:5s}")
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Establece los segundos que se indican en la cabecera {@code Retry-After} al rechazar.
+     *
+     * @param retryAfterSeconds El valor de {@code flora.auth.hash.retry-after-seconds}.
+     */
+    @Value("${flora.auth.hash.retry-after-seconds:1}")
+    public void setRetryAfterSeconds(long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Ejecuta una tarea en el grupo de hilos y espera su resultado.
+     *
+     * @param <T> El tipo del resultado.
+     * @param task La tarea que calcula o comprueba un hash.
+     * @return El resultado de la tarea.
+     * @throws TooManyRequestsException Si la cola está llena.
+     * @throws ServiceUnavailableException Si el ejecutor está parado o la tarea no termina a tiempo.
+     */
+    public <T> T run(Supplier<T> task) {
+        ThreadPoolExecutor executor = pool;
+        if (executor == null) {
+            throw new ServiceUnavailableException("Password hashing is not available", retryAfterSeconds);
+        }
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                record(queueWait, started - submitted);
+                try {
+                    return task.get();
+                } finally {
+                    record(hashTime, System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            saturated.increment();
+            throw new TooManyRequestsException("Too many logins in progress, retry later", retryAfterSeconds);
+        }
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            discard(executor, future);
+            timedOut.increment();
+            log.warn("Cálculo de hash cancelado tras {} ({} en cola)", timeout, executor.getQueue().size());
+            throw new ServiceUnavailableException("Password check timed out, retry later", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            discard(executor, future);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Password check interrupted, retry later", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Obtiene el número de tareas esperando en la cola.
+     *
+     * @return La profundidad de la cola.
+     */
+    public int queueDepth() {
+        ThreadPoolExecutor executor = pool;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    /**
+     * Crea el grupo de hilos al crear el bean, de modo que sus hilos ya están arrancados cuando
+     * llega el primer inicio de sesión.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (pool != null) {
+            return;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.prestartAllCoreThreads();
+        pool = executor;
+        log.info("Ejecutor de hashes de contraseñas iniciado ({} hilos, cola de {})", threads, queueCapacity);
+    }
+
+    /**
+     * Deja de aceptar tareas y espera a que terminen las que están en curso.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        ThreadPoolExecutor executor = pool;
+        if (executor == null) {
+            return;
+        }
+        pool = null;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Indica si el ejecutor está en marcha.
+     *
+     * @return {@code true} entre {@link #start()} y {@link #stop()}.
+     */
+    public boolean isRunning() {
+        return pool != null;
+    }
+
+    /**
+     * Registra las métricas del ejecutor.
+     *
+     * @param registry El registro en el que se publican.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        queueWait = Timer.builder("flora.auth.hash.queue.wait")
+                .description("Time password checks wait for a hashing thread")
+                .register(registry);
+        hashTime = Timer.builder("flora.auth.hash.duration")
+                .description("Time spent computing password hashes")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.hash.rejected", saturated, LongAdder::sum)
+                .tag("reason", "saturated")
+                .description("Password checks rejected because the queue was full")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.hash.rejected", timedOut, LongAdder::sum)
+                .tag("reason", "timeout")
+                .description("Password checks cancelled because they did not finish in time")
+                .register(registry);
+        Gauge.builder("flora.auth.hash.queue.depth", this, PasswordHashingExecutor::queueDepth)
+                .description("Password checks waiting for a hashing thread")
+                .register(registry);
+    }
+
+    /**
+     * Cancela una tarea cuyo resultado ya no se espera. Si sigue en la cola se retira para que
+     * deje libre su plaza; si ya está calculando, la interrupción no la detiene.
+     */
+    private static void discard(ThreadPoolExecutor executor, Future<?> future) {
+        future.cancel(true);
+        if (future instanceof Runnable) {
+            executor.remove((Runnable) future);
+        }
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package es.iespuerto.mr.flora.security;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.iespuerto.mr.flora.exception.ErrorDetails;
+import es.iespuerto.mr.flora.service.ratelimit.RateLimit;
+import es.iespuerto.mr.flora.service.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Filtro que limita la frecuencia de las solicitudes a las rutas caras o sensibles, antes de que
+ * se verifique ningún token o se calcule ningún hash BCrypt.
+ *
+ * <p>Las rutas se agrupan en {@code auth} ({@code /auth/**}), {@code add} ({@code /api/v1/add/**})
+ * y {@code delete} ({@code /api/v1/delete/**}); cada grupo tiene sus rutas y dos límites
+ * configurables, uno por dirección IP y otro por usuario. El usuario es el del token JWT de la
+ * solicitud o, si no lo hay, el parámetro {@code username} (el inicio de sesión), de modo que un
+ * ataque de fuerza bruta contra una cuenta queda limitado aunque venga de muchas direcciones.</p>
+ *
+ * <p>Los límites son cubos de tokens por clave guardados en un {@link RateLimiter}, que los
+ * actualiza con operaciones CAS y sin bloqueos. Una solicitud que supera un límite se rechaza con
+ * un 429 y la cabecera Retry-After. Los cubos llenos se descartan periódicamente.</p>
+ *
+ * <p>La dirección es la de {@link HttpServletRequest#getRemoteAddr()}; detrás de un proxy debe
+ * configurarse {@code server.forward-headers-strategy} para que sea la del cliente.</p>
+ *
+ * @see RateLimiter
+ * @see SecurityConfig
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private JwtUtils jwtUtils;
+    private ObjectMapper objectMapper = new ObjectMapper();
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private String authPaths = "/auth/**";
+    private String authPerIp = "20/1m";
+    private String authPerUser = "5/1m";
+    private String addPaths = "/api/v1/add/**";
+    private String addPerIp = "120/1m";
+    private String addPerUser = "60/1m";
+    private String deletePaths = "/api/v1/delete/**";
+    private String deletePerIp = "60/1m";
+    private String deletePerUser = "30/1m";
+    private volatile List<Group> groups = List.of();
+
+    /**
+     * Inyecta {@link JwtUtils}, con el que se obtiene el usuario del token.
+     *
+     * @param jwtUtils La utilidad para verificar tokens JWT.
+     */
+    @Autowired
+    public void setJwtUtils(JwtUtils jwtUtils) {
+        this.jwtUtils = jwtUtils;
+    }
+
+    /**
+     * Inyecta el {@link ObjectMapper} con el que se escribe el cuerpo de las respuestas 429.
+     *
+     * @param objectMapper El {@link ObjectMapper} de la aplicación.
+     */
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Activa o desactiva la limitación.
+     *
+     * @param enabled El valor de {@code flora.ratelimit.enabled}.
+     */
+    @Value("${flora.ratelimit.enabled:true}")
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Establece el número máximo de cubos de cada límite.
+     *
+     * @param maxKeys El valor de {@code flora.ratelimit.max-keys}.
+     */
+    @Value("${flora.ratelimit.max-keys:100000}")
+    public void setMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Establece las rutas del grupo {@code auth}, separadas por comas.
+     *
+     * @param authPaths El valor de {@code flora.ratelimit.auth.paths}.
+     */
+    @Value("${flora.ratelimit.auth.paths:/auth/**}")
+    public void setAuthPaths(String authPaths) {
+        this.authPaths = authPaths;
+    }
+
+    /**
+     * Establece el límite por IP del grupo {@code auth}.
+     *
+     * @param authPerIp El valor de {@code flora.ratelimit.auth.per-ip}, como {@code capacidad/periodo}.
+     */
+    @Value("${flora.ratelimit.auth.per-ip:20/1m}")
+    public void setAuthPerIp(String authPerIp) {
+        this.authPerIp = authPerIp;
+    }
+
+    /**
+     * Establece el límite por usuario del grupo {@code auth}.
+     *
+     * @param authPerUser El valor de {@code flora.ratelimit.auth.per-user}, como {@code capacidad/periodo}.
+     */
+    @Value("${flora.ratelimit.auth.per-user:5/1m}")
+    public void setAuthPerUser(String authPerUser) {
+        this.authPerUser = authPerUser;
+    }
+
+    /**
+     * Establece las rutas del grupo {@code add}, separadas por comas.
+     *
+     * @param addPaths El valor de {@code flora.ratelimit.add.paths}.
+     */
+    @Value("${flora.ratelimit.add.paths:/api/v1/add/**}")
+    public void setAddPaths(String addPaths) {
+        this.addPaths = addPaths;
+    }
+
+    /**
+     * Establece el límite por IP del grupo {@code add}.
+     *
+     * @param addPerIp El valor de {@code flora.ratelimit.add.per-ip}, como {@code capacidad/periodo}.
+     */
+    @Value("${flora.ratelimit.add.per-ip:120/1m}")
+    public void setAddPerIp(String addPerIp) {
+        this.addPerIp = addPerIp;
+    }
+
+    /**
+     * Establece el límite por usuario del grupo {@code add}.
+     *
+     * @param addPerUser El valor de {@code flora.ratelimit.add.per-user}, como {@code capacidad/periodo}.
+     */
+    @Value("${flora.ratelimit.add.per-user:60/1m}")
+    public void setAddPerUser(String addPerUser) {
+        this.addPerUser = addPerUser;
+    }
+
+    /**
+     * Establece las rutas del grupo {@code delete}, separadas por comas.
+     *
+     * @param deletePaths El valor de {@code flora.ratelimit.delete.paths}.
+     */
+    @Value("${flora.ratelimit.delete.paths:/api/v1/delete/**}")
+    public void setDeletePaths(String deletePaths) {
+        this.deletePaths = deletePaths;
+    }
+
+    /**
+     * Establece el límite por IP del grupo {@code delete}.
+     *
+     * @param deletePerIp El valor de {@code flora.ratelimit.delete.per-ip}, como {@code capacidad/periodo}.
+     */
+    @Value("${flora.ratelimit.delete.per-ip:60/1m}")
+    public void setDeletePerIp(String deletePerIp) {
+        this.deletePerIp = deletePerIp;
+    }
+
+    /**
+     * Establece el límite por usuario del grupo {@code delete}.
+     *
+     * @param deletePerUser El valor de {@code flora.ratelimit.delete.per-user}, como {@code capacidad/periodo}.
+     */
+    @Value("${flora.ratelimit.delete.per-user:30/1m}")
+    public void setDeletePerUser(String deletePerUser) {
+        this.deletePerUser = deletePerUser;
+    }
+
+    /**
+     * Crea los grupos con la configuración establecida. Un límite mal escrito impide arrancar.
+     */
+    @PostConstruct
+    public void init() {
+        List<Group> created = new ArrayList<>();
+        created.add(new Group("auth", authPaths, authPerIp, authPerUser, maxKeys));
+        created.add(new Group("add", addPaths, addPerIp, addPerUser, maxKeys));
+        created.add(new Group("delete", deletePaths, deletePerIp, deletePerUser, maxKeys));
+        groups = List.copyOf(created);
+        created.forEach(g -> log.info("Límite de frecuencia {}: {} por IP y {} por usuario en {}",
+                g.name, g.byIp.getLimit(), g.byUser.getLimit(), g.patterns));
+    }
+
+    /**
+     * Comprueba los límites del grupo de la ruta y rechaza la solicitud con un 429 si supera alguno.
+     *
+     * @param request La solicitud HTTP entrante.
+     * @param response La respuesta HTTP.
+     * @param chain La cadena de filtros que procesa la solicitud.
+     * @throws ServletException Si ocurre un error en el procesamiento de la solicitud.
+     * @throws IOException Si ocurre un error de entrada/salida durante el procesamiento de la solicitud.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Group group = enabled ? group(request) : null;
+        if (group != null) {
+            // Primero por dirección, que no cuesta nada; después por usuario, si se conoce
+            long wait = group.byIp.tryAcquire(request.getRemoteAddr());
+            String username = wait == 0 ? username(request) : null;
+            if (username != null) {
+                wait = group.byUser.tryAcquire(username.toLowerCase(Locale.ROOT));
+            }
+            if (wait > 0) {
+                group.rejected.increment();
+                reject(request, response, wait);
+                return;
+            }
+            group.allowed.increment();
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Descarta los cubos llenos, que se comportan igual que un cubo inexistente.
+     */
+    @Scheduled(fixedDelayString = "${flora.ratelimit.eviction-interval:PT1M}",
+            initialDelayString = "${flora.ratelimit.eviction-interval:PT1M}")
+    public void evictIdle() {
+        for (Group group : groups) {
+            group.byIp.evictIdle();
+            group.byUser.evictIdle();
+        }
+    }
+
+    /**
+     * Registra las métricas de cada grupo: solicitudes admitidas y rechazadas, cubos guardados y
+     * solicitudes no limitadas por estar llenos los mapas.
+     *
+     * @param registry El registro en el que se publican.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Group group : groups) {
+            FunctionCounter.builder("flora.ratelimit.requests", group.allowed, LongAdder::sum)
+                    .tags("group", group.name, "result", "allowed")
+                    .description("Requests within the rate limits")
+                    .register(registry);
+            FunctionCounter.builder("flora.ratelimit.requests", group.rejected, LongAdder::sum)
+                    .tags("group", group.name, "result", "rejected")
+                    .description("Requests rejected with 429 by the rate limits")
+                    .register(registry);
+            bindLimiter(registry, group.name, "ip", group.byIp);
+            bindLimiter(registry, group.name, "user", group.byUser);
+        }
+    }
+
+    private static void bindLimiter(MeterRegistry registry, String group, String key, RateLimiter limiter) {
+        Gauge.builder("flora.ratelimit.buckets", limiter, RateLimiter::size)
+                .tags("group", group, "key", key)
+                .description("Rate limit buckets kept")
+                .register(registry);
+        FunctionCounter.builder("flora.ratelimit.overflow", limiter, RateLimiter::overflowCount)
+                .tags("group", group, "key", key)
+                .description("Requests not limited because the bucket map was full")
+                .register(registry);
+    }
+
+    private Group group(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Group group : groups) {
+            for (String pattern : group.patterns) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String username(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            // La verificación queda en la caché de JwtUtils y el filtro JWT la reutiliza
+            String subject = jwtUtils.verify(authHeader).map(JwtPrincipal::getUsername).orElse(null);
+            if (subject != null) {
+                return subject;
+            }
+        }
+        return request.getParameter("username");
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "Too many requests, retry later",
+                "uri=" + request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorDetails);
+    }
+
+    /**
+     * Grupo de rutas con sus límites por IP y por usuario.
+     */
+    private static final class Group {
+        private final String name;
+        private final List<String> patterns;
+        private final RateLimiter byIp;
+        private final RateLimiter byUser;
+        private final LongAdder allowed = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+
+        private Group(String name, String paths, String perIp, String perUser, int maxKeys) {
+            this.name = name;
+            this.patterns = Arrays.stream(paths.split(","))
+                    .map(String::trim)
+                    .filter(p -> !p.isEmpty())
+                    .toList();
+            this.byIp = new RateLimiter(RateLimit.parse(perIp), maxKeys);
+            this.byUser = new RateLimiter(RateLimit.parse(perUser), maxKeys);
+        }
+    }
+}
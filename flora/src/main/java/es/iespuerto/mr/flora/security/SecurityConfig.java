@@ -23,6 +23,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
  * <p>También se configura un codificador de contraseñas utilizando el algoritmo BCrypt y se define la gestión del {@link AuthenticationManager}.</p>
  * 
  * @see JwtAuthorizationFilter
+ * @see RateLimitFilter
  * @see SecurityFilterChain
  * @see PasswordEncoder
  * @see AuthenticationManager
@@ -33,6 +34,8 @@ public class SecurityConfig {
 
     private JwtAuthorizationFilter jwtAuthorizationFilter;
 
+    private RateLimitFilter rateLimitFilter;
+
     /**
      * Establece el filtro de autorización JWT.
      * 
@@ -43,10 +46,20 @@ public class SecurityConfig {
         this.jwtAuthorizationFilter = jwtAuthorizationFilter;
     }
 
+    /**
+     * Establece el filtro que limita la frecuencia de las solicitudes.
+     *
+     * @param rateLimitFilter El filtro de limitación de frecuencia a inyectar.
+     */
+    @Autowired
+    public void setRateLimitFilter(RateLimitFilter rateLimitFilter) {
+        this.rateLimitFilter = rateLimitFilter;
+    }
+
     /**
      * Configura el filtro de seguridad HTTP.
      * <p>Configura CORS, desactiva CSRF, define las rutas permitidas sin autenticación, 
-     * agrega el filtro de autorización JWT y especifica las restricciones de seguridad para las rutas de la aplicación.</p>
+     * agrega el filtro de limitación de frecuencia y el de autorización JWT y especifica las restricciones de seguridad para las rutas de la aplicación.</p>
      * 
      * @param http La configuración de seguridad HTTP.
      * @return Un {@link SecurityFilterChain} configurado.
@@ -58,6 +71,7 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) 
                 .csrf(csrf -> csrf.disable()) 
                 .authorizeHttpRequests(auth -> auth
+                                .requestMatchers("/auth/revoke/**", "/api/v1/admin/**").hasRole("ADMIN")
                                 .requestMatchers("/auth/**").permitAll()
                                 .requestMatchers("/h2-console/**").permitAll()
                                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
@@ -65,6 +79,7 @@ public class SecurityConfig {
                                 .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthorizationFilter, UsernamePasswordAuthenticationFilter.class) // Registrar el filtro de JWT
+                .addFilterBefore(rateLimitFilter, JwtAuthorizationFilter.class) // Rechaza el exceso antes de verificar tokens o contraseñas
                 .headers(headers -> headers.frameOptions().disable());
             
         return http.build();
@@ -91,13 +106,17 @@ public class SecurityConfig {
 
     /**
      * Configura el codificador de contraseñas con el algoritmo BCrypt.
-     * <p>Utiliza 12 rondas de hashing para asegurar las contraseñas de los usuarios.</p>
+     * <p>Utiliza 12 rondas de hashing para asegurar las contraseñas de los usuarios. Los hashes se
+     * calculan en el {@link PasswordHashingExecutor}, un grupo de hilos acotado, para que una ráfaga
+     * de inicios de sesión no ocupe los hilos de Tomcat ni toda la CPU.</p>
      * 
+     * @param passwordHashingExecutor El ejecutor en el que se calculan los hashes.
      * @return Un {@link PasswordEncoder} configurado.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // 12 rounds de hashing para mayor seguridad
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor) {
+        // 12 rounds de hashing para mayor seguridad, calculados fuera de los hilos de las solicitudes
+        return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(12), passwordHashingExecutor);
     }
 
     /**
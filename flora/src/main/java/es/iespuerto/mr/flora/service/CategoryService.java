@@ -1,15 +1,25 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Category;
 import es.iespuerto.mr.flora.repository.CategoryRepository;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.FacetType;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,6 +36,9 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Methods in this class:</p>
  * <ul>
  *   <li>{@link #getAllCategories()} - Fetches all categories from the repository.</li>
+ *   <li>{@link #getCategoriesETag()} - Gets the ETag of the current version of the categories table.</li>
+ *   <li>{@link #getAllCategoriesJson()} - Gets all categories serialized as JSON, cached per table version.</li>
+ *   <li>{@link #exportCategories(OutputStream)} - Streams all categories as newline delimited JSON.</li>
  *   <li>{@link #getCategoryById(int)} - Fetches a category by its ID. Throws a {@link ResourceNotFoundException} if not found.</li>
  *   <li>{@link #createCategory(Category)} - Creates a new category in the repository.</li>
  *   <li>{@link #updateCategory(int, Category)} - Updates an existing category's details. Throws a {@link ResourceNotFoundException} if the category is not found.</li>
@@ -59,6 +72,11 @@ import lombok.extern.slf4j.Slf4j;
 public class CategoryService implements CategoryServiceInterface {
 
     private CategoryRepository categoryRepository;
+    private NdjsonExporter exporter;
+    private TableVersions tableVersions;
+    private JsonSnapshotCache snapshotCache;
+    private PlantFacetServiceInterface facetService;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Sets the {@link CategoryRepository} dependency.
@@ -70,6 +88,56 @@ public class CategoryService implements CategoryServiceInterface {
         this.categoryRepository = categoryRepository;
     }
 
+    /**
+     * Sets the {@link NdjsonExporter} used to stream the export.
+     * 
+     * @param exporter the exporter to be injected.
+     */
+    @Autowired
+    public void setExporter(NdjsonExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Sets the {@link TableVersions} bumped after every change to the categories.
+     * 
+     * @param tableVersions the table versions to be injected.
+     */
+    @Autowired
+    public void setTableVersions(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Sets the {@link JsonSnapshotCache} holding the serialized list of categories.
+     * 
+     * @param snapshotCache the snapshot cache to be injected.
+     */
+    @Autowired
+    public void setSnapshotCache(JsonSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Sets the {@link PlantFacetServiceInterface} used to unlink deleted categories from plants.
+     * 
+     * @param facetService the facet service to be injected.
+     */
+    @Autowired
+    public void setFacetService(PlantFacetServiceInterface facetService) {
+        this.facetService = facetService;
+    }
+
+    /**
+     * Sets the transaction manager used to delete a category together with its plant links.
+     * 
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Fetches all categories from the repository.
      * 
@@ -81,6 +149,41 @@ public class CategoryService implements CategoryServiceInterface {
         return categoryRepository.findAll();
     }
 
+    /**
+     * Gets the ETag of the current version of the categories table. Does not touch the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    @Override
+    public String getCategoriesETag() {
+        return snapshotCache.currentETag(CatalogTable.CATEGORIES);
+    }
+
+    /**
+     * Gets every {@link Category} already serialized as a JSON array, reusing the serialization of the
+     * current version of the table when there is one.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    @Override
+    public JsonSnapshot getAllCategoriesJson() {
+        return snapshotCache.get(CatalogTable.CATEGORIES, this::getAllCategories);
+    }
+
+    /**
+     * Writes every {@link Category} to the output as newline delimited JSON, streaming the rows
+     * from the database instead of loading them all in memory.
+     * 
+     * @param out the output to write to.
+     * @return the number of categories written.
+     * @throws IOException if writing to the output fails.
+     */
+    @Override
+    public long exportCategories(OutputStream out) throws IOException {
+        log.info("Exportando categorías en formato NDJSON");
+        return exporter.export(categoryRepository::streamAllByOrderByIdAsc, out);
+    }
+
     /**
      * Fetches a category by its ID.
      * 
@@ -104,7 +207,9 @@ public class CategoryService implements CategoryServiceInterface {
     @Override
     public Category createCategory(@Valid @RequestBody Category category) {
         log.info("Creating new category: {}", category);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        tableVersions.bump(CatalogTable.CATEGORIES);
+        return savedCategory;
     }
 
     /**
@@ -122,7 +227,9 @@ public class CategoryService implements CategoryServiceInterface {
 
         category.setName(categoryDetails.getName());
         log.info("Updating category with id: {}", categoryId);
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        tableVersions.bump(CatalogTable.CATEGORIES);
+        return savedCategory;
     }
 
     /**
@@ -137,6 +244,13 @@ public class CategoryService implements CategoryServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found for this id :: " + categoryId));
 
         log.info("Deleting category with id: {}", categoryId);
-        categoryRepository.delete(category);
+        // The links and the category go in one transaction; the index changes only once it commits
+        Integer links = transactionTemplate.execute(status -> {
+            int deleted = facetService.deleteFacetValue(FacetType.CATEGORY, categoryId);
+            categoryRepository.delete(category);
+            return deleted;
+        });
+        facetService.facetValueDeleted(FacetType.CATEGORY, categoryId, links);
+        tableVersions.bump(CatalogTable.CATEGORIES);
     }
 }
@@ -1,9 +1,12 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Category;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
 
 /**
  * Interface for Category Service operations.
@@ -35,6 +38,29 @@ public interface CategoryServiceInterface {
      */
     List<Category> getAllCategories();
 
+    /**
+     * Gets the ETag of the current version of the categories table, without querying the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    String getCategoriesETag();
+
+    /**
+     * Retrieves all categories serialized as a JSON array, together with the ETag of the version read.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    JsonSnapshot getAllCategoriesJson();
+
+    /**
+     * Writes every category to the output as newline delimited JSON, one object per line.
+     * 
+     * @param out the output to write to.
+     * @return the number of categories written.
+     * @throws IOException if writing to the output fails.
+     */
+    long exportCategories(OutputStream out) throws IOException;
+
     /**
      * Retrieves a category by its ID.
      * 
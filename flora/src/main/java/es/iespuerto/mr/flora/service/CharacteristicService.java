@@ -1,15 +1,25 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Characteristic;
 import es.iespuerto.mr.flora.repository.CharacteristicRepository;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.FacetType;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,6 +38,9 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Methods:</p>
  * <ul>
  *   <li>{@link #getAllCharacteristics()} - Retrieves all characteristics from the repository.</li>
+ *   <li>{@link #getCharacteristicsETag()} - Gets the ETag of the current version of the characteristics table.</li>
+ *   <li>{@link #getAllCharacteristicsJson()} - Gets all characteristics serialized as JSON, cached per table version.</li>
+ *   <li>{@link #exportCharacteristics(OutputStream)} - Streams all characteristics as newline delimited JSON.</li>
  *   <li>{@link #getCharacteristicById(int)} - Retrieves a characteristic by its ID from the repository.</li>
  *   <li>{@link #createCharacteristic(Characteristic)} - Creates a new characteristic and saves it to the repository.</li>
  *   <li>{@link #updateCharacteristic(int, Characteristic)} - Updates an existing characteristic by its ID.</li>
@@ -46,6 +59,11 @@ import lombok.extern.slf4j.Slf4j;
 public class CharacteristicService implements CharacteristicServiceInterface {
 
     private CharacteristicRepository characteristicRepository;
+    private NdjsonExporter exporter;
+    private TableVersions tableVersions;
+    private JsonSnapshotCache snapshotCache;
+    private PlantFacetServiceInterface facetService;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Sets the {@link CharacteristicRepository} instance for the service.
@@ -57,6 +75,56 @@ public class CharacteristicService implements CharacteristicServiceInterface {
         this.characteristicRepository = characteristicRepository;
     }
 
+    /**
+     * Sets the {@link NdjsonExporter} used to stream the export.
+     * 
+     * @param exporter the exporter to be injected.
+     */
+    @Autowired
+    public void setExporter(NdjsonExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Sets the {@link TableVersions} bumped after every change to the characteristics.
+     * 
+     * @param tableVersions the table versions to be injected.
+     */
+    @Autowired
+    public void setTableVersions(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Sets the {@link JsonSnapshotCache} holding the serialized list of characteristics.
+     * 
+     * @param snapshotCache the snapshot cache to be injected.
+     */
+    @Autowired
+    public void setSnapshotCache(JsonSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Sets the {@link PlantFacetServiceInterface} used to unlink deleted characteristics from plants.
+     * 
+     * @param facetService the facet service to be injected.
+     */
+    @Autowired
+    public void setFacetService(PlantFacetServiceInterface facetService) {
+        this.facetService = facetService;
+    }
+
+    /**
+     * Sets the transaction manager used to delete a characteristic together with its plant links.
+     * 
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Retrieves all characteristics from the repository.
      * 
@@ -68,6 +136,41 @@ public class CharacteristicService implements CharacteristicServiceInterface {
         return characteristicRepository.findAll();
     }
 
+    /**
+     * Gets the ETag of the current version of the characteristics table. Does not touch the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    @Override
+    public String getCharacteristicsETag() {
+        return snapshotCache.currentETag(CatalogTable.CHARACTERISTICS);
+    }
+
+    /**
+     * Gets every {@link Characteristic} already serialized as a JSON array, reusing the serialization of the
+     * current version of the table when there is one.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    @Override
+    public JsonSnapshot getAllCharacteristicsJson() {
+        return snapshotCache.get(CatalogTable.CHARACTERISTICS, this::getAllCharacteristics);
+    }
+
+    /**
+     * Writes every {@link Characteristic} to the output as newline delimited JSON, streaming the rows
+     * from the database instead of loading them all in memory.
+     * 
+     * @param out the output to write to.
+     * @return the number of characteristics written.
+     * @throws IOException if writing to the output fails.
+     */
+    @Override
+    public long exportCharacteristics(OutputStream out) throws IOException {
+        log.info("Exportando características en formato NDJSON");
+        return exporter.export(characteristicRepository::streamAllByOrderByIdAsc, out);
+    }
+
     /**
      * Retrieves a characteristic by its ID.
      * 
@@ -89,7 +192,9 @@ public class CharacteristicService implements CharacteristicServiceInterface {
      */
     @Override
     public Characteristic createCharacteristic(@Valid @RequestBody Characteristic characteristic) {
-        return characteristicRepository.save(characteristic);
+        Characteristic savedCharacteristic = characteristicRepository.save(characteristic);
+        tableVersions.bump(CatalogTable.CHARACTERISTICS);
+        return savedCharacteristic;
     }
 
     /**
@@ -107,7 +212,9 @@ public class CharacteristicService implements CharacteristicServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Characteristic not found for this id :: " + characteristicId));
 
         characteristic.setDescripcion(characteristicDetails.getDescripcion());
-        return characteristicRepository.save(characteristic);
+        Characteristic savedCharacteristic = characteristicRepository.save(characteristic);
+        tableVersions.bump(CatalogTable.CHARACTERISTICS);
+        return savedCharacteristic;
     }
 
     /**
@@ -121,6 +228,13 @@ public class CharacteristicService implements CharacteristicServiceInterface {
         Characteristic characteristic = characteristicRepository.findById(characteristicId)
                 .orElseThrow(() -> new ResourceNotFoundException("Characteristic not found for this id :: " + characteristicId));
 
-        characteristicRepository.delete(characteristic);
+        // The links and the characteristic go in one transaction; the index changes only once it commits
+        Integer links = transactionTemplate.execute(status -> {
+            int deleted = facetService.deleteFacetValue(FacetType.CHARACTERISTIC, characteristicId);
+            characteristicRepository.delete(characteristic);
+            return deleted;
+        });
+        facetService.facetValueDeleted(FacetType.CHARACTERISTIC, characteristicId, links);
+        tableVersions.bump(CatalogTable.CHARACTERISTICS);
     }
 }
@@ -1,9 +1,12 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Characteristic;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
 
 /**
  * Interface for managing characteristics.
@@ -17,6 +20,29 @@ public interface CharacteristicServiceInterface {
      */
     List<Characteristic> getAllCharacteristics();
 
+    /**
+     * Gets the ETag of the current version of the characteristics table, without querying the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    String getCharacteristicsETag();
+
+    /**
+     * Retrieves all characteristics serialized as a JSON array, together with the ETag of the version read.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    JsonSnapshot getAllCharacteristicsJson();
+
+    /**
+     * Writes every characteristic to the output as newline delimited JSON, one object per line.
+     * 
+     * @param out the output to write to.
+     * @return the number of characteristics written.
+     * @throws IOException if writing to the output fails.
+     */
+    long exportCharacteristics(OutputStream out) throws IOException;
+
     /**
      * Retrieves a characteristic by its ID.
      *
@@ -1,13 +1,32 @@
 package es.iespuerto.mr.flora.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
+import es.iespuerto.mr.flora.dto.UserFavorites;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import es.iespuerto.mr.flora.repository.FavoriteRepository;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+import es.iespuerto.mr.flora.service.popularity.PlantPopularityIndex;
+import es.iespuerto.mr.flora.service.recommend.PlantCooccurrenceIndex;
+import es.iespuerto.mr.flora.service.search.PlantSuggestIndex;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -17,12 +36,40 @@ import lombok.extern.slf4j.Slf4j;
  * <p>The class uses {@code FavoriteRepository} to interact with the database and is marked as a Spring {@code @Component}
  * to be managed by the Spring container. The service is also annotated with {@code @Slf4j} to enable logging functionality.</p>
  * 
+ * <p>Every added or deleted favorite is reported to the {@code PlantSuggestIndex}, which ranks
+ * autocomplete suggestions by popularity, and to the {@code PlantPopularityIndex}, which keeps the
+ * ranking of the most favorited plants, and to the {@code PlantCooccurrenceIndex}, which relates
+ * plants liked by the same users.</p>
+ * 
+ * <p>The favorite plant ids of each user are kept in a {@link BoundedTtlCache} as sorted
+ * {@code int[]}, loaded from the {@code (user_id, plant_id)} index on a miss and invalidated for
+ * the user on every add and delete, so reading the favorites of a user costs time and memory in
+ * proportion to that user's favorites only.</p>
+ * 
+ * <p>The {@code favorite_plants} foreign keys do not cascade: {@code UserService} and
+ * {@code PlantService} delete the favorites of a user or plant here, in the same transaction as
+ * the user or plant itself, and update the indexes and the cached favorites only after it
+ * commits, so they never drop a favorite the database still has or keep one it no longer has.</p>
+ * 
+ * <p>A user can mark a plant only once: the table has a unique {@code (user_id, plant_id)}
+ * constraint and adding an existing favorite returns the stored one. Batches of additions and
+ * removals are written in one transaction that inserts only the missing favorites and deletes
+ * only the present ones, so retrying a batch writes nothing. A favorite counts as removed, and
+ * leaves the indexes, only when the delete statement of that call reports its row: when two
+ * requests remove the same favorite at once, only one of them gets the row.</p>
+ * 
  * <p>Methods:</p>
  * <ul>
  *   <li>{@code getAllFavoritePlants()} - Retrieves all favorite plants stored in the database.</li>
  *   <li>{@code getFavoritePlantById(int id)} - Retrieves a specific favorite plant by its ID.</li>
+ *   <li>{@code getUserFavorites(int userId)} - Retrieves the favorite plant ids of a user.</li>
  *   <li>{@code addFavoritePlant(Favorite favoritePlant)} - Adds a new favorite plant to the database.</li>
+ *   <li>{@code applyFavoriteBatch(FavoriteBatch batch)} - Adds and removes several favorites of a user at once.</li>
  *   <li>{@code deleteFavoritePlant(int id)} - Deletes a favorite plant by its ID.</li>
+ *   <li>{@code deleteUserFavorites(int userId)} - Deletes every favorite of a user.</li>
+ *   <li>{@code userFavoritesDeleted(int userId, List plantIds)} - Removes the deleted favorites of a user from the indexes.</li>
+ *   <li>{@code deletePlantFavorites(int plantId)} - Deletes every favorite of a plant.</li>
+ *   <li>{@code plantFavoritesDeleted(int plantId, List userIds)} - Removes a deleted plant from the indexes.</li>
  * </ul>
  * 
  * <p>Annotations:</p>
@@ -36,7 +83,19 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class FavoriteService implements FavoriteServiceInterface {
 
+    /**
+     * Largest number of plants, added plus removed, accepted in a single batch.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private FavoriteRepository favoriteRepository;
+    private PlantSuggestIndex suggestIndex;
+    private PlantPopularityIndex popularityIndex;
+    private PlantCooccurrenceIndex cooccurrenceIndex;
+    private UserRepository userRepository;
+    private PlantRepository plantRepository;
+    private TransactionTemplate transactionTemplate;
+    private BoundedTtlCache<Integer, int[]> favoritesCache;
 
     /**
      * Autowired method to set the FavoriteRepository instance.
@@ -49,6 +108,76 @@ public class FavoriteService implements FavoriteServiceInterface {
         this.favoriteRepository = favoritePlantRepository;
     }
 
+    /**
+     * Autowired method to set the PlantSuggestIndex instance.
+     * 
+     * @param suggestIndex the PlantSuggestIndex instance to be set
+     */
+    @Autowired
+    public void setSuggestIndex(PlantSuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    /**
+     * Autowired method to set the PlantPopularityIndex instance.
+     * 
+     * @param popularityIndex the PlantPopularityIndex instance to be set
+     */
+    @Autowired
+    public void setPopularityIndex(PlantPopularityIndex popularityIndex) {
+        this.popularityIndex = popularityIndex;
+    }
+
+    /**
+     * Autowired method to set the PlantCooccurrenceIndex instance.
+     * 
+     * @param cooccurrenceIndex the PlantCooccurrenceIndex instance to be set
+     */
+    @Autowired
+    public void setCooccurrenceIndex(PlantCooccurrenceIndex cooccurrenceIndex) {
+        this.cooccurrenceIndex = cooccurrenceIndex;
+    }
+
+    /**
+     * Autowired method to set the UserRepository instance.
+     * 
+     * @param userRepository the UserRepository instance to be set
+     */
+    @Autowired
+    public void setUserRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Autowired method to set the PlantRepository instance, used to check the plants of a batch.
+     * 
+     * @param plantRepository the PlantRepository instance to be set
+     */
+    @Autowired
+    public void setPlantRepository(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * Autowired method to set the transaction manager the batches run in.
+     * 
+     * @param transactionManager the transaction manager to be set
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Autowired method to set the cache of favorite plant ids by user.
+     * 
+     * @param favoritesCache the {@link BoundedTtlCache} of favorite plant ids to be set
+     */
+    @Autowired
+    public void setFavoritesCache(BoundedTtlCache<Integer, int[]> favoritesCache) {
+        this.favoritesCache = favoritesCache;
+    }
+
     /**
      * Retrieves all favorite plants from the database.
      * Logs an informational message before fetching the data.
@@ -75,22 +204,105 @@ public class FavoriteService implements FavoriteServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Favorito de planta no encontrado para este id :: " + id));
     }
 
+    /**
+     * Retrieves the ids of the plants a user has marked as favorite.
+     * The ids are served from the cache and loaded from the database on a miss.
+     * 
+     * @param userId the ID of the user
+     * @return the favorite plant ids of the user, in ascending order
+     * @throws ResourceNotFoundException if the user with the given ID does not exist
+     */
+    @Override
+    public UserFavorites getUserFavorites(int userId) throws ResourceNotFoundException {
+        int[] plantIds = favoritesCache.get(userId, this::loadPlantIds);
+        if (plantIds == null) {
+            throw new ResourceNotFoundException("User not found for this id :: " + userId);
+        }
+        // The cached array is shared, so callers get their own copy
+        return new UserFavorites(userId, plantIds.clone());
+    }
+
     /**
      * Adds a new favorite plant to the database.
      * Logs an informational message before saving the favorite plant.
+     * If the user already has the plant as favorite, the stored favorite is returned and nothing is written.
      * 
      * @param favoritePlant the favorite plant to add
-     * @return the added favorite plant
+     * @return the added or already existing favorite plant
      */
     @Override
     public Favorite addFavoritePlant(Favorite favoritePlant) {
         log.info("Agregando un nuevo favorito de planta");
-        return favoriteRepository.save(favoritePlant);
+        int userId = favoritePlant.getUserId();
+        int plantId = favoritePlant.getPlantId();
+        Optional<Favorite> existing = favoriteRepository.findByUserIdAndPlantId(userId, plantId);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        Favorite savedFavorite;
+        try {
+            savedFavorite = favoriteRepository.save(favoritePlant);
+        } catch (DataIntegrityViolationException e) {
+            // Another request stored the same favorite between the lookup and the insert
+            return favoriteRepository.findByUserIdAndPlantId(userId, plantId).orElseThrow(() -> e);
+        }
+        favoriteAdded(userId, plantId);
+        favoritesCache.invalidate(userId);
+        return savedFavorite;
+    }
+
+    /**
+     * Adds and removes several favorites of a user in a single transaction.
+     * Only the favorites the user does not have yet are inserted, in JDBC batches, and only the
+     * present ones are deleted, so applying the same batch twice changes nothing the second time.
+     * A removal is reported only if its delete statement removed the row, so a favorite removed
+     * by a concurrent request is not counted twice.
+     * 
+     * @param batch the user and the plants to add and remove
+     * @return how many favorites were added and removed, and the favorites of the user afterwards
+     * @throws ResourceNotFoundException if the user or any of the plants to add does not exist
+     * @throws InvalidRequestException if the batch is too large or a plant is both added and removed
+     */
+    @Override
+    public FavoriteBatchResult applyFavoriteBatch(FavoriteBatch batch) throws ResourceNotFoundException {
+        int userId = batch.getUserId();
+        Set<Integer> toAdd = distinct(batch.getAdd());
+        Set<Integer> toRemove = distinct(batch.getRemove());
+        if (toAdd.size() + toRemove.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("A batch can change at most " + MAX_BATCH_SIZE + " favorites");
+        }
+        for (Integer plantId : toAdd) {
+            if (toRemove.contains(plantId)) {
+                throw new InvalidRequestException("Plant " + plantId + " cannot be added and removed in the same batch");
+            }
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found for this id :: " + userId);
+        }
+        checkPlantsExist(toAdd);
+
+        BatchChanges changes;
+        try {
+            changes = transactionTemplate.execute(status -> writeBatch(userId, toAdd, toRemove));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent call inserted one of the favorites first; the retry sees it and skips it
+            log.warn("Conflicto al aplicar el lote de favoritos del usuario {}, reintentando", userId);
+            changes = transactionTemplate.execute(status -> writeBatch(userId, toAdd, toRemove));
+        }
+
+        changes.added.forEach(plantId -> favoriteAdded(userId, plantId));
+        changes.removed.forEach(plantId -> favoriteRemoved(userId, plantId));
+        favoritesCache.invalidate(userId);
+        log.info("Lote de favoritos del usuario {} aplicado: {} añadidos, {} eliminados", userId,
+                changes.added.size(), changes.removed.size());
+        return new FavoriteBatchResult(userId, changes.added.size(), changes.removed.size(), changes.plantIds);
     }
 
     /**
      * Deletes a favorite plant by its ID.
      * If no favorite plant is found for the given ID, a {@code ResourceNotFoundException} is thrown.
+     * The indexes are updated only if this call deleted the row; a favorite deleted concurrently
+     * by another request is reported as not found.
      * 
      * @param id the ID of the favorite plant to delete
      * @throws ResourceNotFoundException if the favorite plant with the given ID does not exist
@@ -100,6 +312,186 @@ public class FavoriteService implements FavoriteServiceInterface {
         Favorite favoritePlant = favoriteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Favorito de planta no encontrado para este id :: " + id));
 
-        favoriteRepository.delete(favoritePlant);
+        Integer deleted = transactionTemplate.execute(status -> favoriteRepository.deleteFavoriteById(id));
+        if (deleted == null || deleted == 0) {
+            throw new ResourceNotFoundException("Favorito de planta no encontrado para este id :: " + id);
+        }
+        favoriteRemoved(favoritePlant.getUserId(), favoritePlant.getPlantId());
+        favoritesCache.invalidate(favoritePlant.getUserId());
+    }
+
+    /**
+     * Deletes every favorite of a user with one statement. Runs in the caller's transaction, which
+     * deletes the user next; a favorite added between reading the ids and deleting them makes the
+     * counts differ and fails the whole transaction, so no favorite is deleted without being
+     * reported.
+     * 
+     * @param userId the ID of the user
+     * @return the IDs of the plants whose favorites were deleted
+     */
+    @Override
+    public List<Integer> deleteUserFavorites(int userId) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> plantIds = favoriteRepository.findPlantIdsByUserId(userId);
+            int deleted = plantIds.isEmpty() ? 0 : favoriteRepository.deleteByUserId(userId);
+            checkDeleted(deleted, plantIds, "user", userId);
+            return plantIds;
+        });
+    }
+
+    /**
+     * Removes the deleted favorites of a user from the indexes and the cache. Called once the
+     * transaction that deleted them has committed.
+     * 
+     * @param userId the ID of the user
+     * @param plantIds the IDs of the plants whose favorites were deleted
+     */
+    @Override
+    public void userFavoritesDeleted(int userId, List<Integer> plantIds) {
+        plantIds.forEach(plantId -> favoriteRemoved(userId, plantId));
+        favoritesCache.invalidate(userId);
+        log.info("Eliminados {} favoritos del usuario {}", plantIds.size(), userId);
+    }
+
+    /**
+     * Deletes every favorite of a plant with one statement. Runs in the caller's transaction,
+     * which deletes the plant next, and fails it like {@link #deleteUserFavorites(int)} when a
+     * favorite is added meanwhile.
+     * 
+     * @param plantId the ID of the plant
+     * @return the IDs of the users whose favorites were deleted
+     */
+    @Override
+    public List<Integer> deletePlantFavorites(int plantId) {
+        return transactionTemplate.execute(status -> {
+            List<Integer> userIds = favoriteRepository.findUserIdsByPlantId(plantId);
+            int deleted = userIds.isEmpty() ? 0 : favoriteRepository.deleteByPlantId(plantId);
+            checkDeleted(deleted, userIds, "plant", plantId);
+            return userIds;
+        });
+    }
+
+    /**
+     * Drops a deleted plant from the popularity ranking and the co-occurrence matrix, removes its
+     * favorites from the suggestion weights and invalidates the cached favorites of every user that
+     * had it. Called once the transaction that deleted the plant has committed.
+     * 
+     * @param plantId the ID of the plant
+     * @param userIds the IDs of the users whose favorites were deleted
+     */
+    @Override
+    public void plantFavoritesDeleted(int plantId, List<Integer> userIds) {
+        // The whole plant leaves the indexes at once instead of one favorite at a time
+        if (!userIds.isEmpty()) {
+            suggestIndex.adjustFavorites(plantId, -userIds.size());
+        }
+        popularityIndex.remove(plantId);
+        cooccurrenceIndex.removePlant(plantId);
+        userIds.forEach(favoritesCache::invalidate);
+        log.info("Eliminados {} favoritos de la planta {}", userIds.size(), plantId);
+    }
+
+    private void favoriteAdded(int userId, int plantId) {
+        suggestIndex.adjustFavorites(plantId, 1);
+        popularityIndex.increment(plantId);
+        cooccurrenceIndex.add(userId, plantId);
+    }
+
+    private void favoriteRemoved(int userId, int plantId) {
+        suggestIndex.adjustFavorites(plantId, -1);
+        popularityIndex.decrement(plantId);
+        cooccurrenceIndex.remove(userId, plantId);
+    }
+
+    /**
+     * Writes the differences between the current favorites of the user and the batch.
+     */
+    private BatchChanges writeBatch(int userId, Set<Integer> toAdd, Set<Integer> toRemove) {
+        TreeSet<Integer> current = new TreeSet<>(favoriteRepository.findPlantIdsByUserId(userId));
+        List<Integer> removed = new ArrayList<>();
+        for (Integer plantId : toRemove) {
+            // The row count, not the list read above, says whether this batch removed the favorite
+            if (current.remove(plantId) && favoriteRepository.deleteByUserIdAndPlantId(userId, plantId) == 1) {
+                removed.add(plantId);
+            }
+        }
+        List<Integer> added = new ArrayList<>();
+        List<Favorite> fresh = new ArrayList<>();
+        for (Integer plantId : toAdd) {
+            if (current.add(plantId)) {
+                added.add(plantId);
+                fresh.add(new Favorite(userId, plantId));
+            }
+        }
+        if (!fresh.isEmpty()) {
+            favoriteRepository.saveAll(fresh);
+            // Flush inside the transaction so a duplicate surfaces here and can be retried
+            favoriteRepository.flush();
+        }
+        return new BatchChanges(added, removed, current.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Fails the transaction if the delete removed other favorites than the ones read before it.
+     */
+    private static void checkDeleted(int deleted, List<Integer> read, String owner, int ownerId) {
+        if (deleted != read.size()) {
+            throw new ConcurrencyFailureException("Favorites of " + owner + " " + ownerId
+                    + " changed while being deleted: read " + read.size() + ", deleted " + deleted);
+        }
+    }
+
+    private void checkPlantsExist(Set<Integer> plantIds) throws ResourceNotFoundException {
+        if (plantIds.isEmpty()) {
+            return;
+        }
+        Set<Integer> existing = new TreeSet<>(plantRepository.findExistingIds(plantIds));
+        for (Integer plantId : plantIds) {
+            if (!existing.contains(plantId)) {
+                throw new ResourceNotFoundException("Plant not found for this id :: " + plantId);
+            }
+        }
+    }
+
+    private static Set<Integer> distinct(List<Integer> ids) {
+        Set<Integer> distinct = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Integer id : ids) {
+                if (id == null) {
+                    throw new InvalidRequestException("Plant ids must not be null");
+                }
+                distinct.add(id);
+            }
+        }
+        return distinct;
+    }
+
+    private int[] loadPlantIds(int userId) {
+        List<Integer> plantIds = favoriteRepository.findPlantIdsByUserId(userId);
+        // An empty list is a valid answer only for an existing user; null is not cached
+        if (plantIds.isEmpty() && !userRepository.existsById(userId)) {
+            return null;
+        }
+        int[] ids = new int[plantIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = plantIds.get(i);
+        }
+        return ids;
+    }
+
+    /**
+     * The favorites written by a batch and the resulting favorites of the user.
+     */
+    private static final class BatchChanges {
+
+        private final List<Integer> added;
+        private final List<Integer> removed;
+        private final int[] plantIds;
+
+        private BatchChanges(List<Integer> added, List<Integer> removed, int[] plantIds) {
+            this.added = added;
+            this.removed = removed;
+            this.plantIds = plantIds;
+        }
     }
 }
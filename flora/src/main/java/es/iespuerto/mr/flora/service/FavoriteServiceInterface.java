@@ -2,6 +2,9 @@ package es.iespuerto.mr.flora.service;
 
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
+import es.iespuerto.mr.flora.dto.UserFavorites;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 
@@ -27,13 +30,30 @@ public interface FavoriteServiceInterface {
     Favorite getFavoritePlantById(int id) throws ResourceNotFoundException;
 
     /**
-     * Adds a new favorite plant.
+     * Retrieves the ids of the plants a user has marked as favorite.
+     * @param userId the ID of the user.
+     * @return the favorite plant ids of the user, in ascending order.
+     * @throws ResourceNotFoundException if the user with the specified ID is not found.
+     */
+    UserFavorites getUserFavorites(int userId) throws ResourceNotFoundException;
+
+    /**
+     * Adds a new favorite plant. Adding a favorite the user already has returns the existing one.
      *
      * @param favoritePlant the favorite plant to add.
-     * @return the added favorite plant.
+     * @return the added or existing favorite plant.
      */
     Favorite addFavoritePlant(Favorite favoritePlant);
 
+    /**
+     * Adds and removes several favorites of a user in a single transaction. Retrying a batch changes nothing.
+     *
+     * @param batch the user and the plants to add and remove.
+     * @return the number of favorites added and removed and the resulting favorites of the user.
+     * @throws ResourceNotFoundException if the user or any of the plants to add is not found.
+     */
+    FavoriteBatchResult applyFavoriteBatch(FavoriteBatch batch) throws ResourceNotFoundException;
+
     /**
      * Deletes a favorite plant by its ID.
      *
@@ -41,4 +61,38 @@ public interface FavoriteServiceInterface {
      * @throws ResourceNotFoundException if the favorite plant with the specified ID is not found.
      */
     void deleteFavoritePlant(int id) throws ResourceNotFoundException;
+
+    /**
+     * Deletes every favorite of a user in the transaction that deletes the user. The indexes are
+     * not touched: pass the result to {@link #userFavoritesDeleted(int, List)} once it commits.
+     *
+     * @param userId the ID of the user.
+     * @return the IDs of the plants whose favorites were deleted.
+     */
+    List<Integer> deleteUserFavorites(int userId);
+
+    /**
+     * Removes the deleted favorites of a user from the indexes and the cache.
+     *
+     * @param userId the ID of the user.
+     * @param plantIds the IDs returned by {@link #deleteUserFavorites(int)}.
+     */
+    void userFavoritesDeleted(int userId, List<Integer> plantIds);
+
+    /**
+     * Deletes every favorite of a plant in the transaction that deletes the plant. The indexes are
+     * not touched: pass the result to {@link #plantFavoritesDeleted(int, List)} once it commits.
+     *
+     * @param plantId the ID of the plant.
+     * @return the IDs of the users whose favorites were deleted.
+     */
+    List<Integer> deletePlantFavorites(int plantId);
+
+    /**
+     * Removes a deleted plant from the favorite indexes and the cached favorites of its users.
+     *
+     * @param plantId the ID of the plant.
+     * @param userIds the IDs returned by {@link #deletePlantFavorites(int)}.
+     */
+    void plantFavoritesDeleted(int plantId, List<Integer> userIds);
 }
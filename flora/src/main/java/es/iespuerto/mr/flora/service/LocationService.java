@@ -1,15 +1,30 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import es.iespuerto.mr.flora.dto.NearbyLocation;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Location;
 import es.iespuerto.mr.flora.repository.LocationRepository;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.FacetType;
+import es.iespuerto.mr.flora.service.geo.GeoDistance;
+import es.iespuerto.mr.flora.service.geo.GeoPolygon;
+import es.iespuerto.mr.flora.service.geo.LocationGridIndex;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +36,9 @@ import lombok.extern.slf4j.Slf4j;
  * <p>This service is used to interact with the {@link LocationRepository} and manage the 
  * persistence of location data.</p>
  * 
+ * <p>The position and bounds of every location are validated before saving and mirrored in a
+ * {@link LocationGridIndex}, which answers the spatial queries without querying the database.</p>
+ * 
  * <p>Annotations used:</p>
  * <ul>
  *   <li>{@code @Slf4j} - Lombok annotation for logging. Provides a logger for the class.</li>
@@ -36,7 +54,12 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Methods:</p>
  * <ul>
  *   <li>{@link #getAllLocations()} - Retrieves a list of all locations from the repository.</li>
+ *   <li>{@link #getLocationsETag()} - Gets the ETag of the current version of the locations table.</li>
+ *   <li>{@link #getAllLocationsJson()} - Gets all locations serialized as JSON, cached per table version.</li>
+ *   <li>{@link #exportLocations(OutputStream)} - Streams all locations as newline delimited JSON.</li>
  *   <li>{@link #getLocationById(int)} - Retrieves a specific location by its ID.</li>
+ *   <li>{@link #findNearestLocations(double, double, int)} - Finds the locations nearest to a point.</li>
+ *   <li>{@link #findLocationsWithin(double, double, double, double)} - Finds the locations inside a bounding box.</li>
  *   <li>{@link #createLocation(Location)} - Creates a new location and saves it to the repository.</li>
  *   <li>{@link #updateLocation(int, Location)} - Updates an existing location with new details.</li>
  *   <li>{@link #deleteLocation(int)} - Deletes a location by its ID from the repository.</li>
@@ -48,7 +71,18 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class LocationService implements LocationServiceInterface {
 
+    /**
+     * Maximum number of locations returned by a nearest-location query.
+     */
+    public static final int MAX_NEAREST = 100;
+
     private LocationRepository locationRepository;
+    private NdjsonExporter exporter;
+    private TableVersions tableVersions;
+    private JsonSnapshotCache snapshotCache;
+    private PlantFacetServiceInterface facetService;
+    private TransactionTemplate transactionTemplate;
+    private LocationGridIndex spatialIndex;
 
     /**
      * Sets the location repository to be used by the service.
@@ -60,6 +94,66 @@ public class LocationService implements LocationServiceInterface {
         this.locationRepository = locationRepository;
     }
 
+    /**
+     * Sets the {@link NdjsonExporter} used to stream the export.
+     * 
+     * @param exporter the exporter to be injected.
+     */
+    @Autowired
+    public void setExporter(NdjsonExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Sets the {@link TableVersions} bumped after every change to the locations.
+     * 
+     * @param tableVersions the table versions to be injected.
+     */
+    @Autowired
+    public void setTableVersions(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Sets the {@link JsonSnapshotCache} holding the serialized list of locations.
+     * 
+     * @param snapshotCache the snapshot cache to be injected.
+     */
+    @Autowired
+    public void setSnapshotCache(JsonSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Sets the {@link PlantFacetServiceInterface} used to unlink deleted locations from plants.
+     * 
+     * @param facetService the facet service to be injected.
+     */
+    @Autowired
+    public void setFacetService(PlantFacetServiceInterface facetService) {
+        this.facetService = facetService;
+    }
+
+    /**
+     * Sets the transaction manager used to delete a location together with its plant links.
+     * 
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the {@link LocationGridIndex} kept in sync with the positions of the locations.
+     * 
+     * @param spatialIndex the spatial index to be injected.
+     */
+    @Autowired
+    public void setSpatialIndex(LocationGridIndex spatialIndex) {
+        this.spatialIndex = spatialIndex;
+    }
+
     /**
      * Retrieves all locations from the repository.
      * 
@@ -71,6 +165,41 @@ public class LocationService implements LocationServiceInterface {
         return locationRepository.findAll();
     }
 
+    /**
+     * Gets the ETag of the current version of the locations table. Does not touch the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    @Override
+    public String getLocationsETag() {
+        return snapshotCache.currentETag(CatalogTable.LOCATIONS);
+    }
+
+    /**
+     * Gets every {@link Location} already serialized as a JSON array, reusing the serialization of the
+     * current version of the table when there is one.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    @Override
+    public JsonSnapshot getAllLocationsJson() {
+        return snapshotCache.get(CatalogTable.LOCATIONS, this::getAllLocations);
+    }
+
+    /**
+     * Writes every {@link Location} to the output as newline delimited JSON, streaming the rows
+     * from the database instead of loading them all in memory.
+     * 
+     * @param out the output to write to.
+     * @return the number of locations written.
+     * @throws IOException if writing to the output fails.
+     */
+    @Override
+    public long exportLocations(OutputStream out) throws IOException {
+        log.info("Exportando ubicaciones en formato NDJSON");
+        return exporter.export(locationRepository::streamAllByOrderByIdAsc, out);
+    }
+
     /**
      * Retrieves a specific location by its ID.
      * 
@@ -84,15 +213,50 @@ public class LocationService implements LocationServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found for this id :: " + locationId));
     }
 
+    /**
+     * Finds the locations nearest to a point, answered from the spatial index.
+     * 
+     * @param latitude the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @param k the maximum number of locations to return, clamped to 1..{@value #MAX_NEAREST}.
+     * @return the nearest locations with their distance, closest first.
+     * @throws InvalidRequestException if the coordinates are out of range.
+     */
+    @Override
+    public List<NearbyLocation> findNearestLocations(double latitude, double longitude, int k) {
+        return spatialIndex.nearest(latitude, longitude, Math.max(1, Math.min(k, MAX_NEAREST)));
+    }
+
+    /**
+     * Finds the locations whose position or bounds fall inside a bounding box, answered from the
+     * spatial index.
+     * 
+     * @param minLat the southern edge of the box.
+     * @param minLon the western edge of the box.
+     * @param maxLat the northern edge of the box.
+     * @param maxLon the eastern edge of the box.
+     * @return the matching locations, ordered by id.
+     * @throws InvalidRequestException if a coordinate is out of range or the box is inverted.
+     */
+    @Override
+    public List<Location> findLocationsWithin(double minLat, double minLon, double maxLat, double maxLon) {
+        return spatialIndex.within(minLat, minLon, maxLat, maxLon);
+    }
+
     /**
      * Creates a new location and saves it to the repository.
      * 
      * @param location the {@link Location} entity to be created.
      * @return the created {@link Location} entity.
+     * @throws InvalidRequestException if its position or bounds are invalid.
      */
     @Override
     public Location createLocation(@Valid @RequestBody Location location) {
-        return locationRepository.save(location);
+        checkPosition(location);
+        Location savedLocation = locationRepository.save(location);
+        spatialIndex.index(savedLocation);
+        tableVersions.bump(CatalogTable.LOCATIONS);
+        return savedLocation;
     }
 
     /**
@@ -102,6 +266,7 @@ public class LocationService implements LocationServiceInterface {
      * @param locationDetails the new details for the location.
      * @return the updated {@link Location} entity.
      * @throws ResourceNotFoundException if the location with the specified ID is not found.
+     * @throws InvalidRequestException if the new position or bounds are invalid.
      */
     @Override
     public Location updateLocation(@PathVariable(value = "id") int locationId,
@@ -109,8 +274,15 @@ public class LocationService implements LocationServiceInterface {
         Location location = locationRepository.findById(locationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found for this id :: " + locationId));
 
+        checkPosition(locationDetails);
         location.setName(locationDetails.getName());
-        return locationRepository.save(location);
+        location.setLatitude(locationDetails.getLatitude());
+        location.setLongitude(locationDetails.getLongitude());
+        location.setBounds(locationDetails.getBounds());
+        Location savedLocation = locationRepository.save(location);
+        spatialIndex.index(savedLocation);
+        tableVersions.bump(CatalogTable.LOCATIONS);
+        return savedLocation;
     }
 
     /**
@@ -124,6 +296,33 @@ public class LocationService implements LocationServiceInterface {
         Location location = locationRepository.findById(locationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Location not found for this id :: " + locationId));
 
-        locationRepository.delete(location);
+        // The links and the location go in one transaction; the indexes change only once it commits
+        Integer links = transactionTemplate.execute(status -> {
+            int deleted = facetService.deleteFacetValue(FacetType.LOCATION, locationId);
+            locationRepository.delete(location);
+            return deleted;
+        });
+        facetService.facetValueDeleted(FacetType.LOCATION, locationId, links);
+        spatialIndex.remove(locationId);
+        tableVersions.bump(CatalogTable.LOCATIONS);
+    }
+
+    /**
+     * Checks that a location has either both coordinates or none, that they are in range and that
+     * its bounds, if any, are a valid polygon of a location with a position.
+     */
+    private static void checkPosition(Location location) {
+        if ((location.getLatitude() == null) != (location.getLongitude() == null)) {
+            throw new InvalidRequestException("Latitude and longitude must be given together");
+        }
+        if (location.getLatitude() != null) {
+            GeoDistance.checkCoordinates(location.getLatitude(), location.getLongitude());
+        }
+        if (location.getBounds() != null && !location.getBounds().isBlank()) {
+            if (location.getLatitude() == null) {
+                throw new InvalidRequestException("Bounds require latitude and longitude");
+            }
+            GeoPolygon.parse(location.getBounds());
+        }
     }
 }
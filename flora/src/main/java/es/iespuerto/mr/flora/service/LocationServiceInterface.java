@@ -1,9 +1,14 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.NearbyLocation;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Location;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
 
 /**
  * Interface for Location Service operations.
@@ -31,6 +36,8 @@ import es.iespuerto.mr.flora.model.Location;
  * <ul>
  *   <li><strong>getAllLocations()</strong> - Retrieves all locations from the database.</li>
  *   <li><strong>getLocationById(int locationId)</strong> - Retrieves a location by its unique identifier.</li>
+ *   <li><strong>findNearestLocations(double latitude, double longitude, int k)</strong> - Finds the locations nearest to a point.</li>
+ *   <li><strong>findLocationsWithin(double minLat, double minLon, double maxLat, double maxLon)</strong> - Finds the locations inside a bounding box.</li>
  *   <li><strong>createLocation(Location location)</strong> - Creates a new location and stores it in the database.</li>
  *   <li><strong>updateLocation(int locationId, Location locationDetails)</strong> - Updates the location with the specified id.</li>
  *   <li><strong>deleteLocation(int locationId)</strong> - Deletes the location with the specified id.</li>
@@ -46,6 +53,29 @@ public interface LocationServiceInterface {
      */
     List<Location> getAllLocations();
 
+    /**
+     * Gets the ETag of the current version of the locations table, without querying the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    String getLocationsETag();
+
+    /**
+     * Retrieves all locations serialized as a JSON array, together with the ETag of the version read.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    JsonSnapshot getAllLocationsJson();
+
+    /**
+     * Writes every location to the output as newline delimited JSON, one object per line.
+     * 
+     * @param out the output to write to.
+     * @return the number of locations written.
+     * @throws IOException if writing to the output fails.
+     */
+    long exportLocations(OutputStream out) throws IOException;
+
     /**
      * Retrieves a location entity by its unique identifier.
      * 
@@ -55,6 +85,30 @@ public interface LocationServiceInterface {
      */
     Location getLocationById(int locationId) throws ResourceNotFoundException;
 
+    /**
+     * Finds the locations nearest to a point. A location whose bounds contain the point is at
+     * distance zero.
+     * 
+     * @param latitude the latitude of the point, in degrees.
+     * @param longitude the longitude of the point, in degrees.
+     * @param k the maximum number of locations to return.
+     * @return the nearest locations with their distance in kilometres, closest first.
+     * @throws InvalidRequestException if the coordinates are out of range.
+     */
+    List<NearbyLocation> findNearestLocations(double latitude, double longitude, int k);
+
+    /**
+     * Finds the locations whose position lies inside a bounding box, or whose bounds overlap it.
+     * 
+     * @param minLat the southern edge of the box.
+     * @param minLon the western edge of the box.
+     * @param maxLat the northern edge of the box.
+     * @param maxLon the eastern edge of the box.
+     * @return the matching locations, ordered by id.
+     * @throws InvalidRequestException if a coordinate is out of range or the box is inverted.
+     */
+    List<Location> findLocationsWithin(double minLat, double minLon, double maxLat, double maxLon);
+
     /**
      * Creates a new location entity and stores it in the database.
      * 
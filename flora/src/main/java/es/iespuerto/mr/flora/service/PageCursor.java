@@ -0,0 +1,58 @@
+package es.iespuerto.mr.flora.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset pagination.
+ *
+ * <p>A cursor wraps the last id returned in a page. Clients must treat it as an opaque
+ * string so the encoding can change without breaking them.</p>
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * Encodes the id of the last element of a page as a cursor.
+     *
+     * @param lastId The id of the last element returned.
+     * @return The opaque cursor.
+     */
+    public static String encode(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the id after which the next page starts.
+     *
+     * @param cursor The cursor sent by the client, may be {@code null} or blank for the first page.
+     * @return The last id already seen, or {@code 0} for the first page.
+     * @throws InvalidRequestException if the cursor is malformed.
+     */
+    public static int decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        String value;
+        try {
+            value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor :: " + cursor, e);
+        }
+        if (!value.startsWith(PREFIX)) {
+            throw new InvalidRequestException("Invalid cursor :: " + cursor);
+        }
+        try {
+            return Integer.parseInt(value.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor :: " + cursor, e);
+        }
+    }
+}
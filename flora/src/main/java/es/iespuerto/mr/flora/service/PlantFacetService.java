@@ -0,0 +1,384 @@
+package es.iespuerto.mr.flora.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.iespuerto.mr.flora.dto.PlantFacets;
+import es.iespuerto.mr.flora.dto.PlantFilterResult;
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.model.PlantAssociation;
+import es.iespuerto.mr.flora.model.PlantCategory;
+import es.iespuerto.mr.flora.model.PlantCharacteristic;
+import es.iespuerto.mr.flora.model.PlantLocation;
+import es.iespuerto.mr.flora.repository.CategoryRepository;
+import es.iespuerto.mr.flora.repository.CharacteristicRepository;
+import es.iespuerto.mr.flora.repository.LocationRepository;
+import es.iespuerto.mr.flora.repository.PlantAssociationRepository;
+import es.iespuerto.mr.flora.repository.PlantCategoryRepository;
+import es.iespuerto.mr.flora.repository.PlantCharacteristicRepository;
+import es.iespuerto.mr.flora.repository.PlantLocationRepository;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import es.iespuerto.mr.flora.service.facet.FacetType;
+import es.iespuerto.mr.flora.service.facet.PlantFacetIndex;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service class for linking plants with categories, locations and characteristics, and for
+ * filtering plants by them.
+ *
+ * <p>The links are stored in the {@code plant_categories}, {@code plant_locations} and
+ * {@code plant_characteristics} tables. Every change is written in a single transaction and,
+ * once committed, applied to the {@link PlantFacetIndex}, which answers the filters from memory.
+ * Only the plants of the requested page are then read from the database.</p>
+ *
+ * <p>Methods:</p>
+ * <ul>
+ *   <li>{@link #getPlantFacets(int)} - Gets the facets linked to a plant.</li>
+ *   <li>{@link #updatePlantFacets(int, PlantFacets)} - Replaces the facets linked to a plant.</li>
+ *   <li>{@link #filterPlants(List, List, List, String, int)} - Filters plants by facets, with facet counts.</li>
+ *   <li>{@link #deletePlantFacets(int)} - Unlinks a plant that is going to be deleted.</li>
+ *   <li>{@link #deleteFacetValue(FacetType, int)} - Unlinks a category, location or characteristic that is going to be deleted.</li>
+ *   <li>{@link #facetValueDeleted(FacetType, int, int)} - Removes a deleted category, location or characteristic from the index.</li>
+ * </ul>
+ *
+ * @see PlantFacetIndex
+ */
+@Slf4j
+@Component
+public class PlantFacetService implements PlantFacetServiceInterface {
+
+    /**
+     * Largest page that a client can request.
+     */
+    public static final int MAX_FILTER_RESULTS = 100;
+
+    private PlantRepository plantRepository;
+    private CategoryRepository categoryRepository;
+    private LocationRepository locationRepository;
+    private CharacteristicRepository characteristicRepository;
+    private PlantCategoryRepository plantCategoryRepository;
+    private PlantLocationRepository plantLocationRepository;
+    private PlantCharacteristicRepository plantCharacteristicRepository;
+    private PlantFacetIndex facetIndex;
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Sets the {@link PlantRepository} used to check and load plants.
+     *
+     * @param plantRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantRepository(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * Sets the {@link CategoryRepository} used to check that categories exist.
+     *
+     * @param categoryRepository the repository to be injected.
+     */
+    @Autowired
+    public void setCategoryRepository(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Sets the {@link LocationRepository} used to check that locations exist.
+     *
+     * @param locationRepository the repository to be injected.
+     */
+    @Autowired
+    public void setLocationRepository(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    /**
+     * Sets the {@link CharacteristicRepository} used to check that characteristics exist.
+     *
+     * @param characteristicRepository the repository to be injected.
+     */
+    @Autowired
+    public void setCharacteristicRepository(CharacteristicRepository characteristicRepository) {
+        this.characteristicRepository = characteristicRepository;
+    }
+
+    /**
+     * Sets the {@link PlantCategoryRepository} storing the links with categories.
+     *
+     * @param plantCategoryRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantCategoryRepository(PlantCategoryRepository plantCategoryRepository) {
+        this.plantCategoryRepository = plantCategoryRepository;
+    }
+
+    /**
+     * Sets the {@link PlantLocationRepository} storing the links with locations.
+     *
+     * @param plantLocationRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantLocationRepository(PlantLocationRepository plantLocationRepository) {
+        this.plantLocationRepository = plantLocationRepository;
+    }
+
+    /**
+     * Sets the {@link PlantCharacteristicRepository} storing the links with characteristics.
+     *
+     * @param plantCharacteristicRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantCharacteristicRepository(PlantCharacteristicRepository plantCharacteristicRepository) {
+        this.plantCharacteristicRepository = plantCharacteristicRepository;
+    }
+
+    /**
+     * Sets the {@link PlantFacetIndex} kept up to date with the links.
+     *
+     * @param facetIndex the index to be injected.
+     */
+    @Autowired
+    public void setFacetIndex(PlantFacetIndex facetIndex) {
+        this.facetIndex = facetIndex;
+    }
+
+    /**
+     * Sets the transaction manager used to write every change atomically.
+     *
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retrieves the categories, locations and characteristics linked to a plant.
+     *
+     * @param plantId the ID of the plant.
+     * @return the facets of the plant, each list in ascending order.
+     * @throws ResourceNotFoundException if the plant is not found.
+     */
+    @Override
+    public PlantFacets getPlantFacets(int plantId) throws ResourceNotFoundException {
+        checkPlantExists(plantId);
+        return new PlantFacets(plantId, valueIds(plantCategoryRepository.findByPlantId(plantId)),
+                valueIds(plantLocationRepository.findByPlantId(plantId)),
+                valueIds(plantCharacteristicRepository.findByPlantId(plantId)));
+    }
+
+    /**
+     * Replaces the categories, locations and characteristics linked to a plant. Only the links
+     * that differ from the current ones are written, and the index is updated after the commit.
+     *
+     * @param plantId the ID of the plant.
+     * @param facets the new facets; a {@code null} list leaves its facet unchanged.
+     * @return the facets of the plant after the update.
+     * @throws ResourceNotFoundException if the plant or any of the facet values is not found.
+     */
+    @Override
+    public PlantFacets updatePlantFacets(int plantId, PlantFacets facets) throws ResourceNotFoundException {
+        checkPlantExists(plantId);
+        Set<Integer> categoryIds = checkValuesExist(facets.getCategoryIds(), categoryRepository, "Category");
+        Set<Integer> locationIds = checkValuesExist(facets.getLocationIds(), locationRepository, "Location");
+        Set<Integer> characteristicIds = checkValuesExist(facets.getCharacteristicIds(), characteristicRepository, "Characteristic");
+
+        Map<FacetType, Changes> changes = transactionTemplate.execute(status -> {
+            Map<FacetType, Changes> written = new EnumMap<>(FacetType.class);
+            written.put(FacetType.CATEGORY, replace(plantCategoryRepository, plantId, categoryIds,
+                    categoryId -> new PlantCategory(plantId, categoryId)));
+            written.put(FacetType.LOCATION, replace(plantLocationRepository, plantId, locationIds,
+                    locationId -> new PlantLocation(plantId, locationId)));
+            written.put(FacetType.CHARACTERISTIC, replace(plantCharacteristicRepository, plantId, characteristicIds,
+                    characteristicId -> new PlantCharacteristic(plantId, characteristicId)));
+            return written;
+        });
+
+        changes.forEach((type, change) -> {
+            change.added.forEach(valueId -> facetIndex.link(type, valueId, plantId));
+            change.removed.forEach(valueId -> facetIndex.unlink(type, valueId, plantId));
+        });
+        log.info("Facetas de la planta {} actualizadas", plantId);
+        return getPlantFacets(plantId);
+    }
+
+    /**
+     * Filters the plants with the {@link PlantFacetIndex} and loads the plants of the requested page.
+     *
+     * @param categoryIds the selected categories, or {@code null} or empty to not filter by category.
+     * @param locationIds the selected locations, or {@code null} or empty to not filter by location.
+     * @param characteristicIds the selected characteristics, or {@code null} or empty to not filter by characteristic.
+     * @param after the cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of plants in the page, clamped between 1 and {@link #MAX_FILTER_RESULTS}.
+     * @return a page of the matching plants, ordered by id, and the facet counts.
+     * @throws InvalidRequestException if the cursor is malformed.
+     */
+    @Override
+    public PlantFilterResult filterPlants(List<Integer> categoryIds, List<Integer> locationIds,
+            List<Integer> characteristicIds, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FILTER_RESULTS));
+        Map<FacetType, List<Integer>> selection = new EnumMap<>(FacetType.class);
+        selection.put(FacetType.CATEGORY, categoryIds);
+        selection.put(FacetType.LOCATION, locationIds);
+        selection.put(FacetType.CHARACTERISTIC, characteristicIds);
+
+        PlantFacetIndex.Hits hits = facetIndex.filter(selection, PageCursor.decode(after), pageSize);
+        int[] plantIds = hits.getPlantIds();
+
+        List<PlantSummary> items = new ArrayList<>(plantIds.length);
+        if (plantIds.length > 0) {
+            List<Integer> ids = Arrays.stream(plantIds).boxed().toList();
+            List<Plant> plants = new ArrayList<>(plantRepository.findAllById(ids));
+            plants.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+            plants.forEach(plant -> items.add(PlantSummary.of(plant)));
+        }
+
+        PlantFilterResult result = new PlantFilterResult();
+        result.setTotal(hits.getTotal());
+        result.setItems(items);
+        result.setNextCursor(hits.hasMore() ? PageCursor.encode(plantIds[plantIds.length - 1]) : null);
+        result.setCategories(hits.getCounts(FacetType.CATEGORY));
+        result.setLocations(hits.getCounts(FacetType.LOCATION));
+        result.setCharacteristics(hits.getCounts(FacetType.CHARACTERISTIC));
+        return result;
+    }
+
+    /**
+     * Deletes every link of a plant in the caller's transaction, which deletes the plant next.
+     * The plant is removed from the index by {@code PlantService} once that transaction commits.
+     *
+     * @param plantId the ID of the plant.
+     */
+    @Override
+    public void deletePlantFacets(int plantId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            plantCategoryRepository.deleteByPlantId(plantId);
+            plantLocationRepository.deleteByPlantId(plantId);
+            plantCharacteristicRepository.deleteByPlantId(plantId);
+        });
+    }
+
+    /**
+     * Deletes every link to a category, location or characteristic in the caller's transaction,
+     * which deletes the value next. The index is not touched until {@link #facetValueDeleted(FacetType, int)}.
+     *
+     * @param type the facet of the value.
+     * @param valueId the ID of the category, location or characteristic.
+     * @return the number of links deleted.
+     */
+    @Override
+    public int deleteFacetValue(FacetType type, int valueId) {
+        PlantAssociationRepository<?> repository = switch (type) {
+            case CATEGORY -> plantCategoryRepository;
+            case LOCATION -> plantLocationRepository;
+            case CHARACTERISTIC -> plantCharacteristicRepository;
+        };
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteByValueId(valueId));
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Removes a deleted category, location or characteristic from the index. Called once the
+     * transaction that deleted it and its links has committed.
+     *
+     * @param type the facet of the value.
+     * @param valueId the ID of the category, location or characteristic.
+     * @param links the number of links deleted with it, for the log.
+     */
+    @Override
+    public void facetValueDeleted(FacetType type, int valueId, int links) {
+        facetIndex.removeValue(type, valueId);
+        log.info("Eliminados {} enlaces de plantas con {} {}", links, type, valueId);
+    }
+
+    private void checkPlantExists(int plantId) throws ResourceNotFoundException {
+        if (!plantRepository.existsById(plantId)) {
+            throw new ResourceNotFoundException("Plant not found for this id :: " + plantId);
+        }
+    }
+
+    /**
+     * Removes duplicates from the requested ids and checks that all of them exist.
+     *
+     * @return the distinct ids, or {@code null} if the facet must be left unchanged.
+     */
+    private static Set<Integer> checkValuesExist(List<Integer> ids, JpaRepository<?, Integer> repository, String entity)
+            throws ResourceNotFoundException {
+        if (ids == null) {
+            return null;
+        }
+        Set<Integer> distinct = new TreeSet<>(ids);
+        for (Integer id : distinct) {
+            if (id == null || !repository.existsById(id)) {
+                throw new ResourceNotFoundException(entity + " not found for this id :: " + id);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Makes the links of a plant in one table match {@code wanted}, writing only the differences.
+     */
+    private static <T extends PlantAssociation> Changes replace(PlantAssociationRepository<T> repository, int plantId,
+            Set<Integer> wanted, IntFunction<T> factory) {
+        if (wanted == null) {
+            return Changes.NONE;
+        }
+        List<T> current = repository.findByPlantId(plantId);
+        Set<Integer> kept = new HashSet<>();
+        List<T> stale = new ArrayList<>();
+        for (T association : current) {
+            if (wanted.contains(association.getValueId())) {
+                kept.add(association.getValueId());
+            } else {
+                stale.add(association);
+            }
+        }
+        List<T> fresh = new ArrayList<>();
+        for (Integer valueId : wanted) {
+            if (!kept.contains(valueId)) {
+                fresh.add(factory.apply(valueId));
+            }
+        }
+        repository.deleteAllInBatch(stale);
+        repository.saveAll(fresh);
+        return new Changes(fresh.stream().map(PlantAssociation::getValueId).toList(),
+                stale.stream().map(PlantAssociation::getValueId).toList());
+    }
+
+    private static List<Integer> valueIds(List<? extends PlantAssociation> associations) {
+        return associations.stream().map(PlantAssociation::getValueId).sorted().toList();
+    }
+
+    /**
+     * The facet values linked and unlinked by an update of one table.
+     */
+    private static final class Changes {
+        private static final Changes NONE = new Changes(Collections.emptyList(), Collections.emptyList());
+
+        private final List<Integer> added;
+        private final List<Integer> removed;
+
+        private Changes(List<Integer> added, List<Integer> removed) {
+            this.added = added;
+            this.removed = removed;
+        }
+    }
+}
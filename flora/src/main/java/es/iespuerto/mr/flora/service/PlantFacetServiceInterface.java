@@ -0,0 +1,78 @@
+package es.iespuerto.mr.flora.service;
+
+import java.util.List;
+
+import es.iespuerto.mr.flora.dto.PlantFacets;
+import es.iespuerto.mr.flora.dto.PlantFilterResult;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.service.facet.FacetType;
+
+/**
+ * Interface for managing the categories, locations and characteristics linked to plants and
+ * for filtering plants by them.
+ */
+public interface PlantFacetServiceInterface {
+
+    /**
+     * Retrieves the categories, locations and characteristics linked to a plant.
+     *
+     * @param plantId the ID of the plant.
+     * @return the facets of the plant.
+     * @throws ResourceNotFoundException if the plant is not found.
+     */
+    PlantFacets getPlantFacets(int plantId) throws ResourceNotFoundException;
+
+    /**
+     * Replaces the categories, locations and characteristics linked to a plant. A {@code null}
+     * list leaves its facet unchanged.
+     *
+     * @param plantId the ID of the plant.
+     * @param facets the new facets of the plant.
+     * @return the facets of the plant after the update.
+     * @throws ResourceNotFoundException if the plant or any of the facet values is not found.
+     */
+    PlantFacets updatePlantFacets(int plantId, PlantFacets facets) throws ResourceNotFoundException;
+
+    /**
+     * Retrieves the plants linked to any of the given categories, and to any of the given
+     * locations, and to any of the given characteristics, with the facet counts of the result.
+     *
+     * @param categoryIds the selected categories, or {@code null} or empty to not filter by category.
+     * @param locationIds the selected locations, or {@code null} or empty to not filter by location.
+     * @param characteristicIds the selected characteristics, or {@code null} or empty to not filter by characteristic.
+     * @param after the cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of plants in the page.
+     * @return a page of the matching plants and the facet counts.
+     * @throws InvalidRequestException if the cursor is malformed.
+     */
+    PlantFilterResult filterPlants(List<Integer> categoryIds, List<Integer> locationIds, List<Integer> characteristicIds,
+            String after, int limit);
+
+    /**
+     * Deletes every link of a plant, in the transaction that deletes the plant itself.
+     *
+     * @param plantId the ID of the plant.
+     */
+    void deletePlantFacets(int plantId);
+
+    /**
+     * Deletes every link to a category, location or characteristic, in the transaction that
+     * deletes the value itself. The index is updated by {@link #facetValueDeleted(FacetType, int, int)}.
+     *
+     * @param type the facet of the value.
+     * @param valueId the ID of the category, location or characteristic.
+     * @return the number of links deleted.
+     */
+    int deleteFacetValue(FacetType type, int valueId);
+
+    /**
+     * Removes a deleted category, location or characteristic from the index, once its
+     * transaction has committed.
+     *
+     * @param type the facet of the value.
+     * @param valueId the ID of the category, location or characteristic.
+     * @param links the number of links deleted with it.
+     */
+    void facetValueDeleted(FacetType type, int valueId, int links);
+}
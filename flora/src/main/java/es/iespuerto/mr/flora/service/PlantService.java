@@ -1,15 +1,44 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.dto.PlantPage;
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.dto.PopularPlant;
+import es.iespuerto.mr.flora.dto.RelatedPlant;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Plant;
 import es.iespuerto.mr.flora.repository.PlantRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.PlantFacetIndex;
+import es.iespuerto.mr.flora.service.importer.PlantImportFormat;
+import es.iespuerto.mr.flora.service.importer.PlantImporter;
+import es.iespuerto.mr.flora.service.popularity.PlantPopularityIndex;
+import es.iespuerto.mr.flora.service.recommend.PlantCooccurrenceIndex;
+import es.iespuerto.mr.flora.service.search.PlantSearchIndex;
+import es.iespuerto.mr.flora.service.search.PlantSuggestIndex;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -23,8 +52,15 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Methods in this class include:</p>
  * <ul>
  *   <li>{@link #getAllPlants()}: Retrieves all plants.</li>
+ *   <li>{@link #getPlantsETag()} - Gets the ETag of the current version of the plants table.</li>
+ *   <li>{@link #getAllPlantsJson()} - Gets all plants serialized as JSON, cached per table version.</li>
+ *   <li>{@link #exportPlants(OutputStream)}: Streams all plants as newline delimited JSON.</li>
+ *   <li>{@link #getPlantsPage(String, int)}: Retrieves a page of plants using keyset pagination.</li>
+ *   <li>{@link #searchPlants(String, int)}: Searches plants by name using the in-memory {@link PlantSearchIndex}.</li>
+ *   <li>{@link #suggestPlants(String, int)}: Suggests the most favorited plants for a name prefix using the {@link PlantSuggestIndex}.</li>
  *   <li>{@link #getPlantById(int)}: Retrieves a specific plant by its ID.</li>
  *   <li>{@link #createPlant(Plant)}: Creates a new plant entity.</li>
+ *   <li>{@link #importPlants(InputStream, PlantImportFormat, Integer)}: Bulk loads plants from CSV or JSON with the {@link PlantImporter}.</li>
  *   <li>{@link #updatePlant(int, Plant)}: Updates an existing plant entity.</li>
  *   <li>{@link #deletePlant(int)}: Deletes a plant entity by its ID.</li>
  * </ul>
@@ -37,6 +73,13 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Dependencies:</p>
  * <ul>
  *   <li>{@link PlantRepository}: Repository that interacts with the database to manage {@link Plant} entities.</li>
+ *   <li>{@link PlantSearchIndex}: In-memory name index, updated on every create, update and delete.</li>
+ *   <li>{@link PlantSuggestIndex}: In-memory autocomplete trie, updated on every create, update and delete.</li>
+ *   <li>{@link PlantCooccurrenceIndex}: Favorite co-occurrence matrix behind the related plants.</li>
+ *   <li>{@link PlantPopularityIndex}: Live ranking of the most favorited plants.</li>
+ *   <li>{@link FavoriteServiceInterface}: Deletes the favorites of a deleted plant, which drops it from the two indexes above
+ *       and from the cached favorites of its users.</li>
+ *   <li>{@link BoundedTtlCache}: Plants by id, read through by {@link #getPlantById(int)} and invalidated on every create, update and delete.</li>
  * </ul>
  * 
  * <p>Annotations used:</p>
@@ -60,7 +103,30 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class PlantService implements PlantServiceInterface {
 
+    /**
+     * Largest page that a client can request in a single call.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Largest number of search results that a client can request in a single call.
+     */
+    public static final int MAX_SEARCH_RESULTS = 50;
+
     private PlantRepository plantRepository;
+    private NdjsonExporter exporter;
+    private TableVersions tableVersions;
+    private JsonSnapshotCache snapshotCache;
+    private PlantImporter importer;
+    private BoundedTtlCache<Integer, Plant> plantCache;
+    private PlantSearchIndex searchIndex;
+    private PlantSuggestIndex suggestIndex;
+    private PlantFacetIndex facetIndex;
+    private PlantFacetServiceInterface facetService;
+    private FavoriteServiceInterface favoriteService;
+    private TransactionTemplate transactionTemplate;
+    private PlantPopularityIndex popularityIndex;
+    private PlantCooccurrenceIndex cooccurrenceIndex;
 
     /**
      * Sets the {@link PlantRepository} dependency through {@link Autowired}.
@@ -72,6 +138,136 @@ public class PlantService implements PlantServiceInterface {
         this.plantRepository = plantRepository;
     }
 
+    /**
+     * Sets the {@link NdjsonExporter} used to stream the export.
+     * 
+     * @param exporter the exporter to be injected.
+     */
+    @Autowired
+    public void setExporter(NdjsonExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Sets the {@link TableVersions} bumped after every change to the plants.
+     * 
+     * @param tableVersions the table versions to be injected.
+     */
+    @Autowired
+    public void setTableVersions(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Sets the {@link JsonSnapshotCache} holding the serialized list of plants.
+     * 
+     * @param snapshotCache the snapshot cache to be injected.
+     */
+    @Autowired
+    public void setSnapshotCache(JsonSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    /**
+     * Sets the {@link PlantImporter} dependency through {@link Autowired}.
+     * 
+     * @param importer the {@link PlantImporter} to be injected.
+     */
+    @Autowired
+    public void setImporter(PlantImporter importer) {
+        this.importer = importer;
+    }
+
+    /**
+     * Sets the plant cache dependency through {@link Autowired}. The same instance backs the REST and SOAP endpoints.
+     * 
+     * @param plantCache the {@link BoundedTtlCache} of plants by id to be injected.
+     */
+    @Autowired
+    public void setPlantCache(BoundedTtlCache<Integer, Plant> plantCache) {
+        this.plantCache = plantCache;
+    }
+
+    /**
+     * Sets the {@link PlantPopularityIndex} dependency through {@link Autowired}.
+     * 
+     * @param popularityIndex the {@link PlantPopularityIndex} to be injected.
+     */
+    @Autowired
+    public void setPopularityIndex(PlantPopularityIndex popularityIndex) {
+        this.popularityIndex = popularityIndex;
+    }
+
+    /**
+     * Sets the {@link PlantCooccurrenceIndex} dependency through {@link Autowired}.
+     * 
+     * @param cooccurrenceIndex the {@link PlantCooccurrenceIndex} to be injected.
+     */
+    @Autowired
+    public void setCooccurrenceIndex(PlantCooccurrenceIndex cooccurrenceIndex) {
+        this.cooccurrenceIndex = cooccurrenceIndex;
+    }
+
+    /**
+     * Sets the {@link PlantSearchIndex} dependency through {@link Autowired}.
+     * 
+     * @param searchIndex the {@link PlantSearchIndex} to be injected.
+     */
+    @Autowired
+    public void setSearchIndex(PlantSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Sets the {@link PlantSuggestIndex} dependency through {@link Autowired}.
+     * 
+     * @param suggestIndex the {@link PlantSuggestIndex} to be injected.
+     */
+    @Autowired
+    public void setSuggestIndex(PlantSuggestIndex suggestIndex) {
+        this.suggestIndex = suggestIndex;
+    }
+
+    /**
+     * Sets the {@link PlantFacetIndex} that new plants are added to.
+     * 
+     * @param facetIndex the facet index to be injected.
+     */
+    @Autowired
+    public void setFacetIndex(PlantFacetIndex facetIndex) {
+        this.facetIndex = facetIndex;
+    }
+
+    /**
+     * Sets the {@link PlantFacetServiceInterface} used to unlink deleted plants from their facets.
+     * 
+     * @param facetService the facet service to be injected.
+     */
+    @Autowired
+    public void setFacetService(PlantFacetServiceInterface facetService) {
+        this.facetService = facetService;
+    }
+
+    /**
+     * Sets the {@link FavoriteServiceInterface} used to delete the favorites of deleted plants.
+     * 
+     * @param favoriteService the favorite service to be injected.
+     */
+    @Autowired
+    public void setFavoriteService(FavoriteServiceInterface favoriteService) {
+        this.favoriteService = favoriteService;
+    }
+
+    /**
+     * Sets the transaction manager used to delete a plant together with its links and favorites.
+     * 
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Retrieves all {@link Plant} entities from the database.
      * 
@@ -84,7 +280,141 @@ public class PlantService implements PlantServiceInterface {
     }
 
     /**
-     * Retrieves a specific {@link Plant} by its ID.
+     * Gets the ETag of the current version of the plants table. Does not touch the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    @Override
+    public String getPlantsETag() {
+        return snapshotCache.currentETag(CatalogTable.PLANTS);
+    }
+
+    /**
+     * Gets every {@link Plant} already serialized as a JSON array, reusing the serialization of the
+     * current version of the table when there is one.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    @Override
+    public JsonSnapshot getAllPlantsJson() {
+        return snapshotCache.get(CatalogTable.PLANTS, this::getAllPlants);
+    }
+
+    /**
+     * Writes every {@link Plant} to the output as newline delimited JSON, streaming the rows
+     * from the database instead of loading them all in memory.
+     * 
+     * @param out the output to write to.
+     * @return the number of plants written.
+     * @throws IOException if writing to the output fails.
+     */
+    @Override
+    public long exportPlants(OutputStream out) throws IOException {
+        log.info("Exportando plantas en formato NDJSON");
+        return exporter.export(plantRepository::streamAllByOrderByIdAsc, out);
+    }
+
+    /**
+     * Retrieves a page of {@link Plant} entities ordered by id.
+     * 
+     * <p>The query seeks directly to the first id after the cursor, so every page costs the same
+     * regardless of its position in the catalog. One extra row is requested to know whether
+     * a next page exists without issuing a count query.</p>
+     * 
+     * @param after the opaque cursor returned by the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of plants to return, clamped between 1 and {@link #MAX_PAGE_SIZE}.
+     * @return the requested page and the cursor of the next one.
+     * @throws InvalidRequestException if the cursor is malformed.
+     */
+    @Override
+    public PlantPage getPlantsPage(String after, int limit) {
+        int afterId = PageCursor.decode(after);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Plant> plants = plantRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+        if (plants.size() <= pageSize) {
+            return new PlantPage(plants, null);
+        }
+        List<Plant> items = plants.subList(0, pageSize);
+        return new PlantPage(items, PageCursor.encode(items.get(pageSize - 1).getId()));
+    }
+
+    /**
+     * Searches plants by common or scientific name using the in-memory {@link PlantSearchIndex}.
+     * 
+     * @param query the text to search for; case and accents are ignored.
+     * @param limit the maximum number of results, clamped between 1 and {@link #MAX_SEARCH_RESULTS}.
+     * @return the matching plants, best match first.
+     */
+    @Override
+    public List<PlantSummary> searchPlants(String query, int limit) {
+        return searchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    /**
+     * Suggests plants whose common or scientific name starts with the prefix, most favorited first.
+     * 
+     * @param prefix the text typed so far; case and accents are ignored.
+     * @param limit the maximum number of suggestions, clamped between 1 and {@link PlantSuggestIndex#TOP_K}.
+     * @return the suggested plants.
+     */
+    @Override
+    public List<PlantSummary> suggestPlants(String prefix, int limit) {
+        return suggestIndex.suggest(prefix, Math.max(1, Math.min(limit, PlantSuggestIndex.TOP_K)));
+    }
+
+    /**
+     * Retrieves the plants with the most favorites from the {@link PlantPopularityIndex}, with the
+     * names read through the plant cache. The cost depends on the limit, not on the number of plants.
+     * 
+     * @param limit the maximum number of plants, clamped between 1 and {@link PlantPopularityIndex#MAX_LIMIT}.
+     * @return the most favorited plants, most favorited first.
+     */
+    @Override
+    public List<PopularPlant> getPopularPlants(int limit) {
+        List<PlantPopularityIndex.Ranked> ranking = popularityIndex.top(Math.max(1, Math.min(limit, PlantPopularityIndex.MAX_LIMIT)));
+        List<PopularPlant> popular = new ArrayList<>(ranking.size());
+        for (PlantPopularityIndex.Ranked ranked : ranking) {
+            Plant plant = cachedPlant(ranked.getPlantId());
+            // The ranking may still hold a plant deleted after it was read
+            if (plant != null) {
+                popular.add(new PopularPlant(plant.getId(), plant.getCommonName(), plant.getScientificName(), ranked.getFavorites()));
+            }
+        }
+        return popular;
+    }
+
+    /**
+     * Retrieves the plants most often marked as favorite together with the given one, from the
+     * in-memory {@link PlantCooccurrenceIndex}, with the names read through the plant cache.
+     * 
+     * @param plantId the ID of the plant.
+     * @param limit the maximum number of plants, clamped between 1 and {@link PlantCooccurrenceIndex#MAX_RELATED}.
+     * @return the related plants, most similar first.
+     * @throws ResourceNotFoundException if no plant is found with the given ID.
+     */
+    @Override
+    public List<RelatedPlant> getRelatedPlants(int plantId, int limit) throws ResourceNotFoundException {
+        if (cachedPlant(plantId) == null) {
+            throw new ResourceNotFoundException("Plant not found for this id :: " + plantId);
+        }
+        List<PlantCooccurrenceIndex.Related> neighbours = cooccurrenceIndex.related(plantId,
+                Math.max(1, Math.min(limit, PlantCooccurrenceIndex.MAX_RELATED)));
+        List<RelatedPlant> related = new ArrayList<>(neighbours.size());
+        for (PlantCooccurrenceIndex.Related neighbour : neighbours) {
+            Plant plant = cachedPlant(neighbour.getPlantId());
+            if (plant != null) {
+                related.add(new RelatedPlant(plant.getId(), plant.getCommonName(), plant.getScientificName(),
+                        neighbour.getSharedUsers(), neighbour.getScore()));
+            }
+        }
+        return related;
+    }
+
+    /**
+     * Retrieves a specific {@link Plant} by its ID, reading through the plant cache.
+     * 
+     * <p>The cache holds its own copy of every plant and each caller gets a fresh copy, so changes
+     * made by a caller never leak into the cache or to other callers.</p>
      * 
      * @param plantId the ID of the plant to retrieve.
      * @return the {@link Plant} entity with the specified ID.
@@ -92,8 +422,11 @@ public class PlantService implements PlantServiceInterface {
      */
     @Override
     public Plant getPlantById(int plantId) throws ResourceNotFoundException {
-        return plantRepository.findById(plantId)
-                .orElseThrow(() -> new ResourceNotFoundException("Plant not found for this id :: " + plantId));
+        Plant plant = cachedPlant(plantId);
+        if (plant == null) {
+            throw new ResourceNotFoundException("Plant not found for this id :: " + plantId);
+        }
+        return copyOf(plant);
     }
 
     /**
@@ -104,7 +437,37 @@ public class PlantService implements PlantServiceInterface {
      */
     @Override
     public Plant createPlant(@PathVariable(value = "id") Plant plant) {
-        return plantRepository.save(plant);
+        Plant savedPlant = plantRepository.save(plant);
+        tableVersions.bump(CatalogTable.PLANTS);
+        plantCache.invalidate(savedPlant.getId());
+        searchIndex.index(savedPlant);
+        suggestIndex.index(savedPlant);
+        facetIndex.addPlant(savedPlant.getId());
+        return savedPlant;
+    }
+
+    /**
+     * Bulk loads {@link Plant} entities from a CSV or JSON input. Every committed batch is added
+     * to the search and autocomplete indexes.
+     * 
+     * @param in the input to read, as a stream.
+     * @param format the format of the input.
+     * @param batchSize the number of plants written per batch, or {@code null} for the configured default.
+     * @return the counts, rejected rows and throughput of the import.
+     * @throws IOException if the input cannot be read.
+     */
+    @Override
+    public PlantImportReport importPlants(InputStream in, PlantImportFormat format, Integer batchSize)
+            throws IOException {
+        log.info("Importando plantas en formato {}", format);
+        return importer.importPlants(in, format, batchSize, plants -> {
+            tableVersions.bump(CatalogTable.PLANTS);
+            plants.forEach(plant -> {
+                searchIndex.index(plant);
+                suggestIndex.index(plant);
+                facetIndex.addPlant(plant.getId());
+            });
+        });
     }
 
     /**
@@ -122,11 +485,19 @@ public class PlantService implements PlantServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found for this id :: " + plantId));
         plant.setCommonName(plantDetails.getCommonName());
         plant.setScientificName(plantDetails.getScientificName());
-        return plantRepository.save(plant);
+        Plant savedPlant = plantRepository.save(plant);
+        tableVersions.bump(CatalogTable.PLANTS);
+        plantCache.invalidate(savedPlant.getId());
+        searchIndex.index(savedPlant);
+        suggestIndex.index(savedPlant);
+        return savedPlant;
     }
 
     /**
      * Deletes a {@link Plant} entity by its ID.
+     * The facet links, the favorites and the plant are deleted in one transaction, and the
+     * in-memory indexes are updated only after it commits. If a link or a favorite is added
+     * concurrently the transaction fails and is retried once.
      * 
      * @param plantId the ID of the plant to delete.
      * @throws ResourceNotFoundException if no plant is found with the given ID.
@@ -135,6 +506,35 @@ public class PlantService implements PlantServiceInterface {
     public void deletePlant(@PathVariable(value = "id") int plantId) throws ResourceNotFoundException {
         Plant plant = plantRepository.findById(plantId)
                 .orElseThrow(() -> new ResourceNotFoundException("Plant not found for this id :: " + plantId));
-        plantRepository.delete(plant);
+        TransactionCallback<List<Integer>> delete = status -> {
+            facetService.deletePlantFacets(plantId);
+            List<Integer> userIds = favoriteService.deletePlantFavorites(plantId);
+            plantRepository.delete(plant);
+            plantRepository.flush();
+            return userIds;
+        };
+        List<Integer> userIds;
+        try {
+            userIds = transactionTemplate.execute(delete);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            log.warn("Conflicto al eliminar la planta {}, reintentando", plantId);
+            userIds = transactionTemplate.execute(delete);
+        }
+        facetIndex.removePlant(plantId);
+        favoriteService.plantFavoritesDeleted(plantId, userIds);
+        tableVersions.bump(CatalogTable.PLANTS);
+        plantCache.invalidate(plantId);
+        searchIndex.remove(plantId);
+        suggestIndex.remove(plantId);
+    }
+
+    private Plant cachedPlant(int plantId) {
+        return plantCache.get(plantId, id -> plantRepository.findById(id).map(PlantService::copyOf).orElse(null));
+    }
+
+    private static Plant copyOf(Plant plant) {
+        Plant copy = new Plant(plant.getCommonName(), plant.getScientificName());
+        copy.setId(plant.getId());
+        return copy;
     }
 }
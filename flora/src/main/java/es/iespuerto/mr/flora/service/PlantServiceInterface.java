@@ -1,9 +1,20 @@
 package es.iespuerto.mr.flora.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.dto.PlantPage;
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.dto.PopularPlant;
+import es.iespuerto.mr.flora.dto.RelatedPlant;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.importer.PlantImportFormat;
 
 /**
  * Interface for operations related to {@link Plant} entities.
@@ -13,8 +24,12 @@ import es.iespuerto.mr.flora.model.Plant;
  * <p>Methods in this interface are designed to allow clients to:</p>
  * <ul>
  *   <li>Retrieve all plants.</li>
+ *   <li>Retrieve the catalog page by page using keyset pagination.</li>
+ *   <li>Search plants by common or scientific name.</li>
+ *   <li>Suggest plants for a name prefix, most favorited first.</li>
  *   <li>Retrieve a specific plant by its ID.</li>
  *   <li>Create a new plant.</li>
+ *   <li>Bulk import plants from CSV or JSON.</li>
  *   <li>Update an existing plant by its ID.</li>
  *   <li>Delete a plant by its ID.</li>
  * </ul>
@@ -36,6 +51,75 @@ public interface PlantServiceInterface {
      */
     List<Plant> getAllPlants();
 
+    /**
+     * Gets the ETag of the current version of the plants table, without querying the database.
+     * 
+     * @return the quoted, strong ETag.
+     */
+    String getPlantsETag();
+
+    /**
+     * Retrieves all plants serialized as a JSON array, together with the ETag of the version read.
+     * 
+     * @return the serialized list and its ETag.
+     */
+    JsonSnapshot getAllPlantsJson();
+
+    /**
+     * Writes every plant to the output as newline delimited JSON, one object per line.
+     * 
+     * @param out the output to write to.
+     * @return the number of plants written.
+     * @throws IOException if writing to the output fails.
+     */
+    long exportPlants(OutputStream out) throws IOException;
+
+    /**
+     * Retrieves a page of {@link Plant} entities ordered by id, starting after the given cursor.
+     * 
+     * @param after the opaque cursor returned by the previous page, or {@code null} for the first page.
+     * @param limit the maximum number of plants to return.
+     * @return the requested page and the cursor of the next one.
+     * @throws InvalidRequestException if the cursor is malformed.
+     */
+    PlantPage getPlantsPage(String after, int limit);
+
+    /**
+     * Searches plants whose common or scientific name resembles the query, ignoring case and accents.
+     * 
+     * @param query the text to search for.
+     * @param limit the maximum number of results.
+     * @return the matching plants, best match first.
+     */
+    List<PlantSummary> searchPlants(String query, int limit);
+
+    /**
+     * Suggests plants whose common or scientific name starts with the prefix, ignoring case and accents.
+     * 
+     * @param prefix the text typed so far.
+     * @param limit the maximum number of suggestions.
+     * @return the suggested plants, most favorited first.
+     */
+    List<PlantSummary> suggestPlants(String prefix, int limit);
+
+    /**
+     * Retrieves the plants with the most favorites, ties broken by ascending id.
+     * 
+     * @param limit the maximum number of plants.
+     * @return the most favorited plants, most favorited first.
+     */
+    List<PopularPlant> getPopularPlants(int limit);
+
+    /**
+     * Retrieves the plants most often marked as favorite by the users who like the given plant.
+     * 
+     * @param plantId the ID of the plant.
+     * @param limit the maximum number of plants.
+     * @return the related plants, most similar first.
+     * @throws ResourceNotFoundException if no plant is found with the given ID.
+     */
+    List<RelatedPlant> getRelatedPlants(int plantId, int limit) throws ResourceNotFoundException;
+
     /**
      * Retrieves a specific {@link Plant} by its ID.
      * 
@@ -53,6 +137,17 @@ public interface PlantServiceInterface {
      */
     Plant createPlant(Plant plant);
 
+    /**
+     * Bulk loads plants from a CSV or JSON input, validating every row and writing them in batches.
+     * 
+     * @param in the input to read, as a stream.
+     * @param format the format of the input.
+     * @param batchSize the number of plants written per batch, or {@code null} for the configured default.
+     * @return the counts, rejected rows and throughput of the import.
+     * @throws IOException if the input cannot be read.
+     */
+    PlantImportReport importPlants(InputStream in, PlantImportFormat format, Integer batchSize) throws IOException;
+
     /**
      * Updates an existing {@link Plant} entity.
      * 
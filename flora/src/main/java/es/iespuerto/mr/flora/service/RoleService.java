@@ -3,6 +3,7 @@ package es.iespuerto.mr.flora.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -10,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Role;
 import es.iespuerto.mr.flora.repository.RoleRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +36,7 @@ import lombok.extern.slf4j.Slf4j;
  * <p>Dependencies:</p>
  * <ul>
  *   <li>{@link RoleRepository} - Repository for accessing role data.</li>
+ *   <li>{@link BoundedTtlCache} - Cache of user details used on login, cleared when a role is updated or deleted.</li>
  * </ul>
  * 
  * <p>Exceptions:</p>
@@ -58,6 +61,7 @@ import lombok.extern.slf4j.Slf4j;
 public class RoleService implements RoleServiceInterface {
     
     private RoleRepository roleRepository;
+    private BoundedTtlCache<String, UserDetails> userDetailsCache;
 
     /**
      * Sets the RoleRepository dependency.
@@ -69,6 +73,17 @@ public class RoleService implements RoleServiceInterface {
         this.roleRepository = roleRepository;
     }
 
+    /**
+     * Sets the cache of user details used on login. The authorities of every cached user come
+     * from its role, so any change to a role clears the whole cache.
+     * 
+     * @param userDetailsCache The {@link BoundedTtlCache} to be injected.
+     */
+    @Autowired
+    public void setUserDetailsCache(BoundedTtlCache<String, UserDetails> userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
     /**
      * Retrieves all roles from the repository.
      * 
@@ -117,7 +132,9 @@ public class RoleService implements RoleServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found for this id :: " + rolId));
 
         role.setName(roleDetails.getName());
-        return roleRepository.save(role);
+        Role saved = roleRepository.save(role);
+        userDetailsCache.invalidateAll();
+        return saved;
     }
 
     /**
@@ -132,6 +149,7 @@ public class RoleService implements RoleServiceInterface {
                 .orElseThrow(() -> new ResourceNotFoundException("Role not found for this id :: " + rolId));
 
         roleRepository.delete(role);
+        userDetailsCache.invalidateAll();
     }
 
     @Override
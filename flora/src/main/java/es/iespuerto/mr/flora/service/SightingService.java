@@ -0,0 +1,168 @@
+package es.iespuerto.mr.flora.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
+import es.iespuerto.mr.flora.model.Sighting;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+import es.iespuerto.mr.flora.service.facet.PlantFacetIndex;
+import es.iespuerto.mr.flora.service.geo.GeoDistance;
+import es.iespuerto.mr.flora.service.geo.LocationGridIndex;
+import es.iespuerto.mr.flora.service.sighting.SightingIngestor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service class for reporting {@link Sighting}s. It implements the {@link SightingServiceInterface}.
+ *
+ * <p>Sightings are checked here, on the request thread, and then handed to the
+ * {@link SightingIngestor}, which writes them in batches. The {@code sightings} table has no
+ * foreign keys, so every reference is checked before queuing, without a query per sighting: the
+ * user is the authenticated one, its id read through a cache by name, and the plant and the
+ * location must be known to the in-memory {@link PlantFacetIndex} and {@link LocationGridIndex}.</p>
+ */
+@Slf4j
+@Component
+public class SightingService implements SightingServiceInterface {
+
+    /**
+     * How far in the future an observation time may be, to allow for the clocks of the devices.
+     */
+    public static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private SightingIngestor ingestor;
+    private PlantFacetIndex plantIndex;
+    private LocationGridIndex locationIndex;
+    private UserRepository userRepository;
+    private BoundedTtlCache<String, Integer> userIdCache;
+    private Clock clock = Clock.systemUTC();
+    private long retryAfterSeconds = 1;
+
+    /**
+     * Sets the {@link SightingIngestor} the sightings are queued in.
+     *
+     * @param ingestor the ingestor to be injected.
+     */
+    @Autowired
+    public void setIngestor(SightingIngestor ingestor) {
+        this.ingestor = ingestor;
+    }
+
+    /**
+     * Sets the {@link PlantFacetIndex} the plant of a sighting is checked against.
+     *
+     * @param plantIndex the index to be injected.
+     */
+    @Autowired
+    public void setPlantIndex(PlantFacetIndex plantIndex) {
+        this.plantIndex = plantIndex;
+    }
+
+    /**
+     * Sets the {@link LocationGridIndex} the location of a sighting is checked against.
+     *
+     * @param locationIndex the index to be injected.
+     */
+    @Autowired
+    public void setLocationIndex(LocationGridIndex locationIndex) {
+        this.locationIndex = locationIndex;
+    }
+
+    /**
+     * Sets the {@link UserRepository} the id of the reporting user is read from on a cache miss.
+     *
+     * @param userRepository the repository to be injected.
+     */
+    @Autowired
+    public void setUserRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Sets the cache of user ids by name.
+     *
+     * @param userIdCache the cache to be injected.
+     */
+    @Autowired
+    public void setUserIdCache(BoundedTtlCache<String, Integer> userIdCache) {
+        this.userIdCache = userIdCache;
+    }
+
+    /**
+     * Sets the clock used to fill in and check the observation time.
+     *
+     * @param clock the clock to use.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the number of seconds a client is asked to wait when the buffer is full.
+     *
+     * @param retryAfterSeconds the value of {@code flora.sightings.retry-after-seconds}.
+     */
+    @Value("${flora.sightings.retry-after-seconds:1}")
+    public void setRetryAfterSeconds(long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Validates a sighting of the authenticated user and queues it to be written in the background.
+     *
+     * @param username the name of the authenticated user, who the sighting is attributed to.
+     * @param sighting the sighting to record; a missing {@code observedAt} means now and any
+     *        {@code userId} given is replaced by the id of the authenticated user.
+     * @return the sighting as it will be stored, without id yet.
+     * @throws ResourceNotFoundException if the user, the plant or the location does not exist.
+     * @throws InvalidRequestException if the sighting is invalid.
+     * @throws TooManyRequestsException if the ingestion buffer is full.
+     */
+    @Override
+    public Sighting recordSighting(String username, Sighting sighting) throws ResourceNotFoundException {
+        Instant now = clock.instant();
+        if (sighting.getPlantId() <= 0) {
+            throw new InvalidRequestException("plantId is required");
+        }
+        if (sighting.getLocationId() != null && sighting.getLocationId() <= 0) {
+            throw new InvalidRequestException("locationId must be positive");
+        }
+        if ((sighting.getLatitude() == null) != (sighting.getLongitude() == null)) {
+            throw new InvalidRequestException("Latitude and longitude must be given together");
+        }
+        if (sighting.getLatitude() != null) {
+            GeoDistance.checkCoordinates(sighting.getLatitude(), sighting.getLongitude());
+        }
+        if (sighting.getObservedAt() == null) {
+            sighting.setObservedAt(now);
+        } else if (sighting.getObservedAt().isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            throw new InvalidRequestException("observedAt cannot be in the future");
+        }
+        if (!plantIndex.containsPlant(sighting.getPlantId())) {
+            throw new ResourceNotFoundException("Plant not found for this id :: " + sighting.getPlantId());
+        }
+        if (sighting.getLocationId() != null && !locationIndex.contains(sighting.getLocationId())) {
+            throw new ResourceNotFoundException("Location not found for this id :: " + sighting.getLocationId());
+        }
+        Integer userId = userIdCache.get(username, name -> userRepository.findIdByName(name).orElse(null));
+        if (userId == null) {
+            throw new ResourceNotFoundException("User not found for this name :: " + username);
+        }
+        sighting.setUserId(userId);
+        sighting.setId(0);
+
+        if (!ingestor.offer(sighting)) {
+            log.debug("Buffer de avistamientos lleno, rechazando avistamiento de la planta {}", sighting.getPlantId());
+            throw new TooManyRequestsException("Sighting buffer is full, retry later", retryAfterSeconds);
+        }
+        return sighting;
+    }
+}
@@ -0,0 +1,24 @@
+package es.iespuerto.mr.flora.service;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
+import es.iespuerto.mr.flora.model.Sighting;
+
+/**
+ * Interface for reporting plant sightings.
+ */
+public interface SightingServiceInterface {
+
+    /**
+     * Validates a sighting of the authenticated user and queues it to be written in the background.
+     *
+     * @param username the name of the authenticated user, who the sighting is attributed to.
+     * @param sighting the sighting to record; a missing {@code observedAt} means now.
+     * @return the sighting as it will be stored.
+     * @throws ResourceNotFoundException if the user, the plant or the location does not exist.
+     * @throws InvalidRequestException if the sighting is invalid.
+     * @throws TooManyRequestsException if the ingestion buffer is full.
+     */
+    Sighting recordSighting(String username, Sighting sighting) throws ResourceNotFoundException;
+}
@@ -3,20 +3,30 @@ package es.iespuerto.mr.flora.service;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service class for managing users.
  * <p>This class implements the {@link UserServiceInterface} and provides methods to perform CRUD operations on users.</p>
- * <p>It uses {@link UserRepository} to interact with the database.</p>
+ * <p>It uses {@link UserRepository} to interact with the database. Updating or deleting a user invalidates
+ * its entries in the cache of user details used on login and in the cache of user ids by name. The favorites of a deleted user are deleted first
+ * through the {@link FavoriteServiceInterface}, which keeps the favorite indexes and caches up to date.</p>
  * 
  * <p>Annotations used:</p>
  * <ul>
@@ -27,7 +37,7 @@ import lombok.extern.slf4j.Slf4j;
  * 
  * <p>Methods:</p>
  * <ul>
- *   <li>{@link #getAllUsers()} - Retrieves a list of all users from the database.</li>
+ *   <li>{@link #getAllUsers()} - Retrieves a summary of every user from the database.</li>
  *   <li>{@link #getUserById(int)} - Retrieves a user by their ID.</li>
  *   <li>{@link #createUser(User)} - Creates a new user.</li>
  *   <li>{@link #updateUser(int, User)} - Updates an existing user based on their ID.</li>
@@ -49,6 +59,10 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService implements UserServiceInterface {
 
     private final UserRepository userRepository;
+    private BoundedTtlCache<String, UserDetails> userDetailsCache;
+    private BoundedTtlCache<String, Integer> userIdCache;
+    private FavoriteServiceInterface favoriteService;
+    private TransactionTemplate transactionTemplate;
 
     /**
      * Constructor that initializes the {@link UserRepository}.
@@ -61,13 +75,53 @@ public class UserService implements UserServiceInterface {
     }
 
     /**
-     * Retrieves all users from the database.
+     * Sets the cache of user details used on login, which is invalidated when a user changes.
      * 
-     * @return A list of all {@link User} objects.
+     * @param userDetailsCache The {@link BoundedTtlCache} to be injected.
      */
-    public List<User> getAllUsers() {
+    @Autowired
+    public void setUserDetailsCache(BoundedTtlCache<String, UserDetails> userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    /**
+     * Sets the cache of user ids by name, which is invalidated when a user is renamed or deleted.
+     * 
+     * @param userIdCache The {@link BoundedTtlCache} to be injected.
+     */
+    @Autowired
+    public void setUserIdCache(BoundedTtlCache<String, Integer> userIdCache) {
+        this.userIdCache = userIdCache;
+    }
+
+    /**
+     * Sets the favorite service used to delete the favorites of a deleted user.
+     * 
+     * @param favoriteService The {@link FavoriteServiceInterface} to be injected.
+     */
+    @Autowired
+    public void setFavoriteService(FavoriteServiceInterface favoriteService) {
+        this.favoriteService = favoriteService;
+    }
+
+    /**
+     * Sets the transaction manager used to delete a user together with their favorites.
+     * 
+     * @param transactionManager The transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retrieves a summary of every user from the database, with a single query that joins the roles.
+     * 
+     * @return A list of {@link UserSummary} objects, one per user.
+     */
+    public List<UserSummary> getAllUsers() {
         log.info("Fetching all users");
-        return userRepository.findAll();
+        return userRepository.findAllSummaries();
     }
 
     /**
@@ -108,14 +162,26 @@ public class UserService implements UserServiceInterface {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found for this id :: " + userId));
 
+        String previousName = user.getName();
+
         // Update user details
         user.setName(userDetails.getName());
         // Add more fields if necessary
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+
+        // Logins must not see the old name or the old details any more
+        userDetailsCache.invalidate(previousName);
+        userDetailsCache.invalidate(saved.getName());
+        userIdCache.invalidate(previousName);
+        userIdCache.invalidate(saved.getName());
+        return saved;
     }
 
     /**
      * Deletes a user by their ID.
+     * The favorites and the user are deleted in one transaction, and the favorite indexes are
+     * updated only after it commits. If a favorite is added concurrently the transaction fails
+     * and is retried once.
      * 
      * @param userId The ID of the user to be deleted.
      * @throws ResourceNotFoundException If no user is found for the given ID.
@@ -127,14 +193,23 @@ public class UserService implements UserServiceInterface {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found for this id :: " + userId));
     
-        // Remove the role association if necessary
-        if (user.getRole() != null) {
-            user.setRole(null);
-            userRepository.save(user);  
+        // Delete the favorites and the user together: the foreign key does not cascade
+        TransactionCallback<List<Integer>> delete = status -> {
+            List<Integer> plantIds = favoriteService.deleteUserFavorites(userId);
+            userRepository.delete(user);
+            userRepository.flush();
+            return plantIds;
+        };
+        List<Integer> plantIds;
+        try {
+            plantIds = transactionTemplate.execute(delete);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+            log.warn("Conflict while deleting user with id: {}, retrying", userId);
+            plantIds = transactionTemplate.execute(delete);
         }
-
-        // Delete the user
-        userRepository.delete(user);
+        favoriteService.userFavoritesDeleted(userId, plantIds);
+        userDetailsCache.invalidate(user.getName());
+        userIdCache.invalidate(user.getName());
         log.info("User with id: {} deleted successfully", userId);
     }
 }
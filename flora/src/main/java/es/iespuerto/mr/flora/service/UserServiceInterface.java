@@ -2,6 +2,7 @@ package es.iespuerto.mr.flora.service;
 
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.User;
 
@@ -15,7 +16,7 @@ import es.iespuerto.mr.flora.model.User;
  * 
  * Methods:
  * <ul>
- *   <li>{@link #getAllUsers()}: Retrieves a list of all users.</li>
+ *   <li>{@link #getAllUsers()}: Retrieves a summary of every user.</li>
  *   <li>{@link #getUserById(int)}: Retrieves a user by their ID.</li>
  *   <li>{@link #createUser(User)}: Creates a new user.</li>
  *   <li>{@link #updateUser(int, User)}: Updates an existing user with new details.</li>
@@ -28,11 +29,11 @@ import es.iespuerto.mr.flora.model.User;
 public interface UserServiceInterface {
 
     /**
-     * Retrieves a list of all users.
+     * Retrieves a summary of every user: id, name and role name, without the password.
      *
-     * @return a list of all users.
+     * @return a list of the summaries of all users.
      */
-    List<User> getAllUsers();
+    List<UserSummary> getAllUsers();
 
     /**
      * Retrieves a user by their ID.
@@ -0,0 +1,168 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-process read-through cache bounded by size and by time to live, backed by a Caffeine
+ * {@link Cache}.
+ *
+ * <p>Reads of a cached value take no lock: they go straight to Caffeine's concurrent hash table,
+ * which records the access in a lock-free buffer, so every request thread can hit the cache at
+ * the same time. When the cache grows beyond {@code maxSize} Caffeine evicts the entry least
+ * likely to be used again, judged by how recently and how often it was read. An entry older than
+ * {@code ttl} is treated as a miss and dropped.</p>
+ *
+ * <p>Values are loaded outside Caffeine's locks, so a slow load does not block readers of other
+ * keys. Every invalidation bumps an epoch; a load that started before an invalidation is returned
+ * to its caller but not stored, which keeps a concurrent read from putting back a value that a
+ * write has just replaced.</p>
+ *
+ * <p>Hits, misses, evictions and the current size are published to Micrometer with the standard
+ * {@code cache.*} meter names, tagged with the cache name.</p>
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the cached values.
+ */
+public class BoundedTtlCache<K, V> implements MeterBinder {
+
+    private final String name;
+    private final int maxSize;
+    private final Cache<K, V> cache;
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache measuring time with {@link System#nanoTime()}.
+     *
+     * @param name the name of the cache, used to tag its metrics.
+     * @param maxSize the maximum number of entries.
+     * @param ttl how long an entry stays valid after being loaded.
+     */
+    public BoundedTtlCache(String name, int maxSize, Duration ttl) {
+        this(name, maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Creates a cache with a custom time source.
+     *
+     * @param name the name of the cache, used to tag its metrics.
+     * @param maxSize the maximum number of entries.
+     * @param ttl how long an entry stays valid after being loaded.
+     * @param ticker the time source, in nanoseconds.
+     */
+    public BoundedTtlCache(String name, int maxSize, Duration ttl, LongSupplier ticker) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        // Maintenance runs on the calling thread, under a lock that is only ever tried, never waited on
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker::getAsLong)
+                .executor(Runnable::run)
+                .evictionListener((K key, V value, RemovalCause cause) -> evictions.increment())
+                .build();
+    }
+
+    /**
+     * Returns the cached value for the key, loading and caching it on a miss.
+     *
+     * @param key the key to look up.
+     * @param loader loads the value on a miss; may return {@code null}, which is not cached.
+     * @return the cached or loaded value, or {@code null} if the loader found nothing.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        long loadEpoch = epoch.get();
+        misses.increment();
+
+        V value = loader.apply(key);
+        if (value != null) {
+            // Checked inside compute: an invalidation bumps the epoch before removing the key
+            cache.asMap().compute(key, (k, current) -> epoch.get() == loadEpoch ? value : current);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the entry of a key. Loads already in progress will not be cached.
+     *
+     * @param key the key to invalidate.
+     */
+    public void invalidate(K key) {
+        epoch.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    /**
+     * Removes every entry. Loads already in progress will not be cached.
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Gets the number of entries currently cached, including expired ones not yet dropped.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return (int) cache.estimatedSize();
+    }
+
+    /**
+     * Takes a snapshot of the counters of the cache.
+     *
+     * @return the current statistics.
+     */
+    public CacheStats stats() {
+        return new CacheStats(name, size(), maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Registers the size, hit, miss and eviction meters of the cache.
+     *
+     * @param registry the registry to bind to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cache.size", this, BoundedTtlCache::size)
+                .tag("cache", name)
+                .description("The number of entries in this cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", name, "result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", name, "result", "miss")
+                .description("The number of times cache lookup methods have loaded a value")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tag("cache", name)
+                .description("The number of entries evicted because of size or expiration")
+                .register(registry);
+    }
+}
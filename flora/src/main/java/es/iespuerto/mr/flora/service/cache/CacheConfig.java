@@ -0,0 +1,98 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import es.iespuerto.mr.flora.model.Plant;
+
+/**
+ * Declares the in-process caches of the application.
+ *
+ * <p>Each cache is a singleton bean, so the REST controllers and the SOAP endpoints, which share
+ * the same services, also share the same cache instances. Being {@code MeterBinder}s, their
+ * counters are registered in the actuator metrics automatically.</p>
+ */
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Name of the cache of plants by id.
+     */
+    public static final String PLANTS = "plants";
+
+    /**
+     * Name of the cache of favorite plant ids by user.
+     */
+    public static final String USER_FAVORITES = "user-favorites";
+
+    /**
+     * Name of the cache of user details by user name.
+     */
+    public static final String USER_DETAILS = "user-details";
+
+    /**
+     * Name of the cache of user ids by user name.
+     */
+    public static final String USER_IDS = "user-ids";
+
+    /**
+     * Cache of {@link Plant} entities by id, used by {@code PlantService}.
+     *
+     * @param maxSize the value of {@code flora.cache.plants.max-size}.
+     * @param ttl the value of {@code flora.cache.plants.ttl}.
+     * @return the plant cache.
+     */
+    @Bean
+    public BoundedTtlCache<Integer, Plant> plantCache(@Value("${flora.cache.plants.max-size:10000}") int maxSize,
+            @Value("${flora.cache.plants.ttl:10m}") Duration ttl) {
+        return new BoundedTtlCache<>(PLANTS, maxSize, ttl);
+    }
+
+    /**
+     * Cache of the favorite plant ids of each user, used by {@code FavoriteService}. Ids are kept
+     * as sorted {@code int[]}, four bytes per favorite, instead of boxed {@code Favorite} entities.
+     *
+     * @param maxSize the value of {@code flora.cache.user-favorites.max-size}.
+     * @param ttl the value of {@code flora.cache.user-favorites.ttl}.
+     * @return the favorites cache.
+     */
+    @Bean
+    public BoundedTtlCache<Integer, int[]> userFavoritesCache(@Value("${flora.cache.user-favorites.max-size:10000}") int maxSize,
+            @Value("${flora.cache.user-favorites.ttl:10m}") Duration ttl) {
+        return new BoundedTtlCache<>(USER_FAVORITES, maxSize, ttl);
+    }
+
+    /**
+     * Cache of the {@link UserDetails} of each user by name, used by {@code CustomUserDetailsService}
+     * so that a login does not query the user and its role. {@code UserService} and
+     * {@code RoleService} invalidate it when a user or a role changes.
+     *
+     * @param maxSize the value of {@code flora.cache.user-details.max-size}.
+     * @param ttl the value of {@code flora.cache.user-details.ttl}.
+     * @return the user details cache.
+     */
+    @Bean
+    public BoundedTtlCache<String, UserDetails> userDetailsCache(@Value("${flora.cache.user-details.max-size:10000}") int maxSize,
+            @Value("${flora.cache.user-details.ttl:5m}") Duration ttl) {
+        return new BoundedTtlCache<>(USER_DETAILS, maxSize, ttl);
+    }
+
+    /**
+     * Cache of the id of each user by name, used by {@code SightingService} to attribute a sighting
+     * to the authenticated user without a query per sighting. {@code UserService} invalidates it
+     * when a user is renamed or deleted.
+     *
+     * @param maxSize the value of {@code flora.cache.user-ids.max-size}.
+     * @param ttl the value of {@code flora.cache.user-ids.ttl}.
+     * @return the user id cache.
+     */
+    @Bean
+    public BoundedTtlCache<String, Integer> userIdCache(@Value("${flora.cache.user-ids.max-size:10000}") int maxSize,
+            @Value("${flora.cache.user-ids.ttl:10m}") Duration ttl) {
+        return new BoundedTtlCache<>(USER_IDS, maxSize, ttl);
+    }
+}
@@ -0,0 +1,132 @@
+package es.iespuerto.mr.flora.service.cache;
+
+/**
+ * Point-in-time snapshot of the counters of a region of the Hibernate second-level cache.
+ */
+public class CacheRegionStats {
+
+    /**
+     * Kind of the regions that hold entities.
+     */
+    public static final String ENTITY = "entity";
+
+    /**
+     * Kind of the region that holds the results of cacheable queries.
+     */
+    public static final String QUERY = "query";
+
+    private final String region;
+    private final String kind;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long puts;
+    private final long invalidations;
+
+    /**
+     * Creates a snapshot with the given values.
+     *
+     * @param region The name of the region.
+     * @param kind {@link #ENTITY} or {@link #QUERY}.
+     * @param size The number of entries, or -1 if the provider does not tell.
+     * @param hits The number of lookups answered from the region.
+     * @param misses The number of lookups that had to go to the database.
+     * @param puts The number of entries stored in the region.
+     * @param invalidations The number of writes that made cached entries or results stale.
+     */
+    public CacheRegionStats(String region, String kind, long size, long hits, long misses, long puts,
+            long invalidations) {
+        this.region = region;
+        this.kind = kind;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.puts = puts;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * Gets the name of the region.
+     *
+     * @return The name of the region.
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Gets the kind of the region.
+     *
+     * @return {@link #ENTITY} or {@link #QUERY}.
+     */
+    public String getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries, or -1 if the provider does not tell.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of lookups answered from the region.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to go to the database.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries stored in the region.
+     *
+     * @return The number of puts.
+     */
+    public long getPuts() {
+        return puts;
+    }
+
+    /**
+     * Gets the number of writes that made cached entries or results stale: updates and deletes of
+     * the entities of an entity region, or table modifications recorded for the query region.
+     *
+     * @return The number of invalidations.
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the region.
+     *
+     * @return The hit ratio, between 0 and 1; 0 when there were no lookups.
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return A string representing the statistics.
+     */
+    @Override
+    public String toString() {
+        return "CacheRegionStats [region=" + region + ", kind=" + kind + ", size=" + size + ", hits=" + hits
+                + ", misses=" + misses + ", puts=" + puts + ", invalidations=" + invalidations + "]";
+    }
+}
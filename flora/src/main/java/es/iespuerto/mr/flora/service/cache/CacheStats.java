@@ -0,0 +1,108 @@
+package es.iespuerto.mr.flora.service.cache;
+
+/**
+ * Point-in-time snapshot of the counters of a {@link BoundedTtlCache}.
+ */
+public class CacheStats {
+
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * Creates a snapshot with the given values.
+     *
+     * @param name The name of the cache.
+     * @param size The number of entries.
+     * @param maxSize The maximum number of entries.
+     * @param hits The number of lookups answered from the cache.
+     * @param misses The number of lookups that had to load the value.
+     * @param evictions The number of entries dropped because of size or expiration.
+     */
+    public CacheStats(String name, int size, int maxSize, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Gets the name of the cache.
+     *
+     * @return The name of the cache.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return The maximum number of entries.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to load the value.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries dropped because of size or expiration.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the fraction of lookups answered from the cache.
+     *
+     * @return The hit ratio, between 0 and 1; 0 when there were no lookups.
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Returns a string representation of the statistics.
+     *
+     * @return A string representing the statistics.
+     */
+    @Override
+    public String toString() {
+        return "CacheStats [name=" + name + ", size=" + size + ", maxSize=" + maxSize + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+}
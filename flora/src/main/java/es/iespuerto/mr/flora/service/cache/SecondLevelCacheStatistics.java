@@ -0,0 +1,185 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToDoubleFunction;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Reads the statistics of the Hibernate second-level cache, which keeps {@code Category},
+ * {@code Location}, {@code Characteristic} and {@code Role} entities and the results of the
+ * cacheable queries of their repositories.
+ *
+ * <p>There is one snapshot per entity region and one for the query results region. Hibernate
+ * counts hits, misses and puts; the invalidations of an entity region are the updates and deletes
+ * of its entities, each of which replaces or evicts a cached entry, and those of the query region
+ * are the table modifications recorded in the update timestamps region, each of which makes the
+ * cached results over that table stale. The number of entries is the estimate kept by the Caffeine
+ * cache behind each JCache region, so reading it does not walk the entries.</p>
+ *
+ * <p>The same values are published as the {@code flora.cache.l2.*} meters.</p>
+ */
+@Component
+public class SecondLevelCacheStatistics implements MeterBinder {
+
+    private static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+
+    private SessionFactoryImplementor sessionFactory;
+
+    /**
+     * Sets the {@link EntityManagerFactory} whose statistics are read.
+     *
+     * @param entityManagerFactory the factory to be injected.
+     */
+    @Autowired
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * Takes a snapshot of every region: the entity regions ordered by name, then the query region.
+     *
+     * @return the statistics of each region; empty if the second-level cache is disabled.
+     */
+    public List<CacheRegionStats> regions() {
+        List<CacheRegionStats> regions = new ArrayList<>();
+        for (String region : regionNames()) {
+            regions.add(region(region));
+        }
+        return regions;
+    }
+
+    /**
+     * Takes a snapshot of one region.
+     *
+     * @param region the name of the region.
+     * @return the statistics of the region, or {@code null} if there is no such region.
+     */
+    public CacheRegionStats region(String region) {
+        return region(region, true);
+    }
+
+    private CacheRegionStats region(String region, boolean withSize) {
+        SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+        if (!options.isSecondLevelCacheEnabled()) {
+            return null;
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        long size = withSize ? size(region) : -1;
+        if (QUERY_REGION.equals(region)) {
+            if (!options.isQueryCacheEnabled()) {
+                return null;
+            }
+            return new CacheRegionStats(region, CacheRegionStats.QUERY, size,
+                    statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                    statistics.getQueryCachePutCount(), statistics.getUpdateTimestampsCachePutCount());
+        }
+        List<EntityStatistics> entities = entityRegions(statistics).get(region);
+        if (entities == null) {
+            return null;
+        }
+        long invalidations = 0;
+        for (EntityStatistics entity : entities) {
+            invalidations += entity.getUpdateCount() + entity.getDeleteCount();
+        }
+        CacheRegionStatistics counters = statistics.getDomainDataRegionStatistics(region);
+        return new CacheRegionStats(region, CacheRegionStats.ENTITY, size,
+                counters.getHitCount(), counters.getMissCount(), counters.getPutCount(), invalidations);
+    }
+
+    /**
+     * Registers the lookups, invalidations and size of each region.
+     *
+     * @param registry the registry to bind to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : regionNames()) {
+            counter("flora.cache.l2.gets", region, CacheRegionStats::getHits)
+                    .tag("result", "hit")
+                    .description("The number of lookups answered from this second-level cache region")
+                    .register(registry);
+            counter("flora.cache.l2.gets", region, CacheRegionStats::getMisses)
+                    .tag("result", "miss")
+                    .description("The number of lookups in this second-level cache region that went to the database")
+                    .register(registry);
+            counter("flora.cache.l2.invalidations", region, CacheRegionStats::getInvalidations)
+                    .description("The number of writes that made entries of this second-level cache region stale")
+                    .register(registry);
+            Gauge.builder("flora.cache.l2.size", this, s -> value(s.region(region), CacheRegionStats::getSize))
+                    .tag("region", region)
+                    .description("The number of entries in this second-level cache region")
+                    .register(registry);
+        }
+    }
+
+    private FunctionCounter.Builder<SecondLevelCacheStatistics> counter(String meter, String region,
+            ToDoubleFunction<CacheRegionStats> value) {
+        return FunctionCounter.builder(meter, this, s -> value(s.region(region, false), value)).tag("region", region);
+    }
+
+    private static double value(CacheRegionStats region, ToDoubleFunction<CacheRegionStats> value) {
+        return region == null ? Double.NaN : value.applyAsDouble(region);
+    }
+
+    private List<String> regionNames() {
+        List<String> names = new ArrayList<>();
+        SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+        if (options.isSecondLevelCacheEnabled()) {
+            names.addAll(entityRegions(sessionFactory.getStatistics()).keySet());
+            if (options.isQueryCacheEnabled()) {
+                names.add(QUERY_REGION);
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, List<EntityStatistics>> entityRegions(Statistics statistics) {
+        Map<String, List<EntityStatistics>> regions = new TreeMap<>();
+        for (String entityName : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(entityName);
+            if (entity.getCacheRegionName() != null) {
+                regions.computeIfAbsent(entity.getCacheRegionName(), r -> new ArrayList<>()).add(entity);
+            }
+        }
+        return regions;
+    }
+
+    private long size(String region) {
+        RegionFactory regionFactory = sessionFactory.getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory)) {
+            return -1;
+        }
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+        if (cache == null) {
+            return -1;
+        }
+        try {
+            return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        } catch (IllegalArgumentException e) {
+            // Not a Caffeine region: counting would mean walking every entry
+            return -1;
+        }
+    }
+}
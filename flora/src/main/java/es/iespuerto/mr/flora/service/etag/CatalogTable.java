@@ -0,0 +1,44 @@
+package es.iespuerto.mr.flora.service.etag;
+
+/**
+ * Reference tables whose list endpoints support conditional requests.
+ *
+ * @see TableVersions
+ */
+public enum CatalogTable {
+
+    /**
+     * The {@code plants} table.
+     */
+    PLANTS("plants"),
+
+    /**
+     * The {@code locations} table.
+     */
+    LOCATIONS("locations"),
+
+    /**
+     * The {@code categories} table.
+     */
+    CATEGORIES("categories"),
+
+    /**
+     * The {@code characteristics} table.
+     */
+    CHARACTERISTICS("characteristics");
+
+    private final String tableName;
+
+    CatalogTable(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * Gets the name of the database table.
+     *
+     * @return The table name, used as the prefix of its ETags.
+     */
+    public String getTableName() {
+        return tableName;
+    }
+}
@@ -0,0 +1,53 @@
+package es.iespuerto.mr.flora.service.etag;
+
+/**
+ * The serialized JSON body of a list endpoint for one version of its table.
+ *
+ * <p>The body is shared by every response for that version and must not be modified.</p>
+ */
+public final class JsonSnapshot {
+
+    private final long version;
+    private final String etag;
+    private final byte[] body;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param version The table version the body was read at.
+     * @param etag The ETag of that version.
+     * @param body The serialized JSON.
+     */
+    public JsonSnapshot(long version, String etag, byte[] body) {
+        this.version = version;
+        this.etag = etag;
+        this.body = body;
+    }
+
+    /**
+     * Gets the table version the body was read at.
+     *
+     * @return The version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the ETag of the version.
+     *
+     * @return The quoted ETag.
+     */
+    public String getETag() {
+        return etag;
+    }
+
+    /**
+     * Gets the serialized JSON.
+     *
+     * @return The body, shared between responses.
+     */
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,98 @@
+package es.iespuerto.mr.flora.service.etag;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serialized JSON bodies of the catalog list endpoints, one per {@link CatalogTable}, valid for a
+ * single {@link TableVersions version} of the table.
+ *
+ * <p>The first request after a change loads the rows and serializes them once; every later request
+ * for the same version gets the same bytes back without touching the repository or Jackson.</p>
+ *
+ * <p>The version is read before loading the rows and the services bump it only after a change has
+ * been saved, so a body is never labelled with a version newer than the rows it contains. A body
+ * read while a change was being saved is returned but only stored if the version did not move in
+ * the meantime.</p>
+ */
+@Slf4j
+@Component
+public class JsonSnapshotCache {
+
+    private final Map<CatalogTable, JsonSnapshot> snapshots = new EnumMap<>(CatalogTable.class);
+    private TableVersions tableVersions;
+    private ObjectMapper objectMapper;
+
+    /**
+     * Sets the {@link TableVersions} the snapshots are keyed by.
+     *
+     * @param tableVersions the table versions to be injected.
+     */
+    @Autowired
+    public void setTableVersions(TableVersions tableVersions) {
+        this.tableVersions = tableVersions;
+    }
+
+    /**
+     * Sets the {@link ObjectMapper} used to serialize the rows.
+     *
+     * @param objectMapper the mapper to be injected.
+     */
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Gets the ETag of the current version of a table, without loading anything.
+     *
+     * @param table the table.
+     * @return the quoted ETag.
+     */
+    public String currentETag(CatalogTable table) {
+        return tableVersions.currentETag(table);
+    }
+
+    /**
+     * Gets the serialized rows of the current version of a table, loading them if needed.
+     *
+     * @param table the table.
+     * @param loader loads every row of the table.
+     * @return the snapshot of the current version.
+     * @throws IllegalStateException if the rows cannot be serialized.
+     */
+    public JsonSnapshot get(CatalogTable table, Supplier<?> loader) {
+        long version = tableVersions.current(table);
+        JsonSnapshot cached;
+        synchronized (snapshots) {
+            cached = snapshots.get(table);
+        }
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(loader.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + table.getTableName(), e);
+        }
+        JsonSnapshot snapshot = new JsonSnapshot(version, TableVersions.etag(table, version), body);
+        synchronized (snapshots) {
+            if (tableVersions.current(table) == version) {
+                snapshots.put(table, snapshot);
+            }
+        }
+        log.debug("Listado de {} serializado para la versión {} ({} bytes)", table.getTableName(), version, body.length);
+        return snapshot;
+    }
+}
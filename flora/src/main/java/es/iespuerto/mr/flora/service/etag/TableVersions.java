@@ -0,0 +1,72 @@
+package es.iespuerto.mr.flora.service.etag;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Monotonically increasing version of every {@link CatalogTable}.
+ *
+ * <p>The services bump the version of a table after every create, update or delete has been
+ * saved, so two reads that see the same version are guaranteed to see the same rows. Versions
+ * start from the time the application started, which keeps ETags handed out by a previous run
+ * from matching after a restart.</p>
+ */
+@Component
+public class TableVersions {
+
+    private final Map<CatalogTable, AtomicLong> versions = new EnumMap<>(CatalogTable.class);
+
+    /**
+     * Creates the counters, all starting at the current time in milliseconds.
+     */
+    public TableVersions() {
+        long start = System.currentTimeMillis();
+        for (CatalogTable table : CatalogTable.values()) {
+            versions.put(table, new AtomicLong(start));
+        }
+    }
+
+    /**
+     * Gets the current version of a table.
+     *
+     * @param table the table.
+     * @return its current version.
+     */
+    public long current(CatalogTable table) {
+        return versions.get(table).get();
+    }
+
+    /**
+     * Marks a table as changed. Must be called once the change has been saved.
+     *
+     * @param table the table that changed.
+     * @return the new version of the table.
+     */
+    public long bump(CatalogTable table) {
+        return versions.get(table).incrementAndGet();
+    }
+
+    /**
+     * Builds the strong ETag of a version of a table.
+     *
+     * @param table the table.
+     * @param version the version.
+     * @return the quoted ETag, for example {@code "plants-1700000000001"}.
+     */
+    public static String etag(CatalogTable table, long version) {
+        return "\"" + table.getTableName() + "-" + version + "\"";
+    }
+
+    /**
+     * Gets the ETag of the current version of a table.
+     *
+     * @param table the table.
+     * @return the quoted ETag of its current version.
+     */
+    public String currentETag(CatalogTable table) {
+        return etag(table, current(table));
+    }
+}
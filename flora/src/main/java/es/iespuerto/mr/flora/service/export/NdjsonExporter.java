@@ -0,0 +1,128 @@
+package es.iespuerto.mr.flora.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import es.iespuerto.mr.flora.repository.StreamingHints;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the rows of a JPA {@link Stream} as newline delimited JSON (one object per line).
+ *
+ * <p>Rows are serialized as soon as the database cursor returns them and detached from the
+ * persistence context right after, so the memory used by an export does not grow with the
+ * number of rows. The output is flushed every {@link StreamingHints#FETCH_SIZE} rows, which lets
+ * the servlet container send it to the client in chunks.</p>
+ *
+ * <p>Repository methods used for exporting are expected to declare {@link StreamingHints#FETCH_SIZE}
+ * as their fetch size hint. The stream is opened and consumed inside a read-only transaction owned
+ * by the exporter, because the export usually runs on an async thread, after the request thread
+ * has left the controller.</p>
+ */
+@Slf4j
+@Component
+public class NdjsonExporter {
+
+    /**
+     * Media type of newline delimited JSON.
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = Integer.parseInt(StreamingHints.FETCH_SIZE);
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter rowWriter;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+
+    /**
+     * Sets the {@link ObjectMapper} used to serialize every row.
+     *
+     * @param objectMapper the mapper to be injected.
+     */
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Sets the transaction manager used to open the read-only export transaction.
+     *
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        this.transactionTemplate = template;
+    }
+
+    /**
+     * Sets the {@link EntityManager} used to detach the exported rows.
+     *
+     * @param entityManager the shared, transaction-bound entity manager.
+     */
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Streams all the rows returned by the query to the output, one JSON object per line.
+     *
+     * @param rows opens the stream of rows; invoked inside the export transaction.
+     * @param out the output to write to. It is flushed but not closed.
+     * @param <T> the type of the exported entities.
+     * @return the number of rows written.
+     * @throws IOException if writing to the output fails, for instance because the client went away.
+     */
+    public <T> long export(Supplier<Stream<T>> rows, OutputStream out) throws IOException {
+        try {
+            Long count = transactionTemplate.execute(status -> write(rows, out));
+            return count == null ? 0 : count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> long write(Supplier<Stream<T>> rows, OutputStream out) {
+        long count = 0;
+        try (Stream<T> stream = rows.get();
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+                entityManager.detach(row);
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        } catch (IOException e) {
+            log.warn("Exportación interrumpida tras {} filas: {}", count, e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,24 @@
+package es.iespuerto.mr.flora.service.facet;
+
+/**
+ * The facets a plant can be filtered by.
+ *
+ * @see PlantFacetIndex
+ */
+public enum FacetType {
+
+    /**
+     * The categories of the plant, stored in {@code plant_categories}.
+     */
+    CATEGORY,
+
+    /**
+     * The locations where the plant grows, stored in {@code plant_locations}.
+     */
+    LOCATION,
+
+    /**
+     * The characteristics of the plant, stored in {@code plant_characteristics}.
+     */
+    CHARACTERISTIC
+}
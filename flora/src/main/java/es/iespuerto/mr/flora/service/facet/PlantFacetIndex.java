@@ -0,0 +1,402 @@
+package es.iespuerto.mr.flora.service.facet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.dto.FacetCount;
+import es.iespuerto.mr.flora.model.PlantAssociation;
+import es.iespuerto.mr.flora.repository.PlantCategoryRepository;
+import es.iespuerto.mr.flora.repository.PlantCharacteristicRepository;
+import es.iespuerto.mr.flora.repository.PlantLocationRepository;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory faceted index of plants, with one compressed bitmap of plant ids per category,
+ * location and characteristic.
+ *
+ * <p>Bitmaps are {@link RoaringBitmap}s, which store dense runs of ids as bitsets or runs and
+ * sparse ones as sorted arrays, so a facet value linked to a handful of plants costs a few bytes
+ * while intersections and unions stay word-at-a-time operations.</p>
+ *
+ * <p>A filter selects values of one or more facets. Values of the same facet are combined with
+ * OR and the facets with AND, so "succulents on the Teide that flower in spring" is
+ * {@code CATEGORY(Suculentas) AND LOCATION(Teide) AND CHARACTERISTIC(Floración en primavera)}.
+ * The counts of each facet are computed against the result of the other facets only, so they
+ * show how many plants every alternative value would match.</p>
+ *
+ * <p>The index is built from the database once the application is ready and then kept up to date
+ * by {@code PlantService} and {@code PlantFacetService} on every write. Reads share a read lock
+ * and never touch the database.</p>
+ */
+@Slf4j
+@Component
+public class PlantFacetIndex {
+
+    private static final Comparator<FacetCount> BY_COUNT = Comparator.comparingInt(FacetCount::getCount).reversed()
+            .thenComparingInt(FacetCount::getId);
+
+    private final RoaringBitmap plants = new RoaringBitmap();
+    private final Map<FacetType, Map<Integer, RoaringBitmap>> facets = new EnumMap<>(FacetType.class);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private PlantRepository plantRepository;
+    private PlantCategoryRepository plantCategoryRepository;
+    private PlantLocationRepository plantLocationRepository;
+    private PlantCharacteristicRepository plantCharacteristicRepository;
+
+    /**
+     * Creates an empty index.
+     */
+    public PlantFacetIndex() {
+        for (FacetType type : FacetType.values()) {
+            facets.put(type, new HashMap<>());
+        }
+    }
+
+    /**
+     * Sets the {@link PlantRepository} used to build the index at startup.
+     *
+     * @param plantRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantRepository(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * Sets the {@link PlantCategoryRepository} used to build the index at startup.
+     *
+     * @param plantCategoryRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantCategoryRepository(PlantCategoryRepository plantCategoryRepository) {
+        this.plantCategoryRepository = plantCategoryRepository;
+    }
+
+    /**
+     * Sets the {@link PlantLocationRepository} used to build the index at startup.
+     *
+     * @param plantLocationRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantLocationRepository(PlantLocationRepository plantLocationRepository) {
+        this.plantLocationRepository = plantLocationRepository;
+    }
+
+    /**
+     * Sets the {@link PlantCharacteristicRepository} used to build the index at startup.
+     *
+     * @param plantCharacteristicRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantCharacteristicRepository(PlantCharacteristicRepository plantCharacteristicRepository) {
+        this.plantCharacteristicRepository = plantCharacteristicRepository;
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Invoked once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        RoaringBitmap allPlants = new RoaringBitmap();
+        plantRepository.findAllIds().forEach(allPlants::add);
+        Map<FacetType, Map<Integer, RoaringBitmap>> loaded = new EnumMap<>(FacetType.class);
+        loaded.put(FacetType.CATEGORY, load(plantCategoryRepository.findAll()));
+        loaded.put(FacetType.LOCATION, load(plantLocationRepository.findAll()));
+        loaded.put(FacetType.CHARACTERISTIC, load(plantCharacteristicRepository.findAll()));
+
+        lock.writeLock().lock();
+        try {
+            plants.clear();
+            plants.or(allPlants);
+            plants.runOptimize();
+            facets.putAll(loaded);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de facetas construido con {} plantas", allPlants.getCardinality());
+    }
+
+    /**
+     * Adds a new plant, without facet values yet.
+     *
+     * @param plantId the id of the plant.
+     */
+    public void addPlant(int plantId) {
+        lock.writeLock().lock();
+        try {
+            plants.add(plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a plant and all its facet values.
+     *
+     * @param plantId the id of the plant.
+     */
+    public void removePlant(int plantId) {
+        lock.writeLock().lock();
+        try {
+            plants.remove(plantId);
+            for (Map<Integer, RoaringBitmap> values : facets.values()) {
+                Iterator<RoaringBitmap> bitmaps = values.values().iterator();
+                while (bitmaps.hasNext()) {
+                    RoaringBitmap bitmap = bitmaps.next();
+                    bitmap.remove(plantId);
+                    if (bitmap.isEmpty()) {
+                        bitmaps.remove();
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Links a plant with a facet value.
+     *
+     * @param type the facet.
+     * @param valueId the id of the category, location or characteristic.
+     * @param plantId the id of the plant.
+     */
+    public void link(FacetType type, int valueId, int plantId) {
+        lock.writeLock().lock();
+        try {
+            facets.get(type).computeIfAbsent(valueId, id -> new RoaringBitmap()).add(plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Unlinks a plant from a facet value.
+     *
+     * @param type the facet.
+     * @param valueId the id of the category, location or characteristic.
+     * @param plantId the id of the plant.
+     */
+    public void unlink(FacetType type, int valueId, int plantId) {
+        lock.writeLock().lock();
+        try {
+            RoaringBitmap bitmap = facets.get(type).get(valueId);
+            if (bitmap != null) {
+                bitmap.remove(plantId);
+                if (bitmap.isEmpty()) {
+                    facets.get(type).remove(valueId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a facet value, for example a deleted category, from every plant.
+     *
+     * @param type the facet.
+     * @param valueId the id of the category, location or characteristic.
+     */
+    public void removeValue(FacetType type, int valueId) {
+        lock.writeLock().lock();
+        try {
+            facets.get(type).remove(valueId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the plants matching a selection of facet values.
+     *
+     * @param selection the selected value ids of each facet; facets missing or with no values do not filter.
+     * @param afterId only plants with a greater id are returned, {@code 0} for the first page.
+     * @param limit the maximum number of plant ids to return.
+     * @return the matching ids in ascending order, the total and the counts of every facet.
+     */
+    public Hits filter(Map<FacetType, ? extends Collection<Integer>> selection, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<FacetType, RoaringBitmap> selected = new EnumMap<>(FacetType.class);
+            for (Map.Entry<FacetType, ? extends Collection<Integer>> entry : selection.entrySet()) {
+                if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                    selected.put(entry.getKey(), union(entry.getKey(), entry.getValue()));
+                }
+            }
+
+            RoaringBitmap result = intersect(selected, null);
+            Map<FacetType, List<FacetCount>> counts = new EnumMap<>(FacetType.class);
+            for (FacetType type : FacetType.values()) {
+                RoaringBitmap base = selected.containsKey(type) ? intersect(selected, type) : result;
+                counts.put(type, count(type, base));
+            }
+
+            int[] page = new int[Math.max(0, Math.min(limit, result.getCardinality()))];
+            int size = 0;
+            PeekableIntIterator ids = result.getIntIterator();
+            ids.advanceIfNeeded(afterId + 1);
+            while (size < page.length && ids.hasNext()) {
+                page[size++] = ids.next();
+            }
+            int[] plantIds = size == page.length ? page : Arrays.copyOf(page, size);
+            return new Hits(result.getCardinality(), plantIds, ids.hasNext(), counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tells whether a plant exists, without querying the database.
+     *
+     * @param plantId the id of the plant.
+     * @return {@code true} if the plant is indexed.
+     */
+    public boolean containsPlant(int plantId) {
+        lock.readLock().lock();
+        try {
+            return plants.contains(plantId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of plants currently indexed.
+     *
+     * @return the number of indexed plants.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return plants.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<Integer, RoaringBitmap> load(List<? extends PlantAssociation> associations) {
+        Map<Integer, RoaringBitmap> values = new HashMap<>();
+        for (PlantAssociation association : associations) {
+            values.computeIfAbsent(association.getValueId(), id -> new RoaringBitmap()).add(association.getPlantId());
+        }
+        values.values().forEach(RoaringBitmap::runOptimize);
+        return values;
+    }
+
+    /**
+     * ORs the bitmaps of the selected values of a facet. Unknown values match no plant.
+     */
+    private RoaringBitmap union(FacetType type, Collection<Integer> valueIds) {
+        Map<Integer, RoaringBitmap> values = facets.get(type);
+        List<RoaringBitmap> bitmaps = new ArrayList<>(valueIds.size());
+        for (Integer valueId : valueIds) {
+            RoaringBitmap bitmap = values.get(valueId);
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+        return RoaringBitmap.or(bitmaps.iterator());
+    }
+
+    /**
+     * ANDs every plant with the selected facets, leaving out {@code excluded}.
+     */
+    private RoaringBitmap intersect(Map<FacetType, RoaringBitmap> selected, FacetType excluded) {
+        RoaringBitmap result = plants.clone();
+        for (Map.Entry<FacetType, RoaringBitmap> entry : selected.entrySet()) {
+            if (entry.getKey() != excluded) {
+                result.and(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private List<FacetCount> count(FacetType type, RoaringBitmap base) {
+        if (base.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<Integer, RoaringBitmap> entry : facets.get(type).entrySet()) {
+            int count = RoaringBitmap.andCardinality(base, entry.getValue());
+            if (count > 0) {
+                counts.add(new FacetCount(entry.getKey(), count));
+            }
+        }
+        counts.sort(BY_COUNT);
+        return counts;
+    }
+
+    /**
+     * The result of {@link PlantFacetIndex#filter}.
+     */
+    public static final class Hits {
+        private final long total;
+        private final int[] plantIds;
+        private final boolean more;
+        private final Map<FacetType, List<FacetCount>> counts;
+
+        private Hits(long total, int[] plantIds, boolean more, Map<FacetType, List<FacetCount>> counts) {
+            this.total = total;
+            this.plantIds = plantIds;
+            this.more = more;
+            this.counts = counts;
+        }
+
+        /**
+         * Gets the number of matching plants.
+         *
+         * @return the number of matching plants.
+         */
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Gets the ids of the requested page.
+         *
+         * @return the matching ids after the cursor, in ascending order.
+         */
+        public int[] getPlantIds() {
+            return plantIds;
+        }
+
+        /**
+         * Tells whether there are matching plants after this page.
+         *
+         * @return {@code true} if another page exists.
+         */
+        public boolean hasMore() {
+            return more;
+        }
+
+        /**
+         * Gets the counts of a facet.
+         *
+         * @param type the facet.
+         * @return the counts of its values, most frequent first.
+         */
+        public List<FacetCount> getCounts(FacetType type) {
+            return counts.get(type);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package es.iespuerto.mr.flora.service.geo;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+/**
+ * Great-circle distances on a spherical Earth, in kilometres.
+ */
+public final class GeoDistance {
+
+    /**
+     * Mean radius of the Earth, in kilometres.
+     */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private GeoDistance() {
+    }
+
+    /**
+     * Computes the haversine distance between two points.
+     *
+     * @param lat1 the latitude of the first point, in degrees.
+     * @param lon1 the longitude of the first point, in degrees.
+     * @param lat2 the latitude of the second point, in degrees.
+     * @param lon2 the longitude of the second point, in degrees.
+     * @return the distance in kilometres.
+     */
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double h = sinLat * sinLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    /**
+     * Checks that a latitude and a longitude are valid WGS84 coordinates.
+     *
+     * @param latitude the latitude, in degrees.
+     * @param longitude the longitude, in degrees.
+     * @throws InvalidRequestException if either is out of range or not a number.
+     */
+    public static void checkCoordinates(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new InvalidRequestException("Latitude must be between -90 and 90: " + latitude);
+        }
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new InvalidRequestException("Longitude must be between -180 and 180: " + longitude);
+        }
+    }
+}
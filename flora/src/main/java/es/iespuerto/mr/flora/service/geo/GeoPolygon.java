@@ -0,0 +1,141 @@
+package es.iespuerto.mr.flora.service.geo;
+
+import java.util.Arrays;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+/**
+ * Immutable simple polygon in latitude/longitude degrees, parsed from the {@code bounds} of a
+ * {@code Location}.
+ *
+ * <p>Containment treats degrees as planar coordinates, which is accurate enough for the size of
+ * the areas stored here (parks, towns) and does not handle polygons crossing the antimeridian.</p>
+ */
+public final class GeoPolygon {
+
+    /**
+     * Maximum number of vertices accepted in a polygon.
+     */
+    public static final int MAX_VERTICES = 1000;
+
+    private final double[] lats;
+    private final double[] lons;
+    private final double minLat;
+    private final double minLon;
+    private final double maxLat;
+    private final double maxLon;
+
+    private GeoPolygon(double[] lats, double[] lons) {
+        this.lats = lats;
+        this.lons = lons;
+        this.minLat = Arrays.stream(lats).min().getAsDouble();
+        this.maxLat = Arrays.stream(lats).max().getAsDouble();
+        this.minLon = Arrays.stream(lons).min().getAsDouble();
+        this.maxLon = Arrays.stream(lons).max().getAsDouble();
+    }
+
+    /**
+     * Parses a polygon written as {@code "lat lon, lat lon, ..."}. Closing the ring by repeating
+     * the first vertex is allowed but not required.
+     *
+     * @param bounds the text to parse.
+     * @return the polygon.
+     * @throws InvalidRequestException if the text is malformed, has fewer than three or more than
+     *         {@value #MAX_VERTICES} vertices, or a coordinate is out of range.
+     */
+    public static GeoPolygon parse(String bounds) {
+        String[] vertices = bounds.trim().split("\\s*,\\s*");
+        if (vertices.length > MAX_VERTICES + 1) {
+            throw new InvalidRequestException("Bounds cannot have more than " + MAX_VERTICES + " vertices");
+        }
+        double[] lats = new double[vertices.length];
+        double[] lons = new double[vertices.length];
+        for (int i = 0; i < vertices.length; i++) {
+            String[] parts = vertices[i].split("\\s+");
+            if (parts.length != 2) {
+                throw new InvalidRequestException("Bounds vertex must be 'lat lon': " + vertices[i]);
+            }
+            try {
+                lats[i] = Double.parseDouble(parts[0]);
+                lons[i] = Double.parseDouble(parts[1]);
+            } catch (NumberFormatException e) {
+                throw new InvalidRequestException("Bounds vertex must be 'lat lon': " + vertices[i]);
+            }
+            GeoDistance.checkCoordinates(lats[i], lons[i]);
+        }
+        int count = vertices.length;
+        if (count > 1 && lats[0] == lats[count - 1] && lons[0] == lons[count - 1]) {
+            count--;
+        }
+        if (count < 3) {
+            throw new InvalidRequestException("Bounds must have at least 3 vertices");
+        }
+        return new GeoPolygon(Arrays.copyOf(lats, count), Arrays.copyOf(lons, count));
+    }
+
+    /**
+     * Checks whether a point lies inside the polygon, using the even-odd rule.
+     *
+     * @param latitude the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @return {@code true} if the point is inside.
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLat || latitude > maxLat || longitude < minLon || longitude > maxLon) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+            if ((lats[i] > latitude) != (lats[j] > latitude)
+                    && longitude < (lons[j] - lons[i]) * (latitude - lats[i]) / (lats[j] - lats[i]) + lons[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices, without repeating the first one.
+     */
+    public int size() {
+        return lats.length;
+    }
+
+    /**
+     * Gets the southern edge of the bounding box.
+     *
+     * @return the minimum latitude.
+     */
+    public double getMinLat() {
+        return minLat;
+    }
+
+    /**
+     * Gets the western edge of the bounding box.
+     *
+     * @return the minimum longitude.
+     */
+    public double getMinLon() {
+        return minLon;
+    }
+
+    /**
+     * Gets the northern edge of the bounding box.
+     *
+     * @return the maximum latitude.
+     */
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    /**
+     * Gets the eastern edge of the bounding box.
+     *
+     * @return the maximum longitude.
+     */
+    public double getMaxLon() {
+        return maxLon;
+    }
+}
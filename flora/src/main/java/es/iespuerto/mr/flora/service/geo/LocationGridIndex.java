@@ -0,0 +1,470 @@
+package es.iespuerto.mr.flora.service.geo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.dto.NearbyLocation;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.model.Location;
+import es.iespuerto.mr.flora.repository.LocationRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory spatial index of the locations that have a position, bucketed in a uniform grid of
+ * latitude/longitude cells.
+ *
+ * <p>A location is stored in every cell covered by its position and, if it has bounds, by the
+ * bounding box of its polygon. A nearest-location query visits the cells in square rings around
+ * the cell of the queried point and stops as soon as the k-th best distance found is no larger
+ * than the smallest distance any location in the next ring could have, so a query only looks at
+ * the locations around the point instead of the whole table. A bounding-box query reads the cells
+ * overlapping the box, or every location when the box covers more cells than there are locations.</p>
+ *
+ * <p>Cells are {@code flora.geo.cell-degrees} wide, 0.05° (about 5 km) by default, which keeps a
+ * town or a park in a handful of cells. The grid does not wrap around the antimeridian.</p>
+ *
+ * <p>The ids of all the locations, with or without a position, are kept too, so that a reference
+ * to a location can be checked without querying the database.</p>
+ *
+ * <p>The index is built from the database once the application is ready and then kept up to date
+ * by {@code LocationService} on every write. Reads share a read lock and never touch the database.</p>
+ */
+@Slf4j
+@Component
+public class LocationGridIndex {
+
+    /**
+     * Default width of a cell, in degrees.
+     */
+    public static final double DEFAULT_CELL_DEGREES = 0.05;
+
+    private static final Comparator<Candidate> BY_DISTANCE = Comparator.comparingDouble((Candidate c) -> c.distanceKm)
+            .thenComparingInt(c -> c.entry.id);
+
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Set<Integer> locationIds = new HashSet<>();
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private double cellDegrees = DEFAULT_CELL_DEGREES;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+    private int minCellX = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+
+    private LocationRepository locationRepository;
+
+    /**
+     * Sets the {@link LocationRepository} used to build the index at startup.
+     *
+     * @param locationRepository the repository to be injected.
+     */
+    @Autowired
+    public void setLocationRepository(LocationRepository locationRepository) {
+        this.locationRepository = locationRepository;
+    }
+
+    /**
+     * Sets the width of a grid cell. Must be called before the index is built.
+     *
+     * @param cellDegrees the value of {@code flora.geo.cell-degrees}, in degrees.
+     * @throws IllegalArgumentException if the width is not positive.
+     */
+    @Value("${flora.geo.cell-degrees:" + DEFAULT_CELL_DEGREES + "}")
+    public void setCellDegrees(double cellDegrees) {
+        if (!(cellDegrees > 0)) {
+            throw new IllegalArgumentException("cellDegrees must be positive");
+        }
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Invoked once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Entry> loaded = new ArrayList<>();
+        Set<Integer> ids = new HashSet<>();
+        for (Location location : locationRepository.findAll()) {
+            ids.add(location.getId());
+            Entry entry = toEntry(location);
+            if (entry != null) {
+                loaded.add(entry);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            locationIds.clear();
+            locationIds.addAll(ids);
+            entries.clear();
+            cells.clear();
+            minCellY = minCellX = Integer.MAX_VALUE;
+            maxCellY = maxCellX = Integer.MIN_VALUE;
+            loaded.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice espacial construido con {} ubicaciones en {} celdas", loaded.size(), cells.size());
+    }
+
+    /**
+     * Adds a location or replaces its previous position. A location without a position is removed.
+     *
+     * @param location the location, already saved.
+     * @throws InvalidRequestException if its coordinates or bounds are invalid.
+     */
+    public void index(Location location) {
+        Entry entry = toEntry(location);
+        lock.writeLock().lock();
+        try {
+            locationIds.add(location.getId());
+            removeEntry(location.getId());
+            if (entry != null) {
+                add(entry);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a location from the index.
+     *
+     * @param locationId the id of the location.
+     */
+    public void remove(int locationId) {
+        lock.writeLock().lock();
+        try {
+            locationIds.remove(locationId);
+            removeEntry(locationId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the locations nearest to a point, closest first. A location whose bounds contain the
+     * point is at distance zero.
+     *
+     * @param latitude the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @param k the maximum number of locations to return.
+     * @return up to {@code k} locations ordered by distance, then by id.
+     * @throws InvalidRequestException if the coordinates are out of range.
+     */
+    public List<NearbyLocation> nearest(double latitude, double longitude, int k) {
+        GeoDistance.checkCoordinates(latitude, longitude);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(Math.max(1, k), BY_DISTANCE.reversed());
+        lock.readLock().lock();
+        try {
+            if (entries.isEmpty() || k < 1) {
+                return List.of();
+            }
+            int cy = cell(latitude);
+            int cx = cell(longitude);
+            int maxRing = Math.max(Math.max(cy - minCellY, maxCellY - cy), Math.max(cx - minCellX, maxCellX - cx));
+            Set<Integer> seen = new HashSet<>();
+            for (int ring = 0; ring <= maxRing; ring++) {
+                visitRing(cy, cx, ring, entry -> {
+                    if (seen.add(entry.id)) {
+                        best.offer(new Candidate(entry, entry.distanceKm(latitude, longitude)));
+                        if (best.size() > k) {
+                            best.poll();
+                        }
+                    }
+                });
+                if (best.size() == k && best.peek().distanceKm <= lowerBoundKm(latitude, ring * cellDegrees)) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Candidate> sorted = new ArrayList<>(best);
+        sorted.sort(BY_DISTANCE);
+        List<NearbyLocation> result = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            Entry e = candidate.entry;
+            result.add(new NearbyLocation(e.id, e.name, e.latitude, e.longitude, candidate.distanceKm));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the locations whose position lies inside a bounding box, or whose bounds overlap it.
+     * Bounds are compared by their own bounding box.
+     *
+     * @param minLat the southern edge of the box.
+     * @param minLon the western edge of the box.
+     * @param maxLat the northern edge of the box.
+     * @param maxLon the eastern edge of the box.
+     * @return copies of the matching locations, ordered by id.
+     * @throws InvalidRequestException if a coordinate is out of range or the box is inverted.
+     */
+    public List<Location> within(double minLat, double minLon, double maxLat, double maxLon) {
+        GeoDistance.checkCoordinates(minLat, minLon);
+        GeoDistance.checkCoordinates(maxLat, maxLon);
+        if (minLat > maxLat || minLon > maxLon) {
+            throw new InvalidRequestException("The minimum corner of the box must be south-west of the maximum corner");
+        }
+        List<Entry> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            int y0 = Math.max(cell(minLat), minCellY);
+            int y1 = Math.min(cell(maxLat), maxCellY);
+            int x0 = Math.max(cell(minLon), minCellX);
+            int x1 = Math.min(cell(maxLon), maxCellX);
+            if (y0 <= y1 && x0 <= x1) {
+                Collection<Entry> candidates;
+                if ((long) (y1 - y0 + 1) * (x1 - x0 + 1) > entries.size()) {
+                    candidates = entries.values();
+                } else {
+                    Map<Integer, Entry> found = new HashMap<>();
+                    for (int y = y0; y <= y1; y++) {
+                        for (int x = x0; x <= x1; x++) {
+                            for (Entry entry : cells.getOrDefault(key(y, x), List.of())) {
+                                found.putIfAbsent(entry.id, entry);
+                            }
+                        }
+                    }
+                    candidates = found.values();
+                }
+                for (Entry entry : candidates) {
+                    if (entry.intersects(minLat, minLon, maxLat, maxLon)) {
+                        matches.add(entry);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        matches.sort(Comparator.comparingInt(e -> e.id));
+        List<Location> result = new ArrayList<>(matches.size());
+        for (Entry entry : matches) {
+            result.add(entry.toLocation());
+        }
+        return result;
+    }
+
+    /**
+     * Tells whether a location exists, with or without a position, without querying the database.
+     *
+     * @param locationId the id of the location.
+     * @return {@code true} if the location is known to the index.
+     */
+    public boolean contains(int locationId) {
+        lock.readLock().lock();
+        try {
+            return locationIds.contains(locationId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of indexed locations.
+     *
+     * @return the number of locations with a position.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entry toEntry(Location location) {
+        if (location.getLatitude() == null || location.getLongitude() == null) {
+            return null;
+        }
+        double latitude = location.getLatitude();
+        double longitude = location.getLongitude();
+        GeoDistance.checkCoordinates(latitude, longitude);
+        GeoPolygon polygon = location.getBounds() == null || location.getBounds().isBlank()
+                ? null : GeoPolygon.parse(location.getBounds());
+        return new Entry(location.getId(), location.getName(), latitude, longitude, location.getBounds(), polygon);
+    }
+
+    private void add(Entry entry) {
+        double south = entry.latitude;
+        double north = entry.latitude;
+        double west = entry.longitude;
+        double east = entry.longitude;
+        if (entry.polygon != null) {
+            south = Math.min(south, entry.polygon.getMinLat());
+            north = Math.max(north, entry.polygon.getMaxLat());
+            west = Math.min(west, entry.polygon.getMinLon());
+            east = Math.max(east, entry.polygon.getMaxLon());
+        }
+        entry.y0 = cell(south);
+        entry.y1 = cell(north);
+        entry.x0 = cell(west);
+        entry.x1 = cell(east);
+        for (int y = entry.y0; y <= entry.y1; y++) {
+            for (int x = entry.x0; x <= entry.x1; x++) {
+                cells.computeIfAbsent(key(y, x), c -> new ArrayList<>(2)).add(entry);
+            }
+        }
+        minCellY = Math.min(minCellY, entry.y0);
+        maxCellY = Math.max(maxCellY, entry.y1);
+        minCellX = Math.min(minCellX, entry.x0);
+        maxCellX = Math.max(maxCellX, entry.x1);
+        entries.put(entry.id, entry);
+    }
+
+    private void removeEntry(int locationId) {
+        Entry entry = entries.remove(locationId);
+        if (entry == null) {
+            return;
+        }
+        for (int y = entry.y0; y <= entry.y1; y++) {
+            for (int x = entry.x0; x <= entry.x1; x++) {
+                long key = key(y, x);
+                List<Entry> bucket = cells.get(key);
+                if (bucket != null) {
+                    bucket.remove(entry);
+                    if (bucket.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+        // The extent of the grid is not shrunk, rebuild() recomputes it
+    }
+
+    /**
+     * Visits the cells at Chebyshev distance {@code ring} from {@code (cy, cx)}, clipped to the
+     * cells that hold any location.
+     */
+    private void visitRing(int cy, int cx, int ring, Consumer<Entry> visitor) {
+        int fromY = Math.max(cy - ring, minCellY);
+        int toY = Math.min(cy + ring, maxCellY);
+        for (int y = fromY; y <= toY; y++) {
+            if (y == cy - ring || y == cy + ring) {
+                for (int x = Math.max(cx - ring, minCellX); x <= Math.min(cx + ring, maxCellX); x++) {
+                    visitCell(y, x, visitor);
+                }
+            } else {
+                if (cx - ring >= minCellX) {
+                    visitCell(y, cx - ring, visitor);
+                }
+                if (cx + ring <= maxCellX) {
+                    visitCell(y, cx + ring, visitor);
+                }
+            }
+        }
+    }
+
+    private void visitCell(int y, int x, Consumer<Entry> visitor) {
+        List<Entry> bucket = cells.get(key(y, x));
+        if (bucket != null) {
+            bucket.forEach(visitor);
+        }
+    }
+
+    /**
+     * Smallest great-circle distance from a point at {@code latitude} to any point at least
+     * {@code gapDegrees} away from it in latitude or in longitude.
+     */
+    static double lowerBoundKm(double latitude, double gapDegrees) {
+        if (gapDegrees <= 0) {
+            return 0;
+        }
+        double latBound = Math.toRadians(gapDegrees) * GeoDistance.EARTH_RADIUS_KM;
+        double farthestLat = Math.toRadians(Math.min(90, Math.abs(latitude) + gapDegrees));
+        double sinHalfLon = Math.sin(Math.toRadians(Math.min(gapDegrees, 180)) / 2);
+        double h = Math.cos(Math.toRadians(latitude)) * Math.cos(farthestLat) * sinHalfLon * sinHalfLon;
+        double lonBound = 2 * GeoDistance.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(Math.max(0, h))));
+        return Math.min(latBound, lonBound);
+    }
+
+    private int cell(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    private static long key(int y, int x) {
+        return ((long) y << 32) | (x & 0xffffffffL);
+    }
+
+    /**
+     * Indexed copy of a location, with the range of cells it was stored in.
+     */
+    private static final class Entry {
+        private final int id;
+        private final String name;
+        private final double latitude;
+        private final double longitude;
+        private final String bounds;
+        private final GeoPolygon polygon;
+        private int y0;
+        private int y1;
+        private int x0;
+        private int x1;
+
+        private Entry(int id, String name, double latitude, double longitude, String bounds, GeoPolygon polygon) {
+            this.id = id;
+            this.name = name;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.bounds = bounds;
+            this.polygon = polygon;
+        }
+
+        private double distanceKm(double lat, double lon) {
+            if (polygon != null && polygon.contains(lat, lon)) {
+                return 0;
+            }
+            return GeoDistance.haversineKm(lat, lon, latitude, longitude);
+        }
+
+        private boolean intersects(double minLat, double minLon, double maxLat, double maxLon) {
+            if (latitude >= minLat && latitude <= maxLat && longitude >= minLon && longitude <= maxLon) {
+                return true;
+            }
+            return polygon != null && polygon.getMinLat() <= maxLat && polygon.getMaxLat() >= minLat
+                    && polygon.getMinLon() <= maxLon && polygon.getMaxLon() >= minLon;
+        }
+
+        private Location toLocation() {
+            Location location = new Location(name);
+            location.setId(id);
+            location.setLatitude(latitude);
+            location.setLongitude(longitude);
+            location.setBounds(bounds);
+            return location;
+        }
+    }
+
+    /**
+     * An entry and its distance to the queried point.
+     */
+    private static final class Candidate {
+        private final Entry entry;
+        private final double distanceKm;
+
+        private Candidate(Entry entry, double distanceKm) {
+            this.entry = entry;
+            this.distanceKm = distanceKm;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package es.iespuerto.mr.flora.service.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a single CSV line into fields following RFC 4180.
+ *
+ * <p>Fields are separated by commas and may be enclosed in double quotes, in which case they can
+ * contain commas, and a doubled quote stands for a literal one. Line breaks inside quoted fields
+ * are not supported, so every record must fit in one line.</p>
+ */
+public final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Parses a line.
+     *
+     * @param line The line to parse, without its line terminator.
+     * @return The fields of the line, unquoted.
+     * @throws IllegalArgumentException if a quoted field is not closed or is followed by other characters.
+     */
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int i = 0;
+        while (true) {
+            if (i < line.length() && line.charAt(i) == '"') {
+                i++;
+                while (true) {
+                    if (i >= line.length()) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    char c = line.charAt(i++);
+                    if (c == '"') {
+                        if (i < line.length() && line.charAt(i) == '"') {
+                            field.append('"');
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (i < line.length() && line.charAt(i) != ',') {
+                    throw new IllegalArgumentException("Unexpected character after quoted field at position " + (i + 1));
+                }
+            } else {
+                while (i < line.length() && line.charAt(i) != ',') {
+                    field.append(line.charAt(i++));
+                }
+            }
+            fields.add(field.toString());
+            field.setLength(0);
+            if (i >= line.length()) {
+                return fields;
+            }
+            i++;
+        }
+    }
+}
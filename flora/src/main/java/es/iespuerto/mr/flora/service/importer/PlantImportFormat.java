@@ -0,0 +1,54 @@
+package es.iespuerto.mr.flora.service.importer;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+/**
+ * Input formats accepted by the bulk plant import.
+ */
+public enum PlantImportFormat {
+
+    /**
+     * Comma separated values, one plant per line. An optional header names the
+     * {@code commonName} and {@code scientificName} columns.
+     */
+    CSV,
+
+    /**
+     * A JSON array of objects with {@code commonName} and {@code scientificName} properties.
+     */
+    JSON;
+
+    /**
+     * Media type of CSV uploads.
+     */
+    public static final String TEXT_CSV = "text/csv";
+
+    /**
+     * Resolves the format from the {@code Content-Type} of the request.
+     *
+     * @param contentType the content type sent by the client.
+     * @return the matching format.
+     * @throws InvalidRequestException if the content type is missing or not supported.
+     */
+    public static PlantImportFormat fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            throw new InvalidRequestException("Content-Type is required, use text/csv or application/json");
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            throw new InvalidRequestException("Invalid Content-Type: " + contentType);
+        }
+        if (MediaType.parseMediaType(TEXT_CSV).isCompatibleWith(mediaType) && !mediaType.isWildcardType()) {
+            return CSV;
+        }
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType) && !mediaType.isWildcardType()) {
+            return JSON;
+        }
+        throw new InvalidRequestException("Unsupported Content-Type: " + contentType + ", use text/csv or application/json");
+    }
+}
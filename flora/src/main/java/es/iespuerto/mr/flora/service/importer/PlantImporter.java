@@ -0,0 +1,326 @@
+package es.iespuerto.mr.flora.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk loader of {@link Plant} rows from CSV or JSON.
+ *
+ * <p>The input is read as a stream, one row at a time, so its size is not limited by the heap.
+ * Every row is validated on its own; invalid rows are recorded in the {@link PlantImportReport}
+ * and skipped without affecting the others.</p>
+ *
+ * <p>Valid plants are written in batches. Each batch is persisted in its own transaction, sent to
+ * the database as JDBC batches of the same size (ids come from the pooled {@code plants_seq}
+ * sequence, so Hibernate does not need to insert rows one by one to learn their ids) and then
+ * cleared from the persistence context. A failing batch is rolled back and its rows are reported,
+ * while the batches already committed are kept.</p>
+ */
+@Slf4j
+@Component
+public class PlantImporter {
+
+    /**
+     * Largest batch size that a client can request.
+     */
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    /**
+     * Maximum length of the name columns.
+     */
+    public static final int MAX_NAME_LENGTH = 255;
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private PlantRepository plantRepository;
+    private ObjectMapper objectMapper;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private int defaultBatchSize = 500;
+
+    /**
+     * Sets the {@link PlantRepository} used to store the plants.
+     *
+     * @param plantRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantRepository(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * Sets the {@link ObjectMapper} used to read JSON input.
+     *
+     * @param objectMapper the mapper to be injected.
+     */
+    @Autowired
+    public void setObjectMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Sets the transaction manager used to commit every batch.
+     *
+     * @param transactionManager the transaction manager to be injected.
+     */
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Sets the {@link EntityManager} used to flush and clear every batch.
+     *
+     * @param entityManager the shared, transaction-bound entity manager.
+     */
+    @PersistenceContext
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Sets the batch size used when the client does not ask for one.
+     *
+     * @param defaultBatchSize the value of {@code flora.import.batch-size}.
+     */
+    @Value("${flora.import.batch-size:500}")
+    public void setDefaultBatchSize(int defaultBatchSize) {
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    /**
+     * Reads plants from the input and stores them in batches.
+     *
+     * @param in the input, read until its end but not closed.
+     * @param format the format of the input.
+     * @param batchSize the number of plants per batch, or {@code null} to use {@code flora.import.batch-size}.
+     *                  Clamped between 1 and {@link #MAX_BATCH_SIZE}.
+     * @param onBatchSaved invoked with the plants of every committed batch, already holding their ids.
+     * @return the counts, errors and throughput of the import.
+     * @throws IOException if the input cannot be read.
+     * @throws InvalidRequestException if a JSON input is not an array or a CSV header names only one of the columns.
+     */
+    public PlantImportReport importPlants(InputStream in, PlantImportFormat format, Integer batchSize,
+            Consumer<List<Plant>> onBatchSaved) throws IOException {
+        int size = Math.max(1, Math.min(batchSize == null ? defaultBatchSize : batchSize, MAX_BATCH_SIZE));
+        long start = System.nanoTime();
+        Run run = new Run(size, onBatchSaved);
+        if (format == PlantImportFormat.CSV) {
+            readCsv(in, run);
+        } else {
+            readJson(in, run);
+        }
+        run.flush();
+
+        PlantImportReport report = run.report;
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        report.setBatchSize(size);
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        report.setRowsPerSecond(report.getReceived() * 1_000_000_000.0 / elapsedNanos);
+        log.info("Importación de plantas finalizada: {} recibidas, {} importadas, {} con errores en {} ms",
+                report.getReceived(), report.getImported(), report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    private void readCsv(InputStream in, Run run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        int commonNameColumn = 0;
+        int scientificNameColumn = 1;
+        long lineNumber = 0;
+        boolean firstRecord = true;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BYTE_ORDER_MARK) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = CsvLineParser.parse(line);
+            } catch (IllegalArgumentException e) {
+                run.reject(lineNumber, e.getMessage());
+                firstRecord = false;
+                continue;
+            }
+            if (firstRecord) {
+                firstRecord = false;
+                int common = indexOf(fields, "commonname", "common_name");
+                int scientific = indexOf(fields, "scientificname", "scientific_name");
+                if (common >= 0 || scientific >= 0) {
+                    if (common < 0 || scientific < 0) {
+                        throw new InvalidRequestException("CSV header must name both commonName and scientificName columns");
+                    }
+                    commonNameColumn = common;
+                    scientificNameColumn = scientific;
+                    continue;
+                }
+            }
+            run.row(lineNumber, field(fields, commonNameColumn), field(fields, scientificNameColumn));
+        }
+    }
+
+    private void readJson(InputStream in, Run run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidRequestException("Expected a JSON array of plants");
+            }
+            long position = 0;
+            while (true) {
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                    if (token == null || token == JsonToken.END_ARRAY) {
+                        return;
+                    }
+                    position++;
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        run.reject(position, "Expected a JSON object");
+                        continue;
+                    }
+                    JsonNode node = objectMapper.readTree(parser);
+                    run.row(position, text(node, "commonName"), text(node, "scientificName"));
+                } catch (JsonProcessingException e) {
+                    run.reject(position == 0 ? 1 : position, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+                    return;
+                }
+            }
+        }
+    }
+
+    private static int indexOf(List<String> fields, String... names) {
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i).trim().toLowerCase(Locale.ROOT);
+            for (String name : names) {
+                if (field.equals(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static String text(JsonNode node, String property) {
+        JsonNode value = node.get(property);
+        return value != null && value.isTextual() ? value.asText() : null;
+    }
+
+    /**
+     * Checks a row, returning why it is invalid or {@code null} if it can be stored.
+     */
+    static String validate(String commonName, String scientificName) {
+        if (commonName == null || commonName.isBlank()) {
+            return "commonName is required";
+        }
+        if (scientificName == null || scientificName.isBlank()) {
+            return "scientificName is required";
+        }
+        if (commonName.trim().length() > MAX_NAME_LENGTH) {
+            return "commonName is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (scientificName.trim().length() > MAX_NAME_LENGTH) {
+            return "scientificName is longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    /**
+     * State of a single import: the pending batch and the report being filled.
+     */
+    private final class Run {
+        private final int batchSize;
+        private final Consumer<List<Plant>> onBatchSaved;
+        private final PlantImportReport report = new PlantImportReport();
+        private final List<Plant> batch;
+        private final long[] batchRows;
+
+        private Run(int batchSize, Consumer<List<Plant>> onBatchSaved) {
+            this.batchSize = batchSize;
+            this.onBatchSaved = onBatchSaved;
+            this.batch = new ArrayList<>(batchSize);
+            this.batchRows = new long[batchSize];
+        }
+
+        private void row(long row, String commonName, String scientificName) {
+            report.setReceived(report.getReceived() + 1);
+            String error = validate(commonName, scientificName);
+            if (error != null) {
+                report.addError(row, error);
+                return;
+            }
+            batchRows[batch.size()] = row;
+            batch.add(new Plant(commonName.trim(), scientificName.trim()));
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(long row, String message) {
+            report.setReceived(report.getReceived() + 1);
+            report.addError(row, message);
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    plantRepository.saveAll(batch);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                report.setImported(report.getImported() + batch.size());
+                onBatchSaved.accept(List.copyOf(batch));
+            } catch (DataAccessException | PersistenceException e) {
+                log.warn("Lote de {} plantas rechazado por la base de datos: {}", batch.size(), e.getMessage());
+                String message = "Batch rejected by the database: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (int i = 0; i < batch.size(); i++) {
+                    report.addError(batchRows[i], message);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+}
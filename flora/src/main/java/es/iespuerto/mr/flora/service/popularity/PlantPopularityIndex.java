@@ -0,0 +1,252 @@
+package es.iespuerto.mr.flora.service.popularity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.repository.FavoriteRepository;
+import es.iespuerto.mr.flora.repository.FavoriteRepository.PlantFavoriteCount;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Live ranking of the plants with the most favorites.
+ *
+ * <p>Each plant has a {@link LongAdder} counter in a {@link ConcurrentHashMap}. A
+ * {@code LongAdder} spreads concurrent updates over striped cells, so users adding and removing
+ * favorites at the same time do not contend on a single value, and writers never take a lock.</p>
+ *
+ * <p>Reads are served from a snapshot of the top {@link #MAX_LIMIT} plants, built with a bounded
+ * min-heap over the counters in {@code O(P log MAX_LIMIT)} for {@code P} favorited plants. The
+ * snapshot is rebuilt on a read only when the counters have changed and the previous snapshot is
+ * older than {@code flora.popular.refresh}, by a single reader while the others keep using the
+ * previous one, so a request costs {@code O(limit)} and the ranking lags the writes by at most
+ * the refresh interval.</p>
+ *
+ * <p>The counters are rebuilt from {@code favorite_plants} when the application starts and kept
+ * up to date by {@code FavoriteService} and {@code PlantService}.</p>
+ */
+@Slf4j
+@Component
+public class PlantPopularityIndex {
+
+    /**
+     * Maximum number of plants kept in the ranking.
+     */
+    public static final int MAX_LIMIT = 100;
+
+    // Worst first: fewer favorites, then higher id, so the heap head is the one to drop
+    private static final Comparator<Ranked> WORST_FIRST = Comparator.comparingLong(Ranked::getFavorites)
+            .thenComparing(Comparator.comparingInt(Ranked::getPlantId).reversed());
+
+    private final Map<Integer, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private FavoriteRepository favoriteRepository;
+    private long refreshNanos = Duration.ofSeconds(1).toNanos();
+    private volatile boolean dirty;
+    private volatile Snapshot snapshot = new Snapshot(new Ranked[0], Long.MIN_VALUE);
+
+    /**
+     * Sets the repository the counters are rebuilt from.
+     *
+     * @param favoriteRepository the repository to be injected.
+     */
+    @Autowired
+    public void setFavoriteRepository(FavoriteRepository favoriteRepository) {
+        this.favoriteRepository = favoriteRepository;
+    }
+
+    /**
+     * Sets the minimum time between two rebuilds of the ranking.
+     *
+     * @param refresh the value of {@code flora.popular.refresh}.
+     */
+    @Value("${flora.popular.refresh:1s}")
+    public void setRefreshInterval(Duration refresh) {
+        if (refresh.isNegative()) {
+            throw new IllegalArgumentException("refresh must not be negative");
+        }
+        this.refreshNanos = refresh.toNanos();
+    }
+
+    /**
+     * Loads the number of favorites of every plant from the database and ranks them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<PlantFavoriteCount> counts = favoriteRepository.countFavoritesByPlant();
+        refreshLock.lock();
+        try {
+            counters.clear();
+            for (PlantFavoriteCount count : counts) {
+                LongAdder counter = new LongAdder();
+                counter.add(count.getFavorites());
+                counters.put(count.getPlantId(), counter);
+            }
+            refreshSnapshot();
+        } finally {
+            refreshLock.unlock();
+        }
+        log.info("Ranking de plantas favoritas construido con {} plantas", counts.size());
+    }
+
+    /**
+     * Records that a user has marked a plant as favorite.
+     *
+     * @param plantId the ID of the plant.
+     */
+    public void increment(int plantId) {
+        counters.computeIfAbsent(plantId, id -> new LongAdder()).increment();
+        markDirty();
+    }
+
+    /**
+     * Records that a user has removed a plant from the favorites.
+     *
+     * @param plantId the ID of the plant.
+     */
+    public void decrement(int plantId) {
+        LongAdder counter = counters.get(plantId);
+        if (counter != null) {
+            counter.decrement();
+            markDirty();
+        }
+    }
+
+    /**
+     * Drops a deleted plant from the ranking.
+     *
+     * @param plantId the ID of the plant.
+     */
+    public void remove(int plantId) {
+        if (counters.remove(plantId) != null) {
+            markDirty();
+        }
+    }
+
+    /**
+     * Gets the plants with the most favorites, ties broken by ascending id.
+     *
+     * @param limit the maximum number of plants, between 1 and {@link #MAX_LIMIT}.
+     * @return the most favorited plants, most favorited first.
+     */
+    public List<Ranked> top(int limit) {
+        Snapshot current = snapshot;
+        if (dirty && System.nanoTime() - current.builtAt >= refreshNanos && refreshLock.tryLock()) {
+            try {
+                current = refreshSnapshot();
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        int size = Math.min(limit, current.ranking.length);
+        List<Ranked> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(current.ranking[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of plants with a counter.
+     *
+     * @return the number of tracked plants.
+     */
+    public int size() {
+        return counters.size();
+    }
+
+    private void markDirty() {
+        // Skip the volatile write when another update already flagged the ranking
+        if (!dirty) {
+            dirty = true;
+        }
+    }
+
+    private Snapshot refreshSnapshot() {
+        // Cleared before the scan, so an update racing with it triggers the next refresh
+        dirty = false;
+        PriorityQueue<Ranked> heap = new PriorityQueue<>(MAX_LIMIT + 1, WORST_FIRST);
+        counters.forEach((plantId, counter) -> {
+            long favorites = counter.sum();
+            if (favorites <= 0) {
+                return;
+            }
+            Ranked candidate = new Ranked(plantId, favorites);
+            if (heap.size() < MAX_LIMIT) {
+                heap.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        });
+        Ranked[] ranking = new Ranked[heap.size()];
+        for (int i = ranking.length - 1; i >= 0; i--) {
+            ranking[i] = heap.poll();
+        }
+        Snapshot built = new Snapshot(ranking, System.nanoTime());
+        snapshot = built;
+        return built;
+    }
+
+    /**
+     * A plant and its number of favorites at the time the ranking was built.
+     */
+    public static final class Ranked {
+
+        private final int plantId;
+        private final long favorites;
+
+        /**
+         * Creates a ranking entry.
+         *
+         * @param plantId the ID of the plant.
+         * @param favorites the number of favorites of the plant.
+         */
+        public Ranked(int plantId, long favorites) {
+            this.plantId = plantId;
+            this.favorites = favorites;
+        }
+
+        /**
+         * Gets the ID of the plant.
+         *
+         * @return the plant ID.
+         */
+        public int getPlantId() {
+            return plantId;
+        }
+
+        /**
+         * Gets the number of favorites of the plant.
+         *
+         * @return the number of favorites.
+         */
+        public long getFavorites() {
+            return favorites;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final Ranked[] ranking;
+        private final long builtAt;
+
+        private Snapshot(Ranked[] ranking, long builtAt) {
+            this.ranking = ranking;
+            this.builtAt = builtAt;
+        }
+    }
+}
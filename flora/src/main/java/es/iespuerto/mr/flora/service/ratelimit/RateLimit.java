@@ -0,0 +1,88 @@
+package es.iespuerto.mr.flora.service.ratelimit;
+
+import java.time.Duration;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * A rate limit: a bucket of {@code capacity} tokens that refills completely over {@code period}.
+ * A client may send {@code capacity} requests in a burst, then one request every
+ * {@code period / capacity}.
+ *
+ * <p>Limits are written as {@code capacity/period}, for example {@code 20/1m} or {@code 5/PT30S}.</p>
+ */
+public final class RateLimit {
+
+    private final int capacity;
+    private final Duration period;
+
+    /**
+     * Creates a rate limit.
+     *
+     * @param capacity the number of requests allowed in a burst.
+     * @param period the time the bucket takes to refill completely.
+     */
+    public RateLimit(int capacity, Duration period) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.capacity = capacity;
+        this.period = period;
+    }
+
+    /**
+     * Parses a rate limit written as {@code capacity/period}.
+     *
+     * @param value the limit, for example {@code 20/1m}.
+     * @return the parsed limit.
+     * @throws IllegalArgumentException if the value is not a valid limit.
+     */
+    public static RateLimit parse(String value) {
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            throw new IllegalArgumentException("Rate limit must be written as capacity/period: " + value);
+        }
+        return new RateLimit(Integer.parseInt(value.substring(0, slash).trim()),
+                DurationStyle.detectAndParse(value.substring(slash + 1).trim()));
+    }
+
+    /**
+     * Gets the number of requests allowed in a burst.
+     *
+     * @return the capacity of the bucket.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the time the bucket takes to refill completely.
+     *
+     * @return the refill period.
+     */
+    public Duration getPeriod() {
+        return period;
+    }
+
+    /**
+     * Gets the time one token takes to refill.
+     *
+     * @return the period divided by the capacity, in nanoseconds.
+     */
+    public long intervalNanos() {
+        return Math.max(1, period.toNanos() / capacity);
+    }
+
+    /**
+     * Returns a string representation of the limit, in the format it is parsed from.
+     *
+     * @return a string such as {@code 20/PT1M}.
+     */
+    @Override
+    public String toString() {
+        return capacity + "/" + period;
+    }
+}
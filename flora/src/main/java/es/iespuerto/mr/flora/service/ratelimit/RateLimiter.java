@@ -0,0 +1,146 @@
+package es.iespuerto.mr.flora.service.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key token buckets for one {@link RateLimit}, updated without locks.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the instant at which it will be full
+ * again (the "theoretical arrival time" of the generic cell rate algorithm, which behaves exactly
+ * like a token bucket). Taking a token moves that instant one refill interval into the future with
+ * a compare-and-set, and the request is refused when the instant would end up more than a full
+ * period ahead of now. There is no refill thread and no timestamp arithmetic beyond one addition.</p>
+ *
+ * <p>A bucket whose instant is in the past is full, so forgetting it changes nothing:
+ * {@link #evictIdle()} drops those buckets. When the map reaches {@code maxKeys} it is evicted at
+ * once, by one thread and at most once a second so a flood of new keys cannot turn eviction into
+ * the bottleneck; while it is still full, keys without a bucket are not limited rather than making
+ * the map grow without bound, and such requests are counted as overflow.</p>
+ */
+public class RateLimiter {
+
+    private static final long FORCED_EVICTION_NANOS = 1_000_000_000L;
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder overflow = new LongAdder();
+    private final RateLimit limit;
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final AtomicLong lastForcedEviction;
+
+    /**
+     * Creates a limiter that reads {@link System#nanoTime()}.
+     *
+     * @param limit the limit applied to every key.
+     * @param maxKeys the maximum number of buckets kept.
+     */
+    public RateLimiter(RateLimit limit, int maxKeys) {
+        this(limit, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * Creates a limiter with a given clock.
+     *
+     * @param limit the limit applied to every key.
+     * @param maxKeys the maximum number of buckets kept.
+     * @param nanoClock the monotonic clock, in nanoseconds.
+     */
+    public RateLimiter(RateLimit limit, int maxKeys, LongSupplier nanoClock) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        this.limit = limit;
+        this.intervalNanos = limit.intervalNanos();
+        this.periodNanos = intervalNanos * limit.getCapacity();
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.lastForcedEviction = new AtomicLong(nanoClock.getAsLong() - FORCED_EVICTION_NANOS);
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param key the key, such as a client address or a user name.
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = bucket(key, now);
+        if (bucket == null) {
+            overflow.increment();
+            return 0;
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = (full - now > 0 ? full : now) + intervalNanos;
+            long wait = next - now - periodNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the buckets that are full, which behave exactly like a missing bucket.
+     *
+     * @return the number of buckets dropped.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    /**
+     * Gets the number of buckets kept.
+     *
+     * @return the number of keys with a bucket.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Gets the number of requests that were not limited because the map was full.
+     *
+     * @return the overflow count.
+     */
+    public long overflowCount() {
+        return overflow.sum();
+    }
+
+    /**
+     * Gets the limit applied to every key.
+     *
+     * @return the limit.
+     */
+    public RateLimit getLimit() {
+        return limit;
+    }
+
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            long last = lastForcedEviction.get();
+            if (now - last >= FORCED_EVICTION_NANOS && lastForcedEviction.compareAndSet(last, now)) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+}
@@ -0,0 +1,220 @@
+package es.iespuerto.mr.flora.service.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive {@code int} keys to primitive {@code int} values.
+ *
+ * <p>Keys and values live in two parallel arrays with open addressing and linear probing, so an
+ * entry costs eight bytes plus the free slots, instead of two boxed {@link Integer}s and a node
+ * as in a {@code HashMap<Integer, Integer>}. Removal shifts the following entries back, so no
+ * tombstones are left behind.</p>
+ *
+ * <p>{@link Integer#MIN_VALUE} marks a free slot and cannot be used as a key. This class is not
+ * thread-safe; callers are expected to guard it with their own lock.</p>
+ */
+public final class IntIntHashMap {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int shift;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntIntHashMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key The key to look up.
+     * @return The value, or {@code 0} if the key is absent.
+     */
+    public int get(int key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    /**
+     * Checks whether the map contains a key.
+     *
+     * @param key The key to look for.
+     * @return {@code true} if the key is present.
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Adds a delta to the value of a key, inserting the key with the delta if it is absent.
+     *
+     * @param key The key to update.
+     * @param delta The amount to add.
+     * @return The new value.
+     */
+    public int addTo(int key, int delta) {
+        checkKey(key);
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        size++;
+        if (size * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        return delta;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key to remove.
+     * @return {@code true} if the key was present.
+     */
+    public boolean remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        // Backward shift: move later entries of the probe run into the hole
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+        size--;
+        return true;
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return {@code true} if the map holds no keys.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Calls the visitor once per entry, in no particular order. The map must not be changed
+     * while it is being visited.
+     *
+     * @param visitor The visitor to call.
+     */
+    public void forEach(Visitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                visitor.visit(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Copies the keys into a new array.
+     *
+     * @return The keys, in no particular order.
+     */
+    public int[] keys() {
+        int[] copy = new int[size];
+        int i = 0;
+        for (int key : keys) {
+            if (key != FREE) {
+                copy[i++] = key;
+            }
+        }
+        return copy;
+    }
+
+    private int find(int key) {
+        if (key == FREE) {
+            return -1;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int key) {
+        // Fibonacci hashing: the top bits of the product spread consecutive ids over the table
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    private static void checkKey(int key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Integer.MIN_VALUE cannot be used as a key");
+        }
+    }
+
+    /**
+     * Receives the entries of an {@link IntIntHashMap}.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * Receives one entry.
+         *
+         * @param key The key of the entry.
+         * @param value The value of the entry.
+         */
+        void visit(int key, int value);
+    }
+}
@@ -0,0 +1,186 @@
+package es.iespuerto.mr.flora.service.recommend;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from primitive {@code int} keys to objects.
+ *
+ * <p>Works like {@link IntIntHashMap}, with open addressing, linear probing and backward-shift
+ * removal, but keeps an object per key. It saves the boxed key and the node of a
+ * {@code HashMap<Integer, V>} for every entry.</p>
+ *
+ * <p>{@link Integer#MIN_VALUE} marks a free slot and cannot be used as a key. This class is not
+ * thread-safe; callers are expected to guard it with their own lock.</p>
+ *
+ * @param <V> the type of the values.
+ */
+public final class IntObjectHashMap<V> {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int shift;
+
+    /**
+     * Creates an empty map.
+     */
+    public IntObjectHashMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key The key to look up.
+     * @return The value, or {@code null} if the key is absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Associates a value with a key, replacing the previous value if any.
+     *
+     * @param key The key.
+     * @param value The value, not {@code null}.
+     */
+    public void put(int key, V value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Integer.MIN_VALUE cannot be used as a key");
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        if (size * 4 > keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key to remove.
+     * @return The value it had, or {@code null} if it was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        // Backward shift: move later entries of the probe run into the hole
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+        values[hole] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Gets the number of keys in the map.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Calls the visitor once per entry, in no particular order. The map must not be changed
+     * while it is being visited, although the values themselves may be.
+     *
+     * @param visitor The visitor to call.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visitor<? super V> visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                visitor.visit(keys[slot], (V) values[slot]);
+            }
+        }
+    }
+
+    private int find(int key) {
+        if (key == FREE) {
+            return -1;
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int key) {
+        return (key * 0x9E3779B9) >>> shift;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+    }
+
+    /**
+     * Receives the entries of an {@link IntObjectHashMap}.
+     *
+     * @param <V> the type of the values.
+     */
+    @FunctionalInterface
+    public interface Visitor<V> {
+
+        /**
+         * Receives one entry.
+         *
+         * @param key The key of the entry.
+         * @param value The value of the entry.
+         */
+        void visit(int key, V value);
+    }
+}
@@ -0,0 +1,347 @@
+package es.iespuerto.mr.flora.service.recommend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory "users who liked this also liked" index built from the favorites.
+ *
+ * <p>For every plant the index keeps a sparse row with the number of users who marked both that
+ * plant and each other plant as favorite. Adding a favorite for a user with {@code f} favorites
+ * updates {@code 2f} cells, so the matrix follows every write and never needs a batch job. Rows,
+ * the favorites of each user and the number of users of each plant are stored in
+ * {@link IntIntHashMap}s, so a cell costs eight bytes instead of two boxed integers and a node.</p>
+ *
+ * <p>Each row keeps at most {@code flora.related.max-neighbours} plants. When a new neighbour
+ * does not fit, the neighbour with the fewest shared users is dropped, so the strong neighbours
+ * of a plant are exact and only the counts of the weak tail are approximate, while memory stays
+ * linear in the number of plants.</p>
+ *
+ * <p>Related plants are ranked by cosine similarity, the shared users divided by the geometric
+ * mean of the users of both plants, so a plant everybody likes does not top every list.</p>
+ *
+ * <p>The index is rebuilt from {@code favorite_plants} when the application starts and kept up
+ * to date by {@code FavoriteService} and {@code PlantService}. A read-write lock lets concurrent
+ * lookups proceed while writes are serialized.</p>
+ */
+@Slf4j
+@Component
+public class PlantCooccurrenceIndex {
+
+    /**
+     * Largest number of related plants returned by a single lookup.
+     */
+    public static final int MAX_RELATED = 50;
+
+    // Worst first: lower score, then fewer shared users, then higher id
+    private static final Comparator<Related> WORST_FIRST = Comparator.comparingDouble(Related::getScore)
+            .thenComparingInt(Related::getSharedUsers)
+            .thenComparing(Comparator.comparingInt(Related::getPlantId).reversed());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private JdbcTemplate jdbcTemplate;
+    private int maxNeighbours = 200;
+    private Graph graph = new Graph(maxNeighbours);
+
+    /**
+     * Sets the {@link JdbcTemplate} the favorites are streamed with on rebuild.
+     *
+     * @param jdbcTemplate the template to be injected.
+     */
+    @Autowired
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Sets the maximum number of neighbours kept per plant. Meant to be called on configuration,
+     * since it empties the matrix until the next {@link #rebuild()}.
+     *
+     * @param maxNeighbours the value of {@code flora.related.max-neighbours}.
+     */
+    @Value("${flora.related.max-neighbours:200}")
+    public void setMaxNeighbours(int maxNeighbours) {
+        if (maxNeighbours < MAX_RELATED) {
+            throw new IllegalArgumentException("maxNeighbours must be at least " + MAX_RELATED);
+        }
+        this.maxNeighbours = maxNeighbours;
+        lock.writeLock().lock();
+        try {
+            graph = new Graph(maxNeighbours);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Streams every favorite from the database and rebuilds the matrix.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Graph built = new Graph(maxNeighbours);
+        // Ordered by user, so the favorites of a user arrive together and the rows stay warm
+        jdbcTemplate.query("SELECT user_id, plant_id FROM favorite_plants ORDER BY user_id, plant_id",
+                rs -> {
+                    built.add(rs.getInt(1), rs.getInt(2));
+                });
+        lock.writeLock().lock();
+        try {
+            graph = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Matriz de co-ocurrencia construida con {} usuarios y {} plantas", built.users.size(), built.rows.size());
+    }
+
+    /**
+     * Records that a user has marked a plant as favorite.
+     *
+     * @param userId the ID of the user.
+     * @param plantId the ID of the plant.
+     */
+    public void add(int userId, int plantId) {
+        lock.writeLock().lock();
+        try {
+            graph.add(userId, plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that a user has removed a plant from the favorites.
+     *
+     * @param userId the ID of the user.
+     * @param plantId the ID of the plant.
+     */
+    public void remove(int userId, int plantId) {
+        lock.writeLock().lock();
+        try {
+            graph.remove(userId, plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops a deleted plant from the matrix and from the favorites of every user.
+     *
+     * @param plantId the ID of the plant.
+     */
+    public void removePlant(int plantId) {
+        lock.writeLock().lock();
+        try {
+            graph.removePlant(plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the plants most often marked as favorite together with the given one.
+     *
+     * @param plantId the ID of the plant.
+     * @param limit the maximum number of plants, between 1 and {@link #MAX_RELATED}.
+     * @return the related plants, most similar first; empty if no user shares the plant with another.
+     */
+    public List<Related> related(int plantId, int limit) {
+        lock.readLock().lock();
+        try {
+            return graph.related(plantId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A plant related to another, with the number of users who like both and their similarity.
+     */
+    public static final class Related {
+
+        private final int plantId;
+        private final int sharedUsers;
+        private final double score;
+
+        /**
+         * Creates a related plant.
+         *
+         * @param plantId the ID of the related plant.
+         * @param sharedUsers the number of users who marked both plants as favorite.
+         * @param score the cosine similarity of both plants, between 0 and 1.
+         */
+        public Related(int plantId, int sharedUsers, double score) {
+            this.plantId = plantId;
+            this.sharedUsers = sharedUsers;
+            this.score = score;
+        }
+
+        /**
+         * Gets the ID of the related plant.
+         *
+         * @return the plant ID.
+         */
+        public int getPlantId() {
+            return plantId;
+        }
+
+        /**
+         * Gets the number of users who marked both plants as favorite.
+         *
+         * @return the number of shared users.
+         */
+        public int getSharedUsers() {
+            return sharedUsers;
+        }
+
+        /**
+         * Gets the cosine similarity of both plants.
+         *
+         * @return the similarity, between 0 and 1.
+         */
+        public double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * The matrix itself. Not thread-safe; guarded by the lock of the index.
+     */
+    private static final class Graph {
+
+        private final int maxNeighbours;
+        // user -> plant -> number of favorite rows (a plant counts once however many rows it has)
+        private final IntObjectHashMap<IntIntHashMap> users = new IntObjectHashMap<>();
+        // plant -> number of distinct users
+        private final IntIntHashMap plantUsers = new IntIntHashMap();
+        // plant -> other plant -> number of shared users
+        private final IntObjectHashMap<IntIntHashMap> rows = new IntObjectHashMap<>();
+
+        private Graph(int maxNeighbours) {
+            this.maxNeighbours = maxNeighbours;
+        }
+
+        private void add(int userId, int plantId) {
+            IntIntHashMap plants = users.get(userId);
+            if (plants == null) {
+                plants = new IntIntHashMap();
+                users.put(userId, plants);
+            }
+            if (plants.addTo(plantId, 1) > 1) {
+                return;
+            }
+            plantUsers.addTo(plantId, 1);
+            plants.forEach((other, copies) -> {
+                if (other != plantId) {
+                    increment(plantId, other);
+                    increment(other, plantId);
+                }
+            });
+        }
+
+        private void remove(int userId, int plantId) {
+            IntIntHashMap plants = users.get(userId);
+            if (plants == null || !plants.containsKey(plantId)) {
+                return;
+            }
+            if (plants.addTo(plantId, -1) > 0) {
+                return;
+            }
+            plants.remove(plantId);
+            if (plants.isEmpty()) {
+                users.remove(userId);
+            }
+            if (plantUsers.addTo(plantId, -1) <= 0) {
+                plantUsers.remove(plantId);
+            }
+            plants.forEach((other, copies) -> {
+                decrement(plantId, other);
+                decrement(other, plantId);
+            });
+        }
+
+        private void removePlant(int plantId) {
+            rows.remove(plantId);
+            plantUsers.remove(plantId);
+            // Pruning makes rows asymmetric, so every row is checked and not only the neighbours
+            rows.forEach((other, row) -> row.remove(plantId));
+            users.forEach((userId, plants) -> plants.remove(plantId));
+        }
+
+        private List<Related> related(int plantId, int limit) {
+            IntIntHashMap row = rows.get(plantId);
+            int users = plantUsers.get(plantId);
+            if (row == null || users <= 0) {
+                return new ArrayList<>();
+            }
+            PriorityQueue<Related> heap = new PriorityQueue<>(limit + 1, WORST_FIRST);
+            row.forEach((other, shared) -> {
+                int otherUsers = plantUsers.get(other);
+                if (otherUsers <= 0) {
+                    return;
+                }
+                Related candidate = new Related(other, shared, shared / Math.sqrt((double) users * otherUsers));
+                if (heap.size() < limit) {
+                    heap.add(candidate);
+                } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            });
+            Related[] ranked = new Related[heap.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = heap.poll();
+            }
+            return new ArrayList<>(List.of(ranked));
+        }
+
+        private void increment(int plantId, int other) {
+            IntIntHashMap row = rows.get(plantId);
+            if (row == null) {
+                row = new IntIntHashMap();
+                rows.put(plantId, row);
+            }
+            if (row.addTo(other, 1) == 1 && row.size() > maxNeighbours) {
+                evictWeakest(row, other);
+            }
+        }
+
+        private void decrement(int plantId, int other) {
+            IntIntHashMap row = rows.get(plantId);
+            // The pair may have been pruned from the row
+            if (row == null || !row.containsKey(other)) {
+                return;
+            }
+            if (row.addTo(other, -1) <= 0) {
+                row.remove(other);
+                if (row.isEmpty()) {
+                    rows.remove(plantId);
+                }
+            }
+        }
+
+        private static void evictWeakest(IntIntHashMap row, int keep) {
+            int[] weakest = {Integer.MIN_VALUE, Integer.MAX_VALUE};
+            row.forEach((other, shared) -> {
+                if (other != keep && shared < weakest[1]) {
+                    weakest[0] = other;
+                    weakest[1] = shared;
+                }
+            });
+            row.remove(weakest[0]);
+        }
+    }
+}
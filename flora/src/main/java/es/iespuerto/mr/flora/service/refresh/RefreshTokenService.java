@@ -0,0 +1,249 @@
+package es.iespuerto.mr.flora.service.refresh;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import es.iespuerto.mr.flora.model.RefreshToken;
+import es.iespuerto.mr.flora.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Issues and rotates refresh tokens, so access tokens can live for minutes and clients renew
+ * them without sending the password, and paying for its BCrypt hash, again.
+ *
+ * <p>A refresh token is 256 random bits in URL-safe Base64. Only its SHA-256 hash is stored:
+ * the token has far too much entropy to be guessed, so a slow password hash would add cost and
+ * no protection. A refresh is therefore one hash, one indexed lookup and one conditional update.</p>
+ *
+ * <p>Each refresh uses the presented token up and issues a new one in the same family. The used
+ * token stays in the table until it expires: if it is ever presented again, either the client or
+ * an attacker holds a copy, so the whole family is deleted and both have to log in again. Marking
+ * a token as used is a conditional update, so of two concurrent refreshes with the same token
+ * only one succeeds.</p>
+ */
+@Slf4j
+@Service
+public class RefreshTokenService implements MeterBinder {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder rotated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private Clock clock = Clock.systemUTC();
+    private Duration lifetime = Duration.ofDays(14);
+
+    /**
+     * Sets the {@link RefreshTokenRepository} the token hashes are stored in.
+     *
+     * @param refreshTokenRepository the repository to be injected.
+     */
+    @Autowired
+    public void setRefreshTokenRepository(RefreshTokenRepository refreshTokenRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+    }
+
+    /**
+     * Sets the clock issue and expiration times are measured with.
+     *
+     * @param clock the clock to use.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets how long a refresh token can be used. Every refresh issues a token with a full lifetime,
+     * so a client that refreshes within this period never has to log in again.
+     *
+     * @param lifetime the value of {@code flora.jwt.refresh-token.ttl}.
+     */
+    @Value("${flora.jwt.refresh-token.ttl:14d}")
+    public void setLifetime(Duration lifetime) {
+        if (lifetime.isZero() || lifetime.isNegative()) {
+            throw new IllegalArgumentException("lifetime must be positive");
+        }
+        this.lifetime = lifetime;
+    }
+
+    /**
+     * Gets how long a refresh token can be used.
+     *
+     * @return the lifetime of a refresh token.
+     */
+    public Duration getLifetime() {
+        return lifetime;
+    }
+
+    /**
+     * Issues the first refresh token of a new family, after a successful login.
+     *
+     * @param username the name of the authenticated user.
+     * @return the refresh token, to be handed to the client.
+     */
+    public String issue(String username) {
+        String token = store(UUID.randomUUID().toString(), username);
+        issued.increment();
+        return token;
+    }
+
+    /**
+     * Exchanges a refresh token for a new one of the same family.
+     *
+     * @param token the refresh token presented by the client.
+     * @return the new token and its user, or empty if the token is unknown, expired or was already used.
+     */
+    public Optional<Rotation> rotate(String token) {
+        Instant now = clock.instant();
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(token));
+        if (found.isEmpty() || !found.get().getExpiresAt().isAfter(now)) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        RefreshToken current = found.get();
+        if (current.getUsedAt() != null || refreshTokenRepository.markUsed(current.getId(), now) == 0) {
+            // A used token presented again was copied: nobody in the family can be trusted any more
+            int deleted = refreshTokenRepository.deleteFamily(current.getFamilyId());
+            reused.increment();
+            log.warn("Reutilizado un token de refresco del usuario {}: revocados {} tokens de su familia",
+                    current.getUsername(), deleted);
+            return Optional.empty();
+        }
+        rotated.increment();
+        return Optional.of(new Rotation(current.getUsername(), store(current.getFamilyId(), current.getUsername())));
+    }
+
+    /**
+     * Revokes the family of a refresh token, typically when its user logs out. Unknown tokens
+     * are ignored.
+     *
+     * @param token the refresh token presented by the client.
+     */
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(found -> refreshTokenRepository.deleteFamily(found.getFamilyId()));
+    }
+
+    /**
+     * Revokes every refresh token of a user.
+     *
+     * @param username the name of the user.
+     */
+    public void revokeUser(String username) {
+        int deleted = refreshTokenRepository.deleteByUser(username);
+        log.info("Revocados {} tokens de refresco del usuario {}", deleted, username);
+    }
+
+    /**
+     * Deletes the refresh tokens that have expired, used or not.
+     */
+    @Scheduled(fixedDelayString = "${flora.jwt.refresh-token.compaction-interval:PT1H}",
+            initialDelayString = "${flora.jwt.refresh-token.compaction-interval:PT1H}")
+    public void compact() {
+        int deleted = refreshTokenRepository.deleteExpired(clock.instant());
+        log.info("Borrados {} tokens de refresco expirados", deleted);
+    }
+
+    /**
+     * Registers the refresh meters: tokens issued at login, rotated, rejected and reused.
+     *
+     * @param registry the registry to bind to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("flora.auth.refresh", issued, LongAdder::sum)
+                .tag("result", "issued")
+                .description("Refresh token families started at login")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.refresh", rotated, LongAdder::sum)
+                .tag("result", "rotated")
+                .description("Refresh tokens exchanged for a new one")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.refresh", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .description("Unknown or expired refresh tokens presented")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.refresh", reused, LongAdder::sum)
+                .tag("result", "reused")
+                .description("Used refresh tokens presented again, which revoke their family")
+                .register(registry);
+    }
+
+    private String store(String familyId, String username) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant now = clock.instant();
+        refreshTokenRepository.save(new RefreshToken(hash(token), familyId, username, now, now.plus(lifetime)));
+        return token;
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The outcome of a successful refresh: the user and the refresh token that replaces the one
+     * presented.
+     */
+    public static final class Rotation {
+        private final String username;
+        private final String token;
+
+        /**
+         * Creates the outcome of a refresh.
+         *
+         * @param username the name of the user the token belongs to.
+         * @param token the new refresh token.
+         */
+        public Rotation(String username, String token) {
+            this.username = username;
+            this.token = token;
+        }
+
+        /**
+         * Gets the name of the user the token belongs to.
+         *
+         * @return the user name.
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Gets the new refresh token.
+         *
+         * @return the refresh token, to be handed to the client.
+         */
+        public String getToken() {
+            return token;
+        }
+    }
+}
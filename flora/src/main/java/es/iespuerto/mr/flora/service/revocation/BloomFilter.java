@@ -0,0 +1,124 @@
+package es.iespuerto.mr.flora.service.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings, used to answer "certainly not revoked" without touching
+ * any map.
+ *
+ * <p>{@link #mightContain(char, String)} never returns {@code false} for a key that was put, and
+ * returns {@code true} for a key that was not put with roughly the false positive probability the
+ * filter was sized for, as long as no more than {@code expectedInsertions} keys are put. Keys are
+ * namespaced by a single character, so token ids and user names can share one filter without
+ * building concatenated strings on every lookup.</p>
+ *
+ * <p>The bits live in an {@link AtomicLongArray}, so lookups never lock and may run concurrently
+ * with insertions. Bits are never cleared: to forget keys, build a new filter.</p>
+ */
+public class BloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashes;
+    private final int expectedInsertions;
+
+    /**
+     * Creates a filter sized for a number of keys and a false positive probability.
+     *
+     * @param expectedInsertions the number of keys the filter is sized for.
+     * @param falsePositiveRate the wanted false positive probability, between 0 and 1.
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.max(1, (m + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    /**
+     * Adds a key to the filter.
+     *
+     * @param namespace the namespace of the key.
+     * @param key the key.
+     */
+    public void put(char namespace, String key) {
+        long hash = hash(namespace, key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Tells whether a key may have been added.
+     *
+     * @param namespace the namespace of the key.
+     * @param key the key.
+     * @return {@code false} if the key was certainly not added, {@code true} if it may have been.
+     */
+    public boolean mightContain(char namespace, String key) {
+        long hash = hash(namespace, key);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of keys the filter was sized for.
+     *
+     * @return the expected number of insertions.
+     */
+    public int expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    /**
+     * Gets the number of hash functions used per key.
+     *
+     * @return the number of hash functions.
+     */
+    public int hashes() {
+        return hashes;
+    }
+
+    private static long hash(char namespace, String key) {
+        // FNV-1a over the UTF-16 code units, seeded with the namespace
+        long hash = (FNV_OFFSET ^ namespace) * FNV_PRIME;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        // Finalizer of SplitMix64, so that nearby hashes spread over the whole range
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,337 @@
+package es.iespuerto.mr.flora.service.revocation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.model.TokenRevocation;
+import es.iespuerto.mr.flora.repository.TokenRevocationRepository;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.security.JwtPrincipal;
+import es.iespuerto.mr.flora.security.JwtUtils;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Revocation list of access tokens, checked on every authenticated request.
+ *
+ * <p>A token is revoked either by its id, when its user logs out, or together with every other
+ * token of its user issued up to the revocation, when an administrator revokes the user. Each
+ * revocation is stored as a {@link TokenRevocation} row and kept in memory until the tokens it
+ * revokes expire.</p>
+ *
+ * <p>Almost no token presented is revoked, so {@link #isRevoked(JwtPrincipal)} first asks a
+ * {@link BloomFilter} holding every revoked token id and user name: when the filter rules both
+ * out, which it does for all but a configured fraction of the tokens that are not revoked, the
+ * check costs a few hashes and no map lookup or database call. Only a positive answer is
+ * confirmed against the maps.</p>
+ *
+ * <p>Every node reads the rows revoked since its last read at a fixed interval, so a revocation
+ * made on one node reaches the others within that interval. Each read reaches back a configured
+ * overlap before the previous one, because a row may commit after a read that it predates;
+ * registering a revocation twice is harmless. A periodic compaction deletes the
+ * rows of expired tokens, drops them from memory and rebuilds the filter, which cannot forget
+ * keys otherwise; the filter is also rebuilt larger when it holds more keys than it was sized
+ * for.</p>
+ */
+@Slf4j
+@Service
+public class TokenRevocationService implements MeterBinder {
+
+    static final char TOKEN = 't';
+    static final char USER = 'u';
+
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder revoked = new LongAdder();
+
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+
+    private TokenRevocationRepository tokenRevocationRepository;
+    private UserRepository userRepository;
+    private JwtUtils jwtUtils;
+    private Clock clock = Clock.systemUTC();
+    private int expectedEntries = 10_000;
+    private double falsePositiveRate = 0.001;
+    private volatile BloomFilter filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    private Duration syncOverlap = Duration.ofMinutes(1);
+    private Instant lastSync;
+
+    /**
+     * Sets the {@link TokenRevocationRepository} the revocations are stored in.
+     *
+     * @param tokenRevocationRepository the repository to be injected.
+     */
+    @Autowired
+    public void setTokenRevocationRepository(TokenRevocationRepository tokenRevocationRepository) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+    }
+
+    /**
+     * Sets the {@link UserRepository} used to check that a revoked user exists.
+     *
+     * @param userRepository the repository to be injected.
+     */
+    @Autowired
+    public void setUserRepository(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Sets the {@link JwtUtils} that tells how long the tokens of a revoked user may live.
+     *
+     * @param jwtUtils the utility to be injected.
+     */
+    @Autowired
+    public void setJwtUtils(JwtUtils jwtUtils) {
+        this.jwtUtils = jwtUtils;
+    }
+
+    /**
+     * Sets the clock revocations and expirations are measured with.
+     *
+     * @param clock the clock to use.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the number of revocations the Bloom filter is sized for.
+     *
+     * @param expectedEntries the value of {@code flora.auth.revocation.expected-entries}.
+     */
+    @Value("${flora.auth.revocation.expected-entries:10000}")
+    public void setExpectedEntries(int expectedEntries) {
+        if (expectedEntries < 1) {
+            throw new IllegalArgumentException("expectedEntries must be positive");
+        }
+        this.expectedEntries = expectedEntries;
+    }
+
+    /**
+     * Sets the fraction of tokens that are not revoked but still need a map lookup.
+     *
+     * @param falsePositiveRate the value of {@code flora.auth.revocation.false-positive-rate}.
+     */
+    @Value("${flora.auth.revocation.false-positive-rate:0.001}")
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Sets how far before the previous read each read reaches back. It must exceed the time a
+     * revocation may take to commit plus the clock skew between nodes.
+     *
+     * @param syncOverlap the value of {@code flora.auth.revocation.sync-overlap}.
+     */
+    @Value("${flora.auth.revocation.sync-overlap:PT1M}")
+    public void setSyncOverlap(Duration syncOverlap) {
+        if (syncOverlap.isNegative()) {
+            throw new IllegalArgumentException("syncOverlap must not be negative");
+        }
+        this.syncOverlap = syncOverlap;
+    }
+
+    /**
+     * Loads the revocations whose tokens have not expired yet. Runs before the application
+     * accepts requests, so a restart never lets a revoked token through.
+     */
+    @PostConstruct
+    public synchronized void load() {
+        revokedTokens.clear();
+        revokedUsers.clear();
+        lastSync = null;
+        rebuild();
+        sync();
+        log.info("Cargadas {} revocaciones de tokens", size());
+    }
+
+    /**
+     * Revokes a single token, typically when its user logs out.
+     *
+     * @param principal the verified token.
+     */
+    public void revokeToken(JwtPrincipal principal) {
+        if (principal.getTokenId() == null) {
+            throw new InvalidRequestException("Token has no id");
+        }
+        TokenRevocation revocation = tokenRevocationRepository.save(new TokenRevocation(
+                principal.getTokenId(), principal.getUsername(), clock.instant(), principal.getExpiresAt()));
+        register(revocation);
+        log.info("Revocado el token {} del usuario {}", principal.getTokenId(), principal.getUsername());
+    }
+
+    /**
+     * Revokes every token of a user issued up to now. Tokens issued afterwards are valid.
+     *
+     * @param username the name of the user.
+     * @throws ResourceNotFoundException if there is no user with that name.
+     */
+    public void revokeUser(String username) throws ResourceNotFoundException {
+        userRepository.findByName(username)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found for this name :: " + username));
+        // Token issue times have second precision, so tokens issued in this same second are revoked too
+        Instant now = clock.instant().truncatedTo(ChronoUnit.SECONDS);
+        TokenRevocation revocation = tokenRevocationRepository.save(new TokenRevocation(
+                null, username, now, now.plus(jwtUtils.getTokenLifetime())));
+        register(revocation);
+        log.info("Revocados los tokens del usuario {}", username);
+    }
+
+    /**
+     * Tells whether a verified token has been revoked.
+     *
+     * @param principal the verified token.
+     * @return {@code true} if the token or every token of its user issued up to it has been revoked.
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        BloomFilter current = filter;
+        String tokenId = principal.getTokenId();
+        boolean tokenMaybe = tokenId != null && current.mightContain(TOKEN, tokenId);
+        boolean userMaybe = current.mightContain(USER, principal.getUsername());
+        if (!tokenMaybe && !userMaybe) {
+            negatives.increment();
+            return false;
+        }
+        if (tokenMaybe && revokedTokens.containsKey(tokenId)) {
+            revoked.increment();
+            return true;
+        }
+        if (userMaybe) {
+            UserRevocation revocation = revokedUsers.get(principal.getUsername());
+            Instant issuedAt = principal.getIssuedAt();
+            if (revocation != null && (issuedAt == null || !issuedAt.isAfter(revocation.revokedAt))) {
+                revoked.increment();
+                return true;
+            }
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Reads the revocations other nodes have stored since the last read, and again those revoked
+     * within the overlap before it, which may have committed only after it.
+     */
+    @Scheduled(fixedDelayString = "${flora.auth.revocation.sync-interval:PT10S}",
+            initialDelayString = "${flora.auth.revocation.sync-interval:PT10S}")
+    public synchronized void sync() {
+        Instant now = clock.instant();
+        Instant since = lastSync == null ? Instant.EPOCH : lastSync.minus(syncOverlap);
+        for (TokenRevocation revocation : tokenRevocationRepository
+                .findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now)) {
+            register(revocation);
+        }
+        lastSync = now;
+    }
+
+    /**
+     * Deletes the revocations of expired tokens, from the database and from memory, and rebuilds
+     * the Bloom filter without them.
+     */
+    @Scheduled(fixedDelayString = "${flora.auth.revocation.compaction-interval:PT10M}",
+            initialDelayString = "${flora.auth.revocation.compaction-interval:PT10M}")
+    public synchronized void compact() {
+        Instant now = clock.instant();
+        int deleted = tokenRevocationRepository.deleteExpired(now);
+        int before = size();
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        revokedUsers.values().removeIf(revocation -> !revocation.expiresAt.isAfter(now));
+        rebuild();
+        log.info("Compactadas las revocaciones de tokens: {} filas borradas, {} descartadas en memoria, {} vigentes",
+                deleted, before - size(), size());
+    }
+
+    /**
+     * Gets the number of revocations held in memory.
+     *
+     * @return the number of revoked token ids plus revoked users.
+     */
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    /**
+     * Registers the revocation meters: the revocations held, the capacity of the Bloom filter
+     * and the outcome of the checks.
+     *
+     * @param registry the registry to bind to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("flora.auth.revocations", this, TokenRevocationService::size)
+                .description("Token revocations held in memory")
+                .register(registry);
+        Gauge.builder("flora.auth.revocations.capacity", this, s -> s.filter.expectedInsertions())
+                .description("Revocations the Bloom filter is sized for")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.revocation.checks", negatives, LongAdder::sum)
+                .tag("result", "negative")
+                .description("Checks answered by the Bloom filter alone")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.revocation.checks", falsePositives, LongAdder::sum)
+                .tag("result", "false-positive")
+                .description("Checks the Bloom filter could not rule out for tokens that were not revoked")
+                .register(registry);
+        FunctionCounter.builder("flora.auth.revocation.checks", revoked, LongAdder::sum)
+                .tag("result", "revoked")
+                .description("Checks of revoked tokens")
+                .register(registry);
+    }
+
+    private synchronized void register(TokenRevocation revocation) {
+        if (revocation.getTokenId() != null) {
+            revokedTokens.merge(revocation.getTokenId(), revocation.getExpiresAt(),
+                    (a, b) -> a.isAfter(b) ? a : b);
+            filter.put(TOKEN, revocation.getTokenId());
+        } else {
+            // Keep only the latest revocation of the user: it covers every earlier one
+            revokedUsers.merge(revocation.getUsername(),
+                    new UserRevocation(revocation.getRevokedAt(), revocation.getExpiresAt()),
+                    (a, b) -> a.revokedAt.isAfter(b.revokedAt) ? a : b);
+            filter.put(USER, revocation.getUsername());
+        }
+        if (size() > filter.expectedInsertions()) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        // The new filter is filled before it is published, so a check never sees it half-built
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2 * size()), falsePositiveRate);
+        revokedTokens.keySet().forEach(tokenId -> rebuilt.put(TOKEN, tokenId));
+        revokedUsers.keySet().forEach(username -> rebuilt.put(USER, username));
+        filter = rebuilt;
+    }
+
+    private static final class UserRevocation {
+        private final Instant revokedAt;
+        private final Instant expiresAt;
+
+        private UserRevocation(Instant revokedAt, Instant expiresAt) {
+            this.revokedAt = revokedAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
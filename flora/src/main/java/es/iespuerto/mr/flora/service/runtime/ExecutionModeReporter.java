@@ -0,0 +1,87 @@
+package es.iespuerto.mr.flora.service.runtime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports whether requests run on platform or virtual threads.
+ *
+ * <p>The {@code virtual-threads} profile sets {@code spring.threads.virtual.enabled}, which makes
+ * Tomcat run every request, the CXF {@code /services} endpoints included, on a virtual thread.
+ * Spring Boot only honours it on Java 21 or later and silently keeps platform threads otherwise,
+ * so the mode actually in effect is logged once the application is ready, with a warning when
+ * virtual threads were asked for and are not available, and published as the
+ * {@code flora.execution.virtual-threads} gauge so a benchmark can tell which mode it measured.</p>
+ */
+@Slf4j
+@Component
+public class ExecutionModeReporter implements MeterBinder {
+
+    private Environment environment;
+
+    /**
+     * Sets the {@link Environment} the execution mode is read from.
+     *
+     * @param environment the environment to be injected.
+     */
+    @Autowired
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Tells whether requests run on virtual threads.
+     *
+     * @return {@code true} if virtual threads are enabled and supported by the running JVM.
+     */
+    public boolean isVirtualThreads() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+
+    /**
+     * Tells whether virtual threads were asked for in the configuration.
+     *
+     * @return the value of {@code spring.threads.virtual.enabled}.
+     */
+    public boolean isVirtualThreadsRequested() {
+        return environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+    }
+
+    /**
+     * Logs the execution mode once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        String pool = environment.getProperty("spring.datasource.hikari.maximum-pool-size", "10");
+        if (isVirtualThreads()) {
+            log.info("Solicitudes ejecutadas en hilos virtuales (pool JDBC de {} conexiones)", pool);
+        } else if (isVirtualThreadsRequested()) {
+            log.warn("Se han pedido hilos virtuales pero la JVM es Java {}: se usan hilos de plataforma",
+                    Runtime.version().feature());
+        } else {
+            log.info("Solicitudes ejecutadas en hilos de plataforma (máximo {}, pool JDBC de {} conexiones)",
+                    environment.getProperty("server.tomcat.threads.max", "200"), pool);
+        }
+    }
+
+    /**
+     * Registers the {@code flora.execution.virtual-threads} gauge: 1 on virtual threads, 0 otherwise.
+     *
+     * @param registry the registry to bind to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("flora.execution.virtual-threads", this, r -> r.isVirtualThreads() ? 1 : 0)
+                .description("Whether requests run on virtual threads")
+                .register(registry);
+    }
+}
@@ -0,0 +1,113 @@
+package es.iespuerto.mr.flora.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of primitive {@code int} ids.
+ *
+ * <p>Backs the posting lists of the in-memory indexes. Ids are stored in a growable
+ * {@code int[]}, so a posting costs four bytes instead of a boxed {@link Integer}. New ids are
+ * usually larger than the existing ones, which makes {@link #add(int)} an append in the common case.</p>
+ *
+ * <p>This class is not thread-safe; callers are expected to guard it with their own lock.</p>
+ */
+public final class IntPostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Adds an id to the list, keeping it sorted.
+     *
+     * @param id The id to add.
+     * @return {@code true} if the id was added, {@code false} if it was already present.
+     */
+    public boolean add(int id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return true;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        int insertAt = -pos - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an id from the list.
+     *
+     * @param id The id to remove.
+     * @return {@code true} if the id was present.
+     */
+    public boolean remove(int id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks whether the list contains an id.
+     *
+     * @param id The id to look for.
+     * @return {@code true} if the id is present.
+     */
+    public boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Gets the id stored at the given position.
+     *
+     * @param index The position, between {@code 0} and {@code size() - 1}.
+     * @return The id at that position.
+     */
+    public int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the number of ids in the list.
+     *
+     * @return The number of ids.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list is empty.
+     *
+     * @return {@code true} if the list holds no ids.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies the ids into a new array.
+     *
+     * @return The ids in ascending order.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package es.iespuerto.mr.flora.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory trigram inverted index over {@link Plant#getCommonName()} and {@link Plant#getScientificName()}.
+ *
+ * <p>Every name is normalized with {@link TextNormalizer} (lower case, no accents) and split into
+ * overlapping three character grams, padded with a leading and trailing space per name so word
+ * starts and ends carry weight. Each gram maps to an {@link IntPostingList} of plant ids.</p>
+ *
+ * <p>A query is normalized the same way, but only padded at the start, so the last word typed is
+ * treated as a prefix ("tulip" finds "Tulipán"). The posting lists of the query grams are merged
+ * and every plant that shares at least {@value #MIN_MATCH_RATIO} of the query grams is ranked by
+ * the Jaccard similarity between its grams and the query grams.</p>
+ *
+ * <p>The index is built from the database once the application is ready and then kept up to date
+ * by {@code PlantService} on every create, update and delete. Reads share a read lock, so searches
+ * run concurrently and never touch the database.</p>
+ *
+ * @see TextNormalizer
+ * @see IntPostingList
+ */
+@Slf4j
+@Component
+public class PlantSearchIndex {
+
+    /**
+     * Minimum fraction of the query grams that a plant must contain to be returned.
+     */
+    public static final double MIN_MATCH_RATIO = 0.6;
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, IntPostingList> postings = new HashMap<>();
+    private final Map<Integer, IndexedPlant> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private PlantRepository plantRepository;
+
+    /**
+     * Sets the {@link PlantRepository} used to build the index at startup.
+     *
+     * @param plantRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantRepository(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * Rebuilds the whole index from the database. Invoked once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Plant> plants = plantRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            plants.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de búsqueda construido con {} plantas", plants.size());
+    }
+
+    /**
+     * Adds a plant to the index, replacing any previous version of it.
+     *
+     * @param plant the plant to index.
+     */
+    public void index(Plant plant) {
+        lock.writeLock().lock();
+        try {
+            remove(plant.getId(), documents.get(plant.getId()));
+            add(plant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a plant from the index.
+     *
+     * @param plantId the id of the plant to remove.
+     */
+    public void remove(int plantId) {
+        lock.writeLock().lock();
+        try {
+            remove(plantId, documents.get(plantId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches plants whose common or scientific name resembles the query.
+     *
+     * @param query the text typed by the user; case and accents are ignored.
+     * @param limit the maximum number of results.
+     * @return the best matching plants, most similar first. Empty if the query has fewer than two letters.
+     */
+    public List<PlantSummary> search(String query, int limit) {
+        String normalized = TextNormalizer.normalize(query);
+        if (normalized.length() < GRAM_LENGTH - 1 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Set<String> queryGrams = grams(" " + normalized);
+        int minMatches = Math.max(1, (int) Math.ceil(queryGrams.size() * MIN_MATCH_RATIO));
+
+        lock.readLock().lock();
+        try {
+            List<IntPostingList> lists = new ArrayList<>(queryGrams.size());
+            for (String gram : queryGrams) {
+                IntPostingList list = postings.get(gram);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            if (lists.size() < minMatches) {
+                return Collections.emptyList();
+            }
+            return topMatches(lists, queryGrams.size(), minMatches, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of plants currently indexed.
+     *
+     * @return the number of indexed plants.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Merges the sorted posting lists, counting for every plant how many of them contain it,
+     * and keeps the {@code limit} best candidates in a bounded heap.
+     */
+    private List<PlantSummary> topMatches(List<IntPostingList> lists, int queryGramCount, int minMatches, int limit) {
+        Comparator<Candidate> byScore = Comparator.comparingDouble((Candidate c) -> c.score)
+                .thenComparing(c -> -c.plant.getId());
+        PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, byScore);
+        int[] cursors = new int[lists.size()];
+
+        while (true) {
+            int current = Integer.MAX_VALUE;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] < lists.get(i).size()) {
+                    current = Math.min(current, lists.get(i).get(cursors[i]));
+                }
+            }
+            if (current == Integer.MAX_VALUE) {
+                break;
+            }
+            int matches = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                if (cursors[i] < lists.get(i).size() && lists.get(i).get(cursors[i]) == current) {
+                    matches++;
+                    cursors[i]++;
+                }
+            }
+            if (matches >= minMatches) {
+                IndexedPlant document = documents.get(current);
+                double score = (double) matches / (queryGramCount + document.gramCount - matches);
+                if (best.size() < limit) {
+                    best.add(new Candidate(document.summary, score));
+                } else if (score > best.peek().score) {
+                    best.poll();
+                    best.add(new Candidate(document.summary, score));
+                }
+            }
+        }
+
+        List<PlantSummary> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().plant);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void add(Plant plant) {
+        Set<String> grams = new LinkedHashSet<>();
+        grams.addAll(grams(" " + TextNormalizer.normalize(plant.getCommonName()) + " "));
+        grams.addAll(grams(" " + TextNormalizer.normalize(plant.getScientificName()) + " "));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new IntPostingList()).add(plant.getId());
+        }
+        documents.put(plant.getId(), new IndexedPlant(PlantSummary.of(plant), grams.toArray(new String[0])));
+    }
+
+    private void remove(int plantId, IndexedPlant document) {
+        if (document == null) {
+            return;
+        }
+        for (String gram : document.grams) {
+            IntPostingList list = postings.get(gram);
+            if (list != null) {
+                list.remove(plantId);
+                if (list.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+        documents.remove(plantId);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * A plant as stored in the index: its summary plus the grams it was indexed under,
+     * needed to remove it later.
+     */
+    private static final class IndexedPlant {
+        private final PlantSummary summary;
+        private final String[] grams;
+        private final int gramCount;
+
+        private IndexedPlant(PlantSummary summary, String[] grams) {
+            this.summary = summary;
+            this.grams = grams;
+            this.gramCount = grams.length;
+        }
+    }
+
+    /**
+     * A scored search result.
+     */
+    private static final class Candidate {
+        private final PlantSummary plant;
+        private final double score;
+
+        private Candidate(PlantSummary plant, double score) {
+            this.plant = plant;
+            this.score = score;
+        }
+    }
+}
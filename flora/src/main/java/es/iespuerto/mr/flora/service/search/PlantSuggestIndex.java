@@ -0,0 +1,445 @@
+package es.iespuerto.mr.flora.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.FavoriteRepository;
+import es.iespuerto.mr.flora.repository.FavoriteRepository.PlantFavoriteCount;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prefix autocomplete over plant names backed by a compact radix trie.
+ *
+ * <p>Both the common and the scientific name of every plant are inserted as keys, normalized with
+ * {@link TextNormalizer}. Each edge of the trie holds a string label instead of a single character,
+ * so chains without branches collapse into one node.</p>
+ *
+ * <p>Every node stores the {@value #TOP_K} best plant ids of its subtree, ranked by how many users
+ * marked them as favorites (ties by id). A suggestion therefore walks the prefix and copies the
+ * list of the node it ends on, regardless of how many plants share that prefix. When a plant or its
+ * favorite count changes only the nodes on the paths of its names are recomputed, merging the lists
+ * of their children.</p>
+ *
+ * <p>The trie is built once the application is ready. Afterwards {@code PlantService} and
+ * {@code FavoriteService} keep it up to date, so autocomplete never touches the database.</p>
+ *
+ * @see TextNormalizer
+ */
+@Slf4j
+@Component
+public class PlantSuggestIndex {
+
+    /**
+     * Number of suggestions precomputed at every node.
+     */
+    public static final int TOP_K = 10;
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_IDS = new int[0];
+
+    private final Node root = new Node("");
+    private final Map<Integer, Entry> plants = new HashMap<>();
+    private final Map<Integer, Long> favorites = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private PlantRepository plantRepository;
+    private FavoriteRepository favoriteRepository;
+
+    /**
+     * Sets the {@link PlantRepository} used to build the trie at startup.
+     *
+     * @param plantRepository the repository to be injected.
+     */
+    @Autowired
+    public void setPlantRepository(PlantRepository plantRepository) {
+        this.plantRepository = plantRepository;
+    }
+
+    /**
+     * Sets the {@link FavoriteRepository} used to load the favorite counts at startup.
+     *
+     * @param favoriteRepository the repository to be injected.
+     */
+    @Autowired
+    public void setFavoriteRepository(FavoriteRepository favoriteRepository) {
+        this.favoriteRepository = favoriteRepository;
+    }
+
+    /**
+     * Rebuilds the whole trie from the database. Invoked once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Plant> allPlants = plantRepository.findAll();
+        List<PlantFavoriteCount> counts = favoriteRepository.countFavoritesByPlant();
+        lock.writeLock().lock();
+        try {
+            root.children = NO_CHILDREN;
+            root.terminals = null;
+            plants.clear();
+            favorites.clear();
+            for (PlantFavoriteCount count : counts) {
+                favorites.put(count.getPlantId(), count.getFavorites());
+            }
+            for (Plant plant : allPlants) {
+                Entry entry = new Entry(plant);
+                plants.put(plant.getId(), entry);
+                for (String key : entry.keys) {
+                    insert(key, plant.getId());
+                }
+            }
+            recomputeSubtree(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Índice de autocompletado construido con {} plantas", allPlants.size());
+    }
+
+    /**
+     * Adds a plant to the trie, replacing any previous version of it.
+     *
+     * @param plant the plant to index.
+     */
+    public void index(Plant plant) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(plant.getId());
+            Entry entry = new Entry(plant);
+            plants.put(plant.getId(), entry);
+            for (String key : entry.keys) {
+                recompute(insert(key, plant.getId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a plant from the trie.
+     *
+     * @param plantId the id of the plant to remove.
+     */
+    public void remove(int plantId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(plantId);
+            favorites.remove(plantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adjusts the number of favorites of a plant and re-ranks the nodes of its names.
+     *
+     * @param plantId the id of the plant.
+     * @param delta the change in the number of favorites, usually {@code 1} or {@code -1}.
+     */
+    public void adjustFavorites(int plantId, long delta) {
+        lock.writeLock().lock();
+        try {
+            long value = Math.max(0, favorites.getOrDefault(plantId, 0L) + delta);
+            if (value == 0) {
+                favorites.remove(plantId);
+            } else {
+                favorites.put(plantId, value);
+            }
+            Entry entry = plants.get(plantId);
+            if (entry != null) {
+                for (String key : entry.keys) {
+                    List<Node> path = path(key);
+                    if (path != null) {
+                        recompute(path);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggests the most popular plants whose common or scientific name starts with the prefix.
+     *
+     * @param prefix the text typed so far; case and accents are ignored.
+     * @param limit the maximum number of suggestions, at most {@value #TOP_K}.
+     * @return the suggested plants, most favorited first.
+     */
+    public List<PlantSummary> suggest(String prefix, int limit) {
+        String normalized = TextNormalizer.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int i = 0;
+            while (i < normalized.length()) {
+                Node child = child(node, normalized.charAt(i));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                int common = commonPrefix(child.label, normalized, i);
+                if (common < child.label.length() && i + common < normalized.length()) {
+                    return Collections.emptyList();
+                }
+                node = child;
+                i += common;
+            }
+            int count = Math.min(limit, node.top.length);
+            List<PlantSummary> result = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                result.add(plants.get(node.top[j]).summary);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts a key, splitting edges when needed, and returns the nodes from the root to the key.
+     */
+    private List<Node> insert(String key, int plantId) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = child(node, key.charAt(i));
+            if (child == null) {
+                child = new Node(key.substring(i));
+                addChild(node, child);
+                path.add(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children = new Node[] {child};
+                replaceChild(node, child, split);
+                child = split;
+            }
+            path.add(child);
+            node = child;
+            i += common;
+        }
+        if (node.terminals == null) {
+            node.terminals = new IntPostingList();
+        }
+        node.terminals.add(plantId);
+        return path;
+    }
+
+    private void removeEntry(int plantId) {
+        Entry entry = plants.remove(plantId);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            List<Node> path = path(key);
+            if (path == null) {
+                continue;
+            }
+            Node node = path.get(path.size() - 1);
+            if (node.terminals != null) {
+                node.terminals.remove(plantId);
+                if (node.terminals.isEmpty()) {
+                    node.terminals = null;
+                }
+            }
+            compact(path);
+            recompute(path);
+        }
+    }
+
+    /**
+     * Drops empty leaves at the end of the path and merges a remaining node with its only child.
+     */
+    private void compact(List<Node> path) {
+        int last = path.size() - 1;
+        while (last > 0 && path.get(last).terminals == null && path.get(last).children.length == 0) {
+            removeChild(path.get(last - 1), path.get(last));
+            path.remove(last);
+            last--;
+        }
+        Node node = path.get(last);
+        if (last > 0 && node.terminals == null && node.children.length == 1) {
+            Node only = node.children[0];
+            node.label = node.label + only.label;
+            node.children = only.children;
+            node.terminals = only.terminals;
+            node.top = only.top;
+        }
+    }
+
+    /**
+     * Returns the nodes from the root to the node that ends exactly at the key, or {@code null}.
+     */
+    private List<Node> path(String key) {
+        List<Node> path = new ArrayList<>();
+        path.add(root);
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = child(node, key.charAt(i));
+            if (child == null || !key.startsWith(child.label, i)) {
+                return null;
+            }
+            path.add(child);
+            node = child;
+            i += child.label.length();
+        }
+        return path;
+    }
+
+    private void recompute(List<Node> path) {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            recomputeTop(path.get(i));
+        }
+    }
+
+    private void recomputeSubtree(Node node) {
+        for (Node child : node.children) {
+            recomputeSubtree(child);
+        }
+        recomputeTop(node);
+    }
+
+    /**
+     * Merges the plants ending at the node with the lists of its children, keeping the best {@value #TOP_K}.
+     */
+    private void recomputeTop(Node node) {
+        int[] top = new int[TOP_K];
+        int size = 0;
+        if (node.terminals != null) {
+            for (int i = 0; i < node.terminals.size(); i++) {
+                size = offer(top, size, node.terminals.get(i));
+            }
+        }
+        for (Node child : node.children) {
+            for (int id : child.top) {
+                size = offer(top, size, id);
+            }
+        }
+        node.top = size == 0 ? NO_IDS : Arrays.copyOf(top, size);
+    }
+
+    private int offer(int[] top, int size, int plantId) {
+        for (int i = 0; i < size; i++) {
+            if (top[i] == plantId) {
+                return size;
+            }
+        }
+        long weight = favorites.getOrDefault(plantId, 0L);
+        int pos = size;
+        while (pos > 0 && ranksBefore(plantId, weight, top[pos - 1])) {
+            pos--;
+        }
+        if (pos >= TOP_K) {
+            return size;
+        }
+        int newSize = Math.min(size + 1, TOP_K);
+        System.arraycopy(top, pos, top, pos + 1, newSize - pos - 1);
+        top[pos] = plantId;
+        return newSize;
+    }
+
+    private boolean ranksBefore(int plantId, long weight, int otherId) {
+        long otherWeight = favorites.getOrDefault(otherId, 0L);
+        return weight > otherWeight || (weight == otherWeight && plantId < otherId);
+    }
+
+    private static int commonPrefix(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Node child(Node node, char first) {
+        for (Node child : node.children) {
+            if (child.label.charAt(0) == first) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static void addChild(Node node, Node child) {
+        Node[] children = Arrays.copyOf(node.children, node.children.length + 1);
+        children[children.length - 1] = child;
+        node.children = children;
+    }
+
+    private static void replaceChild(Node node, Node oldChild, Node newChild) {
+        for (int i = 0; i < node.children.length; i++) {
+            if (node.children[i] == oldChild) {
+                node.children[i] = newChild;
+                return;
+            }
+        }
+    }
+
+    private static void removeChild(Node node, Node child) {
+        Node[] children = new Node[node.children.length - 1];
+        int j = 0;
+        for (Node c : node.children) {
+            if (c != child) {
+                children[j++] = c;
+            }
+        }
+        node.children = children;
+    }
+
+    /**
+     * A node of the radix trie.
+     */
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private IntPostingList terminals;
+        private int[] top = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * A plant as stored in the trie: its summary plus the keys it was inserted under.
+     */
+    private static final class Entry {
+        private final PlantSummary summary;
+        private final String[] keys;
+
+        private Entry(Plant plant) {
+            this.summary = PlantSummary.of(plant);
+            Set<String> names = new LinkedHashSet<>();
+            names.add(TextNormalizer.normalize(plant.getCommonName()));
+            names.add(TextNormalizer.normalize(plant.getScientificName()));
+            names.remove("");
+            this.keys = names.toArray(new String[0]);
+        }
+    }
+}
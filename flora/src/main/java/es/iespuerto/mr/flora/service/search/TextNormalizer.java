@@ -0,0 +1,46 @@
+package es.iespuerto.mr.flora.service.search;
+
+import java.text.Normalizer;
+
+/**
+ * Normalizes free text before it is indexed or searched.
+ *
+ * <p>The result is lower case, without diacritics ("Tulipán" becomes "tulipan") and with every
+ * run of characters that are not letters or digits collapsed to a single space.</p>
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    /**
+     * Normalizes the given text.
+     *
+     * @param text The text to normalize, may be {@code null}.
+     * @return The normalized text, or an empty string if {@code text} is {@code null}.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,272 @@
+package es.iespuerto.mr.flora.service.sighting;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.model.Sighting;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind pipeline for {@link Sighting}s: requests put sightings in a bounded buffer and a
+ * single background thread writes them to the database in batches.
+ *
+ * <p>The buffer is an {@link ArrayBlockingQueue}, a fixed-size ring over an array, so accepting a
+ * sighting never allocates beyond the sighting itself and never blocks: when the buffer is full
+ * {@link #offer(Sighting)} returns {@code false} at once and the caller answers 429. The writer
+ * waits for the first sighting, drains whatever else is queued up to {@code batchSize} and hands
+ * the batch to {@link SightingJdbcWriter}, so batches grow with the load and a lone sighting is
+ * still written within milliseconds.</p>
+ *
+ * <p>The pipeline is a {@link SmartLifecycle} that stops after the web server, so on shutdown no
+ * more requests arrive, the writer drains the buffer and every accepted sighting is written
+ * before the data source closes.</p>
+ *
+ * <p>Received, rejected, written and failed sightings, batches and the buffer depth are published
+ * to Micrometer as {@code flora.sightings.*} meters; the rate of {@code flora.sightings.received}
+ * is the ingest rate.</p>
+ */
+@Slf4j
+@Component
+public class SightingIngestor implements SmartLifecycle, MeterBinder {
+
+    /**
+     * Lifecycle phase of the pipeline: below the phases of the web server, so it starts before
+     * the server accepts requests and stops after the server has stopped.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final long POLL_MILLIS = 200;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    private SightingJdbcWriter writer;
+    private int capacity = 10_000;
+    private int batchSize = 500;
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+    private volatile BlockingQueue<Sighting> buffer;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * Sets the {@link SightingJdbcWriter} the batches are written with.
+     *
+     * @param writer the writer to be injected.
+     */
+    @Autowired
+    public void setWriter(SightingJdbcWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Sets the number of sightings the buffer can hold.
+     *
+     * @param capacity the value of {@code flora.sightings.buffer-capacity}.
+     */
+    @Value("${flora.sightings.buffer-capacity:10000}")
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Sets the maximum number of sightings written together.
+     *
+     * @param batchSize the value of {@code flora.sightings.batch-size}.
+     */
+    @Value("${flora.sightings.batch-size:500}")
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets how long a shutdown waits for the buffer to be written.
+     *
+     * @param shutdownTimeout the value of {@code flora.sightings.shutdown-timeout}.
+     */
+    @Value("${flora.sightings.shutdown-timeout:30s}")
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    /**
+     * Puts a sighting in the buffer without waiting.
+     *
+     * @param sighting the validated sighting.
+     * @return {@code true} if it was accepted, {@code false} if the buffer is full or the pipeline is stopped.
+     */
+    public boolean offer(Sighting sighting) {
+        BlockingQueue<Sighting> queue = buffer;
+        if (running && queue != null && queue.offer(sighting)) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Gets the number of sightings waiting to be written.
+     *
+     * @return the depth of the buffer.
+     */
+    public int depth() {
+        BlockingQueue<Sighting> queue = buffer;
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Creates the buffer and starts the writer thread.
+     */
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        thread = new Thread(this::drainLoop, "sighting-writer");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Ingesta de avistamientos iniciada (buffer de {}, lotes de {})", capacity, batchSize);
+    }
+
+    /**
+     * Stops accepting sightings and waits for the writer to empty the buffer.
+     */
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            thread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("La escritura de avistamientos no terminó en {}; quedan {} en el buffer", shutdownTimeout, depth());
+            return;
+        }
+        // An offer() that saw running just before it was cleared may have landed after the last drain
+        flushRemaining();
+        log.info("Ingesta de avistamientos detenida: {} escritos, {} fallidos", written.sum(), failed.sum());
+    }
+
+    /**
+     * Tells whether the writer is running.
+     *
+     * @return {@code true} between {@link #start()} and {@link #stop()}.
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the lifecycle phase of the pipeline.
+     *
+     * @return {@link #PHASE}.
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Registers the meters of the pipeline.
+     *
+     * @param registry the registry to bind to.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("flora.sightings.received", accepted, LongAdder::sum)
+                .tag("result", "accepted")
+                .description("Sightings accepted into the buffer")
+                .register(registry);
+        FunctionCounter.builder("flora.sightings.received", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .description("Sightings rejected because the buffer was full or stopped")
+                .register(registry);
+        FunctionCounter.builder("flora.sightings.written", written, LongAdder::sum)
+                .description("Sightings written to the database")
+                .register(registry);
+        FunctionCounter.builder("flora.sightings.failed", failed, LongAdder::sum)
+                .description("Sightings the database refused to store")
+                .register(registry);
+        FunctionCounter.builder("flora.sightings.batches", batches, LongAdder::sum)
+                .description("Batches written to the database")
+                .register(registry);
+        Gauge.builder("flora.sightings.buffer.depth", this, SightingIngestor::depth)
+                .description("Sightings waiting to be written")
+                .register(registry);
+        Gauge.builder("flora.sightings.buffer.capacity", this, i -> i.capacity)
+                .description("Sightings the buffer can hold")
+                .register(registry);
+    }
+
+    private void drainLoop() {
+        List<Sighting> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Sighting first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Escritor de avistamientos interrumpido; quedan {} en el buffer", depth());
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushRemaining() {
+        List<Sighting> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<Sighting> batch) {
+        int stored;
+        try {
+            stored = writer.write(batch);
+        } catch (RuntimeException e) {
+            log.error("Error escribiendo un lote de {} avistamientos", batch.size(), e);
+            stored = 0;
+        }
+        batches.increment();
+        written.add(stored);
+        failed.add(batch.size() - stored);
+    }
+}
@@ -0,0 +1,103 @@
+package es.iespuerto.mr.flora.service.sighting;
+
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import es.iespuerto.mr.flora.model.Sighting;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes {@link Sighting} rows with multi-row {@code INSERT ... VALUES (...), (...)} statements,
+ * so a batch of sightings costs one round trip and one implicit transaction per
+ * {@value #MAX_ROWS_PER_STATEMENT} rows instead of one per row.
+ *
+ * <p>References are checked by {@code SightingService} before a sighting is queued, since the
+ * table has no foreign keys. If a statement still fails, for instance because a value is out of
+ * the range of its column, its rows are retried one by one so that only the offending rows are lost.</p>
+ */
+@Slf4j
+@Component
+public class SightingJdbcWriter {
+
+    /**
+     * Maximum number of rows sent in one statement, which keeps the number of bind parameters
+     * well below the limits of the JDBC drivers.
+     */
+    public static final int MAX_ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT = "INSERT INTO sightings (user_id, plant_id, location_id, observed_at, latitude, longitude) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final int COLUMNS = 6;
+    private static final String FULL_STATEMENT = statement(MAX_ROWS_PER_STATEMENT);
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets the {@link JdbcTemplate} used to run the inserts.
+     *
+     * @param jdbcTemplate the template to be injected.
+     */
+    @Autowired
+    public void setJdbcTemplate(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the sightings.
+     *
+     * @param sightings the sightings to insert.
+     * @return the number of sightings written; the rest were rejected by the database.
+     */
+    public int write(List<Sighting> sightings) {
+        int written = 0;
+        for (int from = 0; from < sightings.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Sighting> chunk = sightings.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, sightings.size()));
+            try {
+                String sql = chunk.size() == MAX_ROWS_PER_STATEMENT ? FULL_STATEMENT : statement(chunk.size());
+                jdbcTemplate.update(sql, parameters(chunk));
+                written += chunk.size();
+            } catch (DataAccessException e) {
+                log.warn("Inserción de {} avistamientos rechazada, reintentando fila a fila: {}", chunk.size(), e.getMessage());
+                written += writeOneByOne(chunk);
+            }
+        }
+        return written;
+    }
+
+    private int writeOneByOne(List<Sighting> chunk) {
+        int written = 0;
+        for (Sighting sighting : chunk) {
+            try {
+                jdbcTemplate.update(INSERT + ROW, parameters(Collections.singletonList(sighting)));
+                written++;
+            } catch (DataAccessException e) {
+                log.debug("Avistamiento descartado {}: {}", sighting, e.getMessage());
+            }
+        }
+        return written;
+    }
+
+    private static Object[] parameters(List<Sighting> chunk) {
+        Object[] parameters = new Object[chunk.size() * COLUMNS];
+        int i = 0;
+        for (Sighting sighting : chunk) {
+            parameters[i++] = sighting.getUserId();
+            parameters[i++] = sighting.getPlantId();
+            parameters[i++] = sighting.getLocationId();
+            parameters[i++] = sighting.getObservedAt().atOffset(ZoneOffset.UTC);
+            parameters[i++] = sighting.getLatitude();
+            parameters[i++] = sighting.getLongitude();
+        }
+        return parameters;
+    }
+
+    static String statement(int rows) {
+        return INSERT + String.join(", ", Collections.nCopies(rows, ROW));
+    }
+}
@@ -4,6 +4,8 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import es.iespuerto.mr.flora.service.FavoriteServiceInterface;
@@ -21,6 +23,7 @@ import jakarta.xml.ws.WebServiceException;
  *   <li>{@link #getAllFavoritePlants()} - Retrieves all favorite plants.</li>
  *   <li>{@link #getFavoritePlantById(int)} - Retrieves a favorite plant by its ID.</li>
  *   <li>{@link #addFavoritePlant(Favorite)} - Adds a new favorite plant.</li>
+ *   <li>{@link #applyFavoriteBatch(FavoriteBatch)} - Adds and removes several favorites of a user at once.</li>
  *   <li>{@link #deleteFavoritePlant(int)} - Deletes a favorite plant by its ID.</li>
  * </ul>
  * 
@@ -93,6 +96,18 @@ public class FavoriteServiceSoapImpl implements FavoriteServiceSoapInterface {
         return favoritePlantService.addFavoritePlant(favoritePlant);
     }
 
+    /**
+     * Adds and removes several favorites of a user in a single transaction.
+     * 
+     * @param batch the user and the plants to add and remove
+     * @return the number of favorites added and removed and the resulting favorites of the user
+     * @throws ResourceNotFoundException if the user or any of the plants to add is not found
+     */
+    @Override
+    public FavoriteBatchResult applyFavoriteBatch(FavoriteBatch batch) throws ResourceNotFoundException {
+        return favoritePlantService.applyFavoriteBatch(batch);
+    }
+
     /**
      * Deletes a favorite plant by its ID.
      * 
@@ -2,6 +2,8 @@ package es.iespuerto.mr.flora.soap.service;
 
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import jakarta.jws.WebMethod;
@@ -24,6 +26,7 @@ import jakarta.jws.WebService;
  *   <li>{@code getAllFavoritePlants()} - Retrieves a list of all favorite plants.</li>
  *   <li>{@code getFavoritePlantById(int id)} - Retrieves a specific favorite plant by its ID.</li>
  *   <li>{@code addFavoritePlant(Favorite favoritePlant)} - Adds a new favorite plant to the database.</li>
+ *   <li>{@code applyFavoriteBatch(FavoriteBatch batch)} - Adds and removes several favorites of a user at once.</li>
  *   <li>{@code deleteFavoritePlant(int id)} - Deletes a favorite plant by its ID.</li>
  * </ul>
  * 
@@ -72,6 +75,18 @@ public interface FavoriteServiceSoapInterface {
     @WebResult(name = "favoritePlant")
     Favorite addFavoritePlant(@WebParam(name = "favoritePlant") Favorite favoritePlant);
 
+    /**
+     * Adds and removes several favorites of a user in a single transaction.
+     * Retrying the same batch changes nothing.
+     * 
+     * @param batch the user and the plants to add and remove
+     * @return the number of favorites added and removed and the resulting favorites of the user
+     * @throws ResourceNotFoundException if the user or any of the plants to add does not exist
+     */
+    @WebMethod
+    @WebResult(name = "favoriteBatchResult")
+    FavoriteBatchResult applyFavoriteBatch(@WebParam(name = "batch") FavoriteBatch batch) throws ResourceNotFoundException;
+
     /**
      * Deletes a favorite plant by its ID.
      * 
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import es.iespuerto.mr.flora.dto.PlantPage;
 import es.iespuerto.mr.flora.model.Plant;
 import es.iespuerto.mr.flora.service.PlantServiceInterface;
 import jakarta.jws.WebService;
@@ -25,6 +26,7 @@ import jakarta.xml.ws.WebServiceException;
  * <p>Methods provided by this service:</p>
  * <ul>
  *   <li>{@link #getAllPlants()}: Retrieves a list of all plants.</li>
+ *   <li>{@link #getPlantsPage(String, int)}: Retrieves a page of plants using keyset pagination.</li>
  *   <li>{@link #getPlantById(int)}: Retrieves a plant by its ID.</li>
  *   <li>{@link #createPlant(Plant)}: Creates a new plant.</li>
  *   <li>{@link #updatePlant(int, Plant)}: Updates an existing plant by its ID.</li>
@@ -72,6 +74,23 @@ public class PlantServiceSoapImpl implements PlantServiceSoapInterface {
         return plantService.getAllPlants();
     }
 
+    /**
+     * Retrieves a page of plants ordered by id using keyset pagination.
+     * 
+     * @param after the opaque cursor returned by the previous page, or empty for the first page.
+     * @param limit the maximum number of plants to return.
+     * @return the requested {@link PlantPage}.
+     * @throws WebServiceException If the cursor is invalid or an error occurs while retrieving the page.
+     */
+    @Override
+    public PlantPage getPlantsPage(String after, int limit) {
+        try {
+            return plantService.getPlantsPage(after, limit);
+        } catch (Exception e) {
+            throw new WebServiceException("Error obteniendo la página de plantas", e);
+        }
+    }
+
     /**
      * Retrieves a plant by its ID.
      * 
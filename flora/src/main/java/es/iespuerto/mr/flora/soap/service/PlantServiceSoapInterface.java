@@ -2,6 +2,7 @@ package es.iespuerto.mr.flora.soap.service;
 
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.PlantPage;
 import es.iespuerto.mr.flora.model.Plant;
 import jakarta.jws.WebMethod;
 import jakarta.jws.WebParam;
@@ -25,6 +26,17 @@ public interface PlantServiceSoapInterface {
     @WebResult(name = "plant")
     List<Plant> getAllPlants();
 
+    /**
+     * Retrieves a page of plants ordered by id using keyset pagination.
+     * 
+     * @param after the opaque cursor returned by the previous page, or empty for the first page.
+     * @param limit the maximum number of plants to return.
+     * @return the requested page and the cursor of the next one.
+     */
+    @WebMethod
+    @WebResult(name = "plantPage")
+    PlantPage getPlantsPage(@WebParam(name = "after") String after, @WebParam(name = "limit") int limit);
+
     /**
      * Retrieves a plant by its unique identifier.
      * 
@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.service.UserServiceInterface;
 import jakarta.jws.WebService;
@@ -18,7 +19,7 @@ import jakarta.xml.ws.WebServiceException;
  * 
  * <p>Methods:</p>
  * <ul>
- *   <li>{@link #getAllUsers()} - Retrieves all users from the service.</li>
+ *   <li>{@link #getAllUsers()} - Retrieves a summary of every user from the service.</li>
  *   <li>{@link #getUserById(int)} - Retrieves a user by their ID from the service.</li>
  *   <li>{@link #createUser(User)} - Creates a new user in the service.</li>
  *   <li>{@link #updateUser(int, User)} - Updates an existing user by their ID in the service.</li>
@@ -61,13 +62,13 @@ public class UserServiceSoapImpl implements UserServiceSoapInterface {
     }
 
     /**
-     * Retrieves a list of all users.
+     * Retrieves a summary of every user: id, name and role name, without the password.
      *
-     * @return a list of all users.
+     * @return a list of the summaries of all users.
      * @throws WebServiceException if an error occurs while fetching the users.
      */
     @Override
-    public List<User> getAllUsers() {
+    public List<UserSummary> getAllUsers() {
         try {
             return userService.getAllUsers();
         } catch (Exception e) {
@@ -2,6 +2,7 @@ package es.iespuerto.mr.flora.soap.service;
 
 import java.util.List;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.model.User;
 import jakarta.jws.WebMethod;
 import jakarta.jws.WebParam;
@@ -17,13 +18,13 @@ import jakarta.jws.WebService;
 public interface UserServiceSoapInterface {
 
     /**
-     * Retrieves a list of all users.
+     * Retrieves a summary of every user: id, name and role name, without the password.
      * 
-     * @return a list of {@link User} objects.
+     * @return a list of {@link UserSummary} objects.
      */
     @WebMethod
     @WebResult(name = "user")
-    List<User> getAllUsers();
+    List<UserSummary> getAllUsers();
 
     /**
      * Retrieves a user by their unique ID.
@@ -0,0 +1,156 @@
+-- Esquema inicial de Flora. Flyway aplica los scripts de db/migration en orden de versión y
+-- guarda su checksum en flyway_schema_history; un script ya aplicado no se modifica, se añade
+-- uno nuevo (V2__..., V3__...). Hibernate solo valida el esquema (ddl-auto=validate).
+
+-- Secuencias de los ids generados por Hibernate (asignación en bloques de 50). Empiezan en 101,
+-- como plants_seq, para que los primeros ids generados (52-101) no choquen con los de los datos
+-- de referencia cargados con ids explícitos, que deben quedar por debajo de 52.
+CREATE SEQUENCE categories_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE characteristics_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE favorite_plants_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE locations_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE plant_categories_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE plant_characteristics_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE plant_locations_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE plants_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE roles_seq START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH 101 INCREMENT BY 50;
+
+-- Catálogo
+CREATE TABLE plants (
+    id INTEGER NOT NULL,
+    common_name VARCHAR(255) NOT NULL,
+    scientific_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE categories (
+    id INTEGER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE characteristics (
+    id INTEGER NOT NULL,
+    descripcion VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE locations (
+    id INTEGER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    bounds VARCHAR(4000),
+    PRIMARY KEY (id)
+);
+
+-- Enlaces de plantas con categorías, zonas y características. La restricción única (plant_id, ...)
+-- sirve también de índice por planta; el índice por valor resuelve los filtros por faceta.
+CREATE TABLE plant_categories (
+    id INTEGER NOT NULL,
+    plant_id INTEGER NOT NULL,
+    category_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_plant_categories UNIQUE (plant_id, category_id),
+    CONSTRAINT fk_plant_categories_plant FOREIGN KEY (plant_id) REFERENCES plants (id),
+    CONSTRAINT fk_plant_categories_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+CREATE INDEX idx_plant_categories_category ON plant_categories (category_id);
+
+CREATE TABLE plant_locations (
+    id INTEGER NOT NULL,
+    plant_id INTEGER NOT NULL,
+    location_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_plant_locations UNIQUE (plant_id, location_id),
+    CONSTRAINT fk_plant_locations_plant FOREIGN KEY (plant_id) REFERENCES plants (id),
+    CONSTRAINT fk_plant_locations_location FOREIGN KEY (location_id) REFERENCES locations (id)
+);
+CREATE INDEX idx_plant_locations_location ON plant_locations (location_id);
+
+CREATE TABLE plant_characteristics (
+    id INTEGER NOT NULL,
+    plant_id INTEGER NOT NULL,
+    characteristic_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_plant_characteristics UNIQUE (plant_id, characteristic_id),
+    CONSTRAINT fk_plant_characteristics_plant FOREIGN KEY (plant_id) REFERENCES plants (id),
+    CONSTRAINT fk_plant_characteristics_characteristic FOREIGN KEY (characteristic_id) REFERENCES characteristics (id)
+);
+CREATE INDEX idx_plant_characteristics_characteristic ON plant_characteristics (characteristic_id);
+
+-- Usuarios y roles. El login, la caché de detalles de usuario y los tokens de refresco buscan por
+-- nombre y esperan un único usuario: la restricción única es además el índice de esas búsquedas.
+CREATE TABLE roles (
+    id INTEGER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE users (
+    id INTEGER NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_name UNIQUE (name),
+    CONSTRAINT fk_users_role FOREIGN KEY (role_id) REFERENCES roles (id)
+);
+CREATE INDEX idx_users_role ON users (role_id);
+
+-- Favoritos. La restricción única (user_id, plant_id) es el índice de las consultas por usuario;
+-- idx_favorite_plants_plant sirve las consultas por planta (popularidad, co-ocurrencia). Las claves
+-- foráneas no borran en cascada: FavoriteService elimina los favoritos de un usuario o una planta
+-- antes de borrarlos, para actualizar a la vez los índices en memoria y la caché de favoritos.
+CREATE TABLE favorite_plants (
+    id INTEGER NOT NULL,
+    user_id INTEGER NOT NULL,
+    plant_id INTEGER NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_favorite_plants UNIQUE (user_id, plant_id),
+    CONSTRAINT fk_favorite_plants_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorite_plants_plant FOREIGN KEY (plant_id) REFERENCES plants (id)
+);
+CREATE INDEX idx_favorite_plants_plant ON favorite_plants (plant_id);
+
+-- Avistamientos: SightingService comprueba el usuario, la planta y la zona en memoria antes de
+-- encolarlos, y no llevan claves foráneas para que las inserciones en lote no consulten esas tablas.
+CREATE TABLE sightings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id INTEGER NOT NULL,
+    plant_id INTEGER NOT NULL,
+    location_id INTEGER,
+    observed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    latitude DOUBLE PRECISION,
+    longitude DOUBLE PRECISION,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_sightings_plant_observed ON sightings (plant_id, observed_at);
+
+-- Autenticación: revocaciones de tokens de acceso y tokens de refresco
+CREATE TABLE token_revocations (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_id VARCHAR(64),
+    username VARCHAR(255) NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_token_revocations_expires ON token_revocations (expires_at);
+
+CREATE TABLE refresh_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    issued_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
+CREATE UNIQUE INDEX idx_refresh_tokens_hash ON refresh_tokens (token_hash);
+CREATE INDEX idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX idx_refresh_tokens_username ON refresh_tokens (username);
+CREATE INDEX idx_refresh_tokens_expires ON refresh_tokens (expires_at);
@@ -0,0 +1,34 @@
+-- Datos de ejemplo, solo con el perfil dev (spring.flyway.locations en application-dev.properties).
+-- Un INSERT por tabla con todas sus filas. Los ids son explícitos y menores que 52, el primer id
+-- que generan las secuencias (ver V1__initial_schema.sql).
+
+INSERT INTO plants (id, common_name, scientific_name) VALUES
+    (1, 'Rosa', 'Rosa spp.'),
+    (2, 'Tulipán', 'Tulipa spp.');
+
+INSERT INTO characteristics (id, descripcion) VALUES
+    (1, 'Floración en primavera'),
+    (2, 'Resistente a la sequía');
+
+INSERT INTO locations (id, name, latitude, longitude, bounds) VALUES
+    (1, 'Teide', 28.2723, -16.6425, '28.3350 -16.7400, 28.3350 -16.5300, 28.2100 -16.5300, 28.2100 -16.7400'),
+    (2, 'La Laguna', 28.4874, -16.3159, NULL),
+    (3, 'Santa Cruz de Tenerife', 28.4636, -16.2518, NULL),
+    (4, 'Puerto de la Cruz', 28.4140, -16.5449, NULL),
+    (5, 'Los Cristianos', 28.0520, -16.7160, NULL);
+
+INSERT INTO categories (id, name) VALUES
+    (1, 'Árboles'),
+    (2, 'Arbustos'),
+    (3, 'Hierbas'),
+    (4, 'Flores'),
+    (5, 'Suculentas');
+
+INSERT INTO roles (id, name) VALUES
+    (1, 'ROLE_ADMIN'),
+    (2, 'ROLE_USER');
+
+-- Contraseña "user123" de ambos usuarios, ya cifrada con BCrypt(12) para no calcularla al arrancar
+INSERT INTO users (id, name, password, role_id) VALUES
+    (1, 'Manuel', '$2a$12$IxHITGq8zMnr6OGdl/M8YuQuEkmOSqU8hLnB238XvSR0nXz4TrwDW', 1),
+    (2, 'Pedro', '$2a$12$CEl9TOSBFx4VOAHY.7siU.H.QxPh6kpTgmb583XxwsIZ5hPIqjA3e', 2);
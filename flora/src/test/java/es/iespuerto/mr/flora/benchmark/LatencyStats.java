@@ -0,0 +1,82 @@
+package es.iespuerto.mr.flora.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Latencies recorded by one benchmark worker, merged at the end of a run to compute percentiles.
+ *
+ * <p>Every sample is kept in a growable {@code long[]}, so the percentiles are exact and nothing
+ * is allocated per request beyond the occasional array growth. A worker owns its instance; the
+ * instances are only merged after the workers have stopped.</p>
+ */
+public class LatencyStats {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    /**
+     * Records the latency of one request.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Adds the samples of another instance to this one.
+     *
+     * @param other the samples to add.
+     */
+    public void merge(LatencyStats other) {
+        if (count + other.count > samples.length) {
+            samples = Arrays.copyOf(samples, Math.max(count + other.count, samples.length * 2));
+        }
+        System.arraycopy(other.samples, 0, samples, count, other.count);
+        count += other.count;
+    }
+
+    /**
+     * Gets the number of samples recorded.
+     *
+     * @return the number of samples.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Gets a percentile of the latencies, by the nearest-rank method.
+     *
+     * @param percentile the percentile, between 0 (exclusive) and 100 (inclusive).
+     * @return the latency in nanoseconds, or 0 if there are no samples.
+     */
+    public long percentile(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Gets the highest latency recorded.
+     *
+     * @return the maximum latency in nanoseconds, or 0 if there are no samples.
+     */
+    public long max() {
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+}
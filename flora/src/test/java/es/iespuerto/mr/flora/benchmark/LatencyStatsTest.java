@@ -0,0 +1,48 @@
+package es.iespuerto.mr.flora.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyStatsTest {
+
+    @Test
+    void percentilesUseNearestRank() {
+        LatencyStats stats = new LatencyStats();
+        for (int i = 100; i >= 1; i--) {
+            stats.record(i);
+        }
+
+        assertEquals(100, stats.count());
+        assertEquals(50, stats.percentile(50));
+        assertEquals(99, stats.percentile(99));
+        assertEquals(100, stats.percentile(100));
+        assertEquals(1, stats.percentile(0.5));
+        assertEquals(100, stats.max());
+    }
+
+    @Test
+    void mergeCombinesSamplesBeyondInitialCapacity() {
+        LatencyStats a = new LatencyStats();
+        LatencyStats b = new LatencyStats();
+        for (int i = 0; i < 1_000; i++) {
+            a.record(1);
+            b.record(2);
+        }
+
+        a.merge(b);
+
+        assertEquals(2_000, a.count());
+        assertEquals(1, a.percentile(50));
+        assertEquals(2, a.percentile(51));
+    }
+
+    @Test
+    void emptyStatsReportZero() {
+        LatencyStats stats = new LatencyStats();
+
+        assertEquals(0, stats.percentile(99));
+        assertEquals(0, stats.max());
+        assertThrows(IllegalArgumentException.class, () -> stats.percentile(0));
+    }
+}
@@ -0,0 +1,209 @@
+package es.iespuerto.mr.flora.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator that measures one endpoint of a running Flora instance and appends
+ * throughput and p50/p99 latency to a CSV file.
+ *
+ * <p>{@code concurrency} workers send requests back to back for {@code warmup} (not measured, so
+ * the JIT and the caches settle) and then for {@code duration}. Every response is read to the end.
+ * Responses 429 and 503, the load shedding of the login path, are counted apart from errors.</p>
+ *
+ * <p>It uses only the JDK, so it runs from {@code target/test-classes} with no dependencies; see
+ * {@code benchmark/run-benchmark.sh}, which starts the application in each execution mode and
+ * runs it against {@code /api/v1/plants/} and {@code /auth/login}.</p>
+ *
+ * <pre>
+ * java -cp target/test-classes es.iespuerto.mr.flora.benchmark.LoadBenchmark \
+ *     --endpoint plants --mode platform --concurrency 64 --duration 30s --warmup 10s --out results.csv
+ * </pre>
+ */
+public class LoadBenchmark {
+
+    private static final String CSV_HEADER =
+            "mode,endpoint,concurrency,requests,ok,shed,errors,throughput_rps,p50_ms,p99_ms,max_ms";
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, String> options;
+
+    LoadBenchmark(Map<String, String> options) {
+        this.options = options;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args options as {@code --name value} pairs.
+     * @throws Exception if the instance cannot be reached or the results cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "base-url", "http://localhost:8080",
+                "mode", "unknown",
+                "endpoint", "plants",
+                "concurrency", "64",
+                "duration", "30s",
+                "warmup", "10s",
+                "username", "Manuel",
+                "password", "user123",
+                "out", "target/benchmark/results.csv"));
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadBenchmark(options).run();
+    }
+
+    static Duration duration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.startsWith("p")) {
+            return Duration.parse(value.trim());
+        }
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+
+    private void run() throws Exception {
+        String baseUrl = options.get("base-url");
+        String endpoint = options.get("endpoint");
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        Duration warmup = duration(options.get("warmup"));
+        Duration measured = duration(options.get("duration"));
+
+        HttpRequest request = request(baseUrl, endpoint);
+        System.out.printf("%s %s: %d workers, warmup %s, duration %s%n",
+                options.get("mode"), endpoint, concurrency, warmup, measured);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long deadline = measureFrom + measured.toNanos();
+        LongAdder ok = new LongAdder();
+        LongAdder shed = new LongAdder();
+        LongAdder errors = new LongAdder();
+        List<LatencyStats> perWorker = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            LatencyStats stats = new LatencyStats();
+            perWorker.add(stats);
+            Thread worker = new Thread(() -> {
+                try {
+                    loop(request, measureFrom, deadline, stats, ok, shed, errors);
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-" + w);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        LatencyStats all = new LatencyStats();
+        perWorker.forEach(all::merge);
+        double seconds = measured.toNanos() / 1e9;
+        String row = String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%.1f,%.2f,%.2f,%.2f",
+                options.get("mode"), endpoint, concurrency, all.count(), ok.sum(), shed.sum(), errors.sum(),
+                all.count() / seconds, all.percentile(50) / 1e6, all.percentile(99) / 1e6, all.max() / 1e6);
+        System.out.println(CSV_HEADER);
+        System.out.println(row);
+        append(Path.of(options.get("out")), row);
+    }
+
+    private void loop(HttpRequest request, long measureFrom, long deadline, LatencyStats stats,
+            LongAdder ok, LongAdder shed, LongAdder errors) {
+        while (true) {
+            long sent = System.nanoTime();
+            if (sent - deadline >= 0) {
+                return;
+            }
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long received = System.nanoTime();
+            if (sent - measureFrom < 0) {
+                continue;
+            }
+            stats.record(received - sent);
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else if (status == 429 || status == 503) {
+                shed.increment();
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    private HttpRequest request(String baseUrl, String endpoint) throws IOException, InterruptedException {
+        String credentials = "username=" + URLEncoder.encode(options.get("username"), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(options.get("password"), StandardCharsets.UTF_8);
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login?" + credentials))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        switch (endpoint) {
+            case "login":
+                return login;
+            case "plants":
+                HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+                Matcher matcher = ACCESS_TOKEN.matcher(response.body());
+                if (response.statusCode() != 200 || !matcher.find()) {
+                    throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+                }
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/plants/"))
+                        .header("Authorization", "Bearer " + matcher.group(1))
+                        .GET()
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint + ", expected plants or login");
+        }
+    }
+
+    private static void append(Path out, String row) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        if (!Files.exists(out)) {
+            Files.writeString(out, CSV_HEADER + System.lineSeparator());
+        }
+        Files.writeString(out, row + System.lineSeparator(), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,18 @@
+package es.iespuerto.mr.flora.benchmark;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class LoadBenchmarkTest {
+
+    @Test
+    void durationAcceptsShortAndIsoFormats() {
+        assertEquals(Duration.ofMillis(500), LoadBenchmark.duration("500ms"));
+        assertEquals(Duration.ofSeconds(30), LoadBenchmark.duration("30s"));
+        assertEquals(Duration.ofMinutes(2), LoadBenchmark.duration("2m"));
+        assertEquals(Duration.ofSeconds(45), LoadBenchmark.duration("PT45S"));
+    }
+}
@@ -1,13 +1,21 @@
 package es.iespuerto.mr.flora.controller;
 
+import es.iespuerto.mr.flora.dto.TokenResponse;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.exception.ServiceUnavailableException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
 import es.iespuerto.mr.flora.repository.UserRepository;
 import es.iespuerto.mr.flora.security.CustomUserDetailsService;
+import es.iespuerto.mr.flora.security.JwtPrincipal;
 import es.iespuerto.mr.flora.security.JwtUtils;
+import es.iespuerto.mr.flora.service.refresh.RefreshTokenService;
+import es.iespuerto.mr.flora.service.revocation.TokenRevocationService;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.model.Role;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -15,6 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -34,23 +43,52 @@ public class AuthControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private AuthController authController;
 
     private JwtUtils jwtUtils;
-    private CustomUserDetailsService userDetailsService;
     private String username = "user";
     private String password = "password";
 
     @BeforeEach
     void setUp() {
         jwtUtils = new JwtUtils();
-        userDetailsService = new CustomUserDetailsService(userRepository);
         authController.setJwtUtils(jwtUtils);
-        authController.setCustomUserDetailsService(userDetailsService);
+        authController.setTokenRevocationService(tokenRevocationService);
+        authController.setRefreshTokenService(refreshTokenService);
+        authController.setUserDetailsService(userDetailsService);
     }
 
 
+    @Test
+    void loginBuildsTokenFromAuthenticationWithoutReloadingUser() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(username, null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
+        when(refreshTokenService.issue(username)).thenReturn("refresh-1");
+
+        ResponseEntity<?> response = authController.login(username, password);
+
+        assertEquals(200, response.getStatusCodeValue());
+        TokenResponse tokens = (TokenResponse) response.getBody();
+        String token = tokens.getAccessToken();
+        assertEquals(username, jwtUtils.getUsernameFromToken(token));
+        assertEquals(Collections.singletonList("ROLE_ADMIN"), jwtUtils.getRolesFromToken(token));
+        assertEquals("refresh-1", tokens.getRefreshToken());
+        assertEquals("Bearer", tokens.getTokenType());
+        assertEquals(jwtUtils.getTokenLifetime().toSeconds(), tokens.getExpiresIn());
+        verifyNoInteractions(userRepository, userDetailsService);
+    }
+
     @Test
     void loginWithInvalidCredentialsReturnsUnauthorized() {
         Authentication authentication = new UsernamePasswordAuthenticationToken(username, password);
@@ -72,4 +110,129 @@ public class AuthControllerTest {
         assertEquals(401, response.getStatusCodeValue());
         assertEquals("Invalid username or password", response.getBody());
     }
-}
\ No newline at end of file
+
+    @Test
+    void loginWhenHashingIsSaturatedPropagatesTooManyRequests() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new TooManyRequestsException("Too many logins in progress, retry later", 1));
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> authController.login(username, password));
+        assertEquals(1, ex.getRetryAfterSeconds());
+    }
+
+    @Test
+    void loginWhenHashingTimesOutPropagatesServiceUnavailable() {
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new ServiceUnavailableException("Password check timed out, retry later", 1));
+
+        assertThrows(ServiceUnavailableException.class, () -> authController.login(username, password));
+    }
+
+    @Test
+    void logoutRevokesPresentedToken() {
+        String token = jwtUtils.generateToken(username, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+
+        ResponseEntity<?> response = authController.logout("Bearer " + token, null);
+
+        assertEquals(204, response.getStatusCodeValue());
+        ArgumentCaptor<JwtPrincipal> captor = ArgumentCaptor.forClass(JwtPrincipal.class);
+        verify(tokenRevocationService).revokeToken(captor.capture());
+        assertEquals(username, captor.getValue().getUsername());
+        assertNotNull(captor.getValue().getTokenId());
+    }
+
+    @Test
+    void logoutWithInvalidTokenReturnsUnauthorized() {
+        ResponseEntity<?> response = authController.logout("Bearer invalid", "refresh-1");
+
+        assertEquals(401, response.getStatusCodeValue());
+        verifyNoInteractions(tokenRevocationService, refreshTokenService);
+    }
+
+    @Test
+    void logoutWithoutTokenReturnsUnauthorized() {
+        ResponseEntity<?> response = authController.logout(null, null);
+
+        assertEquals(401, response.getStatusCodeValue());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void logoutWithRevokedTokenReturnsUnauthorized() {
+        String token = jwtUtils.generateToken(username, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+        when(tokenRevocationService.isRevoked(any(JwtPrincipal.class))).thenReturn(true);
+
+        ResponseEntity<?> response = authController.logout("Bearer " + token, null);
+
+        assertEquals(401, response.getStatusCodeValue());
+        verify(tokenRevocationService, never()).revokeToken(any());
+    }
+
+    @Test
+    void revokeUserRevokesEveryTokenOfTheUser() throws ResourceNotFoundException {
+        ResponseEntity<Void> response = authController.revokeUser(username);
+
+        assertEquals(204, response.getStatusCodeValue());
+        verify(tokenRevocationService).revokeUser(username);
+        verify(refreshTokenService).revokeUser(username);
+    }
+
+    @Test
+    void revokeUnknownUserPropagatesNotFound() throws ResourceNotFoundException {
+        doThrow(new ResourceNotFoundException("User not found for this name :: ghost"))
+                .when(tokenRevocationService).revokeUser("ghost");
+
+        assertThrows(ResourceNotFoundException.class, () -> authController.revokeUser("ghost"));
+    }
+
+    @Test
+    void logoutWithRefreshTokenRevokesItsFamily() {
+        String token = jwtUtils.generateToken(username, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+
+        ResponseEntity<?> response = authController.logout("Bearer " + token, "refresh-1");
+
+        assertEquals(204, response.getStatusCodeValue());
+        verify(refreshTokenService).revoke("refresh-1");
+    }
+
+    @Test
+    void refreshIssuesNewTokensWithCurrentRoles() {
+        when(refreshTokenService.rotate("refresh-1"))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(username, "refresh-2")));
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername(username)
+                .password("hash").authorities("ROLE_ADMIN").build();
+        when(userDetailsService.loadUserByUsername(username)).thenReturn(user);
+
+        ResponseEntity<?> response = authController.refresh("refresh-1");
+
+        assertEquals(200, response.getStatusCodeValue());
+        TokenResponse tokens = (TokenResponse) response.getBody();
+        assertEquals("refresh-2", tokens.getRefreshToken());
+        assertEquals(username, jwtUtils.getUsernameFromToken(tokens.getAccessToken()));
+        assertEquals(Collections.singletonList("ROLE_ADMIN"), jwtUtils.getRolesFromToken(tokens.getAccessToken()));
+        verifyNoInteractions(authenticationManager, userRepository);
+    }
+
+    @Test
+    void refreshWithInvalidTokenReturnsUnauthorized() {
+        when(refreshTokenService.rotate("stale")).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = authController.refresh("stale");
+
+        assertEquals(401, response.getStatusCodeValue());
+        assertEquals("Invalid refresh token", response.getBody());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void refreshForDeletedUserRevokesItsRefreshTokens() {
+        when(refreshTokenService.rotate("refresh-1"))
+                .thenReturn(Optional.of(new RefreshTokenService.Rotation(username, "refresh-2")));
+        when(userDetailsService.loadUserByUsername(username)).thenThrow(new UsernameNotFoundException(username));
+
+        ResponseEntity<?> response = authController.refresh("refresh-1");
+
+        assertEquals(401, response.getStatusCodeValue());
+        verify(refreshTokenService).revokeUser(username);
+    }
+}
@@ -0,0 +1,58 @@
+package es.iespuerto.mr.flora.controller;
+
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.service.cache.CacheRegionStats;
+import es.iespuerto.mr.flora.service.cache.SecondLevelCacheStatistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CacheAdminControllerTest {
+
+    @Mock
+    private SecondLevelCacheStatistics cacheStatistics;
+
+    @InjectMocks
+    private CacheAdminController cacheAdminController;
+
+    private final CacheRegionStats roles = new CacheRegionStats("roles", CacheRegionStats.ENTITY, 2, 9, 1, 2, 0);
+
+    @Test
+    void getCacheRegionsReturnsEveryRegion() {
+        when(cacheStatistics.regions()).thenReturn(List.of(roles));
+
+        List<CacheRegionStats> regions = cacheAdminController.getCacheRegions();
+
+        assertEquals(1, regions.size());
+        assertEquals(0.9, regions.get(0).getHitRatio());
+    }
+
+    @Test
+    void getCacheRegionReturnsRegion() throws ResourceNotFoundException {
+        when(cacheStatistics.region("roles")).thenReturn(roles);
+
+        ResponseEntity<CacheRegionStats> response = cacheAdminController.getCacheRegion("roles");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertSame(roles, response.getBody());
+    }
+
+    @Test
+    void getCacheRegionThrowsWhenRegionDoesNotExist() {
+        when(cacheStatistics.region("plants")).thenReturn(null);
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> cacheAdminController.getCacheRegion("plants"));
+
+        assertEquals("Cache region not found for this name :: plants", exception.getMessage());
+    }
+}
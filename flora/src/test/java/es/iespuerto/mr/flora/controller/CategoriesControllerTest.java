@@ -3,14 +3,25 @@ package es.iespuerto.mr.flora.controller;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Category;
 import es.iespuerto.mr.flora.service.CategoryServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -38,14 +49,31 @@ public class CategoriesControllerTest {
     }
 
     @Test
-    void getAllCategoriesReturnsListOfCategories() {
-        when(categoryService.getAllCategories()).thenReturn(Arrays.asList(category));
+    void getAllCategoriesReturnsSerializedListWithETag() {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        when(categoryService.getCategoriesETag()).thenReturn("\"categories-1\"");
+        when(categoryService.getAllCategoriesJson()).thenReturn(new JsonSnapshot(1, "\"categories-1\"", body));
 
-        List<Category> categories = categoriesController.getAllCategories();
+        ResponseEntity<byte[]> response = categoriesController.getAllCategories(conditionalGet("\"categories-0\"", new MockHttpServletResponse()));
 
-        assertNotNull(categories);
-        assertEquals(1, categories.size());
-        assertEquals("Test Category", categories.get(0).getName());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"categories-1\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(body, response.getBody());
+    }
+
+    @Test
+    void getAllCategoriesReturnsNotModifiedWhenETagMatches() {
+        when(categoryService.getCategoriesETag()).thenReturn("\"categories-1\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> response = categoriesController.getAllCategories(conditionalGet("\"categories-1\"", servletResponse));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"categories-1\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getBody());
+        verify(categoryService, never()).getAllCategoriesJson();
+        verify(categoryService, never()).getAllCategories();
     }
 
     @Test
@@ -107,4 +135,21 @@ public class CategoriesControllerTest {
 
         assertThrows(ResourceNotFoundException.class, () -> categoriesController.deleteCategory(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportCategoriesStreamsNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = categoriesController.exportCategories();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        verify(categoryService).exportCategories(out);
+    }
+
+    private static ServletWebRequest conditionalGet(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/categories/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -3,14 +3,25 @@ package es.iespuerto.mr.flora.controller;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Characteristic;
 import es.iespuerto.mr.flora.service.CharacteristicServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -36,14 +47,31 @@ public class CharacteristicsControllerTest {
     }
 
     @Test
-    void getAllCharacteristicsReturnsListOfCharacteristics() {
-        when(characteristicService.getAllCharacteristics()).thenReturn(List.of(characteristic));
+    void getAllCharacteristicsReturnsSerializedListWithETag() {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        when(characteristicService.getCharacteristicsETag()).thenReturn("\"characteristics-1\"");
+        when(characteristicService.getAllCharacteristicsJson()).thenReturn(new JsonSnapshot(1, "\"characteristics-1\"", body));
 
-        List<Characteristic> characteristics = characteristicsController.getAllCharacteristics();
+        ResponseEntity<byte[]> response = characteristicsController.getAllCharacteristics(conditionalGet("\"characteristics-0\"", new MockHttpServletResponse()));
 
-        assertNotNull(characteristics);
-        assertEquals(1, characteristics.size());
-        assertEquals("Test Characteristic", characteristics.get(0).getDescripcion());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"characteristics-1\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(body, response.getBody());
+    }
+
+    @Test
+    void getAllCharacteristicsReturnsNotModifiedWhenETagMatches() {
+        when(characteristicService.getCharacteristicsETag()).thenReturn("\"characteristics-1\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> response = characteristicsController.getAllCharacteristics(conditionalGet("\"characteristics-1\"", servletResponse));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"characteristics-1\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getBody());
+        verify(characteristicService, never()).getAllCharacteristicsJson();
+        verify(characteristicService, never()).getAllCharacteristics();
     }
 
     @Test
@@ -105,4 +133,21 @@ public class CharacteristicsControllerTest {
 
         assertThrows(ResourceNotFoundException.class, () -> characteristicsController.deleteCharacteristic(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportCharacteristicsStreamsNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = characteristicsController.exportCharacteristics();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        verify(characteristicService).exportCharacteristics(out);
+    }
+
+    private static ServletWebRequest conditionalGet(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/characteristics/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -1,5 +1,8 @@
 package es.iespuerto.mr.flora.controller;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
+import es.iespuerto.mr.flora.dto.UserFavorites;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import es.iespuerto.mr.flora.service.FavoriteServiceInterface;
@@ -54,6 +57,34 @@ public class FavoritesControllerTest {
         assertThrows(ResourceNotFoundException.class, () -> favoritesController.getAllFavorites());
     }
 
+    @Test
+    void getUserFavoritesReturnsPlantIdsOfUser() throws ResourceNotFoundException {
+        when(favoriteService.getUserFavorites(1)).thenReturn(new UserFavorites(1, new int[] {1, 3}));
+
+        UserFavorites favorites = favoritesController.getUserFavorites(1);
+
+        assertEquals(1, favorites.getUserId());
+        assertArrayEquals(new int[] {1, 3}, favorites.getPlantIds());
+    }
+
+    @Test
+    void getUserFavoritesThrowsResourceNotFoundException() throws ResourceNotFoundException {
+        when(favoriteService.getUserFavorites(9)).thenThrow(new ResourceNotFoundException("User not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> favoritesController.getUserFavorites(9));
+    }
+
+    @Test
+    void applyFavoriteBatchUsesUserIdFromPath() throws ResourceNotFoundException {
+        FavoriteBatch batch = new FavoriteBatch(99, List.of(2), List.of());
+        when(favoriteService.applyFavoriteBatch(batch)).thenReturn(new FavoriteBatchResult(1, 1, 0, new int[] {2}));
+
+        FavoriteBatchResult result = favoritesController.applyFavoriteBatch(1, batch);
+
+        assertEquals(1, batch.getUserId());
+        assertEquals(1, result.getAdded());
+    }
+
     @Test
     void addFavoriteReturnsCreatedFavorite() {
         when(favoriteService.addFavoritePlant(any(Favorite.class))).thenReturn(favorite);
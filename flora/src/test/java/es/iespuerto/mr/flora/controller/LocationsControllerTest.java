@@ -1,16 +1,28 @@
 package es.iespuerto.mr.flora.controller;
 
+import es.iespuerto.mr.flora.dto.NearbyLocation;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Location;
 import es.iespuerto.mr.flora.service.LocationServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
@@ -36,14 +48,31 @@ public class LocationsControllerTest {
     }
 
     @Test
-    void getAllLocationsReturnsListOfLocations() {
-        when(locationService.getAllLocations()).thenReturn(List.of(location));
+    void getAllLocationsReturnsSerializedListWithETag() {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        when(locationService.getLocationsETag()).thenReturn("\"locations-1\"");
+        when(locationService.getAllLocationsJson()).thenReturn(new JsonSnapshot(1, "\"locations-1\"", body));
 
-        List<Location> locations = locationsController.getAllLocations();
+        ResponseEntity<byte[]> response = locationsController.getAllLocations(conditionalGet("\"locations-0\"", new MockHttpServletResponse()));
 
-        assertNotNull(locations);
-        assertEquals(1, locations.size());
-        assertEquals("Test Location", locations.get(0).getName());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"locations-1\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(body, response.getBody());
+    }
+
+    @Test
+    void getAllLocationsReturnsNotModifiedWhenETagMatches() {
+        when(locationService.getLocationsETag()).thenReturn("\"locations-1\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> response = locationsController.getAllLocations(conditionalGet("\"locations-1\"", servletResponse));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"locations-1\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getBody());
+        verify(locationService, never()).getAllLocationsJson();
+        verify(locationService, never()).getAllLocations();
     }
 
     @Test
@@ -64,6 +93,26 @@ public class LocationsControllerTest {
         assertThrows(ResourceNotFoundException.class, () -> locationsController.getLocationById(1));
     }
 
+    @Test
+    void getNearestLocationsReturnsIndexResults() {
+        NearbyLocation nearby = new NearbyLocation(1, "Test Location", 28.27, -16.64, 1.5);
+        when(locationService.findNearestLocations(28.3, -16.6, 3)).thenReturn(List.of(nearby));
+
+        List<NearbyLocation> nearest = locationsController.getNearestLocations(28.3, -16.6, 3);
+
+        assertEquals(1, nearest.size());
+        assertEquals(1.5, nearest.get(0).getDistanceKm());
+    }
+
+    @Test
+    void getLocationsWithinReturnsLocationsInsideBox() {
+        when(locationService.findLocationsWithin(28.0, -17.0, 28.5, -16.0)).thenReturn(List.of(location));
+
+        List<Location> locations = locationsController.getLocationsWithin(28.0, -17.0, 28.5, -16.0);
+
+        assertEquals("Test Location", locations.get(0).getName());
+    }
+
     @Test
     void createLocationReturnsCreatedLocation() {
         when(locationService.createLocation(any(Location.class))).thenReturn(location);
@@ -107,4 +156,21 @@ public class LocationsControllerTest {
 
         assertThrows(ResourceNotFoundException.class, () -> locationsController.deleteLocation(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportLocationsStreamsNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = locationsController.exportLocations();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        verify(locationService).exportLocations(out);
+    }
+
+    private static ServletWebRequest conditionalGet(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/locations/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
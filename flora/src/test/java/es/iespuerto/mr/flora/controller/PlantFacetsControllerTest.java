@@ -0,0 +1,61 @@
+package es.iespuerto.mr.flora.controller;
+
+import es.iespuerto.mr.flora.dto.PlantFacets;
+import es.iespuerto.mr.flora.dto.PlantFilterResult;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.service.PlantFacetServiceInterface;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PlantFacetsControllerTest {
+
+    @Mock
+    private PlantFacetServiceInterface facetService;
+
+    @InjectMocks
+    private PlantFacetsController plantFacetsController;
+
+    @Test
+    void filterPlantsDelegatesToService() {
+        PlantFilterResult result = new PlantFilterResult();
+        result.setTotal(2);
+        when(facetService.filterPlants(List.of(5), null, List.of(1), "MQ", 20)).thenReturn(result);
+
+        assertSame(result, plantFacetsController.filterPlants(List.of(5), null, List.of(1), "MQ", 20));
+    }
+
+    @Test
+    void getPlantFacetsReturnsFacets() throws ResourceNotFoundException {
+        PlantFacets facets = new PlantFacets(1, List.of(5), List.of(1), List.of());
+        when(facetService.getPlantFacets(1)).thenReturn(facets);
+
+        PlantFacets found = plantFacetsController.getPlantFacets(1);
+
+        assertEquals(List.of(5), found.getCategoryIds());
+    }
+
+    @Test
+    void getPlantFacetsThrowsResourceNotFoundException() throws ResourceNotFoundException {
+        when(facetService.getPlantFacets(1)).thenThrow(new ResourceNotFoundException("Plant not found for this id :: 1"));
+
+        assertThrows(ResourceNotFoundException.class, () -> plantFacetsController.getPlantFacets(1));
+    }
+
+    @Test
+    void updatePlantFacetsReturnsUpdatedFacets() throws ResourceNotFoundException {
+        PlantFacets request = new PlantFacets(0, List.of(5), null, null);
+        PlantFacets updated = new PlantFacets(1, List.of(5), List.of(1), List.of());
+        when(facetService.updatePlantFacets(1, request)).thenReturn(updated);
+
+        assertSame(updated, plantFacetsController.updatePlantFacets(1, request));
+    }
+}
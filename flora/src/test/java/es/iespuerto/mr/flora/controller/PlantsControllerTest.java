@@ -1,16 +1,36 @@
 package es.iespuerto.mr.flora.controller;
 
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.dto.PlantPage;
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.dto.PopularPlant;
+import es.iespuerto.mr.flora.dto.RelatedPlant;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Plant;
 import es.iespuerto.mr.flora.service.PlantServiceInterface;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.importer.PlantImportFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -36,14 +56,88 @@ public class PlantsControllerTest {
     }
 
     @Test
-    void getAllPlantsReturnsListOfPlants() {
-        when(plantService.getAllPlants()).thenReturn(List.of(plant));
+    void getAllPlantsReturnsSerializedListWithETag() {
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        when(plantService.getPlantsETag()).thenReturn("\"plants-1\"");
+        when(plantService.getAllPlantsJson()).thenReturn(new JsonSnapshot(1, "\"plants-1\"", body));
+
+        ResponseEntity<byte[]> response = plantsController.getAllPlants(conditionalGet("\"plants-0\"", new MockHttpServletResponse()));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"plants-1\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertSame(body, response.getBody());
+    }
+
+    @Test
+    void getAllPlantsReturnsNotModifiedWhenETagMatches() {
+        when(plantService.getPlantsETag()).thenReturn("\"plants-1\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> response = plantsController.getAllPlants(conditionalGet("\"plants-1\"", servletResponse));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"plants-1\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        assertNull(response.getBody());
+        verify(plantService, never()).getAllPlantsJson();
+        verify(plantService, never()).getAllPlants();
+    }
+
+    @Test
+    void getPlantsPageReturnsPage() {
+        when(plantService.getPlantsPage("cursor", 10)).thenReturn(new PlantPage(List.of(plant), "next"));
+
+        PlantPage page = plantsController.getPlantsPage("cursor", 10);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("next", page.getNextCursor());
+    }
+
+    @Test
+    void searchPlantsReturnsMatches() {
+        when(plantService.searchPlants("test", 10)).thenReturn(List.of(new PlantSummary(1, "Test Plant", null)));
+
+        List<PlantSummary> results = plantsController.searchPlants("test", 10);
+
+        assertEquals(1, results.size());
+        assertEquals("Test Plant", results.get(0).getCommonName());
+    }
+
+    @Test
+    void suggestPlantsReturnsSuggestions() {
+        when(plantService.suggestPlants("te", 10)).thenReturn(List.of(new PlantSummary(1, "Test Plant", null)));
+
+        List<PlantSummary> results = plantsController.suggestPlants("te", 10);
+
+        assertEquals(1, results.size());
+        assertEquals(1, results.get(0).getId());
+    }
+
+    @Test
+    void getPopularPlantsReturnsRanking() {
+        when(plantService.getPopularPlants(5)).thenReturn(List.of(new PopularPlant(1, "Test Plant", null, 3)));
 
-        List<Plant> plants = plantsController.getAllPlants();
+        List<PopularPlant> results = plantsController.getPopularPlants(5);
 
-        assertNotNull(plants);
-        assertEquals(1, plants.size());
-        assertEquals("Test Plant", plants.get(0).getCommonName());
+        assertEquals(1, results.size());
+        assertEquals(3, results.get(0).getFavorites());
+    }
+
+    @Test
+    void getRelatedPlantsReturnsRelatedPlants() throws ResourceNotFoundException {
+        when(plantService.getRelatedPlants(1, 5)).thenReturn(List.of(new RelatedPlant(2, "Other Plant", null, 3, 0.5)));
+
+        List<RelatedPlant> results = plantsController.getRelatedPlants(1, 5);
+
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getId());
+    }
+
+    @Test
+    void getRelatedPlantsThrowsResourceNotFoundException() throws ResourceNotFoundException {
+        when(plantService.getRelatedPlants(9, 10)).thenThrow(new ResourceNotFoundException("Plant not found"));
+
+        assertThrows(ResourceNotFoundException.class, () -> plantsController.getRelatedPlants(9, 10));
     }
 
     @Test
@@ -107,4 +201,37 @@ public class PlantsControllerTest {
 
         assertThrows(ResourceNotFoundException.class, () -> plantsController.deletePlant(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportPlantsStreamsNdjson() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ResponseEntity<StreamingResponseBody> response = plantsController.exportPlants();
+        response.getBody().writeTo(out);
+
+        assertEquals("application/x-ndjson", response.getHeaders().getContentType().toString());
+        verify(plantService).exportPlants(out);
+    }
+
+    @Test
+    void importPlantsResolvesFormatFromContentType() throws IOException {
+        InputStream body = new ByteArrayInputStream("Rosa,Rosa spp.".getBytes());
+        PlantImportReport report = new PlantImportReport();
+        when(plantService.importPlants(body, PlantImportFormat.CSV, null)).thenReturn(report);
+
+        assertSame(report, plantsController.importPlants("text/csv", null, body));
+    }
+
+    @Test
+    void importPlantsRejectsUnsupportedContentType() {
+        InputStream body = new ByteArrayInputStream(new byte[0]);
+
+        assertThrows(InvalidRequestException.class, () -> plantsController.importPlants("text/plain", null, body));
+    }
+
+    private static ServletWebRequest conditionalGet(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/plants/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        return new ServletWebRequest(request, response);
+    }
+}
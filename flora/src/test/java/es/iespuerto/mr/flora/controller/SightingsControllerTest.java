@@ -0,0 +1,60 @@
+package es.iespuerto.mr.flora.controller;
+
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
+import es.iespuerto.mr.flora.model.Sighting;
+import es.iespuerto.mr.flora.service.SightingServiceInterface;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.Principal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SightingsControllerTest {
+
+    @Mock
+    private SightingServiceInterface sightingService;
+
+    @InjectMocks
+    private SightingsController sightingsController;
+
+    private final Principal principal = new UsernamePasswordAuthenticationToken("Pedro", null);
+
+    @Test
+    void addSightingReturnsAccepted() throws ResourceNotFoundException {
+        Sighting sighting = new Sighting(1, 2, Instant.parse("2026-05-01T10:15:30Z"));
+        when(sightingService.recordSighting("Pedro", sighting)).thenReturn(sighting);
+
+        ResponseEntity<Sighting> response = sightingsController.addSighting(principal, sighting);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertSame(sighting, response.getBody());
+    }
+
+    @Test
+    void addSightingPropagatesTooManyRequests() throws ResourceNotFoundException {
+        Sighting sighting = new Sighting(1, 2, null);
+        when(sightingService.recordSighting("Pedro", sighting)).thenThrow(new TooManyRequestsException("Buffer is full", 1));
+
+        assertThrows(TooManyRequestsException.class, () -> sightingsController.addSighting(principal, sighting));
+    }
+
+    @Test
+    void addSightingPropagatesUnknownPlant() throws ResourceNotFoundException {
+        Sighting sighting = new Sighting(1, 99, null);
+        when(sightingService.recordSighting("Pedro", sighting))
+                .thenThrow(new ResourceNotFoundException("Plant not found for this id :: 99"));
+
+        assertThrows(ResourceNotFoundException.class, () -> sightingsController.addSighting(principal, sighting));
+    }
+}
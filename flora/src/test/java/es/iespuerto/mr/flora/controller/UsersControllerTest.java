@@ -1,5 +1,6 @@
 package es.iespuerto.mr.flora.controller;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.service.UserServiceInterface;
@@ -37,13 +38,14 @@ public class UsersControllerTest {
 
     @Test
     void getAllUsersReturnsListOfUsers() {
-        when(userService.getAllUsers()).thenReturn(List.of(user));
+        when(userService.getAllUsers()).thenReturn(List.of(new UserSummary(1, "Test User", "ROLE_USER")));
 
-        List<User> users = usersController.getAllUsers();
+        List<UserSummary> users = usersController.getAllUsers();
 
         assertNotNull(users);
         assertEquals(1, users.size());
         assertEquals("Test User", users.get(0).getName());
+        assertEquals("ROLE_USER", users.get(0).getRoleName());
     }
 
     @Test
@@ -0,0 +1,27 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FacetCountTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        FacetCount count = new FacetCount(5, 12);
+
+        assertEquals(5, count.getId());
+        assertEquals(12, count.getCount());
+
+        count.setId(6);
+        count.setCount(3);
+
+        assertEquals(6, count.getId());
+        assertEquals(3, count.getCount());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        assertEquals("FacetCount [id=5, count=12]", new FacetCount(5, 12).toString());
+    }
+}
@@ -0,0 +1,35 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FavoriteBatchResultTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        FavoriteBatchResult result = new FavoriteBatchResult(1, 2, 3, new int[] {4});
+
+        assertEquals(1, result.getUserId());
+        assertEquals(2, result.getAdded());
+        assertEquals(3, result.getRemoved());
+        assertArrayEquals(new int[] {4}, result.getPlantIds());
+
+        result.setUserId(5);
+        result.setAdded(0);
+        result.setRemoved(1);
+        result.setPlantIds(new int[] {6, 7});
+
+        assertEquals(5, result.getUserId());
+        assertEquals(0, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertArrayEquals(new int[] {6, 7}, result.getPlantIds());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        FavoriteBatchResult result = new FavoriteBatchResult(1, 2, 0, new int[] {4, 5});
+
+        assertEquals("FavoriteBatchResult [userId=1, added=2, removed=0, plantIds=[4, 5]]", result.toString());
+    }
+}
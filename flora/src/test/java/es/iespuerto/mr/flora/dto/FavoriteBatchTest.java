@@ -0,0 +1,43 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FavoriteBatchTest {
+
+    @Test
+    void defaultConstructorHasEmptyLists() {
+        FavoriteBatch batch = new FavoriteBatch();
+
+        assertEquals(0, batch.getUserId());
+        assertTrue(batch.getAdd().isEmpty());
+        assertTrue(batch.getRemove().isEmpty());
+    }
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        FavoriteBatch batch = new FavoriteBatch(1, List.of(2), List.of(3));
+
+        assertEquals(1, batch.getUserId());
+        assertEquals(List.of(2), batch.getAdd());
+        assertEquals(List.of(3), batch.getRemove());
+
+        batch.setUserId(4);
+        batch.setAdd(List.of(5, 6));
+        batch.setRemove(List.of());
+
+        assertEquals(4, batch.getUserId());
+        assertEquals(List.of(5, 6), batch.getAdd());
+        assertTrue(batch.getRemove().isEmpty());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        FavoriteBatch batch = new FavoriteBatch(1, List.of(2), List.of(3));
+
+        assertEquals("FavoriteBatch [userId=1, add=[2], remove=[3]]", batch.toString());
+    }
+}
@@ -0,0 +1,38 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NearbyLocationTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        NearbyLocation location = new NearbyLocation(1, "Teide", 28.2723, -16.6425, 0.5);
+
+        assertEquals(1, location.getId());
+        assertEquals("Teide", location.getName());
+        assertEquals(28.2723, location.getLatitude());
+        assertEquals(-16.6425, location.getLongitude());
+        assertEquals(0.5, location.getDistanceKm());
+
+        location.setId(2);
+        location.setName("La Laguna");
+        location.setLatitude(28.4874);
+        location.setLongitude(-16.3159);
+        location.setDistanceKm(12.25);
+
+        assertEquals(2, location.getId());
+        assertEquals("La Laguna", location.getName());
+        assertEquals(28.4874, location.getLatitude());
+        assertEquals(-16.3159, location.getLongitude());
+        assertEquals(12.25, location.getDistanceKm());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        NearbyLocation location = new NearbyLocation(1, "Teide", 28.5, -16.5, 2.0);
+
+        assertEquals("NearbyLocation [id=1, name=Teide, latitude=28.5, longitude=-16.5, distanceKm=2.0]", location.toString());
+    }
+}
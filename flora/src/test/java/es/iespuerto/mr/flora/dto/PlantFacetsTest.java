@@ -0,0 +1,37 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantFacetsTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        PlantFacets facets = new PlantFacets(1, List.of(5), List.of(1, 2), List.of());
+
+        assertEquals(1, facets.getPlantId());
+        assertEquals(List.of(5), facets.getCategoryIds());
+        assertEquals(List.of(1, 2), facets.getLocationIds());
+        assertEquals(List.of(), facets.getCharacteristicIds());
+
+        facets.setPlantId(2);
+        facets.setCategoryIds(null);
+        facets.setLocationIds(List.of(3));
+        facets.setCharacteristicIds(List.of(4));
+
+        assertEquals(2, facets.getPlantId());
+        assertNull(facets.getCategoryIds());
+        assertEquals(List.of(3), facets.getLocationIds());
+        assertEquals(List.of(4), facets.getCharacteristicIds());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        PlantFacets facets = new PlantFacets(1, List.of(5), null, List.of(2));
+
+        assertEquals("PlantFacets [plantId=1, categoryIds=[5], locationIds=null, characteristicIds=[2]]", facets.toString());
+    }
+}
@@ -0,0 +1,42 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantFilterResultTest {
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        PlantSummary summary = new PlantSummary(1, "Drago", "Dracaena draco");
+        PlantFilterResult result = new PlantFilterResult();
+        result.setTotal(3);
+        result.setItems(List.of(summary));
+        result.setNextCursor("MQ");
+        result.setCategories(List.of(new FacetCount(5, 3)));
+        result.setLocations(List.of(new FacetCount(1, 2)));
+        result.setCharacteristics(List.of());
+
+        assertEquals(3, result.getTotal());
+        assertSame(summary, result.getItems().get(0));
+        assertEquals("MQ", result.getNextCursor());
+        assertEquals(5, result.getCategories().get(0).getId());
+        assertEquals(2, result.getLocations().get(0).getCount());
+        assertTrue(result.getCharacteristics().isEmpty());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        PlantFilterResult result = new PlantFilterResult();
+        result.setTotal(1);
+        result.setItems(List.of());
+        result.setCategories(List.of(new FacetCount(5, 1)));
+        result.setLocations(List.of());
+        result.setCharacteristics(List.of());
+
+        assertEquals("PlantFilterResult [total=1, items=[], nextCursor=null, categories=[FacetCount [id=5, count=1]], "
+                + "locations=[], characteristics=[]]", result.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantImportErrorTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        PlantImportError error = new PlantImportError(4, "scientificName is required");
+
+        assertEquals(4, error.getRow());
+        assertEquals("scientificName is required", error.getMessage());
+
+        error.setRow(5);
+        error.setMessage("Malformed JSON");
+
+        assertEquals(5, error.getRow());
+        assertEquals("Malformed JSON", error.getMessage());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        PlantImportError error = new PlantImportError(4, "error");
+
+        assertEquals("PlantImportError [row=4, message=error]", error.toString());
+    }
+}
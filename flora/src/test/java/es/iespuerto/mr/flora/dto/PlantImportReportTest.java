@@ -0,0 +1,44 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantImportReportTest {
+
+    @Test
+    void addErrorCountsEveryErrorButListsOnlyTheFirstOnes() {
+        PlantImportReport report = new PlantImportReport();
+
+        for (int row = 1; row <= PlantImportReport.MAX_REPORTED_ERRORS + 5; row++) {
+            report.addError(row, "commonName is required");
+        }
+
+        assertEquals(PlantImportReport.MAX_REPORTED_ERRORS + 5, report.getFailed());
+        assertEquals(PlantImportReport.MAX_REPORTED_ERRORS, report.getErrors().size());
+        assertEquals(1, report.getErrors().get(0).getRow());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        PlantImportReport report = new PlantImportReport();
+
+        report.setReceived(10);
+        report.setImported(8);
+        report.setFailed(2);
+        report.setBatchSize(500);
+        report.setElapsedMillis(20);
+        report.setRowsPerSecond(500.0);
+        report.setErrors(List.of(new PlantImportError(3, "error")));
+
+        assertEquals(10, report.getReceived());
+        assertEquals(8, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(500, report.getBatchSize());
+        assertEquals(20, report.getElapsedMillis());
+        assertEquals(500.0, report.getRowsPerSecond());
+        assertEquals(1, report.getErrors().size());
+    }
+}
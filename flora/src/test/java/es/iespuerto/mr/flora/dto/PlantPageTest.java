@@ -0,0 +1,35 @@
+package es.iespuerto.mr.flora.dto;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.model.Plant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantPageTest {
+
+    @Test
+    void defaultConstructorInitializesEmptyPage() {
+        PlantPage page = new PlantPage();
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        Plant plant = new Plant("Rose", "Rosa");
+        PlantPage page = new PlantPage(List.of(plant), "cursor");
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("cursor", page.getNextCursor());
+
+        page.setItems(List.of());
+        page.setNextCursor(null);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+}
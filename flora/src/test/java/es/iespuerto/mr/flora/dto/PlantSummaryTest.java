@@ -0,0 +1,32 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.model.Plant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantSummaryTest {
+
+    @Test
+    void ofCopiesIdAndNames() {
+        Plant plant = new Plant("Rose", "Rosa");
+        plant.setId(1);
+
+        PlantSummary summary = PlantSummary.of(plant);
+
+        assertEquals(1, summary.getId());
+        assertEquals("Rose", summary.getCommonName());
+        assertEquals("Rosa", summary.getScientificName());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        PlantSummary summary = new PlantSummary();
+        summary.setId(2);
+        summary.setCommonName("Tulip");
+        summary.setScientificName("Tulipa");
+
+        assertEquals("PlantSummary [id=2, commonName=Tulip, scientificName=Tulipa]", summary.toString());
+    }
+}
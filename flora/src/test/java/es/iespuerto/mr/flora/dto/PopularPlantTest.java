@@ -0,0 +1,35 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PopularPlantTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        PopularPlant plant = new PopularPlant(1, "Drago", "Dracaena draco", 4);
+
+        assertEquals(1, plant.getId());
+        assertEquals("Drago", plant.getCommonName());
+        assertEquals("Dracaena draco", plant.getScientificName());
+        assertEquals(4, plant.getFavorites());
+
+        plant.setId(2);
+        plant.setCommonName("Tajinaste");
+        plant.setScientificName("Echium wildpretii");
+        plant.setFavorites(9);
+
+        assertEquals(2, plant.getId());
+        assertEquals("Tajinaste", plant.getCommonName());
+        assertEquals("Echium wildpretii", plant.getScientificName());
+        assertEquals(9, plant.getFavorites());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        PopularPlant plant = new PopularPlant(1, "Drago", "Dracaena draco", 4);
+
+        assertEquals("PopularPlant [id=1, commonName=Drago, scientificName=Dracaena draco, favorites=4]", plant.toString());
+    }
+}
@@ -0,0 +1,38 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RelatedPlantTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        RelatedPlant plant = new RelatedPlant(1, "Drago", "Dracaena draco", 3, 0.5);
+
+        assertEquals(1, plant.getId());
+        assertEquals("Drago", plant.getCommonName());
+        assertEquals("Dracaena draco", plant.getScientificName());
+        assertEquals(3, plant.getSharedUsers());
+        assertEquals(0.5, plant.getScore());
+
+        plant.setId(2);
+        plant.setCommonName("Tajinaste");
+        plant.setScientificName("Echium wildpretii");
+        plant.setSharedUsers(7);
+        plant.setScore(0.25);
+
+        assertEquals(2, plant.getId());
+        assertEquals("Tajinaste", plant.getCommonName());
+        assertEquals("Echium wildpretii", plant.getScientificName());
+        assertEquals(7, plant.getSharedUsers());
+        assertEquals(0.25, plant.getScore());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        RelatedPlant plant = new RelatedPlant(1, "Drago", "Dracaena draco", 3, 0.5);
+
+        assertEquals("RelatedPlant [id=1, commonName=Drago, scientificName=Dracaena draco, sharedUsers=3, score=0.5]", plant.toString());
+    }
+}
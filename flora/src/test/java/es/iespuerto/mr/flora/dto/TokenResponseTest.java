@@ -0,0 +1,35 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenResponseTest {
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        TokenResponse response = new TokenResponse("access", "refresh", 900);
+
+        assertEquals("access", response.getAccessToken());
+        assertEquals("refresh", response.getRefreshToken());
+        assertEquals("Bearer", response.getTokenType());
+        assertEquals(900, response.getExpiresIn());
+
+        response.setAccessToken("access-2");
+        response.setRefreshToken("refresh-2");
+        response.setTokenType("bearer");
+        response.setExpiresIn(60);
+
+        assertEquals("access-2", response.getAccessToken());
+        assertEquals("refresh-2", response.getRefreshToken());
+        assertEquals("bearer", response.getTokenType());
+        assertEquals(60, response.getExpiresIn());
+    }
+
+    @Test
+    void toStringDoesNotIncludeTokens() {
+        TokenResponse response = new TokenResponse("access", "refresh", 900);
+
+        assertEquals("TokenResponse [tokenType=Bearer, expiresIn=900]", response.toString());
+    }
+}
@@ -0,0 +1,37 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserFavoritesTest {
+
+    @Test
+    void defaultConstructorHasNoPlants() {
+        UserFavorites favorites = new UserFavorites();
+
+        assertEquals(0, favorites.getUserId());
+        assertEquals(0, favorites.getPlantIds().length);
+    }
+
+    @Test
+    void constructorAndSettersUpdateFieldsCorrectly() {
+        UserFavorites favorites = new UserFavorites(1, new int[] {2, 3});
+
+        assertEquals(1, favorites.getUserId());
+        assertArrayEquals(new int[] {2, 3}, favorites.getPlantIds());
+
+        favorites.setUserId(4);
+        favorites.setPlantIds(new int[] {5});
+
+        assertEquals(4, favorites.getUserId());
+        assertArrayEquals(new int[] {5}, favorites.getPlantIds());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        UserFavorites favorites = new UserFavorites(1, new int[] {2, 3});
+
+        assertEquals("UserFavorites [userId=1, plantIds=[2, 3]]", favorites.toString());
+    }
+}
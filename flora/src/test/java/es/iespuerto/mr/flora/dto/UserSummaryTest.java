@@ -0,0 +1,27 @@
+package es.iespuerto.mr.flora.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserSummaryTest {
+
+    @Test
+    void constructorSetsFields() {
+        UserSummary summary = new UserSummary(1, "Manuel", "ROLE_ADMIN");
+
+        assertEquals(1, summary.getId());
+        assertEquals("Manuel", summary.getName());
+        assertEquals("ROLE_ADMIN", summary.getRoleName());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        UserSummary summary = new UserSummary();
+        summary.setId(2);
+        summary.setName("Pedro");
+        summary.setRoleName("ROLE_USER");
+
+        assertEquals("UserSummary [id=2, name=Pedro, roleName=ROLE_USER]", summary.toString());
+    }
+}
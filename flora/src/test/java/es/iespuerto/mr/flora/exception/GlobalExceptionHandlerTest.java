@@ -1,6 +1,7 @@
 package es.iespuerto.mr.flora.exception;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.context.request.WebRequest;
@@ -27,6 +28,50 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Request description", errorDetails.getDetails());
     }
 
+    @Test
+    void invalidRequestExceptionReturnsBadRequestResponse() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        InvalidRequestException ex = new InvalidRequestException("Invalid cursor");
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Request description");
+
+        ResponseEntity<?> response = handler.invalidRequestException(ex, request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ErrorDetails errorDetails = (ErrorDetails) response.getBody();
+        assertEquals("Invalid cursor", errorDetails.getMessage());
+    }
+
+    @Test
+    void tooManyRequestsExceptionReturnsTooManyRequestsWithRetryAfter() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        TooManyRequestsException ex = new TooManyRequestsException("Buffer is full", 2);
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Request description");
+
+        ResponseEntity<?> response = handler.tooManyRequestsException(ex, request);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorDetails errorDetails = (ErrorDetails) response.getBody();
+        assertEquals("Buffer is full", errorDetails.getMessage());
+    }
+
+    @Test
+    void serviceUnavailableExceptionReturnsServiceUnavailableWithRetryAfter() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        ServiceUnavailableException ex = new ServiceUnavailableException("Worker pool is busy", 1);
+        WebRequest request = mock(WebRequest.class);
+        when(request.getDescription(false)).thenReturn("Request description");
+
+        ResponseEntity<?> response = handler.serviceUnavailableException(ex, request);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        ErrorDetails errorDetails = (ErrorDetails) response.getBody();
+        assertEquals("Worker pool is busy", errorDetails.getMessage());
+    }
+
     @Test
     void globleExcpetionHandlerReturnsInternalServerErrorResponse() {
         GlobalExceptionHandler handler = new GlobalExceptionHandler();
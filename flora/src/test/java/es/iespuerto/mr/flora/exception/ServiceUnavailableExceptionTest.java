@@ -0,0 +1,15 @@
+package es.iespuerto.mr.flora.exception;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServiceUnavailableExceptionTest {
+
+    @Test
+    void constructorSetsMessageAndRetryAfterCorrectly() {
+        ServiceUnavailableException exception = new ServiceUnavailableException("Worker pool is busy", 3);
+
+        assertEquals("Worker pool is busy", exception.getMessage());
+        assertEquals(3, exception.getRetryAfterSeconds());
+    }
+}
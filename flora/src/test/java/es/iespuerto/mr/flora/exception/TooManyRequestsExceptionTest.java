@@ -0,0 +1,15 @@
+package es.iespuerto.mr.flora.exception;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TooManyRequestsExceptionTest {
+
+    @Test
+    void constructorSetsMessageAndRetryAfterCorrectly() {
+        TooManyRequestsException exception = new TooManyRequestsException("Buffer is full", 3);
+
+        assertEquals("Buffer is full", exception.getMessage());
+        assertEquals(3, exception.getRetryAfterSeconds());
+    }
+}
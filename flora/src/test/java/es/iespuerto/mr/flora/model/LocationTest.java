@@ -36,6 +36,27 @@ public class LocationTest {
         assertEquals("Updated Location", location.getName());
     }
 
+    @Test
+    void positionIsEmptyByDefault() {
+        Location location = new Location("Test Location");
+
+        assertNull(location.getLatitude());
+        assertNull(location.getLongitude());
+        assertNull(location.getBounds());
+    }
+
+    @Test
+    void setPositionAndBoundsUpdatesFieldsCorrectly() {
+        Location location = new Location();
+        location.setLatitude(28.2723);
+        location.setLongitude(-16.6425);
+        location.setBounds("28.3 -16.7, 28.3 -16.5, 28.2 -16.5");
+
+        assertEquals(28.2723, location.getLatitude());
+        assertEquals(-16.6425, location.getLongitude());
+        assertEquals("28.3 -16.7, 28.3 -16.5, 28.2 -16.5", location.getBounds());
+    }
+
     @Test
     void toStringReturnsCorrectStringRepresentation() {
         Location location = new Location("Test Location");
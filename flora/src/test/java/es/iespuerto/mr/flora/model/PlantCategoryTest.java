@@ -0,0 +1,44 @@
+package es.iespuerto.mr.flora.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantCategoryTest {
+
+    @Test
+    void defaultConstructorInitializesFieldsCorrectly() {
+        PlantCategory association = new PlantCategory();
+
+        assertEquals(0, association.getId());
+        assertEquals(0, association.getPlantId());
+        assertEquals(0, association.getValueId());
+    }
+
+    @Test
+    void constructorWithPlantIdAndValueIdInitializesFieldsCorrectly() {
+        PlantCategory association = new PlantCategory(1, 2);
+
+        assertEquals(1, association.getPlantId());
+        assertEquals(2, association.getValueId());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        PlantCategory association = new PlantCategory();
+        association.setId(3);
+        association.setPlantId(1);
+        association.setValueId(2);
+
+        assertEquals(3, association.getId());
+        assertEquals(1, association.getPlantId());
+        assertEquals(2, association.getValueId());
+    }
+
+    @Test
+    void toStringReturnsCorrectStringRepresentation() {
+        PlantCategory association = new PlantCategory(1, 2);
+        association.setId(3);
+
+        assertEquals("PlantCategory [id=3, plantId=1, categoryId=2]", association.toString());
+    }
+}
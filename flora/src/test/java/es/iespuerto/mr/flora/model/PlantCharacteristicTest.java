@@ -0,0 +1,44 @@
+package es.iespuerto.mr.flora.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantCharacteristicTest {
+
+    @Test
+    void defaultConstructorInitializesFieldsCorrectly() {
+        PlantCharacteristic association = new PlantCharacteristic();
+
+        assertEquals(0, association.getId());
+        assertEquals(0, association.getPlantId());
+        assertEquals(0, association.getValueId());
+    }
+
+    @Test
+    void constructorWithPlantIdAndValueIdInitializesFieldsCorrectly() {
+        PlantCharacteristic association = new PlantCharacteristic(1, 2);
+
+        assertEquals(1, association.getPlantId());
+        assertEquals(2, association.getValueId());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        PlantCharacteristic association = new PlantCharacteristic();
+        association.setId(3);
+        association.setPlantId(1);
+        association.setValueId(2);
+
+        assertEquals(3, association.getId());
+        assertEquals(1, association.getPlantId());
+        assertEquals(2, association.getValueId());
+    }
+
+    @Test
+    void toStringReturnsCorrectStringRepresentation() {
+        PlantCharacteristic association = new PlantCharacteristic(1, 2);
+        association.setId(3);
+
+        assertEquals("PlantCharacteristic [id=3, plantId=1, characteristicId=2]", association.toString());
+    }
+}
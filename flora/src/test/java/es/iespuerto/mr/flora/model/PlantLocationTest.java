@@ -0,0 +1,44 @@
+package es.iespuerto.mr.flora.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlantLocationTest {
+
+    @Test
+    void defaultConstructorInitializesFieldsCorrectly() {
+        PlantLocation association = new PlantLocation();
+
+        assertEquals(0, association.getId());
+        assertEquals(0, association.getPlantId());
+        assertEquals(0, association.getValueId());
+    }
+
+    @Test
+    void constructorWithPlantIdAndValueIdInitializesFieldsCorrectly() {
+        PlantLocation association = new PlantLocation(1, 2);
+
+        assertEquals(1, association.getPlantId());
+        assertEquals(2, association.getValueId());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        PlantLocation association = new PlantLocation();
+        association.setId(3);
+        association.setPlantId(1);
+        association.setValueId(2);
+
+        assertEquals(3, association.getId());
+        assertEquals(1, association.getPlantId());
+        assertEquals(2, association.getValueId());
+    }
+
+    @Test
+    void toStringReturnsCorrectStringRepresentation() {
+        PlantLocation association = new PlantLocation(1, 2);
+        association.setId(3);
+
+        assertEquals("PlantLocation [id=3, plantId=1, locationId=2]", association.toString());
+    }
+}
@@ -0,0 +1,66 @@
+package es.iespuerto.mr.flora.model;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RefreshTokenTest {
+
+    private static final Instant ISSUED_AT = Instant.parse("2026-10-18T10:00:00Z");
+    private static final Instant EXPIRES_AT = Instant.parse("2026-11-01T10:00:00Z");
+
+    @Test
+    void defaultConstructorInitializesFieldsCorrectly() {
+        RefreshToken token = new RefreshToken();
+
+        assertEquals(0, token.getId());
+        assertNull(token.getTokenHash());
+        assertNull(token.getFamilyId());
+        assertNull(token.getUsername());
+        assertNull(token.getIssuedAt());
+        assertNull(token.getExpiresAt());
+        assertNull(token.getUsedAt());
+    }
+
+    @Test
+    void constructorInitializesUnusedToken() {
+        RefreshToken token = new RefreshToken("hash", "family", "Manuel", ISSUED_AT, EXPIRES_AT);
+
+        assertEquals("hash", token.getTokenHash());
+        assertEquals("family", token.getFamilyId());
+        assertEquals("Manuel", token.getUsername());
+        assertEquals(ISSUED_AT, token.getIssuedAt());
+        assertEquals(EXPIRES_AT, token.getExpiresAt());
+        assertNull(token.getUsedAt());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        RefreshToken token = new RefreshToken();
+        token.setId(7L);
+        token.setTokenHash("hash");
+        token.setFamilyId("family");
+        token.setUsername("Pedro");
+        token.setIssuedAt(ISSUED_AT);
+        token.setExpiresAt(EXPIRES_AT);
+        token.setUsedAt(ISSUED_AT.plusSeconds(60));
+
+        assertEquals(7L, token.getId());
+        assertEquals("hash", token.getTokenHash());
+        assertEquals("family", token.getFamilyId());
+        assertEquals("Pedro", token.getUsername());
+        assertEquals(ISSUED_AT, token.getIssuedAt());
+        assertEquals(EXPIRES_AT, token.getExpiresAt());
+        assertEquals(ISSUED_AT.plusSeconds(60), token.getUsedAt());
+    }
+
+    @Test
+    void toStringDoesNotIncludeHash() {
+        RefreshToken token = new RefreshToken("hash", "family", "Manuel", ISSUED_AT, EXPIRES_AT);
+        token.setId(3);
+
+        assertEquals("RefreshToken [id=3, familyId=family, username=Manuel, issuedAt=2026-10-18T10:00:00Z, "
+                + "expiresAt=2026-11-01T10:00:00Z, usedAt=null]", token.toString());
+    }
+}
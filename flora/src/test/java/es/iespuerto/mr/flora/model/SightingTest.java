@@ -0,0 +1,62 @@
+package es.iespuerto.mr.flora.model;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SightingTest {
+
+    private static final Instant OBSERVED_AT = Instant.parse("2026-05-01T10:15:30Z");
+
+    @Test
+    void defaultConstructorInitializesFieldsCorrectly() {
+        Sighting sighting = new Sighting();
+
+        assertEquals(0, sighting.getId());
+        assertEquals(0, sighting.getUserId());
+        assertEquals(0, sighting.getPlantId());
+        assertNull(sighting.getLocationId());
+        assertNull(sighting.getObservedAt());
+        assertNull(sighting.getLatitude());
+        assertNull(sighting.getLongitude());
+    }
+
+    @Test
+    void constructorWithUserPlantAndTimeInitializesFieldsCorrectly() {
+        Sighting sighting = new Sighting(1, 2, OBSERVED_AT);
+
+        assertEquals(1, sighting.getUserId());
+        assertEquals(2, sighting.getPlantId());
+        assertEquals(OBSERVED_AT, sighting.getObservedAt());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        Sighting sighting = new Sighting();
+        sighting.setId(7L);
+        sighting.setUserId(1);
+        sighting.setPlantId(2);
+        sighting.setLocationId(3);
+        sighting.setObservedAt(OBSERVED_AT);
+        sighting.setLatitude(28.27);
+        sighting.setLongitude(-16.64);
+
+        assertEquals(7L, sighting.getId());
+        assertEquals(1, sighting.getUserId());
+        assertEquals(2, sighting.getPlantId());
+        assertEquals(3, sighting.getLocationId());
+        assertEquals(OBSERVED_AT, sighting.getObservedAt());
+        assertEquals(28.27, sighting.getLatitude());
+        assertEquals(-16.64, sighting.getLongitude());
+    }
+
+    @Test
+    void toStringReturnsCorrectStringRepresentation() {
+        Sighting sighting = new Sighting(1, 2, OBSERVED_AT);
+        sighting.setId(3);
+
+        assertEquals("Sighting [id=3, userId=1, plantId=2, locationId=null, observedAt=2026-05-01T10:15:30Z, "
+                + "latitude=null, longitude=null]", sighting.toString());
+    }
+}
@@ -0,0 +1,58 @@
+package es.iespuerto.mr.flora.model;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenRevocationTest {
+
+    private static final Instant REVOKED_AT = Instant.parse("2026-10-18T10:00:00Z");
+    private static final Instant EXPIRES_AT = Instant.parse("2026-10-18T20:00:00Z");
+
+    @Test
+    void defaultConstructorInitializesFieldsCorrectly() {
+        TokenRevocation revocation = new TokenRevocation();
+
+        assertEquals(0, revocation.getId());
+        assertNull(revocation.getTokenId());
+        assertNull(revocation.getUsername());
+        assertNull(revocation.getRevokedAt());
+        assertNull(revocation.getExpiresAt());
+    }
+
+    @Test
+    void constructorInitializesFieldsCorrectly() {
+        TokenRevocation revocation = new TokenRevocation("jti-1", "Manuel", REVOKED_AT, EXPIRES_AT);
+
+        assertEquals("jti-1", revocation.getTokenId());
+        assertEquals("Manuel", revocation.getUsername());
+        assertEquals(REVOKED_AT, revocation.getRevokedAt());
+        assertEquals(EXPIRES_AT, revocation.getExpiresAt());
+    }
+
+    @Test
+    void settersUpdateFieldsCorrectly() {
+        TokenRevocation revocation = new TokenRevocation();
+        revocation.setId(7L);
+        revocation.setTokenId("jti-1");
+        revocation.setUsername("Pedro");
+        revocation.setRevokedAt(REVOKED_AT);
+        revocation.setExpiresAt(EXPIRES_AT);
+
+        assertEquals(7L, revocation.getId());
+        assertEquals("jti-1", revocation.getTokenId());
+        assertEquals("Pedro", revocation.getUsername());
+        assertEquals(REVOKED_AT, revocation.getRevokedAt());
+        assertEquals(EXPIRES_AT, revocation.getExpiresAt());
+    }
+
+    @Test
+    void toStringReturnsCorrectStringRepresentation() {
+        TokenRevocation revocation = new TokenRevocation(null, "Manuel", REVOKED_AT, EXPIRES_AT);
+        revocation.setId(3);
+
+        assertEquals("TokenRevocation [id=3, tokenId=null, username=Manuel, revokedAt=2026-10-18T10:00:00Z, "
+                + "expiresAt=2026-10-18T20:00:00Z]", revocation.toString());
+    }
+}
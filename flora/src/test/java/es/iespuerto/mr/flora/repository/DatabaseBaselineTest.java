@@ -0,0 +1,75 @@
+package es.iespuerto.mr.flora.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import es.iespuerto.mr.flora.model.User;
+
+/**
+ * Starts the dev profile on a database that already has the schema and its own users but no
+ * Flyway history, as one created before the migrations existed. Flyway must baseline it without
+ * loading the sample users of the seed on top of the existing data.
+ */
+@DataJpaTest(properties = "spring.datasource.url=" + DatabaseBaselineTest.URL)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("dev")
+public class DatabaseBaselineTest {
+
+    static final String URL = "jdbc:h2:mem:baselined;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    /**
+     * Only the JPA layer: the application class imports the CXF endpoints and the security beans.
+     */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    static void createExistingDatabase() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "password")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__initial_schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO roles (id, name) VALUES (1, 'ROLE_OWNER')");
+                statement.execute("INSERT INTO users (id, name, password, role_id) VALUES (1, 'Ana', 'hash', 1)");
+            }
+        }
+    }
+
+    @Test
+    void existingDatabaseIsBaselinedWithoutTheSeed() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"type\" || ' ' || \"version\" FROM \"flyway_schema_history\" WHERE \"version\" IS NOT NULL"
+                        + " ORDER BY \"installed_rank\"", String.class);
+
+        assertEquals(List.of("BASELINE 1.1"), versions);
+        assertEquals(1, userRepository.count());
+        assertTrue(userRepository.findByName("Manuel").isEmpty());
+        assertEquals("ROLE_OWNER", userRepository.findByName("Ana").orElseThrow().getRole().getName());
+    }
+}
@@ -0,0 +1,108 @@
+package es.iespuerto.mr.flora.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import es.iespuerto.mr.flora.model.Category;
+import es.iespuerto.mr.flora.model.Role;
+import es.iespuerto.mr.flora.model.User;
+
+/**
+ * Applies the Flyway migrations with the seed data of the dev profile to an empty database, with
+ * Hibernate validating the resulting schema against the entities.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+public class DatabaseMigrationsTest {
+
+    /**
+     * Only the JPA layer: the application class imports the CXF endpoints and the security beans.
+     */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void migrationsAreRecordedInOrderWithChecksums() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" = TRUE AND \"checksum\" IS NOT NULL"
+                        + " ORDER BY \"installed_rank\"", String.class);
+
+        assertEquals(List.of("1", "1.1"), versions);
+    }
+
+    @Test
+    void devSeedLoadsUsersWithPrecomputedHashes() {
+        User manuel = userRepository.findByName("Manuel").orElseThrow();
+
+        assertEquals("ROLE_ADMIN", manuel.getRole().getName());
+        assertTrue(new BCryptPasswordEncoder().matches("user123", manuel.getPassword()));
+        assertEquals(2, userRepository.count());
+        assertEquals(5, categoryRepository.count());
+    }
+
+    @Test
+    void generatedIdsDoNotClashWithSeededIds() {
+        Role role = roleRepository.save(new Role("ROLE_EDITOR"));
+        Category category = categoryRepository.save(new Category("Helechos"));
+        User user = new User("Ana", "hash");
+        user.setRole(role);
+        user = userRepository.saveAndFlush(user);
+
+        assertTrue(role.getId() > 2);
+        assertTrue(category.getId() > 5);
+        assertTrue(user.getId() > 2);
+    }
+
+    @Test
+    void favoriteForeignKeysDoNotCascade() {
+        jdbcTemplate.update("INSERT INTO favorite_plants (id, user_id, plant_id) VALUES (40, 2, 1)");
+
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("DELETE FROM users WHERE id = 2"));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update("DELETE FROM plants WHERE id = 1"));
+    }
+
+    @Test
+    void userNamesAreUnique() {
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO users (id, name, password, role_id) VALUES (40, 'Manuel', 'hash', 2)"));
+    }
+
+    @Test
+    void lookupIndexesAndForeignKeysExist() {
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT LOWER(INDEX_NAME) FROM INFORMATION_SCHEMA.INDEXES", String.class);
+        List<String> constraints = jdbcTemplate.queryForList(
+                "SELECT LOWER(CONSTRAINT_NAME) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS", String.class);
+
+        assertTrue(indexes.containsAll(List.of("idx_users_role", "idx_favorite_plants_plant")));
+        assertTrue(constraints.containsAll(List.of("uk_users_name", "uk_favorite_plants", "fk_users_role", "fk_favorite_plants_user",
+                "fk_favorite_plants_plant")));
+    }
+}
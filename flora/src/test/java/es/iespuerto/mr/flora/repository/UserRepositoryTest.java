@@ -0,0 +1,101 @@
+package es.iespuerto.mr.flora.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import es.iespuerto.mr.flora.dto.UserSummary;
+import es.iespuerto.mr.flora.model.Role;
+import es.iespuerto.mr.flora.model.User;
+
+/**
+ * Counts the statements run by the user listing, so that loading the role of each user one by
+ * one (N+1 selects) cannot come back unnoticed.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class UserRepositoryTest {
+
+    /**
+     * Only the JPA layer: the application class imports the CXF endpoints and the security beans.
+     */
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        String[] roleNames = { "ROLE_ADMIN", "ROLE_USER", "ROLE_EDITOR" };
+        for (int r = 0; r < roleNames.length; r++) {
+            Role role = entityManager.persist(new Role(roleNames[r]));
+            for (int u = 0; u < 4; u++) {
+                User user = new User("user-" + r + "-" + u, "hash");
+                user.setRole(role);
+                entityManager.persist(user);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        entityManager.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllSummariesRunsASingleQuery() {
+        List<UserSummary> users = userRepository.findAllSummaries();
+
+        assertEquals(12, users.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findAllSummariesIncludesRoleNamesInIdOrder() {
+        List<UserSummary> users = userRepository.findAllSummaries();
+
+        assertEquals("user-0-0", users.get(0).getName());
+        assertEquals("ROLE_ADMIN", users.get(0).getRoleName());
+        assertEquals("ROLE_EDITOR", users.get(11).getRoleName());
+        for (int i = 1; i < users.size(); i++) {
+            assertTrue(users.get(i - 1).getId() < users.get(i).getId());
+        }
+    }
+
+    @Test
+    void findAllSummariesQueryCountDoesNotGrowWithUsers() {
+        Role role = entityManager.persist(new Role("ROLE_GUEST"));
+        for (int u = 0; u < 20; u++) {
+            User user = new User("guest-" + u, "hash");
+            user.setRole(role);
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(32, userRepository.findAllSummaries().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
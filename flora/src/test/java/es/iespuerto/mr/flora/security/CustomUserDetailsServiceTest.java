@@ -0,0 +1,90 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import es.iespuerto.mr.flora.model.Role;
+import es.iespuerto.mr.flora.model.User;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+
+public class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private BoundedTtlCache<String, UserDetails> cache;
+    private CustomUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        cache = new BoundedTtlCache<>("user-details", 10, Duration.ofMinutes(5));
+        service = new CustomUserDetailsService(userRepository);
+        service.setUserDetailsCache(cache);
+    }
+
+    @Test
+    void loadUserByUsernameBuildsDetailsWithRoleAuthority() {
+        when(userRepository.findByName("Manuel")).thenReturn(Optional.of(user("Manuel", "role_admin")));
+
+        UserDetails details = service.loadUserByUsername("Manuel");
+
+        assertEquals("Manuel", details.getUsername());
+        assertEquals("hash", details.getPassword());
+        assertEquals("ROLE_ADMIN", details.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void loadUserByUsernameQueriesRepositoryOnlyOnce() {
+        when(userRepository.findByName("Manuel")).thenReturn(Optional.of(user("Manuel", "ROLE_ADMIN")));
+
+        service.loadUserByUsername("Manuel");
+        service.loadUserByUsername("Manuel");
+
+        verify(userRepository, times(1)).findByName("Manuel");
+    }
+
+    @Test
+    void erasingCredentialsOfReturnedDetailsDoesNotAffectCache() {
+        when(userRepository.findByName("Manuel")).thenReturn(Optional.of(user("Manuel", "ROLE_ADMIN")));
+
+        UserDetails first = service.loadUserByUsername("Manuel");
+        ((org.springframework.security.core.userdetails.User) first).eraseCredentials();
+
+        assertEquals("hash", service.loadUserByUsername("Manuel").getPassword());
+    }
+
+    @Test
+    void invalidatedUserIsReloaded() {
+        when(userRepository.findByName("Manuel")).thenReturn(Optional.of(user("Manuel", "ROLE_ADMIN")));
+        service.loadUserByUsername("Manuel");
+
+        cache.invalidate("Manuel");
+        service.loadUserByUsername("Manuel");
+
+        verify(userRepository, times(2)).findByName("Manuel");
+    }
+
+    @Test
+    void loadUserByUsernameThrowsIfUserDoesNotExist() {
+        when(userRepository.findByName("Nadie")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("Nadie"));
+        assertEquals(0, cache.size());
+    }
+
+    private static User user(String name, String roleName) {
+        Role role = new Role();
+        role.setName(roleName);
+        User user = new User(name, "hash");
+        user.setRole(role);
+        return user;
+    }
+}
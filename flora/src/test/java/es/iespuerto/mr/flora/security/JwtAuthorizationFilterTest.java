@@ -0,0 +1,107 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import es.iespuerto.mr.flora.service.revocation.TokenRevocationService;
+import io.jsonwebtoken.JwtException;
+
+public class JwtAuthorizationFilterTest {
+
+    private JwtUtils jwtUtils;
+    private TokenRevocationService tokenRevocationService;
+    private JwtAuthorizationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = mock(JwtUtils.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        filter = new JwtAuthorizationFilter();
+        filter.setJwtUtils(jwtUtils);
+        filter.setTokenRevocationService(tokenRevocationService);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void validTokenIsVerifiedOnceAndAuthenticates() throws Exception {
+        JwtPrincipal principal = new JwtPrincipal("Manuel", List.of("ROLE_ADMIN"), Instant.now().plusSeconds(60));
+        when(jwtUtils.verify("token")).thenReturn(Optional.of(principal));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("Manuel", authentication.getPrincipal());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        assertNotNull(chain.getRequest());
+        verify(jwtUtils, times(1)).verify("token");
+        verifyNoMoreInteractions(jwtUtils);
+    }
+
+    @Test
+    void revokedTokenLeavesRequestUnauthenticated() throws Exception {
+        JwtPrincipal principal = new JwtPrincipal("Manuel", List.of("ROLE_ADMIN"), Instant.now().plusSeconds(60));
+        when(jwtUtils.verify("token")).thenReturn(Optional.of(principal));
+        when(tokenRevocationService.isRevoked(principal)).thenReturn(true);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer token");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+        when(jwtUtils.verify("bad")).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer bad");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void requestWithoutBearerHeaderIsPassedThrough() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    void extractAuthoritiesFromTokenThrowsForInvalidToken() {
+        when(jwtUtils.verify("bad")).thenReturn(Optional.empty());
+
+        assertThrows(JwtException.class, () -> filter.extractAuthoritiesFromToken("bad"));
+    }
+}
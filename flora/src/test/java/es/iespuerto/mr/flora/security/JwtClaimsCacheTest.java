@@ -0,0 +1,99 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class JwtClaimsCacheTest {
+
+    private AtomicLong clock;
+    private JwtClaimsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000);
+        cache = new JwtClaimsCache(2, clock::get);
+    }
+
+    @Test
+    void getReturnsPrincipalUntilTokenExpires() {
+        JwtPrincipal principal = principal("a", 2_000);
+        cache.put(JwtClaimsCache.digest("token-a"), principal);
+
+        assertSame(principal, cache.get(JwtClaimsCache.digest("token-a")));
+
+        clock.set(2_000);
+        assertNull(cache.get(JwtClaimsCache.digest("token-a")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void putIgnoresExpiredPrincipals() {
+        cache.put(JwtClaimsCache.digest("token-a"), principal("a", 500));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void differentTokensHaveDifferentKeys() {
+        cache.put(JwtClaimsCache.digest("token-a"), principal("a", 2_000));
+
+        assertNull(cache.get(JwtClaimsCache.digest("token-b")));
+        assertEquals(JwtClaimsCache.digest("token-a"), JwtClaimsCache.digest("token-a"));
+        assertEquals(JwtClaimsCache.digest("token-a").hashCode(), JwtClaimsCache.digest("token-a").hashCode());
+    }
+
+    @Test
+    void frequentlyReadEntrySurvivesEvictionWhenFull() {
+        cache.put(JwtClaimsCache.digest("token-a"), principal("a", 2_000));
+        cache.put(JwtClaimsCache.digest("token-b"), principal("b", 2_000));
+        cache.get(JwtClaimsCache.digest("token-a"));
+
+        cache.put(JwtClaimsCache.digest("token-c"), principal("c", 2_000));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(JwtClaimsCache.digest("token-a")));
+    }
+
+    @Test
+    void invalidateAllRemovesEveryEntry() {
+        cache.put(JwtClaimsCache.digest("token-a"), principal("a", 2_000));
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void metricsCountHitsMissesAndEvictions() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put(JwtClaimsCache.digest("token-a"), principal("a", 2_000));
+
+        cache.get(JwtClaimsCache.digest("token-a"));
+        cache.get(JwtClaimsCache.digest("token-b"));
+        clock.set(3_000);
+        cache.get(JwtClaimsCache.digest("token-a"));
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", JwtClaimsCache.NAME, "result", "hit").functionCounter().count());
+        assertEquals(2.0, registry.get("cache.gets").tags("cache", JwtClaimsCache.NAME, "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.evictions").tag("cache", JwtClaimsCache.NAME).functionCounter().count());
+        assertEquals(0.0, registry.get("cache.size").tag("cache", JwtClaimsCache.NAME).gauge().value());
+    }
+
+    @Test
+    void nonPositiveMaxSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtClaimsCache(0));
+    }
+
+    private static JwtPrincipal principal(String username, long expiresAtMillis) {
+        return new JwtPrincipal(username, List.of("ROLE_USER"), Instant.ofEpochMilli(expiresAtMillis));
+    }
+}
@@ -0,0 +1,220 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+public class JwtKeyRingTest {
+
+    private static final byte[] SECRET_A = secret(1);
+    private static final byte[] SECRET_B = secret(2);
+
+    @TempDir
+    Path dir;
+
+    private AtomicLong clock;
+    private JwtKeyRing ring;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(1_000_000);
+        ring = new JwtKeyRing(clock::get);
+    }
+
+    @Test
+    void defaultRingSignsAndVerifiesWithGeneratedKey() {
+        String token = sign(ring.signingKey().getKid(), ring.signingKey().getKey().getEncoded());
+
+        assertEquals("user", ring.parser().parseClaimsJws(token).getBody().getSubject());
+        assertTrue(ring.signingKey().getKid().startsWith("local-"));
+    }
+
+    @Test
+    void loadReadsKeysFileAndActivatesGreatestKid() throws Exception {
+        useKeysFile("2026-01=" + encode(SECRET_A) + "\n2026-02=" + encode(SECRET_B) + "\n");
+
+        ring.load();
+
+        assertEquals(Set.of("2026-01", "2026-02"), ring.kids());
+        assertEquals("2026-02", ring.signingKey().getKid());
+        assertEquals("user", ring.parser().parseClaimsJws(sign("2026-01", SECRET_A)).getBody().getSubject());
+        assertEquals("user", ring.parser().parseClaimsJws(sign("2026-02", SECRET_B)).getBody().getSubject());
+    }
+
+    @Test
+    void activeKidCanBeConfigured() throws Exception {
+        useKeysFile("2026-01=" + encode(SECRET_A) + "\n2026-02=" + encode(SECRET_B) + "\n");
+        ring.setActiveKid("2026-01");
+
+        ring.load();
+
+        assertEquals("2026-01", ring.signingKey().getKid());
+    }
+
+    @Test
+    void loadFailsWhenActiveKidIsMissing() throws Exception {
+        useKeysFile("2026-01=" + encode(SECRET_A) + "\n");
+        ring.setActiveKid("2026-09");
+
+        assertThrows(IllegalStateException.class, ring::load);
+    }
+
+    @Test
+    void loadFailsWhenKeysFileIsEmpty() throws Exception {
+        useKeysFile("");
+
+        assertThrows(IllegalStateException.class, ring::load);
+    }
+
+    @Test
+    void tokensWithUnknownOrMissingKidAreRejected() throws Exception {
+        useKeysFile("2026-01=" + encode(SECRET_A) + "\n");
+        ring.load();
+
+        assertThrows(JwtException.class, () -> ring.parser().parseClaimsJws(sign("2026-02", SECRET_A)));
+        String withoutKid = Jwts.builder().setSubject("user").signWith(Keys.hmacShaKeyFor(SECRET_A)).compact();
+        assertThrows(JwtException.class, () -> ring.parser().parseClaimsJws(withoutKid));
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretUnderKnownKidIsRejected() throws Exception {
+        useKeysFile("2026-01=" + encode(SECRET_A) + "\n");
+        ring.load();
+
+        assertThrows(JwtException.class, () -> ring.parser().parseClaimsJws(sign("2026-01", SECRET_B)));
+    }
+
+    @Test
+    void rotateReloadsChangedFileAndNotifiesRemovedKeys() throws Exception {
+        Path file = useKeysFile("2026-01=" + encode(SECRET_A) + "\n");
+        ring.load();
+        AtomicInteger removals = new AtomicInteger();
+        ring.addKeyRemovalListener(removals::incrementAndGet);
+
+        Files.writeString(file, "2026-01=" + encode(SECRET_A) + "\n2026-02=" + encode(SECRET_B) + "\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1_000));
+        ring.rotate();
+
+        assertEquals("2026-02", ring.signingKey().getKid());
+        assertEquals(0, removals.get());
+
+        Files.writeString(file, "2026-02=" + encode(SECRET_B) + "\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2_000));
+        ring.rotate();
+
+        assertEquals(Set.of("2026-02"), ring.kids());
+        assertEquals(1, removals.get());
+        assertThrows(JwtException.class, () -> ring.parser().parseClaimsJws(sign("2026-01", SECRET_A)));
+    }
+
+    @Test
+    void rotateKeepsCurrentKeysWhenReloadFails() throws Exception {
+        Path file = useKeysFile("2026-01=" + encode(SECRET_A) + "\n");
+        ring.load();
+
+        Files.writeString(file, "");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1_000));
+        ring.rotate();
+
+        assertEquals(Set.of("2026-01"), ring.kids());
+    }
+
+    @Test
+    void loadReadsSecretKeysFromKeystore() throws Exception {
+        Path file = dir.resolve("jwt.p12");
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection("secret".toCharArray());
+        keyStore.setEntry("k1", new KeyStore.SecretKeyEntry(new SecretKeySpec(SECRET_A, "HmacSHA256")), protection);
+        keyStore.setEntry("k2", new KeyStore.SecretKeyEntry(new SecretKeySpec(SECRET_B, "HmacSHA256")), protection);
+        try (OutputStream out = Files.newOutputStream(file)) {
+            keyStore.store(out, "secret".toCharArray());
+        }
+        ring.setKeystorePath(file.toString());
+        ring.setKeystorePassword("secret");
+
+        ring.load();
+
+        assertEquals(Set.of("k1", "k2"), ring.kids());
+        assertEquals("k2", ring.signingKey().getKid());
+        assertEquals("user", ring.parser().parseClaimsJws(sign("k1", SECRET_A)).getBody().getSubject());
+    }
+
+    @Test
+    void localKeysRotateAndRetireAfterRetention() {
+        ring.setRotation(Duration.ofHours(1));
+        ring.setRetention(Duration.ofHours(2));
+        AtomicInteger removals = new AtomicInteger();
+        ring.addKeyRemovalListener(removals::incrementAndGet);
+        JwtKeyRing.SigningKey first = ring.signingKey();
+        String firstToken = sign(first.getKid(), first.getKey().getEncoded());
+
+        ring.rotate();
+        assertSame(first, ring.signingKey());
+
+        clock.addAndGet(Duration.ofHours(1).toMillis());
+        ring.rotate();
+        assertNotEquals(first.getKid(), ring.signingKey().getKid());
+        assertEquals(2, ring.kids().size());
+        assertEquals("user", ring.parser().parseClaimsJws(firstToken).getBody().getSubject());
+
+        clock.addAndGet(Duration.ofMinutes(30).toMillis());
+        ring.rotate();
+        assertEquals(2, ring.kids().size());
+
+        clock.addAndGet(Duration.ofMinutes(90).toMillis());
+        ring.rotate();
+        assertFalse(ring.kids().contains(first.getKid()));
+        assertEquals(1, removals.get());
+        assertThrows(JwtException.class, () -> ring.parser().parseClaimsJws(firstToken));
+    }
+
+    private Path useKeysFile(String content) throws Exception {
+        Path file = dir.resolve("jwt-keys.properties");
+        Files.writeString(file, content);
+        ring.setKeysFile(file.toString());
+        return file;
+    }
+
+    private static String sign(String kid, byte[] secret) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, kid)
+                .setSubject("user")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret))
+                .compact();
+    }
+
+    private static String encode(byte[] secret) {
+        return Base64.getEncoder().encodeToString(secret);
+    }
+
+    private static byte[] secret(int seed) {
+        byte[] secret = new byte[32];
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) (seed * 31 + i);
+        }
+        return secret;
+    }
+}
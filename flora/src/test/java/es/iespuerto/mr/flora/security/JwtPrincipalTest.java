@@ -0,0 +1,51 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class JwtPrincipalTest {
+
+    @Test
+    void constructorCopiesRolesAndBuildsAuthorities() {
+        List<String> roles = new ArrayList<>(List.of("ROLE_USER", "ROLE_ADMIN"));
+        JwtPrincipal principal = new JwtPrincipal("Manuel", roles, Instant.ofEpochMilli(5_000));
+        roles.clear();
+
+        assertEquals("Manuel", principal.getUsername());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), principal.getRoles());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().get(1).getAuthority());
+        assertEquals(Instant.ofEpochMilli(5_000), principal.getExpiresAt());
+        assertThrows(UnsupportedOperationException.class, () -> principal.getAuthorities().clear());
+    }
+
+    @Test
+    void isExpiredComparesWithExpiration() {
+        JwtPrincipal principal = new JwtPrincipal("Manuel", List.of(), Instant.ofEpochMilli(5_000));
+
+        assertFalse(principal.isExpired(4_999));
+        assertTrue(principal.isExpired(5_000));
+    }
+
+    @Test
+    void toStringShouldIncludeFields() {
+        JwtPrincipal principal = new JwtPrincipal("Manuel", List.of("ROLE_USER"), Instant.ofEpochMilli(0));
+
+        assertEquals("JwtPrincipal [tokenId=null, username=Manuel, roles=[ROLE_USER], issuedAt=null, "
+                + "expiresAt=1970-01-01T00:00:00Z]", principal.toString());
+    }
+
+    @Test
+    void fullConstructorKeepsTokenIdAndIssueTime() {
+        JwtPrincipal principal = new JwtPrincipal("jti-1", "Manuel", List.of("ROLE_USER"),
+                Instant.ofEpochMilli(1_000), Instant.ofEpochMilli(5_000));
+
+        assertEquals("jti-1", principal.getTokenId());
+        assertEquals(Instant.ofEpochMilli(1_000), principal.getIssuedAt());
+        assertEquals(Instant.ofEpochMilli(5_000), principal.getExpiresAt());
+    }
+}
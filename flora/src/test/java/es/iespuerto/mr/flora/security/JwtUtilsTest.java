@@ -3,18 +3,27 @@ package es.iespuerto.mr.flora.security;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class JwtUtilsTest {
 
@@ -69,4 +78,144 @@ public class JwtUtilsTest {
 
         assertFalse(jwtUtils.validateToken(invalidToken));
     }
-}
\ No newline at end of file
+
+    @Test
+    void verifyShouldReturnImmutablePrincipal() {
+        Collection<GrantedAuthority> authorities = Arrays.asList(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        String token = jwtUtils.generateToken("admin", authorities);
+
+        JwtPrincipal principal = jwtUtils.verify(token).orElseThrow();
+
+        assertEquals("admin", principal.getUsername());
+        assertEquals(List.of("ROLE_ADMIN"), principal.getRoles());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().get(0).getAuthority());
+        assertTrue(principal.getExpiresAt().isAfter(Instant.now()));
+        assertThrows(UnsupportedOperationException.class, () -> principal.getRoles().add("ROLE_USER"));
+    }
+
+    @Test
+    void generatedTokensShouldCarryUniqueIdAndIssueTime() {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        JwtPrincipal first = jwtUtils.verify(jwtUtils.generateToken("testUser", authorities)).orElseThrow();
+        JwtPrincipal second = jwtUtils.verify(jwtUtils.generateToken("testUser", authorities)).orElseThrow();
+
+        assertNotNull(first.getTokenId());
+        assertNotEquals(first.getTokenId(), second.getTokenId());
+        assertNotNull(first.getIssuedAt());
+        assertEquals(jwtUtils.getTokenLifetime().toSeconds(),
+                first.getExpiresAt().getEpochSecond() - first.getIssuedAt().getEpochSecond());
+    }
+
+    @Test
+    void accessTokensShouldBeShortLivedAndConfigurable() {
+        assertEquals(Duration.ofMinutes(15), jwtUtils.getTokenLifetime());
+
+        jwtUtils.setTokenLifetime(Duration.ofMinutes(5));
+        JwtPrincipal principal = jwtUtils.verify(
+                jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")))).orElseThrow();
+
+        assertEquals(300, principal.getExpiresAt().getEpochSecond() - principal.getIssuedAt().getEpochSecond());
+        assertThrows(IllegalArgumentException.class, () -> jwtUtils.setTokenLifetime(Duration.ZERO));
+    }
+
+    @Test
+    void verifyShouldAcceptBearerPrefix() {
+        String token = jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertEquals("testUser", jwtUtils.verify("Bearer " + token).orElseThrow().getUsername());
+    }
+
+    @Test
+    void verifyShouldReuseCachedPrincipalForRepeatedToken() {
+        String token = jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertSame(jwtUtils.verify(token).orElseThrow(), jwtUtils.verify(token).orElseThrow());
+    }
+
+    @Test
+    void verifyShouldRejectTamperedToken() {
+        String token = jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        jwtUtils.verify(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertTrue(jwtUtils.verify(tampered).isEmpty());
+    }
+
+    @Test
+    void verifyShouldRejectTokenSignedWithAnotherKey() {
+        String foreign = Jwts.builder()
+                .setSubject("intruder")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(secretKey)
+                .compact();
+
+        assertTrue(jwtUtils.verify(foreign).isEmpty());
+        assertFalse(jwtUtils.validateToken(foreign));
+    }
+
+    @Test
+    void getUsernameFromTokenShouldThrowForInvalidToken() {
+        assertThrows(JwtException.class, () -> jwtUtils.getUsernameFromToken("invalidToken"));
+    }
+
+    @Test
+    void bindToShouldRegisterCacheMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtUtils.setClaimsCacheMaxSize(10);
+        jwtUtils.bindTo(registry);
+        String token = jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        jwtUtils.verify(token);
+        jwtUtils.verify(token);
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", JwtClaimsCache.NAME, "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", JwtClaimsCache.NAME, "result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void generateTokenShouldCarryKidOfActiveKey() {
+        JwtKeyRing ring = new JwtKeyRing();
+        jwtUtils.setKeyRing(ring);
+        String token = jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+
+        assertTrue(header.contains("\"kid\":\"" + ring.signingKey().getKid() + "\""));
+    }
+
+    @Test
+    void tokensShouldVerifyOnEveryNodeSharingTheKeysFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-keys.properties");
+        Files.writeString(file, "2026-10=" + Base64.getEncoder().encodeToString(secretKey.getEncoded()) + "\n");
+        JwtUtils node1 = nodeWithKeysFile(file);
+        JwtUtils node2 = nodeWithKeysFile(file);
+
+        String token = node1.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        assertEquals("testUser", node2.verify(token).orElseThrow().getUsername());
+        assertTrue(jwtUtils.verify(token).isEmpty());
+    }
+
+    @Test
+    void removingKeyShouldDropCachedPrincipals() {
+        JwtKeyRing ring = new JwtKeyRing();
+        ring.setRotation(Duration.ofMillis(1));
+        ring.setRetention(Duration.ZERO);
+        jwtUtils.setKeyRing(ring);
+        String token = jwtUtils.generateToken("testUser", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        assertTrue(jwtUtils.verify(token).isPresent());
+
+        ring.rotate();
+
+        assertTrue(jwtUtils.verify(token).isEmpty());
+    }
+
+    private static JwtUtils nodeWithKeysFile(Path file) {
+        JwtKeyRing ring = new JwtKeyRing();
+        ring.setKeysFile(file.toString());
+        ring.load();
+        JwtUtils node = new JwtUtils();
+        node.setKeyRing(ring);
+        return node;
+    }
+}
@@ -0,0 +1,56 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class OffloadingPasswordEncoderTest {
+
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor();
+        executor.setThreads(1);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void encodeAndMatchesUseTheDelegate() {
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(new BCryptPasswordEncoder(4), executor);
+
+        String hash = encoder.encode("user123");
+
+        assertTrue(encoder.matches("user123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+    }
+
+    @Test
+    void matchesRunsOnTheHashingExecutor() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> Thread.currentThread().getName().startsWith("password-hash-"));
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(delegate, executor);
+
+        assertTrue(encoder.matches("user123", "hash"));
+    }
+
+    @Test
+    void upgradeEncodingIsDelegatedDirectly() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+        executor.stop();
+        OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(delegate, executor);
+
+        assertTrue(encoder.upgradeEncoding("hash"));
+    }
+}
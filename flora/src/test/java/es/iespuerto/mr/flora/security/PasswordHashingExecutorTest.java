@@ -0,0 +1,154 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.exception.ServiceUnavailableException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private SimpleMeterRegistry registry;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor();
+        executor.setThreads(1);
+        executor.setQueueCapacity(1);
+        executor.setTimeout(Duration.ofSeconds(5));
+        executor.setRetryAfterSeconds(2);
+        registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+        executor.start();
+        callers = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        executor.stop();
+    }
+
+    @Test
+    void runReturnsResultAndRecordsTimes() {
+        assertEquals("hash", executor.run(() -> "hash"));
+
+        assertEquals(1, registry.get("flora.auth.hash.queue.wait").timer().count());
+        assertEquals(1, registry.get("flora.auth.hash.duration").timer().count());
+    }
+
+    @Test
+    void runRunsTaskOnHashingThread() {
+        assertTrue(executor.run(() -> Thread.currentThread().getName()).startsWith("password-hash-"));
+    }
+
+    @Test
+    void runRethrowsRuntimeExceptionsOfTheTask() {
+        assertThrows(IllegalStateException.class, () -> executor.run(() -> {
+            throw new IllegalStateException("boom");
+        }));
+    }
+
+    @Test
+    void runRejectsWhenThreadAndQueueAreBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> busy = callers.submit(() -> executor.run(() -> {
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Boolean> queued = callers.submit(() -> executor.run(() -> true));
+        waitForQueueDepth(1);
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class, () -> executor.run(() -> true));
+
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("flora.auth.hash.rejected").tag("reason", "saturated").functionCounter().count());
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void runGivesUpWhenTaskDoesNotFinishInTime() {
+        executor.setTimeout(Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> executor.run(() -> {
+            await(release);
+            return true;
+        }));
+
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, registry.get("flora.auth.hash.rejected").tag("reason", "timeout").functionCounter().count());
+        release.countDown();
+    }
+
+    @Test
+    void runRemovesQueuedTaskWhenItTimesOut() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> busy = callers.submit(() -> executor.run(() -> {
+            started.countDown();
+            await(release);
+            return true;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.setTimeout(Duration.ofMillis(50));
+        AtomicBoolean queuedRan = new AtomicBoolean();
+
+        assertThrows(ServiceUnavailableException.class, () -> executor.run(() -> queuedRan.getAndSet(true)));
+
+        assertEquals(0, executor.queueDepth());
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        executor.setTimeout(Duration.ofSeconds(5));
+        assertTrue(executor.run(() -> true));
+        assertFalse(queuedRan.get());
+    }
+
+    @Test
+    void runFailsWhenStopped() {
+        executor.stop();
+
+        assertFalse(executor.isRunning());
+        assertThrows(ServiceUnavailableException.class, () -> executor.run(() -> true));
+    }
+
+    @Test
+    void nonPositiveQueueCapacityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> executor.setQueueCapacity(0));
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.queueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(depth, executor.queueDepth());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
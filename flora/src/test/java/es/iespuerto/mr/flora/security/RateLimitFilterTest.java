@@ -0,0 +1,154 @@
+package es.iespuerto.mr.flora.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RateLimitFilterTest {
+
+    private JwtUtils jwtUtils;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = mock(JwtUtils.class);
+        filter = new RateLimitFilter();
+        filter.setJwtUtils(jwtUtils);
+        filter.setAuthPerIp("3/1m");
+        filter.setAuthPerUser("2/1m");
+        filter.setAddPerIp("100/1m");
+        filter.setAddPerUser("1/1m");
+        filter.init();
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest login(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        request.setRemoteAddr(ip);
+        request.setParameter("username", username);
+        return request;
+    }
+
+    @Test
+    void loginAttemptsAreLimitedPerUsernameAcrossAddresses() throws Exception {
+        assertEquals(200, send(login("10.0.0.1", "Manuel")).getStatus());
+        assertEquals(200, send(login("10.0.0.2", "manuel")).getStatus());
+
+        MockHttpServletResponse rejected = send(login("10.0.0.3", "Manuel"));
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("30", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("Too many requests, retry later"));
+        assertTrue(rejected.getContentAsString().contains("uri=/auth/login"));
+        assertEquals(200, send(login("10.0.0.3", "Pedro")).getStatus());
+    }
+
+    @Test
+    void loginAttemptsAreLimitedPerAddress() throws Exception {
+        assertEquals(200, send(login("10.0.0.1", "a")).getStatus());
+        assertEquals(200, send(login("10.0.0.1", "b")).getStatus());
+        assertEquals(200, send(login("10.0.0.1", "c")).getStatus());
+
+        assertEquals(429, send(login("10.0.0.1", "d")).getStatus());
+        assertEquals(200, send(login("10.0.0.2", "d")).getStatus());
+    }
+
+    @Test
+    void rejectedRequestDoesNotReachTheChain() throws Exception {
+        send(login("10.0.0.1", "Manuel"));
+        send(login("10.0.0.1", "Manuel"));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(login("10.0.0.1", "Manuel"), new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void writeEndpointsAreLimitedPerTokenUser() throws Exception {
+        JwtPrincipal principal = new JwtPrincipal("Manuel", List.of("ROLE_USER"), Instant.now().plusSeconds(60));
+        when(jwtUtils.verify("Bearer token")).thenReturn(Optional.of(principal));
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/v1/add/plant/");
+        first.addHeader("Authorization", "Bearer token");
+        MockHttpServletRequest second = new MockHttpServletRequest("POST", "/api/v1/add/favorite/");
+        second.addHeader("Authorization", "Bearer token");
+
+        assertEquals(200, send(first).getStatus());
+        assertEquals(429, send(second).getStatus());
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/plants/");
+            assertEquals(200, send(request).getStatus());
+        }
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    void disabledFilterLetsEverythingThrough() throws Exception {
+        filter.setEnabled(false);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(login("10.0.0.1", "Manuel")).getStatus());
+        }
+    }
+
+    @Test
+    void pathsOfAGroupAreConfigurable() throws Exception {
+        filter.setAuthPaths("/auth/login, /other/**");
+        filter.init();
+
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest refresh = new MockHttpServletRequest("POST", "/auth/refresh");
+            assertEquals(200, send(refresh).getStatus());
+        }
+        MockHttpServletRequest other = new MockHttpServletRequest("POST", "/other/x");
+        other.setParameter("username", "Manuel");
+        send(other);
+        send(other);
+        assertEquals(429, send(other).getStatus());
+    }
+
+    @Test
+    void invalidLimitPreventsStartup() {
+        filter.setDeletePerUser("many");
+
+        assertThrows(IllegalArgumentException.class, () -> filter.init());
+    }
+
+    @Test
+    void bindToRegistersMetersPerGroup() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+        send(login("10.0.0.1", "Manuel"));
+        send(login("10.0.0.1", "Manuel"));
+        send(login("10.0.0.1", "Manuel"));
+        filter.evictIdle();
+
+        assertEquals(2.0, registry.get("flora.ratelimit.requests").tags("group", "auth", "result", "allowed")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("flora.ratelimit.requests").tags("group", "auth", "result", "rejected")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("flora.ratelimit.buckets").tags("group", "auth", "key", "user").gauge().value());
+        assertEquals(0.0, registry.get("flora.ratelimit.overflow").tags("group", "delete", "key", "ip")
+                .functionCounter().count());
+    }
+}
@@ -3,31 +3,57 @@ package es.iespuerto.mr.flora.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Category;
 import es.iespuerto.mr.flora.repository.CategoryRepository;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.FacetType;
 
 public class CategoryServiceTest {
 
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private NdjsonExporter exporter;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @Mock
+    private JsonSnapshotCache snapshotCache;
+
+    @Mock
+    private PlantFacetServiceInterface facetService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private CategoryService categoryService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        categoryService.setTransactionManager(transactionManager);
     }
 
     @Test
@@ -79,6 +105,7 @@ public class CategoryServiceTest {
         Category createdCategory = categoryService.createCategory(category);
 
         assertEquals("New Category", createdCategory.getName());
+        verify(tableVersions).bump(CatalogTable.CATEGORIES);
     }
 
     @Test
@@ -96,6 +123,7 @@ public class CategoryServiceTest {
         Category updatedCategory = categoryService.updateCategory(1, updatedDetails);
 
         assertEquals("Updated Category", updatedCategory.getName());
+        verify(tableVersions).bump(CatalogTable.CATEGORIES);
     }
 
     @Test
@@ -108,6 +136,7 @@ public class CategoryServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             categoryService.updateCategory(1, updatedDetails);
         });
+        verifyNoInteractions(tableVersions);
     }
 
     @Test
@@ -118,10 +147,17 @@ public class CategoryServiceTest {
 
         when(categoryRepository.findById(1)).thenReturn(Optional.of(category));
         doNothing().when(categoryRepository).delete(category);
+        when(facetService.deleteFacetValue(FacetType.CATEGORY, 1)).thenReturn(2);
 
         categoryService.deleteCategory(1);
 
         verify(categoryRepository, times(1)).delete(category);
+        verify(tableVersions).bump(CatalogTable.CATEGORIES);
+        InOrder inOrder = inOrder(facetService, categoryRepository, transactionManager);
+        inOrder.verify(facetService).deleteFacetValue(FacetType.CATEGORY, 1);
+        inOrder.verify(categoryRepository).delete(category);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(facetService).facetValueDeleted(FacetType.CATEGORY, 1, 2);
     }
 
     @Test
@@ -131,5 +167,32 @@ public class CategoryServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             categoryService.deleteCategory(1);
         });
+        verifyNoInteractions(tableVersions);
+    }
+
+    @Test
+    void exportCategoriesStreamsRepositoryThroughExporter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(exporter.export(any(), eq(out))).thenReturn(3L);
+
+        assertEquals(3, categoryService.exportCategories(out));
+        verify(exporter).export(any(), eq(out));
+    }
+
+    @Test
+    void getCategoriesETagDoesNotQueryTheRepository() {
+        when(snapshotCache.currentETag(CatalogTable.CATEGORIES)).thenReturn("\"categories-7\"");
+
+        assertEquals("\"categories-7\"", categoryService.getCategoriesETag());
+        verifyNoInteractions(categoryRepository);
+    }
+
+    @Test
+    void getAllCategoriesJsonDelegatesToSnapshotCache() {
+        JsonSnapshot snapshot = new JsonSnapshot(7, "\"categories-7\"", new byte[0]);
+        when(snapshotCache.get(eq(CatalogTable.CATEGORIES), any())).thenReturn(snapshot);
+
+        assertSame(snapshot, categoryService.getAllCategoriesJson());
     }
-}
\ No newline at end of file
+}
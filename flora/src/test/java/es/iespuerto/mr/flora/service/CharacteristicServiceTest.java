@@ -3,31 +3,57 @@ package es.iespuerto.mr.flora.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Characteristic;
 import es.iespuerto.mr.flora.repository.CharacteristicRepository;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.FacetType;
 
 public class CharacteristicServiceTest {
 
     @Mock
     private CharacteristicRepository characteristicRepository;
 
+    @Mock
+    private NdjsonExporter exporter;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @Mock
+    private JsonSnapshotCache snapshotCache;
+
+    @Mock
+    private PlantFacetServiceInterface facetService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private CharacteristicService characteristicService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        characteristicService.setTransactionManager(transactionManager);
     }
 
     @Test
@@ -79,6 +105,7 @@ public class CharacteristicServiceTest {
         Characteristic createdCharacteristic = characteristicService.createCharacteristic(characteristic);
 
         assertEquals("New Characteristic", createdCharacteristic.getDescripcion());
+        verify(tableVersions).bump(CatalogTable.CHARACTERISTICS);
     }
 
     @Test
@@ -96,6 +123,7 @@ public class CharacteristicServiceTest {
         Characteristic updatedCharacteristic = characteristicService.updateCharacteristic(1, updatedDetails);
 
         assertEquals("Updated Characteristic", updatedCharacteristic.getDescripcion());
+        verify(tableVersions).bump(CatalogTable.CHARACTERISTICS);
     }
 
     @Test
@@ -108,6 +136,7 @@ public class CharacteristicServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             characteristicService.updateCharacteristic(1, updatedDetails);
         });
+        verifyNoInteractions(tableVersions);
     }
 
     @Test
@@ -118,10 +147,17 @@ public class CharacteristicServiceTest {
 
         when(characteristicRepository.findById(1)).thenReturn(Optional.of(characteristic));
         doNothing().when(characteristicRepository).delete(characteristic);
+        when(facetService.deleteFacetValue(FacetType.CHARACTERISTIC, 1)).thenReturn(2);
 
         characteristicService.deleteCharacteristic(1);
 
         verify(characteristicRepository, times(1)).delete(characteristic);
+        verify(tableVersions).bump(CatalogTable.CHARACTERISTICS);
+        InOrder inOrder = inOrder(facetService, characteristicRepository, transactionManager);
+        inOrder.verify(facetService).deleteFacetValue(FacetType.CHARACTERISTIC, 1);
+        inOrder.verify(characteristicRepository).delete(characteristic);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(facetService).facetValueDeleted(FacetType.CHARACTERISTIC, 1, 2);
     }
 
     @Test
@@ -131,5 +167,32 @@ public class CharacteristicServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             characteristicService.deleteCharacteristic(1);
         });
+        verifyNoInteractions(tableVersions);
+    }
+
+    @Test
+    void exportCharacteristicsStreamsRepositoryThroughExporter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(exporter.export(any(), eq(out))).thenReturn(3L);
+
+        assertEquals(3, characteristicService.exportCharacteristics(out));
+        verify(exporter).export(any(), eq(out));
+    }
+
+    @Test
+    void getCharacteristicsETagDoesNotQueryTheRepository() {
+        when(snapshotCache.currentETag(CatalogTable.CHARACTERISTICS)).thenReturn("\"characteristics-7\"");
+
+        assertEquals("\"characteristics-7\"", characteristicService.getCharacteristicsETag());
+        verifyNoInteractions(characteristicRepository);
+    }
+
+    @Test
+    void getAllCharacteristicsJsonDelegatesToSnapshotCache() {
+        JsonSnapshot snapshot = new JsonSnapshot(7, "\"characteristics-7\"", new byte[0]);
+        when(snapshotCache.get(eq(CatalogTable.CHARACTERISTICS), any())).thenReturn(snapshot);
+
+        assertSame(snapshot, characteristicService.getAllCharacteristicsJson());
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,8 @@ package es.iespuerto.mr.flora.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.Arrays;
 import java.util.List;
@@ -12,22 +14,213 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
+import es.iespuerto.mr.flora.dto.UserFavorites;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import es.iespuerto.mr.flora.repository.FavoriteRepository;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+import es.iespuerto.mr.flora.service.popularity.PlantPopularityIndex;
+import es.iespuerto.mr.flora.service.recommend.PlantCooccurrenceIndex;
+import es.iespuerto.mr.flora.service.search.PlantSuggestIndex;
 
 public class FavoriteServiceTest {
 
     @Mock
     private FavoriteRepository favoriteRepository;
 
+    @Mock
+    private PlantSuggestIndex suggestIndex;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlantPopularityIndex popularityIndex;
+
+    @Mock
+    private PlantCooccurrenceIndex cooccurrenceIndex;
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private FavoriteService favoriteService;
 
+    private BoundedTtlCache<Integer, int[]> favoritesCache;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        favoritesCache = new BoundedTtlCache<>("user-favorites", 100, Duration.ofMinutes(10));
+        favoriteService.setFavoritesCache(favoritesCache);
+        favoriteService.setTransactionManager(transactionManager);
+    }
+
+    @Test
+    void getUserFavoritesLoadsPlantIdsOnceAndServesThemFromCache() throws ResourceNotFoundException {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 5, 9));
+
+        UserFavorites first = favoriteService.getUserFavorites(1);
+        UserFavorites second = favoriteService.getUserFavorites(1);
+
+        assertEquals(1, first.getUserId());
+        assertArrayEquals(new int[] {2, 5, 9}, first.getPlantIds());
+        assertArrayEquals(new int[] {2, 5, 9}, second.getPlantIds());
+        verify(favoriteRepository, times(1)).findPlantIdsByUserId(1);
+        verify(favoriteRepository, never()).findAll();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUserFavoritesReturnsCopyOfCachedIds() throws ResourceNotFoundException {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 5));
+
+        favoriteService.getUserFavorites(1).getPlantIds()[0] = 99;
+
+        assertArrayEquals(new int[] {2, 5}, favoriteService.getUserFavorites(1).getPlantIds());
+    }
+
+    @Test
+    void getUserFavoritesReturnsEmptyArrayForUserWithoutFavorites() throws ResourceNotFoundException {
+        when(favoriteRepository.findPlantIdsByUserId(2)).thenReturn(List.of());
+        when(userRepository.existsById(2)).thenReturn(true);
+
+        UserFavorites favorites = favoriteService.getUserFavorites(2);
+
+        assertEquals(0, favorites.getPlantIds().length);
+        assertEquals(1, favoritesCache.size());
+    }
+
+    @Test
+    void getUserFavoritesThrowsExceptionIfUserDoesNotExist() {
+        when(favoriteRepository.findPlantIdsByUserId(9)).thenReturn(List.of());
+        when(userRepository.existsById(9)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> favoriteService.getUserFavorites(9));
+        assertEquals(0, favoritesCache.size());
+    }
+
+    @Test
+    void addFavoritePlantInvalidatesCachedFavoritesOfUser() throws ResourceNotFoundException {
+        Favorite favorite = new Favorite(1, 7);
+        favorite.setId(3);
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2), List.of(2, 7));
+        when(favoriteRepository.save(favorite)).thenReturn(favorite);
+
+        favoriteService.getUserFavorites(1);
+        favoriteService.addFavoritePlant(favorite);
+
+        assertArrayEquals(new int[] {2, 7}, favoriteService.getUserFavorites(1).getPlantIds());
+        verify(favoriteRepository, times(2)).findPlantIdsByUserId(1);
+    }
+
+    @Test
+    void deleteFavoritePlantInvalidatesCachedFavoritesOfUser() throws ResourceNotFoundException {
+        Favorite favorite = new Favorite(1, 7);
+        favorite.setId(3);
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 7), List.of(2));
+        when(favoriteRepository.findById(3)).thenReturn(Optional.of(favorite));
+        when(favoriteRepository.deleteFavoriteById(3)).thenReturn(1);
+
+        favoriteService.getUserFavorites(1);
+        favoriteService.deleteFavoritePlant(3);
+
+        assertArrayEquals(new int[] {2}, favoriteService.getUserFavorites(1).getPlantIds());
+    }
+
+    @Test
+    void deleteUserFavoritesDeletesRowsWithoutTouchingIndexes() {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 7));
+        when(favoriteRepository.deleteByUserId(1)).thenReturn(2);
+
+        assertEquals(List.of(2, 7), favoriteService.deleteUserFavorites(1));
+
+        verify(favoriteRepository).deleteByUserId(1);
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void deleteUserFavoritesFailsIfAFavoriteWasAddedConcurrently() {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 7));
+        when(favoriteRepository.deleteByUserId(1)).thenReturn(3);
+
+        assertThrows(ConcurrencyFailureException.class, () -> favoriteService.deleteUserFavorites(1));
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void deleteUserFavoritesWithoutFavoritesDeletesNothing() {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of());
+
+        assertEquals(List.of(), favoriteService.deleteUserFavorites(1));
+
+        verify(favoriteRepository, never()).deleteByUserId(anyInt());
+    }
+
+    @Test
+    void userFavoritesDeletedRemovesThemFromIndexesAndCache() throws ResourceNotFoundException {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 7), List.of());
+        when(userRepository.existsById(1)).thenReturn(true);
+
+        favoriteService.getUserFavorites(1);
+        favoriteService.userFavoritesDeleted(1, List.of(2, 7));
+
+        verify(suggestIndex).adjustFavorites(2, -1);
+        verify(suggestIndex).adjustFavorites(7, -1);
+        verify(popularityIndex).decrement(2);
+        verify(popularityIndex).decrement(7);
+        verify(cooccurrenceIndex).remove(1, 2);
+        verify(cooccurrenceIndex).remove(1, 7);
+        assertArrayEquals(new int[0], favoriteService.getUserFavorites(1).getPlantIds());
+    }
+
+    @Test
+    void deletePlantFavoritesDeletesRowsWithoutTouchingIndexes() {
+        when(favoriteRepository.findUserIdsByPlantId(7)).thenReturn(List.of(1, 3));
+        when(favoriteRepository.deleteByPlantId(7)).thenReturn(2);
+
+        assertEquals(List.of(1, 3), favoriteService.deletePlantFavorites(7));
+
+        verify(favoriteRepository).deleteByPlantId(7);
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void deletePlantFavoritesFailsIfAFavoriteWasAddedConcurrently() {
+        when(favoriteRepository.findUserIdsByPlantId(7)).thenReturn(List.of(1, 3));
+        when(favoriteRepository.deleteByPlantId(7)).thenReturn(3);
+
+        assertThrows(ConcurrencyFailureException.class, () -> favoriteService.deletePlantFavorites(7));
+    }
+
+    @Test
+    void plantFavoritesDeletedInvalidatesCachedFavoritesOfEveryUser() throws ResourceNotFoundException {
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 7), List.of(2));
+        when(favoriteRepository.findPlantIdsByUserId(3)).thenReturn(List.of(7), List.of());
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(userRepository.existsById(3)).thenReturn(true);
+
+        favoriteService.getUserFavorites(1);
+        favoriteService.getUserFavorites(3);
+        favoriteService.plantFavoritesDeleted(7, List.of(1, 3));
+
+        verify(suggestIndex).adjustFavorites(7, -2);
+        verify(popularityIndex).remove(7);
+        verify(cooccurrenceIndex).removePlant(7);
+        assertArrayEquals(new int[] {2}, favoriteService.getUserFavorites(1).getPlantIds());
+        assertArrayEquals(new int[0], favoriteService.getUserFavorites(3).getPlantIds());
     }
 
     @Test
@@ -69,7 +262,7 @@ public class FavoriteServiceTest {
 
     @Test
     void addFavoritePlantSavesAndReturnsFavorite() {
-        Favorite favorite = new Favorite();
+        Favorite favorite = new Favorite(1, 7);
         favorite.setId(1);
 
         when(favoriteRepository.save(favorite)).thenReturn(favorite);
@@ -77,19 +270,185 @@ public class FavoriteServiceTest {
         Favorite createdFavorite = favoriteService.addFavoritePlant(favorite);
 
         assertEquals(1, createdFavorite.getId());
+        verify(suggestIndex).adjustFavorites(7, 1);
+        verify(popularityIndex).increment(7);
+        verify(cooccurrenceIndex).add(1, 7);
+    }
+
+    @Test
+    void addFavoritePlantReturnsExistingFavoriteWithoutWriting() {
+        Favorite existing = new Favorite(1, 7);
+        existing.setId(4);
+
+        when(favoriteRepository.findByUserIdAndPlantId(1, 7)).thenReturn(Optional.of(existing));
+
+        Favorite result = favoriteService.addFavoritePlant(new Favorite(1, 7));
+
+        assertSame(existing, result);
+        verify(favoriteRepository, never()).save(any());
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void addFavoritePlantReturnsConcurrentlyStoredFavoriteOnDuplicate() {
+        Favorite favorite = new Favorite(1, 7);
+        Favorite stored = new Favorite(1, 7);
+        stored.setId(4);
+
+        when(favoriteRepository.findByUserIdAndPlantId(1, 7)).thenReturn(Optional.empty(), Optional.of(stored));
+        when(favoriteRepository.save(favorite)).thenThrow(new DataIntegrityViolationException("uk_favorite_plants"));
+
+        assertSame(stored, favoriteService.addFavoritePlant(favorite));
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void applyFavoriteBatchWritesOnlyTheDifferences() throws ResourceNotFoundException {
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(plantRepository.findExistingIds(any())).thenReturn(List.of(2, 3));
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 5, 9));
+        when(favoriteRepository.deleteByUserIdAndPlantId(1, 5)).thenReturn(1);
+
+        FavoriteBatchResult result = favoriteService.applyFavoriteBatch(new FavoriteBatch(1, List.of(2, 3, 3), List.of(5, 8)));
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getRemoved());
+        assertArrayEquals(new int[] {2, 3, 9}, result.getPlantIds());
+        verify(favoriteRepository).deleteByUserIdAndPlantId(1, 5);
+        verify(favoriteRepository, never()).deleteByUserIdAndPlantId(1, 8);
+        verify(favoriteRepository).saveAll(argThat(favorites -> {
+            List<Favorite> list = new ArrayList<>();
+            favorites.forEach(list::add);
+            return list.size() == 1 && list.get(0).getUserId() == 1 && list.get(0).getPlantId() == 3;
+        }));
+        verify(favoriteRepository).flush();
+        verify(transactionManager).commit(any());
+        verify(suggestIndex).adjustFavorites(3, 1);
+        verify(suggestIndex).adjustFavorites(5, -1);
+        verify(popularityIndex).increment(3);
+        verify(popularityIndex).decrement(5);
+        verify(cooccurrenceIndex).add(1, 3);
+        verify(cooccurrenceIndex).remove(1, 5);
+    }
+
+    @Test
+    void applyFavoriteBatchTwiceWritesNothingTheSecondTime() throws ResourceNotFoundException {
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(plantRepository.findExistingIds(any())).thenReturn(List.of(2));
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2));
+
+        FavoriteBatchResult result = favoriteService.applyFavoriteBatch(new FavoriteBatch(1, List.of(2), List.of(5)));
+
+        assertEquals(0, result.getAdded());
+        assertEquals(0, result.getRemoved());
+        assertArrayEquals(new int[] {2}, result.getPlantIds());
+        verify(favoriteRepository, never()).saveAll(any());
+        verify(favoriteRepository, never()).deleteByUserIdAndPlantId(anyInt(), anyInt());
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void applyFavoriteBatchRetriesOnceAfterAConcurrentInsert() throws ResourceNotFoundException {
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(plantRepository.findExistingIds(any())).thenReturn(List.of(2));
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(), List.of(2));
+        doThrow(new DataIntegrityViolationException("uk_favorite_plants")).when(favoriteRepository).flush();
+
+        FavoriteBatchResult result = favoriteService.applyFavoriteBatch(new FavoriteBatch(1, List.of(2), null));
+
+        assertEquals(0, result.getAdded());
+        assertArrayEquals(new int[] {2}, result.getPlantIds());
+        verify(transactionManager).rollback(any());
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void applyFavoriteBatchDoesNotCountFavoriteRemovedConcurrently() throws ResourceNotFoundException {
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2, 5));
+        when(favoriteRepository.deleteByUserIdAndPlantId(1, 5)).thenReturn(0);
+
+        FavoriteBatchResult result = favoriteService.applyFavoriteBatch(new FavoriteBatch(1, null, List.of(5)));
+
+        assertEquals(0, result.getRemoved());
+        assertArrayEquals(new int[] {2}, result.getPlantIds());
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
+    }
+
+    @Test
+    void applyFavoriteBatchInvalidatesCachedFavoritesOfUser() throws ResourceNotFoundException {
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(plantRepository.findExistingIds(any())).thenReturn(List.of(4));
+        when(favoriteRepository.findPlantIdsByUserId(1)).thenReturn(List.of(2), List.of(2), List.of(2, 4));
+
+        favoriteService.getUserFavorites(1);
+        favoriteService.applyFavoriteBatch(new FavoriteBatch(1, List.of(4), List.of()));
+
+        assertArrayEquals(new int[] {2, 4}, favoriteService.getUserFavorites(1).getPlantIds());
+    }
+
+    @Test
+    void applyFavoriteBatchThrowsExceptionIfUserDoesNotExist() {
+        when(userRepository.existsById(9)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> favoriteService.applyFavoriteBatch(new FavoriteBatch(9, List.of(1), List.of())));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void applyFavoriteBatchThrowsExceptionIfPlantDoesNotExist() {
+        when(userRepository.existsById(1)).thenReturn(true);
+        when(plantRepository.findExistingIds(any())).thenReturn(List.of(1));
+
+        ResourceNotFoundException e = assertThrows(ResourceNotFoundException.class,
+                () -> favoriteService.applyFavoriteBatch(new FavoriteBatch(1, List.of(1, 6), List.of())));
+        assertTrue(e.getMessage().endsWith(":: 6"));
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void applyFavoriteBatchRejectsInvalidBatches() {
+        List<Integer> tooMany = new ArrayList<>();
+        for (int i = 0; i <= FavoriteService.MAX_BATCH_SIZE; i++) {
+            tooMany.add(i);
+        }
+
+        assertThrows(InvalidRequestException.class,
+                () -> favoriteService.applyFavoriteBatch(new FavoriteBatch(1, tooMany, List.of())));
+        assertThrows(InvalidRequestException.class,
+                () -> favoriteService.applyFavoriteBatch(new FavoriteBatch(1, List.of(3), List.of(3))));
+        assertThrows(InvalidRequestException.class,
+                () -> favoriteService.applyFavoriteBatch(new FavoriteBatch(1, Arrays.asList(3, null), List.of())));
+        verifyNoInteractions(userRepository, transactionManager);
     }
 
     @Test
     void deleteFavoritePlantDeletesFavoriteIfExists() throws ResourceNotFoundException {
-        Favorite favorite = new Favorite();
+        Favorite favorite = new Favorite(1, 7);
         favorite.setId(1);
 
         when(favoriteRepository.findById(1)).thenReturn(Optional.of(favorite));
-        doNothing().when(favoriteRepository).delete(favorite);
+        when(favoriteRepository.deleteFavoriteById(1)).thenReturn(1);
 
         favoriteService.deleteFavoritePlant(1);
 
-        verify(favoriteRepository, times(1)).delete(favorite);
+        verify(favoriteRepository, times(1)).deleteFavoriteById(1);
+        verify(favoriteRepository, never()).delete(any());
+        verify(suggestIndex).adjustFavorites(7, -1);
+        verify(popularityIndex).decrement(7);
+        verify(cooccurrenceIndex).remove(1, 7);
+    }
+
+    @Test
+    void deleteFavoritePlantThrowsExceptionIfFavoriteWasDeletedConcurrently() {
+        Favorite favorite = new Favorite(1, 7);
+        favorite.setId(1);
+        when(favoriteRepository.findById(1)).thenReturn(Optional.of(favorite));
+        when(favoriteRepository.deleteFavoriteById(1)).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> favoriteService.deleteFavoritePlant(1));
+        verifyNoInteractions(suggestIndex, popularityIndex, cooccurrenceIndex);
     }
 
     @Test
@@ -3,31 +3,63 @@ package es.iespuerto.mr.flora.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Optional;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import es.iespuerto.mr.flora.dto.NearbyLocation;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Location;
 import es.iespuerto.mr.flora.repository.LocationRepository;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.FacetType;
+import es.iespuerto.mr.flora.service.geo.LocationGridIndex;
 
 public class LocationServiceTest {
 
     @Mock
     private LocationRepository locationRepository;
 
+    @Mock
+    private NdjsonExporter exporter;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @Mock
+    private JsonSnapshotCache snapshotCache;
+
+    @Mock
+    private PlantFacetServiceInterface facetService;
+
+    @Mock
+    private LocationGridIndex spatialIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private LocationService locationService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        locationService.setTransactionManager(transactionManager);
     }
 
     @Test
@@ -79,6 +111,47 @@ public class LocationServiceTest {
         Location createdLocation = locationService.createLocation(location);
 
         assertEquals("New Location", createdLocation.getName());
+        verify(spatialIndex).index(location);
+        verify(tableVersions).bump(CatalogTable.LOCATIONS);
+    }
+
+    @Test
+    void createLocationRejectsLatitudeWithoutLongitude() {
+        Location location = new Location("Half a position");
+        location.setLatitude(28.3);
+
+        assertThrows(InvalidRequestException.class, () -> locationService.createLocation(location));
+        verifyNoInteractions(locationRepository, spatialIndex, tableVersions);
+    }
+
+    @Test
+    void createLocationRejectsOutOfRangeCoordinates() {
+        Location location = new Location("Nowhere");
+        location.setLatitude(95.0);
+        location.setLongitude(-16.5);
+
+        assertThrows(InvalidRequestException.class, () -> locationService.createLocation(location));
+        verify(locationRepository, never()).save(any());
+    }
+
+    @Test
+    void createLocationRejectsBoundsWithoutPosition() {
+        Location location = new Location("Park");
+        location.setBounds("28.3 -16.7, 28.3 -16.5, 28.2 -16.5");
+
+        assertThrows(InvalidRequestException.class, () -> locationService.createLocation(location));
+        verify(locationRepository, never()).save(any());
+    }
+
+    @Test
+    void createLocationRejectsMalformedBounds() {
+        Location location = new Location("Park");
+        location.setLatitude(28.27);
+        location.setLongitude(-16.64);
+        location.setBounds("28.3 -16.7, 28.3");
+
+        assertThrows(InvalidRequestException.class, () -> locationService.createLocation(location));
+        verify(locationRepository, never()).save(any());
     }
 
     @Test
@@ -89,6 +162,8 @@ public class LocationServiceTest {
 
         Location updatedDetails = new Location();
         updatedDetails.setName("Updated Location");
+        updatedDetails.setLatitude(28.4874);
+        updatedDetails.setLongitude(-16.3159);
 
         when(locationRepository.findById(1)).thenReturn(Optional.of(existingLocation));
         when(locationRepository.save(existingLocation)).thenReturn(existingLocation);
@@ -96,6 +171,10 @@ public class LocationServiceTest {
         Location updatedLocation = locationService.updateLocation(1, updatedDetails);
 
         assertEquals("Updated Location", updatedLocation.getName());
+        assertEquals(28.4874, updatedLocation.getLatitude());
+        assertEquals(-16.3159, updatedLocation.getLongitude());
+        verify(spatialIndex).index(existingLocation);
+        verify(tableVersions).bump(CatalogTable.LOCATIONS);
     }
 
     @Test
@@ -108,6 +187,7 @@ public class LocationServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             locationService.updateLocation(1, updatedDetails);
         });
+        verifyNoInteractions(tableVersions);
     }
 
     @Test
@@ -118,10 +198,41 @@ public class LocationServiceTest {
 
         when(locationRepository.findById(1)).thenReturn(Optional.of(location));
         doNothing().when(locationRepository).delete(location);
+        when(facetService.deleteFacetValue(FacetType.LOCATION, 1)).thenReturn(2);
 
         locationService.deleteLocation(1);
 
         verify(locationRepository, times(1)).delete(location);
+        verify(tableVersions).bump(CatalogTable.LOCATIONS);
+        InOrder inOrder = inOrder(facetService, locationRepository, transactionManager);
+        inOrder.verify(facetService).deleteFacetValue(FacetType.LOCATION, 1);
+        inOrder.verify(locationRepository).delete(location);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(facetService).facetValueDeleted(FacetType.LOCATION, 1, 2);
+        verify(spatialIndex).remove(1);
+    }
+
+    @Test
+    void findNearestLocationsDelegatesToIndexWithClampedK() {
+        NearbyLocation teide = new NearbyLocation(1, "Teide", 28.2723, -16.6425, 0);
+
+        when(spatialIndex.nearest(28.27, -16.64, LocationService.MAX_NEAREST)).thenReturn(List.of(teide));
+
+        List<NearbyLocation> nearest = locationService.findNearestLocations(28.27, -16.64, 10_000);
+
+        assertEquals(1, nearest.size());
+        assertEquals("Teide", nearest.get(0).getName());
+        verifyNoInteractions(locationRepository);
+    }
+
+    @Test
+    void findLocationsWithinDelegatesToIndex() {
+        Location laguna = new Location("La Laguna");
+
+        when(spatialIndex.within(28.4, -16.4, 28.5, -16.2)).thenReturn(List.of(laguna));
+
+        assertEquals(List.of(laguna), locationService.findLocationsWithin(28.4, -16.4, 28.5, -16.2));
+        verifyNoInteractions(locationRepository);
     }
 
     @Test
@@ -131,5 +242,32 @@ public class LocationServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             locationService.deleteLocation(1);
         });
+        verifyNoInteractions(tableVersions);
+    }
+
+    @Test
+    void exportLocationsStreamsRepositoryThroughExporter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(exporter.export(any(), eq(out))).thenReturn(3L);
+
+        assertEquals(3, locationService.exportLocations(out));
+        verify(exporter).export(any(), eq(out));
+    }
+
+    @Test
+    void getLocationsETagDoesNotQueryTheRepository() {
+        when(snapshotCache.currentETag(CatalogTable.LOCATIONS)).thenReturn("\"locations-7\"");
+
+        assertEquals("\"locations-7\"", locationService.getLocationsETag());
+        verifyNoInteractions(locationRepository);
+    }
+
+    @Test
+    void getAllLocationsJsonDelegatesToSnapshotCache() {
+        JsonSnapshot snapshot = new JsonSnapshot(7, "\"locations-7\"", new byte[0]);
+        when(snapshotCache.get(eq(CatalogTable.LOCATIONS), any())).thenReturn(snapshot);
+
+        assertSame(snapshot, locationService.getAllLocationsJson());
     }
-}
\ No newline at end of file
+}
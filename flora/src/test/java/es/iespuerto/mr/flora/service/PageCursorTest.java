@@ -0,0 +1,26 @@
+package es.iespuerto.mr.flora.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+public class PageCursorTest {
+
+    @Test
+    void encodeAndDecodeRoundTrip() {
+        assertEquals(42, PageCursor.decode(PageCursor.encode(42)));
+    }
+
+    @Test
+    void decodeReturnsZeroForMissingCursor() {
+        assertEquals(0, PageCursor.decode(null));
+        assertEquals(0, PageCursor.decode(""));
+    }
+
+    @Test
+    void decodeRejectsMalformedCursor() {
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode("%%%"));
+        assertThrows(InvalidRequestException.class, () -> PageCursor.decode("MTI"));
+    }
+}
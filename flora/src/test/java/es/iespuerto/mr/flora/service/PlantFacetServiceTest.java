@@ -0,0 +1,207 @@
+package es.iespuerto.mr.flora.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import es.iespuerto.mr.flora.dto.FacetCount;
+import es.iespuerto.mr.flora.dto.PlantFacets;
+import es.iespuerto.mr.flora.dto.PlantFilterResult;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.model.PlantCategory;
+import es.iespuerto.mr.flora.model.PlantLocation;
+import es.iespuerto.mr.flora.repository.CategoryRepository;
+import es.iespuerto.mr.flora.repository.CharacteristicRepository;
+import es.iespuerto.mr.flora.repository.LocationRepository;
+import es.iespuerto.mr.flora.repository.PlantCategoryRepository;
+import es.iespuerto.mr.flora.repository.PlantCharacteristicRepository;
+import es.iespuerto.mr.flora.repository.PlantLocationRepository;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import es.iespuerto.mr.flora.service.facet.FacetType;
+import es.iespuerto.mr.flora.service.facet.PlantFacetIndex;
+
+public class PlantFacetServiceTest {
+
+    @Mock
+    private PlantRepository plantRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @Mock
+    private CharacteristicRepository characteristicRepository;
+
+    @Mock
+    private PlantCategoryRepository plantCategoryRepository;
+
+    @Mock
+    private PlantLocationRepository plantLocationRepository;
+
+    @Mock
+    private PlantCharacteristicRepository plantCharacteristicRepository;
+
+    @Mock
+    private PlantFacetIndex facetIndex;
+
+    @InjectMocks
+    private PlantFacetService facetService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        facetService.setTransactionManager(mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void getPlantFacetsReturnsSortedIds() throws ResourceNotFoundException {
+        when(plantRepository.existsById(7)).thenReturn(true);
+        when(plantCategoryRepository.findByPlantId(7)).thenReturn(List.of(new PlantCategory(7, 5), new PlantCategory(7, 2)));
+        when(plantLocationRepository.findByPlantId(7)).thenReturn(List.of(new PlantLocation(7, 1)));
+
+        PlantFacets facets = facetService.getPlantFacets(7);
+
+        assertEquals(7, facets.getPlantId());
+        assertEquals(List.of(2, 5), facets.getCategoryIds());
+        assertEquals(List.of(1), facets.getLocationIds());
+        assertEquals(List.of(), facets.getCharacteristicIds());
+    }
+
+    @Test
+    void getPlantFacetsThrowsExceptionIfPlantDoesNotExist() {
+        assertThrows(ResourceNotFoundException.class, () -> facetService.getPlantFacets(7));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void updatePlantFacetsWritesOnlyDifferencesAndUpdatesIndex() throws ResourceNotFoundException {
+        PlantCategory kept = new PlantCategory(7, 2);
+        PlantCategory stale = new PlantCategory(7, 3);
+        when(plantRepository.existsById(7)).thenReturn(true);
+        when(categoryRepository.existsById(anyInt())).thenReturn(true);
+        when(plantCategoryRepository.findByPlantId(7)).thenReturn(List.of(kept, stale));
+
+        facetService.updatePlantFacets(7, new PlantFacets(7, Arrays.asList(2, 5, 5), null, null));
+
+        verify(plantCategoryRepository).deleteAllInBatch(List.of(stale));
+        ArgumentCaptor<List<PlantCategory>> saved = ArgumentCaptor.forClass(List.class);
+        verify(plantCategoryRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(5, saved.getValue().get(0).getValueId());
+        verify(facetIndex).link(FacetType.CATEGORY, 5, 7);
+        verify(facetIndex).unlink(FacetType.CATEGORY, 3, 7);
+        verify(plantLocationRepository, never()).saveAll(any());
+        verify(plantCharacteristicRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void updatePlantFacetsRejectsUnknownValuesBeforeWriting() {
+        when(plantRepository.existsById(7)).thenReturn(true);
+        when(locationRepository.existsById(1)).thenReturn(true);
+
+        ResourceNotFoundException error = assertThrows(ResourceNotFoundException.class,
+                () -> facetService.updatePlantFacets(7, new PlantFacets(7, null, List.of(1, 9), null)));
+
+        assertEquals("Location not found for this id :: 9", error.getMessage());
+        verifyNoInteractions(plantLocationRepository, facetIndex);
+    }
+
+    @Test
+    void updatePlantFacetsThrowsExceptionIfPlantDoesNotExist() {
+        assertThrows(ResourceNotFoundException.class,
+                () -> facetService.updatePlantFacets(7, new PlantFacets(7, List.of(1), null, null)));
+        verifyNoInteractions(categoryRepository, plantCategoryRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filterPlantsLoadsOnlyThePageInIdOrder() {
+        PlantFacetIndex.Hits hits = hits(3, new int[] {4, 9}, true, List.of(new FacetCount(5, 3)));
+        when(facetIndex.filter(any(Map.class), eq(0), eq(PlantFacetService.MAX_FILTER_RESULTS))).thenReturn(hits);
+        when(plantRepository.findAllById(List.of(4, 9))).thenReturn(new ArrayList<>(List.of(plant(9, "Drago"), plant(4, "Tabaiba"))));
+
+        PlantFilterResult result = facetService.filterPlants(List.of(5), null, null, null, 1000);
+
+        assertEquals(3, result.getTotal());
+        assertEquals(4, result.getItems().get(0).getId());
+        assertEquals("Drago", result.getItems().get(1).getCommonName());
+        assertEquals(PageCursor.encode(9), result.getNextCursor());
+        assertEquals(5, result.getCategories().get(0).getId());
+        ArgumentCaptor<Map<FacetType, List<Integer>>> selection = ArgumentCaptor.forClass(Map.class);
+        verify(facetIndex).filter(selection.capture(), eq(0), eq(PlantFacetService.MAX_FILTER_RESULTS));
+        assertEquals(List.of(5), selection.getValue().get(FacetType.CATEGORY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filterPlantsWithoutMatchesDoesNotQueryPlants() {
+        PlantFacetIndex.Hits hits = hits(0, new int[0], false, List.of());
+        when(facetIndex.filter(any(Map.class), eq(0), eq(20))).thenReturn(hits);
+
+        PlantFilterResult result = facetService.filterPlants(List.of(5), null, null, "", 20);
+
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
+        verify(plantRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void deletePlantFacetsDeletesRowsWithoutTouchingTheIndex() {
+        facetService.deletePlantFacets(7);
+
+        verify(plantCategoryRepository).deleteByPlantId(7);
+        verify(plantLocationRepository).deleteByPlantId(7);
+        verify(plantCharacteristicRepository).deleteByPlantId(7);
+        verifyNoInteractions(facetIndex);
+    }
+
+    @Test
+    void deleteFacetValueDeletesRowsOfThatFacetOnly() {
+        when(plantLocationRepository.deleteByValueId(1)).thenReturn(3);
+
+        assertEquals(3, facetService.deleteFacetValue(FacetType.LOCATION, 1));
+
+        verify(plantLocationRepository).deleteByValueId(1);
+        verifyNoInteractions(plantCategoryRepository, plantCharacteristicRepository, facetIndex);
+    }
+
+    @Test
+    void facetValueDeletedRemovesValueFromIndex() {
+        facetService.facetValueDeleted(FacetType.LOCATION, 1, 3);
+
+        verify(facetIndex).removeValue(FacetType.LOCATION, 1);
+        verifyNoInteractions(plantLocationRepository);
+    }
+
+    private static Plant plant(int id, String name) {
+        Plant plant = new Plant(name, name + " sp.");
+        plant.setId(id);
+        return plant;
+    }
+
+    private static PlantFacetIndex.Hits hits(long total, int[] ids, boolean more, List<FacetCount> categories) {
+        PlantFacetIndex.Hits hits = mock(PlantFacetIndex.Hits.class);
+        when(hits.getTotal()).thenReturn(total);
+        when(hits.getPlantIds()).thenReturn(ids);
+        when(hits.hasMore()).thenReturn(more);
+        when(hits.getCounts(FacetType.CATEGORY)).thenReturn(categories);
+        when(hits.getCounts(FacetType.LOCATION)).thenReturn(List.of());
+        when(hits.getCounts(FacetType.CHARACTERISTIC)).thenReturn(List.of());
+        return hits;
+    }
+}
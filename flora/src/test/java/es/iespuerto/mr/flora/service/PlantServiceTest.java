@@ -3,31 +3,102 @@ package es.iespuerto.mr.flora.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.dto.PlantPage;
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.dto.PopularPlant;
+import es.iespuerto.mr.flora.dto.RelatedPlant;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Plant;
 import es.iespuerto.mr.flora.repository.PlantRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+import es.iespuerto.mr.flora.service.etag.CatalogTable;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshot;
+import es.iespuerto.mr.flora.service.etag.JsonSnapshotCache;
+import es.iespuerto.mr.flora.service.etag.TableVersions;
+import es.iespuerto.mr.flora.service.export.NdjsonExporter;
+import es.iespuerto.mr.flora.service.facet.PlantFacetIndex;
+import es.iespuerto.mr.flora.service.importer.PlantImportFormat;
+import es.iespuerto.mr.flora.service.importer.PlantImporter;
+import es.iespuerto.mr.flora.service.popularity.PlantPopularityIndex;
+import es.iespuerto.mr.flora.service.recommend.PlantCooccurrenceIndex;
+import es.iespuerto.mr.flora.service.search.PlantSearchIndex;
+import es.iespuerto.mr.flora.service.search.PlantSuggestIndex;
 
 public class PlantServiceTest {
 
     @Mock
     private PlantRepository plantRepository;
 
+    @Mock
+    private NdjsonExporter exporter;
+
+    @Mock
+    private TableVersions tableVersions;
+
+    @Mock
+    private JsonSnapshotCache snapshotCache;
+
+    @Mock
+    private PlantImporter importer;
+
+    @Spy
+    private BoundedTtlCache<Integer, Plant> plantCache = new BoundedTtlCache<>("plants", 100, Duration.ofMinutes(10));
+
+    @Mock
+    private PlantSearchIndex searchIndex;
+
+    @Mock
+    private PlantSuggestIndex suggestIndex;
+
+    @Mock
+    private PlantFacetIndex facetIndex;
+
+    @Mock
+    private PlantFacetServiceInterface facetService;
+
+    @Mock
+    private PlantPopularityIndex popularityIndex;
+
+    @Mock
+    private PlantCooccurrenceIndex cooccurrenceIndex;
+
+    @Mock
+    private FavoriteServiceInterface favoriteService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private PlantService plantService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        plantService.setTransactionManager(transactionManager);
     }
 
     @Test
@@ -46,6 +117,55 @@ public class PlantServiceTest {
         assertEquals("Plant 2", plants.get(1).getCommonName());
     }
 
+    @Test
+    void getPlantsPageReturnsCursorWhenMorePlantsExist() {
+        Plant plant1 = new Plant();
+        plant1.setId(1);
+        Plant plant2 = new Plant();
+        plant2.setId(2);
+        Plant plant3 = new Plant();
+        plant3.setId(3);
+
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(plant1, plant2, plant3));
+
+        PlantPage page = plantService.getPlantsPage(null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(2, page.getItems().get(1).getId());
+        assertEquals(2, PageCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getPlantsPageStartsAfterCursorAndEndsWithoutNextCursor() {
+        Plant plant = new Plant();
+        plant.setId(3);
+
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(2, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(plant));
+
+        PlantPage page = plantService.getPlantsPage(PageCursor.encode(2), 2);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPlantsPageClampsLimit() {
+        when(plantRepository.findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, PlantService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Arrays.asList());
+
+        PlantPage page = plantService.getPlantsPage(null, 10_000);
+
+        assertTrue(page.getItems().isEmpty());
+        verify(plantRepository).findByIdGreaterThanOrderByIdAsc(0, PageRequest.of(0, PlantService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void getPlantsPageRejectsInvalidCursor() {
+        assertThrows(InvalidRequestException.class, () -> plantService.getPlantsPage("not-a-cursor", 10));
+    }
+
     @Test
     void getPlantByIdReturnsPlantIfExists() throws ResourceNotFoundException {
         Plant plant = new Plant();
@@ -60,6 +180,23 @@ public class PlantServiceTest {
         assertEquals("Test Plant", foundPlant.getCommonName());
     }
 
+    @Test
+    void getPlantByIdReadsThroughCache() throws ResourceNotFoundException {
+        Plant plant = new Plant("Test Plant", "Plantae");
+        plant.setId(1);
+
+        when(plantRepository.findById(1)).thenReturn(Optional.of(plant));
+
+        Plant first = plantService.getPlantById(1);
+        first.setCommonName("Changed by caller");
+        Plant second = plantService.getPlantById(1);
+
+        assertEquals("Test Plant", second.getCommonName());
+        verify(plantRepository, times(1)).findById(1);
+        assertEquals(1, plantCache.stats().getHits());
+        assertEquals(1, plantCache.stats().getMisses());
+    }
+
     @Test
     void getPlantByIdThrowsExceptionIfPlantDoesNotExist() {
         when(plantRepository.findById(1)).thenReturn(Optional.empty());
@@ -74,11 +211,100 @@ public class PlantServiceTest {
         Plant plant = new Plant();
         plant.setCommonName("New Plant");
 
+        plant.setId(1);
         when(plantRepository.save(plant)).thenReturn(plant);
 
         Plant createdPlant = plantService.createPlant(plant);
 
         assertEquals("New Plant", createdPlant.getCommonName());
+        verify(searchIndex).index(plant);
+        verify(suggestIndex).index(plant);
+        verify(facetIndex).addPlant(1);
+        verify(tableVersions).bump(CatalogTable.PLANTS);
+    }
+
+    @Test
+    void searchPlantsDelegatesToIndexWithClampedLimit() {
+        PlantSummary summary = new PlantSummary(2, "Tulipán", "Tulipa spp.");
+
+        when(searchIndex.search("tulipan", PlantService.MAX_SEARCH_RESULTS)).thenReturn(List.of(summary));
+
+        List<PlantSummary> results = plantService.searchPlants("tulipan", 1000);
+
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getId());
+    }
+
+    @Test
+    void suggestPlantsDelegatesToIndexWithClampedLimit() {
+        PlantSummary summary = new PlantSummary(3, "Drago", "Dracaena draco");
+
+        when(suggestIndex.suggest("dra", PlantSuggestIndex.TOP_K)).thenReturn(List.of(summary));
+
+        List<PlantSummary> results = plantService.suggestPlants("dra", 1000);
+
+        assertEquals(1, results.size());
+        assertEquals(3, results.get(0).getId());
+    }
+
+    @Test
+    void getPopularPlantsResolvesNamesAndClampsLimit() {
+        Plant drago = new Plant("Drago", "Dracaena draco");
+        drago.setId(3);
+        Plant tajinaste = new Plant("Tajinaste", "Echium wildpretii");
+        tajinaste.setId(5);
+
+        when(popularityIndex.top(PlantPopularityIndex.MAX_LIMIT)).thenReturn(List.of(
+                new PlantPopularityIndex.Ranked(5, 8), new PlantPopularityIndex.Ranked(3, 2)));
+        when(plantRepository.findById(5)).thenReturn(Optional.of(tajinaste));
+        when(plantRepository.findById(3)).thenReturn(Optional.of(drago));
+
+        List<PopularPlant> popular = plantService.getPopularPlants(1000);
+
+        assertEquals(2, popular.size());
+        assertEquals(5, popular.get(0).getId());
+        assertEquals("Tajinaste", popular.get(0).getCommonName());
+        assertEquals(8, popular.get(0).getFavorites());
+        assertEquals(3, popular.get(1).getId());
+        assertEquals(2, popular.get(1).getFavorites());
+    }
+
+    @Test
+    void getPopularPlantsSkipsPlantsThatNoLongerExist() {
+        when(popularityIndex.top(1)).thenReturn(List.of(new PlantPopularityIndex.Ranked(9, 4)));
+        when(plantRepository.findById(9)).thenReturn(Optional.empty());
+
+        assertTrue(plantService.getPopularPlants(0).isEmpty());
+    }
+
+    @Test
+    void getRelatedPlantsResolvesNamesAndClampsLimit() throws ResourceNotFoundException {
+        Plant drago = new Plant("Drago", "Dracaena draco");
+        drago.setId(3);
+        Plant tajinaste = new Plant("Tajinaste", "Echium wildpretii");
+        tajinaste.setId(5);
+
+        when(plantRepository.findById(3)).thenReturn(Optional.of(drago));
+        when(plantRepository.findById(5)).thenReturn(Optional.of(tajinaste));
+        when(plantRepository.findById(8)).thenReturn(Optional.empty());
+        when(cooccurrenceIndex.related(3, PlantCooccurrenceIndex.MAX_RELATED)).thenReturn(List.of(
+                new PlantCooccurrenceIndex.Related(5, 4, 0.8), new PlantCooccurrenceIndex.Related(8, 1, 0.1)));
+
+        List<RelatedPlant> related = plantService.getRelatedPlants(3, 1000);
+
+        assertEquals(1, related.size());
+        assertEquals(5, related.get(0).getId());
+        assertEquals("Tajinaste", related.get(0).getCommonName());
+        assertEquals(4, related.get(0).getSharedUsers());
+        assertEquals(0.8, related.get(0).getScore());
+    }
+
+    @Test
+    void getRelatedPlantsThrowsExceptionIfPlantDoesNotExist() {
+        when(plantRepository.findById(9)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> plantService.getRelatedPlants(9, 10));
+        verifyNoInteractions(cooccurrenceIndex);
     }
 
     @Test
@@ -96,6 +322,10 @@ public class PlantServiceTest {
         Plant updatedPlant = plantService.updatePlant(1, updatedDetails);
 
         assertEquals("Updated Plant", updatedPlant.getCommonName());
+        verify(plantCache).invalidate(1);
+        verify(searchIndex).index(existingPlant);
+        verify(suggestIndex).index(existingPlant);
+        verify(tableVersions).bump(CatalogTable.PLANTS);
     }
 
     @Test
@@ -108,6 +338,7 @@ public class PlantServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             plantService.updatePlant(1, updatedDetails);
         });
+        verifyNoInteractions(tableVersions);
     }
 
     @Test
@@ -122,6 +353,58 @@ public class PlantServiceTest {
         plantService.deletePlant(1);
 
         verify(plantRepository, times(1)).delete(plant);
+        verify(plantCache).invalidate(1);
+        verify(searchIndex).remove(1);
+        verify(suggestIndex).remove(1);
+        verify(facetService).deletePlantFacets(1);
+        verify(facetIndex).removePlant(1);
+        verify(tableVersions).bump(CatalogTable.PLANTS);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void deletePlantDeletesItsFavoritesThroughFavoriteServiceFirst() throws ResourceNotFoundException {
+        Plant plant = new Plant();
+        plant.setId(1);
+        when(plantRepository.findById(1)).thenReturn(Optional.of(plant));
+        when(favoriteService.deletePlantFavorites(1)).thenReturn(List.of(4, 5));
+
+        plantService.deletePlant(1);
+
+        InOrder inOrder = inOrder(favoriteService, plantRepository, transactionManager);
+        inOrder.verify(favoriteService).deletePlantFavorites(1);
+        inOrder.verify(plantRepository).delete(plant);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(favoriteService).plantFavoritesDeleted(1, List.of(4, 5));
+    }
+
+    @Test
+    void deletePlantRetriesOnceIfAFavoriteWasAddedConcurrently() throws ResourceNotFoundException {
+        Plant plant = new Plant();
+        plant.setId(1);
+        when(plantRepository.findById(1)).thenReturn(Optional.of(plant));
+        when(favoriteService.deletePlantFavorites(1)).thenReturn(List.of(4), List.of(4, 5));
+        doThrow(new DataIntegrityViolationException("fk")).doNothing().when(plantRepository).flush();
+
+        plantService.deletePlant(1);
+
+        verify(favoriteService, times(2)).deletePlantFavorites(1);
+        verify(transactionManager).rollback(any());
+        verify(favoriteService).plantFavoritesDeleted(1, List.of(4, 5));
+        verify(favoriteService, never()).plantFavoritesDeleted(1, List.of(4));
+    }
+
+    @Test
+    void deletePlantDoesNotTouchIndexesIfTheTransactionFails() {
+        Plant plant = new Plant();
+        plant.setId(1);
+        when(plantRepository.findById(1)).thenReturn(Optional.of(plant));
+        doThrow(new DataIntegrityViolationException("fk")).when(plantRepository).flush();
+
+        assertThrows(DataIntegrityViolationException.class, () -> plantService.deletePlant(1));
+
+        verify(favoriteService, never()).plantFavoritesDeleted(anyInt(), any());
+        verifyNoInteractions(facetIndex, searchIndex, suggestIndex, tableVersions);
     }
 
     @Test
@@ -131,5 +414,53 @@ public class PlantServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             plantService.deletePlant(1);
         });
+        verifyNoInteractions(tableVersions);
+        verifyNoInteractions(favoriteService);
+    }
+
+    @Test
+    void exportPlantsStreamsRepositoryThroughExporter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        when(exporter.export(any(), eq(out))).thenReturn(3L);
+
+        assertEquals(3, plantService.exportPlants(out));
+        verify(exporter).export(any(), eq(out));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importPlantsIndexesEveryCommittedBatch() throws IOException {
+        InputStream in = new ByteArrayInputStream(new byte[0]);
+        PlantImportReport report = new PlantImportReport();
+        Plant plant = new Plant("Drago", "Dracaena draco");
+        plant.setId(101);
+        ArgumentCaptor<Consumer<List<Plant>>> onBatchSaved = ArgumentCaptor.forClass(Consumer.class);
+
+        when(importer.importPlants(eq(in), eq(PlantImportFormat.CSV), eq(200), onBatchSaved.capture())).thenReturn(report);
+
+        assertSame(report, plantService.importPlants(in, PlantImportFormat.CSV, 200));
+
+        onBatchSaved.getValue().accept(List.of(plant));
+        verify(searchIndex).index(plant);
+        verify(suggestIndex).index(plant);
+        verify(facetIndex).addPlant(101);
+        verify(tableVersions).bump(CatalogTable.PLANTS);
+    }
+
+    @Test
+    void getPlantsETagDoesNotQueryTheRepository() {
+        when(snapshotCache.currentETag(CatalogTable.PLANTS)).thenReturn("\"plants-7\"");
+
+        assertEquals("\"plants-7\"", plantService.getPlantsETag());
+        verifyNoInteractions(plantRepository);
+    }
+
+    @Test
+    void getAllPlantsJsonDelegatesToSnapshotCache() {
+        JsonSnapshot snapshot = new JsonSnapshot(7, "\"plants-7\"", new byte[0]);
+        when(snapshotCache.get(eq(CatalogTable.PLANTS), any())).thenReturn(snapshot);
+
+        assertSame(snapshot, plantService.getAllPlantsJson());
     }
-}
\ No newline at end of file
+}
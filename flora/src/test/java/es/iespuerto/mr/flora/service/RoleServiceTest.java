@@ -12,16 +12,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UserDetails;
 
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Role;
 import es.iespuerto.mr.flora.repository.RoleRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
 
 public class RoleServiceTest {
 
     @Mock
     private RoleRepository roleRepository;
 
+    @Mock
+    private BoundedTtlCache<String, UserDetails> userDetailsCache;
+
     @InjectMocks
     private RoleService roleService;
 
@@ -77,6 +82,21 @@ public class RoleServiceTest {
         assertEquals("Updated Role", updatedRole.getName());
     }
 
+    @Test
+    void updateRolClearsUserDetailsCache() throws ResourceNotFoundException {
+        Role existingRole = new Role();
+        existingRole.setId(1);
+        Role updatedDetails = new Role();
+        updatedDetails.setName("ROLE_EDITOR");
+
+        when(roleRepository.findById(1)).thenReturn(Optional.of(existingRole));
+        when(roleRepository.save(existingRole)).thenReturn(existingRole);
+
+        roleService.updateRol(1, updatedDetails);
+
+        verify(userDetailsCache).invalidateAll();
+    }
+
     @Test
     void updateRolThrowsExceptionIfRoleDoesNotExist() {
         Role updatedDetails = new Role();
@@ -103,6 +123,18 @@ public class RoleServiceTest {
         verify(roleRepository, times(1)).delete(role);
     }
 
+    @Test
+    void deleteRolClearsUserDetailsCache() throws ResourceNotFoundException {
+        Role role = new Role();
+        role.setId(1);
+
+        when(roleRepository.findById(1)).thenReturn(Optional.of(role));
+
+        roleService.deleteRol(1);
+
+        verify(userDetailsCache).invalidateAll();
+    }
+
     @Test
     void deleteRolThrowsExceptionIfRoleDoesNotExist() {
         when(roleRepository.findById(1)).thenReturn(Optional.empty());
@@ -110,6 +142,7 @@ public class RoleServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             roleService.deleteRol(1);
         });
+        verifyNoInteractions(userDetailsCache);
     }
 
     @Test
@@ -0,0 +1,158 @@
+package es.iespuerto.mr.flora.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.exception.TooManyRequestsException;
+import es.iespuerto.mr.flora.model.Sighting;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
+import es.iespuerto.mr.flora.service.facet.PlantFacetIndex;
+import es.iespuerto.mr.flora.service.geo.LocationGridIndex;
+import es.iespuerto.mr.flora.service.sighting.SightingIngestor;
+
+public class SightingServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-05-01T10:00:00Z");
+
+    @Mock
+    private SightingIngestor ingestor;
+
+    @Mock
+    private PlantFacetIndex plantIndex;
+
+    @Mock
+    private LocationGridIndex locationIndex;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private SightingService sightingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        sightingService.setUserIdCache(new BoundedTtlCache<>("user-ids", 100, Duration.ofMinutes(10)));
+        sightingService.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        sightingService.setRetryAfterSeconds(2);
+        when(userRepository.findIdByName("Pedro")).thenReturn(Optional.of(1));
+        when(plantIndex.containsPlant(2)).thenReturn(true);
+        when(locationIndex.contains(3)).thenReturn(true);
+    }
+
+    @Test
+    void recordSightingQueuesSightingAndFillsObservationTime() throws ResourceNotFoundException {
+        Sighting sighting = new Sighting(0, 2, null);
+        sighting.setId(99);
+        when(ingestor.offer(sighting)).thenReturn(true);
+
+        Sighting recorded = sightingService.recordSighting("Pedro", sighting);
+
+        assertEquals(NOW, recorded.getObservedAt());
+        assertEquals(0, recorded.getId());
+        assertEquals(1, recorded.getUserId());
+        verify(ingestor).offer(sighting);
+    }
+
+    @Test
+    void recordSightingKeepsGivenObservationTime() throws ResourceNotFoundException {
+        Instant observedAt = NOW.minusSeconds(3600);
+        Sighting sighting = new Sighting(0, 2, observedAt);
+        sighting.setLocationId(3);
+        sighting.setLatitude(28.27);
+        sighting.setLongitude(-16.64);
+        when(ingestor.offer(sighting)).thenReturn(true);
+
+        assertEquals(observedAt, sightingService.recordSighting("Pedro", sighting).getObservedAt());
+    }
+
+    @Test
+    void recordSightingAttributesSightingToAuthenticatedUser() throws ResourceNotFoundException {
+        when(ingestor.offer(any())).thenReturn(true);
+
+        Sighting first = sightingService.recordSighting("Pedro", new Sighting(7, 2, null));
+        Sighting second = sightingService.recordSighting("Pedro", new Sighting(8, 2, null));
+
+        assertEquals(1, first.getUserId());
+        assertEquals(1, second.getUserId());
+        verify(userRepository, times(1)).findIdByName("Pedro");
+    }
+
+    @Test
+    void recordSightingRejectsUnknownUser() {
+        when(userRepository.findIdByName("Ghost")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> sightingService.recordSighting("Ghost", new Sighting(0, 2, null)));
+        verifyNoInteractions(ingestor);
+    }
+
+    @Test
+    void recordSightingRejectsUnknownPlantAndLocation() {
+        Sighting unknownLocation = new Sighting(0, 2, null);
+        unknownLocation.setLocationId(4);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> sightingService.recordSighting("Pedro", new Sighting(0, 5, null)));
+        assertThrows(ResourceNotFoundException.class,
+                () -> sightingService.recordSighting("Pedro", unknownLocation));
+        verifyNoInteractions(ingestor);
+    }
+
+    @Test
+    void recordSightingThrowsTooManyRequestsWhenBufferIsFull() {
+        Sighting sighting = new Sighting(0, 2, null);
+        when(ingestor.offer(sighting)).thenReturn(false);
+
+        TooManyRequestsException error = assertThrows(TooManyRequestsException.class,
+                () -> sightingService.recordSighting("Pedro", sighting));
+
+        assertEquals(2, error.getRetryAfterSeconds());
+    }
+
+    @Test
+    void recordSightingRejectsMissingIds() {
+        assertThrows(InvalidRequestException.class, () -> sightingService.recordSighting("Pedro", new Sighting(0, 0, null)));
+
+        Sighting badLocation = new Sighting(0, 2, null);
+        badLocation.setLocationId(-1);
+        assertThrows(InvalidRequestException.class, () -> sightingService.recordSighting("Pedro", badLocation));
+        verifyNoInteractions(ingestor);
+    }
+
+    @Test
+    void recordSightingRejectsInvalidPosition() {
+        Sighting halfPosition = new Sighting(0, 2, null);
+        halfPosition.setLatitude(28.27);
+        Sighting outOfRange = new Sighting(0, 2, null);
+        outOfRange.setLatitude(28.27);
+        outOfRange.setLongitude(-200.0);
+
+        assertThrows(InvalidRequestException.class, () -> sightingService.recordSighting("Pedro", halfPosition));
+        assertThrows(InvalidRequestException.class, () -> sightingService.recordSighting("Pedro", outOfRange));
+        verifyNoInteractions(ingestor);
+    }
+
+    @Test
+    void recordSightingRejectsObservationTimeInTheFuture() {
+        Sighting sighting = new Sighting(0, 2, NOW.plus(SightingService.MAX_CLOCK_SKEW).plusSeconds(1));
+
+        assertThrows(InvalidRequestException.class, () -> sightingService.recordSighting("Pedro", sighting));
+        verifyNoInteractions(ingestor);
+    }
+}
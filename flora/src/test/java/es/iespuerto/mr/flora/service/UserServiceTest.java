@@ -9,46 +9,66 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.service.cache.BoundedTtlCache;
 
 public class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BoundedTtlCache<String, UserDetails> userDetailsCache;
+
+    @Mock
+    private BoundedTtlCache<String, Integer> userIdCache;
+
+    @Mock
+    private FavoriteServiceInterface favoriteService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService.setUserDetailsCache(userDetailsCache);
+        userService.setUserIdCache(userIdCache);
+        userService.setFavoriteService(favoriteService);
+        userService.setTransactionManager(transactionManager);
     }
 
     @Test
     void getAllUsersReturnsAllUsers() {
-        User user1 = new User();
-        user1.setId(1);
-        User user2 = new User();
-        user2.setId(2);
-
-        when(userRepository.findAll()).thenReturn(Arrays.asList(user1, user2));
+        when(userRepository.findAllSummaries()).thenReturn(Arrays.asList(
+                new UserSummary(1, "Manuel", "ROLE_ADMIN"), new UserSummary(2, "Pedro", "ROLE_USER")));
 
-        List<User> users = userService.getAllUsers();
+        List<UserSummary> users = userService.getAllUsers();
 
         assertEquals(2, users.size());
         assertEquals(1, users.get(0).getId());
         assertEquals(2, users.get(1).getId());
+        assertEquals("ROLE_USER", users.get(1).getRoleName());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
     void getAllUsersThrowsExceptionOnError() {
-        when(userRepository.findAll()).thenThrow(new RuntimeException("Error"));
+        when(userRepository.findAllSummaries()).thenThrow(new RuntimeException("Error"));
 
         assertThrows(RuntimeException.class, () -> {
             userService.getAllUsers();
@@ -116,6 +136,23 @@ public class UserServiceTest {
         assertEquals(1, updatedUser.getId());
     }
 
+    @Test
+    void updateUserInvalidatesOldAndNewNameInUserDetailsCache() throws ResourceNotFoundException {
+        User existingUser = new User("Pedro", "hash");
+        existingUser.setId(2);
+        User updatedDetails = new User("Pablo", null);
+
+        when(userRepository.findById(2)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+        userService.updateUser(2, updatedDetails);
+
+        verify(userDetailsCache).invalidate("Pedro");
+        verify(userDetailsCache).invalidate("Pablo");
+        verify(userIdCache).invalidate("Pedro");
+        verify(userIdCache).invalidate("Pablo");
+    }
+
     @Test
     void updateUserThrowsResourceNotFoundExceptionIfUserNotFound() {
         User updatedDetails = new User();
@@ -141,6 +178,51 @@ public class UserServiceTest {
         verify(userRepository, times(1)).delete(user);
     }
 
+    @Test
+    void deleteUserInvalidatesUserDetailsCache() throws ResourceNotFoundException {
+        User user = new User("Pedro", "hash");
+        user.setId(2);
+
+        when(userRepository.findById(2)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(2);
+
+        verify(userDetailsCache).invalidate("Pedro");
+        verify(userIdCache).invalidate("Pedro");
+    }
+
+    @Test
+    void deleteUserDeletesItsFavoritesThroughFavoriteServiceFirst() throws ResourceNotFoundException {
+        User user = new User("Pedro", "hash");
+        user.setId(2);
+        when(userRepository.findById(2)).thenReturn(Optional.of(user));
+        when(favoriteService.deleteUserFavorites(2)).thenReturn(List.of(5, 6));
+
+        userService.deleteUser(2);
+
+        InOrder inOrder = inOrder(favoriteService, userRepository, transactionManager);
+        inOrder.verify(favoriteService).deleteUserFavorites(2);
+        inOrder.verify(userRepository).delete(user);
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(favoriteService).userFavoritesDeleted(2, List.of(5, 6));
+    }
+
+    @Test
+    void deleteUserRetriesOnceIfAFavoriteWasAddedConcurrently() throws ResourceNotFoundException {
+        User user = new User("Pedro", "hash");
+        user.setId(2);
+        when(userRepository.findById(2)).thenReturn(Optional.of(user));
+        when(favoriteService.deleteUserFavorites(2)).thenReturn(List.of(5), List.of(5, 6));
+        doThrow(new DataIntegrityViolationException("fk")).doNothing().when(userRepository).flush();
+
+        userService.deleteUser(2);
+
+        verify(favoriteService, times(2)).deleteUserFavorites(2);
+        verify(transactionManager).rollback(any());
+        verify(favoriteService).userFavoritesDeleted(2, List.of(5, 6));
+        verify(favoriteService, never()).userFavoritesDeleted(2, List.of(5));
+    }
+
     @Test
     void deleteUserThrowsResourceNotFoundExceptionIfUserNotFound() {
         when(userRepository.findById(1)).thenReturn(Optional.empty());
@@ -148,5 +230,6 @@ public class UserServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> {
             userService.deleteUser(1);
         });
+        verifyNoInteractions(favoriteService);
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BoundedTtlCacheTest {
+
+    private AtomicLong clock;
+    private AtomicInteger loads;
+    private BoundedTtlCache<Integer, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        loads = new AtomicInteger();
+        cache = new BoundedTtlCache<>("test", 2, Duration.ofSeconds(10), clock::get);
+    }
+
+    @Test
+    void getLoadsOnceAndThenHits() {
+        assertEquals("value-1", cache.get(1, this::load));
+        assertEquals("value-1", cache.get(1, this::load));
+
+        assertEquals(1, loads.get());
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0.5, stats.getHitRatio());
+    }
+
+    @Test
+    void getDoesNotCacheNullValues() {
+        assertNull(cache.get(1, key -> null));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expiredEntriesAreReloaded() {
+        cache.get(1, this::load);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void frequentlyReadEntrySurvivesEvictionWhenFull() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().getEvictions());
+        cache.get(1, this::load);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        cache.get(1, this::load);
+
+        cache.invalidate(1);
+        cache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateAllClearsEverything() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotCached() {
+        String value = cache.get(1, key -> {
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void bindToPublishesCacheMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "test", "result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "test", "result", "miss").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.size").tag("cache", "test").gauge().value());
+        assertEquals(0.0, registry.get("cache.evictions").tag("cache", "test").functionCounter().count());
+    }
+
+    @Test
+    void constructorRejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedTtlCache<>("test", 0, Duration.ofSeconds(1)));
+    }
+
+    private String load(Integer key) {
+        loads.incrementAndGet();
+        return "value-" + key;
+    }
+}
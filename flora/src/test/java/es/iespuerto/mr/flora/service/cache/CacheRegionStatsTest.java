@@ -0,0 +1,33 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class CacheRegionStatsTest {
+
+    @Test
+    void hitRatioIsHitsOverLookups() {
+        CacheRegionStats stats = new CacheRegionStats("roles", CacheRegionStats.ENTITY, 2, 3, 1, 2, 0);
+
+        assertEquals(0.75, stats.getHitRatio());
+        assertEquals("roles", stats.getRegion());
+        assertEquals(CacheRegionStats.ENTITY, stats.getKind());
+        assertEquals(2, stats.getSize());
+        assertEquals(2, stats.getPuts());
+    }
+
+    @Test
+    void hitRatioIsZeroWithoutLookups() {
+        assertEquals(0.0, new CacheRegionStats("roles", CacheRegionStats.ENTITY, 0, 0, 0, 0, 0).getHitRatio());
+    }
+
+    @Test
+    void toStringIncludesCounters() {
+        CacheRegionStats stats = new CacheRegionStats("default-query-results-region", CacheRegionStats.QUERY,
+                3, 2, 3, 3, 4);
+
+        assertEquals("CacheRegionStats [region=default-query-results-region, kind=query, size=3, hits=2, misses=3,"
+                + " puts=3, invalidations=4]", stats.toString());
+    }
+}
@@ -0,0 +1,32 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class CacheStatsTest {
+
+    @Test
+    void gettersReturnConstructorValues() {
+        CacheStats stats = new CacheStats("plants", 3, 10, 6, 2, 1);
+
+        assertEquals("plants", stats.getName());
+        assertEquals(3, stats.getSize());
+        assertEquals(10, stats.getMaxSize());
+        assertEquals(6, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getEvictions());
+        assertEquals(0.75, stats.getHitRatio());
+    }
+
+    @Test
+    void hitRatioIsZeroWithoutLookups() {
+        assertEquals(0.0, new CacheStats("plants", 0, 10, 0, 0, 0).getHitRatio());
+    }
+
+    @Test
+    void toStringReturnsCorrectFormat() {
+        assertEquals("CacheStats [name=plants, size=3, maxSize=10, hits=6, misses=2, evictions=1]",
+                new CacheStats("plants", 3, 10, 6, 2, 1).toString());
+    }
+}
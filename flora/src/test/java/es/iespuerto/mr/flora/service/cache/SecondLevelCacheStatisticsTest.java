@@ -0,0 +1,157 @@
+package es.iespuerto.mr.flora.service.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.spi.StatisticsImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+public class SecondLevelCacheStatisticsTest {
+
+    private SessionFactoryImplementor sessionFactory;
+    private StatisticsImplementor statistics;
+    private SecondLevelCacheStatistics cacheStatistics;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        statistics = mock(StatisticsImplementor.class);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).thenReturn(true);
+        when(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).thenReturn(true);
+
+        when(statistics.getEntityNames()).thenReturn(new String[] { "Role", "User" });
+        EntityStatistics role = mock(EntityStatistics.class);
+        when(role.getCacheRegionName()).thenReturn("roles");
+        when(role.getUpdateCount()).thenReturn(2L);
+        when(role.getDeleteCount()).thenReturn(1L);
+        when(statistics.getEntityStatistics("Role")).thenReturn(role);
+        when(statistics.getEntityStatistics("User")).thenReturn(mock(EntityStatistics.class));
+        CacheRegionStatistics roles = mock(CacheRegionStatistics.class);
+        when(roles.getHitCount()).thenReturn(9L);
+        when(roles.getMissCount()).thenReturn(1L);
+        when(roles.getPutCount()).thenReturn(2L);
+        when(statistics.getDomainDataRegionStatistics("roles")).thenReturn(roles);
+        when(statistics.getQueryCacheHitCount()).thenReturn(3L);
+        when(statistics.getQueryCacheMissCount()).thenReturn(1L);
+        when(statistics.getQueryCachePutCount()).thenReturn(1L);
+        when(statistics.getUpdateTimestampsCachePutCount()).thenReturn(5L);
+
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        cacheStatistics = new SecondLevelCacheStatistics();
+        cacheStatistics.setEntityManagerFactory(entityManagerFactory);
+    }
+
+    @Test
+    void regionsListsCachedEntityRegionsThenQueryRegion() {
+        List<CacheRegionStats> regions = cacheStatistics.regions();
+
+        assertEquals(2, regions.size());
+        CacheRegionStats roles = regions.get(0);
+        assertEquals("roles", roles.getRegion());
+        assertEquals(CacheRegionStats.ENTITY, roles.getKind());
+        assertEquals(9, roles.getHits());
+        assertEquals(1, roles.getMisses());
+        assertEquals(2, roles.getPuts());
+        assertEquals(3, roles.getInvalidations());
+        assertEquals(0.9, roles.getHitRatio());
+        CacheRegionStats queries = regions.get(1);
+        assertEquals(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, queries.getRegion());
+        assertEquals(CacheRegionStats.QUERY, queries.getKind());
+        assertEquals(0.75, queries.getHitRatio());
+        assertEquals(5, queries.getInvalidations());
+    }
+
+    @Test
+    void sizeIsUnknownWithoutJCache() {
+        assertEquals(-1, cacheStatistics.region("roles").getSize());
+    }
+
+    @Test
+    void sizeIsTheEstimateOfTheCaffeineCacheBehindTheRegion() {
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> entries = Caffeine.newBuilder().build();
+        entries.put(1, "ROLE_ADMIN");
+        entries.put(2, "ROLE_USER");
+        CacheManager cacheManager = jcache("roles", entries);
+
+        assertEquals(2, cacheStatistics.region("roles").getSize());
+        verify(cacheManager.getCache("roles"), never()).iterator();
+    }
+
+    @Test
+    void countersDoNotReadTheSize() {
+        CacheManager cacheManager = jcache("roles", Caffeine.newBuilder().build());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheStatistics.bindTo(registry);
+
+        registry.get("flora.cache.l2.gets").tags("region", "roles", "result", "hit").functionCounter().count();
+        registry.get("flora.cache.l2.invalidations").tag("region", "roles").functionCounter().count();
+
+        verifyNoInteractions(cacheManager);
+        assertEquals(0.0, registry.get("flora.cache.l2.size").tag("region", "roles").gauge().value());
+    }
+
+    @Test
+    void unknownRegionIsNull() {
+        assertNull(cacheStatistics.region("plants"));
+    }
+
+    @Test
+    void queryRegionIsOmittedWhenQueryCacheIsDisabled() {
+        when(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).thenReturn(false);
+
+        assertEquals(List.of("roles"), cacheStatistics.regions().stream().map(CacheRegionStats::getRegion).toList());
+        assertNull(cacheStatistics.region(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME));
+    }
+
+    @Test
+    void noRegionsWhenSecondLevelCacheIsDisabled() {
+        when(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).thenReturn(false);
+
+        assertTrue(cacheStatistics.regions().isEmpty());
+        assertNull(cacheStatistics.region("roles"));
+    }
+
+    @Test
+    void bindToRegistersMetersPerRegion() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cacheStatistics.bindTo(registry);
+
+        assertEquals(9.0, registry.get("flora.cache.l2.gets").tags("region", "roles", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("flora.cache.l2.gets").tags("region", "default-query-results-region",
+                "result", "miss").functionCounter().count());
+        assertEquals(3.0, registry.get("flora.cache.l2.invalidations").tag("region", "roles")
+                .functionCounter().count());
+        assertEquals(-1.0, registry.get("flora.cache.l2.size").tag("region", "roles").gauge().value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private CacheManager jcache(String region, com.github.benmanes.caffeine.cache.Cache<Object, Object> entries) {
+        Cache<Object, Object> cache = mock(Cache.class);
+        when(cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class)).thenReturn(entries);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(region)).thenReturn(cache);
+        JCacheRegionFactory regionFactory = mock(JCacheRegionFactory.class);
+        when(regionFactory.getCacheManager()).thenReturn(cacheManager);
+        when(sessionFactory.getCache().getRegionFactory()).thenReturn(regionFactory);
+        return cacheManager;
+    }
+}
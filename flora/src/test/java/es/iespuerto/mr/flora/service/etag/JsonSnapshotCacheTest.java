@@ -0,0 +1,94 @@
+package es.iespuerto.mr.flora.service.etag;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.iespuerto.mr.flora.model.Category;
+
+public class JsonSnapshotCacheTest {
+
+    private TableVersions tableVersions;
+    private JsonSnapshotCache snapshotCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        tableVersions = new TableVersions();
+        snapshotCache = new JsonSnapshotCache();
+        snapshotCache.setTableVersions(tableVersions);
+        snapshotCache.setObjectMapper(new ObjectMapper());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getSerializesOncePerVersion() {
+        JsonSnapshot first = snapshotCache.get(CatalogTable.CATEGORIES, categories("Endémica"));
+        JsonSnapshot second = snapshotCache.get(CatalogTable.CATEGORIES, categories("Endémica"));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals(tableVersions.currentETag(CatalogTable.CATEGORIES), first.getETag());
+        assertEquals("[{\"id\":0,\"name\":\"Endémica\"}]", new String(first.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void bumpMakesTheNextGetReloadWithANewETag() {
+        JsonSnapshot first = snapshotCache.get(CatalogTable.CATEGORIES, categories("Endémica"));
+        tableVersions.bump(CatalogTable.CATEGORIES);
+
+        JsonSnapshot second = snapshotCache.get(CatalogTable.CATEGORIES, categories("Nativa"));
+
+        assertEquals(2, loads.get());
+        assertNotEquals(first.getETag(), second.getETag());
+        assertTrue(new String(second.getBody(), StandardCharsets.UTF_8).contains("Nativa"));
+    }
+
+    @Test
+    void snapshotsAreKeptPerTable() {
+        snapshotCache.get(CatalogTable.CATEGORIES, categories("Endémica"));
+        tableVersions.bump(CatalogTable.PLANTS);
+
+        snapshotCache.get(CatalogTable.CATEGORIES, categories("Endémica"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void bodyLoadedDuringAChangeIsReturnedButNotKept() {
+        JsonSnapshot racing = snapshotCache.get(CatalogTable.CATEGORIES, () -> {
+            loads.incrementAndGet();
+            tableVersions.bump(CatalogTable.CATEGORIES);
+            return List.of();
+        });
+
+        JsonSnapshot next = snapshotCache.get(CatalogTable.CATEGORIES, categories("Nativa"));
+
+        assertEquals(2, loads.get());
+        assertNotEquals(racing.getETag(), next.getETag());
+        assertEquals(tableVersions.currentETag(CatalogTable.CATEGORIES), next.getETag());
+    }
+
+    @Test
+    void currentETagDoesNotLoad() {
+        assertEquals(tableVersions.currentETag(CatalogTable.PLANTS), snapshotCache.currentETag(CatalogTable.PLANTS));
+        assertEquals(0, loads.get());
+    }
+
+    private Supplier<List<Category>> categories(String name) {
+        return () -> {
+            loads.incrementAndGet();
+            Category category = new Category();
+            category.setName(name);
+            return List.of(category);
+        };
+    }
+}
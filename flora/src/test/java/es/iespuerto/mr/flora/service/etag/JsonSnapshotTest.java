@@ -0,0 +1,19 @@
+package es.iespuerto.mr.flora.service.etag;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class JsonSnapshotTest {
+
+    @Test
+    void gettersReturnConstructorValues() {
+        byte[] body = {'[', ']'};
+
+        JsonSnapshot snapshot = new JsonSnapshot(3, "\"plants-3\"", body);
+
+        assertEquals(3, snapshot.getVersion());
+        assertEquals("\"plants-3\"", snapshot.getETag());
+        assertSame(body, snapshot.getBody());
+    }
+}
@@ -0,0 +1,39 @@
+package es.iespuerto.mr.flora.service.etag;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class TableVersionsTest {
+
+    private final TableVersions tableVersions = new TableVersions();
+
+    @Test
+    void bumpIncrementsOnlyTheGivenTable() {
+        long plants = tableVersions.current(CatalogTable.PLANTS);
+        long categories = tableVersions.current(CatalogTable.CATEGORIES);
+
+        assertEquals(plants + 1, tableVersions.bump(CatalogTable.PLANTS));
+        assertEquals(plants + 2, tableVersions.bump(CatalogTable.PLANTS));
+        assertEquals(plants + 2, tableVersions.current(CatalogTable.PLANTS));
+        assertEquals(categories, tableVersions.current(CatalogTable.CATEGORIES));
+    }
+
+    @Test
+    void versionsStartFromTheStartupTime() {
+        long before = System.currentTimeMillis();
+
+        long version = new TableVersions().current(CatalogTable.LOCATIONS);
+
+        assertTrue(version >= before);
+    }
+
+    @Test
+    void etagIsQuotedAndNamedAfterTheTable() {
+        assertEquals("\"characteristics-42\"", TableVersions.etag(CatalogTable.CHARACTERISTICS, 42));
+
+        long version = tableVersions.bump(CatalogTable.PLANTS);
+
+        assertEquals("\"plants-" + version + "\"", tableVersions.currentETag(CatalogTable.PLANTS));
+    }
+}
@@ -0,0 +1,114 @@
+package es.iespuerto.mr.flora.service.export;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.StreamingHints;
+import jakarta.persistence.EntityManager;
+
+public class NdjsonExporterTest {
+
+    private NdjsonExporter exporter;
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        exporter = new NdjsonExporter();
+        exporter.setObjectMapper(new ObjectMapper());
+        exporter.setTransactionManager(transactionManager);
+        exporter.setEntityManager(entityManager);
+    }
+
+    @Test
+    void exportWritesOneJsonObjectPerLine() throws IOException {
+        Plant rosa = plant(1, "Rosa", "Rosa spp.");
+        Plant drago = plant(2, "Drago", "Dracaena draco");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exporter.export(() -> Stream.of(rosa, drago), out);
+
+        assertEquals(2, count);
+        assertEquals("{\"id\":1,\"commonName\":\"Rosa\",\"scientificName\":\"Rosa spp.\"}\n"
+                + "{\"id\":2,\"commonName\":\"Drago\",\"scientificName\":\"Dracaena draco\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(rosa);
+        verify(entityManager).detach(drago);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void exportClosesTheStream() throws IOException {
+        boolean[] closed = {false};
+
+        exporter.export(() -> Stream.of(plant(1, "Rosa", "Rosa spp.")).onClose(() -> closed[0] = true),
+                new ByteArrayOutputStream());
+
+        assertTrue(closed[0]);
+    }
+
+    @Test
+    void exportFlushesEveryFetchSizeRows() throws IOException {
+        int fetchSize = Integer.parseInt(StreamingHints.FETCH_SIZE);
+        List<Long> linesAtFlush = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                linesAtFlush.add(toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count());
+            }
+        };
+
+        long count = exporter.export(() -> IntStream.rangeClosed(1, fetchSize * 2 + 1)
+                .mapToObj(id -> plant(id, "Planta " + id, null)), out);
+
+        assertEquals(fetchSize * 2 + 1, count);
+        assertEquals((long) fetchSize, linesAtFlush.get(0));
+        assertEquals((long) fetchSize * 2, linesAtFlush.get(1));
+        assertEquals((long) fetchSize * 2 + 1, linesAtFlush.get(linesAtFlush.size() - 1));
+    }
+
+    @Test
+    void exportPropagatesWriteErrorsAndRollsBack() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class,
+                () -> exporter.export(() -> Stream.of(plant(1, "Rosa", "Rosa spp.")), broken));
+
+        assertEquals("Broken pipe", e.getMessage());
+        verify(transactionManager).rollback(any());
+    }
+
+    private static Plant plant(int id, String commonName, String scientificName) {
+        Plant plant = new Plant(commonName, scientificName);
+        plant.setId(id);
+        return plant;
+    }
+}
@@ -0,0 +1,165 @@
+package es.iespuerto.mr.flora.service.facet;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.dto.FacetCount;
+import es.iespuerto.mr.flora.model.PlantCategory;
+import es.iespuerto.mr.flora.model.PlantCharacteristic;
+import es.iespuerto.mr.flora.model.PlantLocation;
+import es.iespuerto.mr.flora.repository.PlantCategoryRepository;
+import es.iespuerto.mr.flora.repository.PlantCharacteristicRepository;
+import es.iespuerto.mr.flora.repository.PlantLocationRepository;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+
+public class PlantFacetIndexTest {
+
+    private static final int SUCCULENTS = 5;
+    private static final int SHRUBS = 2;
+    private static final int TEIDE = 1;
+    private static final int LA_LAGUNA = 2;
+    private static final int SPRING_BLOOM = 1;
+
+    private PlantFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        PlantRepository plantRepository = mock(PlantRepository.class);
+        when(plantRepository.findAllIds()).thenReturn(List.of(1, 2, 3, 4, 5));
+        PlantCategoryRepository categories = mock(PlantCategoryRepository.class);
+        when(categories.findAll()).thenReturn(List.of(
+                new PlantCategory(1, SUCCULENTS), new PlantCategory(2, SUCCULENTS), new PlantCategory(3, SHRUBS),
+                new PlantCategory(4, SUCCULENTS)));
+        PlantLocationRepository locations = mock(PlantLocationRepository.class);
+        when(locations.findAll()).thenReturn(List.of(
+                new PlantLocation(1, TEIDE), new PlantLocation(2, TEIDE), new PlantLocation(3, TEIDE),
+                new PlantLocation(4, LA_LAGUNA)));
+        PlantCharacteristicRepository characteristics = mock(PlantCharacteristicRepository.class);
+        when(characteristics.findAll()).thenReturn(List.of(
+                new PlantCharacteristic(1, SPRING_BLOOM), new PlantCharacteristic(3, SPRING_BLOOM)));
+
+        index = new PlantFacetIndex();
+        index.setPlantRepository(plantRepository);
+        index.setPlantCategoryRepository(categories);
+        index.setPlantLocationRepository(locations);
+        index.setPlantCharacteristicRepository(characteristics);
+        index.rebuild();
+    }
+
+    @Test
+    void filterAndsFacetsAndOrsValues() {
+        assertArrayEquals(new int[] {1}, filter(List.of(SUCCULENTS), List.of(TEIDE), List.of(SPRING_BLOOM)).getPlantIds());
+        assertArrayEquals(new int[] {1, 2, 3}, filter(List.of(SUCCULENTS, SHRUBS), List.of(TEIDE), null).getPlantIds());
+        assertArrayEquals(new int[] {1, 2, 4}, filter(List.of(SUCCULENTS), null, null).getPlantIds());
+    }
+
+    @Test
+    void filterWithoutSelectionReturnsEveryPlant() {
+        PlantFacetIndex.Hits hits = filter(null, List.of(), null);
+
+        assertEquals(5, hits.getTotal());
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, hits.getPlantIds());
+        assertEquals(Map.of(SUCCULENTS, 3, SHRUBS, 1), counts(hits, FacetType.CATEGORY));
+    }
+
+    @Test
+    void containsPlantTracksAddedAndRemovedPlants() {
+        assertTrue(index.containsPlant(1));
+        assertFalse(index.containsPlant(99));
+
+        index.addPlant(99);
+        index.removePlant(1);
+
+        assertTrue(index.containsPlant(99));
+        assertFalse(index.containsPlant(1));
+    }
+
+    @Test
+    void unknownValueMatchesNothing() {
+        PlantFacetIndex.Hits hits = filter(List.of(99), null, null);
+
+        assertEquals(0, hits.getTotal());
+        assertEquals(0, hits.getPlantIds().length);
+        assertTrue(hits.getCounts(FacetType.LOCATION).isEmpty());
+    }
+
+    @Test
+    void countsOfASelectedFacetIgnoreItsOwnSelection() {
+        PlantFacetIndex.Hits hits = filter(List.of(SUCCULENTS), List.of(TEIDE), null);
+
+        assertArrayEquals(new int[] {1, 2}, hits.getPlantIds());
+        assertEquals(Map.of(SUCCULENTS, 2, SHRUBS, 1), counts(hits, FacetType.CATEGORY));
+        assertEquals(Map.of(TEIDE, 2, LA_LAGUNA, 1), counts(hits, FacetType.LOCATION));
+        assertEquals(Map.of(SPRING_BLOOM, 1), counts(hits, FacetType.CHARACTERISTIC));
+    }
+
+    @Test
+    void countsAreSortedByCountThenId() {
+        List<FacetCount> counts = filter(null, null, null).getCounts(FacetType.LOCATION);
+
+        assertEquals(TEIDE, counts.get(0).getId());
+        assertEquals(3, counts.get(0).getCount());
+        assertEquals(LA_LAGUNA, counts.get(1).getId());
+    }
+
+    @Test
+    void filterPagesAfterTheGivenId() {
+        PlantFacetIndex.Hits first = index.filter(Map.of(), 0, 2);
+        PlantFacetIndex.Hits last = index.filter(Map.of(), 4, 2);
+
+        assertArrayEquals(new int[] {1, 2}, first.getPlantIds());
+        assertTrue(first.hasMore());
+        assertArrayEquals(new int[] {5}, last.getPlantIds());
+        assertFalse(last.hasMore());
+        assertEquals(5, last.getTotal());
+    }
+
+    @Test
+    void linkAndUnlinkUpdateTheBitmaps() {
+        index.link(FacetType.CATEGORY, SUCCULENTS, 5);
+        assertArrayEquals(new int[] {1, 2, 4, 5}, filter(List.of(SUCCULENTS), null, null).getPlantIds());
+
+        index.unlink(FacetType.CATEGORY, SHRUBS, 3);
+        assertEquals(0, filter(List.of(SHRUBS), null, null).getTotal());
+        assertFalse(counts(filter(null, null, null), FacetType.CATEGORY).containsKey(SHRUBS));
+    }
+
+    @Test
+    void addAndRemovePlantUpdateEveryFacet() {
+        index.addPlant(6);
+        assertEquals(6, index.size());
+
+        index.removePlant(1);
+        assertEquals(5, index.size());
+        assertArrayEquals(new int[] {3}, filter(null, null, List.of(SPRING_BLOOM)).getPlantIds());
+        assertArrayEquals(new int[] {2, 3}, filter(null, List.of(TEIDE), null).getPlantIds());
+    }
+
+    @Test
+    void removeValueDropsItsBitmap() {
+        index.removeValue(FacetType.LOCATION, TEIDE);
+
+        assertEquals(0, filter(null, List.of(TEIDE), null).getTotal());
+        assertEquals(Map.of(LA_LAGUNA, 1), counts(filter(null, null, null), FacetType.LOCATION));
+    }
+
+    private PlantFacetIndex.Hits filter(List<Integer> categories, List<Integer> locations, List<Integer> characteristics) {
+        Map<FacetType, List<Integer>> selection = new EnumMap<>(FacetType.class);
+        selection.put(FacetType.CATEGORY, categories);
+        selection.put(FacetType.LOCATION, locations);
+        selection.put(FacetType.CHARACTERISTIC, characteristics);
+        return index.filter(selection, 0, 100);
+    }
+
+    private static Map<Integer, Integer> counts(PlantFacetIndex.Hits hits, FacetType type) {
+        return hits.getCounts(type).stream().collect(Collectors.toMap(FacetCount::getId, FacetCount::getCount));
+    }
+}
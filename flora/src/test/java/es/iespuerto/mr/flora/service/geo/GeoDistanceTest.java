@@ -0,0 +1,28 @@
+package es.iespuerto.mr.flora.service.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+public class GeoDistanceTest {
+
+    @Test
+    void haversineKmMatchesKnownDistance() {
+        // Santa Cruz de Tenerife to Los Cristianos, about 65 km as the crow flies
+        double km = GeoDistance.haversineKm(28.4636, -16.2518, 28.0520, -16.7160);
+
+        assertEquals(65.0, km, 2.0);
+        assertEquals(0, GeoDistance.haversineKm(28.0, -16.0, 28.0, -16.0));
+    }
+
+    @Test
+    void checkCoordinatesRejectsOutOfRangeValues() {
+        GeoDistance.checkCoordinates(-90, 180);
+
+        assertThrows(InvalidRequestException.class, () -> GeoDistance.checkCoordinates(90.5, 0));
+        assertThrows(InvalidRequestException.class, () -> GeoDistance.checkCoordinates(0, -180.5));
+        assertThrows(InvalidRequestException.class, () -> GeoDistance.checkCoordinates(Double.NaN, 0));
+    }
+}
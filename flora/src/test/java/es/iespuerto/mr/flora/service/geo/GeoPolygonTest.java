@@ -0,0 +1,46 @@
+package es.iespuerto.mr.flora.service.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+public class GeoPolygonTest {
+
+    private static final String SQUARE = "28.0 -17.0, 28.0 -16.0, 29.0 -16.0, 29.0 -17.0";
+
+    @Test
+    void parseComputesBoundingBox() {
+        GeoPolygon polygon = GeoPolygon.parse(SQUARE);
+
+        assertEquals(4, polygon.size());
+        assertEquals(28.0, polygon.getMinLat());
+        assertEquals(29.0, polygon.getMaxLat());
+        assertEquals(-17.0, polygon.getMinLon());
+        assertEquals(-16.0, polygon.getMaxLon());
+    }
+
+    @Test
+    void parseDropsClosingVertex() {
+        assertEquals(4, GeoPolygon.parse(SQUARE + ", 28.0 -17.0").size());
+    }
+
+    @Test
+    void containsUsesEvenOddRule() {
+        // Triangle pointing north: the north-east corner of its bounding box is outside
+        GeoPolygon triangle = GeoPolygon.parse("28.0 -17.0, 28.0 -16.0, 29.0 -16.5");
+
+        assertTrue(triangle.contains(28.2, -16.5));
+        assertFalse(triangle.contains(28.9, -16.1));
+        assertFalse(triangle.contains(30.0, -16.5));
+    }
+
+    @Test
+    void parseRejectsMalformedText() {
+        assertThrows(InvalidRequestException.class, () -> GeoPolygon.parse("28.0 -17.0, 28.0 -16.0"));
+        assertThrows(InvalidRequestException.class, () -> GeoPolygon.parse("28.0 -17.0, 28.0, 29.0 -16.5"));
+        assertThrows(InvalidRequestException.class, () -> GeoPolygon.parse("a b, 28.0 -16.0, 29.0 -16.5"));
+        assertThrows(InvalidRequestException.class, () -> GeoPolygon.parse("91 -17.0, 28.0 -16.0, 29.0 -16.5"));
+    }
+}
@@ -0,0 +1,179 @@
+package es.iespuerto.mr.flora.service.geo;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.dto.NearbyLocation;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.model.Location;
+import es.iespuerto.mr.flora.repository.LocationRepository;
+
+public class LocationGridIndexTest {
+
+    private static final String TEIDE_BOUNDS = "28.3350 -16.7400, 28.3350 -16.5300, 28.2100 -16.5300, 28.2100 -16.7400";
+
+    private LocationRepository locationRepository;
+    private LocationGridIndex index;
+
+    @BeforeEach
+    void setUp() {
+        locationRepository = mock(LocationRepository.class);
+        when(locationRepository.findAll()).thenReturn(List.of(
+                location(1, "Teide", 28.2723, -16.6425, TEIDE_BOUNDS),
+                location(2, "La Laguna", 28.4874, -16.3159, null),
+                location(3, "Santa Cruz de Tenerife", 28.4636, -16.2518, null),
+                location(4, "Puerto de la Cruz", 28.4140, -16.5449, null),
+                location(5, "Los Cristianos", 28.0520, -16.7160, null),
+                new Location("Sin posición")));
+
+        index = new LocationGridIndex();
+        index.setLocationRepository(locationRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuildSkipsLocationsWithoutPosition() {
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void containsKnowsLocationsWithAndWithoutPosition() {
+        Location noPosition = new Location("Sin coordenadas");
+        noPosition.setId(7);
+        index.index(noPosition);
+
+        assertTrue(index.contains(1));
+        assertTrue(index.contains(7));
+        assertFalse(index.contains(99));
+
+        index.remove(7);
+        assertFalse(index.contains(7));
+    }
+
+    @Test
+    void nearestReturnsClosestFirst() {
+        List<NearbyLocation> nearest = index.nearest(28.47, -16.27, 3);
+
+        assertEquals(List.of(3, 2, 4), ids(nearest));
+        assertTrue(nearest.get(0).getDistanceKm() < nearest.get(1).getDistanceKm());
+        assertEquals("Santa Cruz de Tenerife", nearest.get(0).getName());
+    }
+
+    @Test
+    void nearestIsZeroInsideBounds() {
+        // Far from the summit but inside the national park
+        NearbyLocation nearest = index.nearest(28.32, -16.55, 1).get(0);
+
+        assertEquals(1, nearest.getId());
+        assertEquals(0, nearest.getDistanceKm());
+    }
+
+    @Test
+    void nearestFromFarAwayStillFindsLocations() {
+        List<NearbyLocation> nearest = index.nearest(40.4168, -3.7038, 2);
+
+        assertEquals(2, nearest.size());
+        assertTrue(nearest.get(0).getDistanceKm() > 1500);
+    }
+
+    @Test
+    void nearestReturnsEveryLocationWhenKIsLarge() {
+        assertEquals(5, index.nearest(28.3, -16.5, 50).size());
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        List<Location> all = new ArrayList<>();
+        Random random = new Random(42);
+        for (int id = 1; id <= 500; id++) {
+            all.add(location(id, "L" + id, 27.6 + random.nextDouble() * 1.8, -18.2 + random.nextDouble() * 4.8, null));
+        }
+        when(locationRepository.findAll()).thenReturn(all);
+        index.setCellDegrees(0.02);
+        index.rebuild();
+
+        for (int i = 0; i < 200; i++) {
+            double lat = 27.0 + random.nextDouble() * 3;
+            double lon = -19.0 + random.nextDouble() * 6;
+            List<Integer> expected = all.stream()
+                    .sorted(Comparator.comparingDouble((Location l) -> GeoDistance.haversineKm(lat, lon, l.getLatitude(), l.getLongitude()))
+                            .thenComparingInt(Location::getId))
+                    .limit(7).map(Location::getId).toList();
+
+            assertEquals(expected, ids(index.nearest(lat, lon, 7)), "at " + lat + "," + lon);
+        }
+    }
+
+    @Test
+    void nearestRejectsInvalidCoordinates() {
+        assertThrows(InvalidRequestException.class, () -> index.nearest(100, 0, 1));
+    }
+
+    @Test
+    void withinMatchesPointsAndOverlappingBounds() {
+        List<Location> north = index.within(28.40, -16.60, 28.50, -16.20);
+        List<Location> parkCorner = index.within(28.30, -16.56, 28.40, -16.50);
+
+        assertEquals(List.of(2, 3, 4), north.stream().map(Location::getId).toList());
+        assertEquals(List.of(1), parkCorner.stream().map(Location::getId).toList());
+        assertEquals(TEIDE_BOUNDS, parkCorner.get(0).getBounds());
+    }
+
+    @Test
+    void withinLargeBoxScansEveryLocation() {
+        assertEquals(5, index.within(-90, -180, 90, 180).size());
+    }
+
+    @Test
+    void withinRejectsInvertedBox() {
+        assertThrows(InvalidRequestException.class, () -> index.within(28.5, -16.2, 28.4, -16.6));
+    }
+
+    @Test
+    void indexMovesAndRemovesLocations() {
+        index.index(location(5, "Los Cristianos", 28.4700, -16.2700, null));
+        assertEquals(5, index.nearest(28.47, -16.27, 1).get(0).getId());
+        assertTrue(index.within(28.0, -16.8, 28.1, -16.6).isEmpty());
+
+        Location withoutPosition = new Location("Los Cristianos");
+        withoutPosition.setId(5);
+        index.index(withoutPosition);
+        assertEquals(4, index.size());
+
+        index.remove(3);
+        assertEquals(List.of(2, 4), ids(index.nearest(28.47, -16.27, 2)));
+    }
+
+    @Test
+    void lowerBoundNeverExceedsActualDistance() {
+        for (double lat : new double[] {0, 28.3, 60, 89}) {
+            double gap = 0.5;
+            double bound = LocationGridIndex.lowerBoundKm(lat, gap);
+
+            assertTrue(bound <= GeoDistance.haversineKm(lat, 0, lat + gap, 0) + 1e-9);
+            assertTrue(bound <= GeoDistance.haversineKm(lat, 0, Math.min(90, lat + gap - 1e-6), gap) + 1e-9);
+        }
+        assertEquals(0, LocationGridIndex.lowerBoundKm(28.3, 0));
+    }
+
+    private static Location location(int id, String name, double latitude, double longitude, String bounds) {
+        Location location = new Location(name);
+        location.setId(id);
+        location.setLatitude(latitude);
+        location.setLongitude(longitude);
+        location.setBounds(bounds);
+        return location;
+    }
+
+    private static List<Integer> ids(List<NearbyLocation> locations) {
+        return locations.stream().map(NearbyLocation::getId).toList();
+    }
+}
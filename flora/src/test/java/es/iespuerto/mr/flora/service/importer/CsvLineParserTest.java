@@ -0,0 +1,36 @@
+package es.iespuerto.mr.flora.service.importer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvLineParserTest {
+
+    @Test
+    void parseSplitsPlainFields() {
+        assertEquals(List.of("Drago", "Dracaena draco"), CsvLineParser.parse("Drago,Dracaena draco"));
+    }
+
+    @Test
+    void parseKeepsEmptyFields() {
+        assertEquals(List.of("Drago", "", ""), CsvLineParser.parse("Drago,,"));
+    }
+
+    @Test
+    void parseUnquotesFieldsWithCommasAndEscapedQuotes() {
+        assertEquals(List.of("Tajinaste \"rojo\"", "Echium wildpretii, subsp. wildpretii"),
+                CsvLineParser.parse("\"Tajinaste \"\"rojo\"\"\",\"Echium wildpretii, subsp. wildpretii\""));
+    }
+
+    @Test
+    void parseRejectsUnterminatedQuotes() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLineParser.parse("\"Drago,Dracaena draco"));
+    }
+
+    @Test
+    void parseRejectsCharactersAfterClosingQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLineParser.parse("\"Drago\"x,Dracaena draco"));
+    }
+}
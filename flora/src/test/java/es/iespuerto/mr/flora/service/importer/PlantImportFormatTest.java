@@ -0,0 +1,24 @@
+package es.iespuerto.mr.flora.service.importer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+
+public class PlantImportFormatTest {
+
+    @Test
+    void fromContentTypeResolvesCsvAndJson() {
+        assertEquals(PlantImportFormat.CSV, PlantImportFormat.fromContentType("text/csv; charset=UTF-8"));
+        assertEquals(PlantImportFormat.JSON, PlantImportFormat.fromContentType("application/json"));
+    }
+
+    @Test
+    void fromContentTypeRejectsMissingOrUnsupportedTypes() {
+        assertThrows(InvalidRequestException.class, () -> PlantImportFormat.fromContentType(null));
+        assertThrows(InvalidRequestException.class, () -> PlantImportFormat.fromContentType("text/plain"));
+        assertThrows(InvalidRequestException.class, () -> PlantImportFormat.fromContentType("*/*"));
+        assertThrows(InvalidRequestException.class, () -> PlantImportFormat.fromContentType("not a type"));
+    }
+}
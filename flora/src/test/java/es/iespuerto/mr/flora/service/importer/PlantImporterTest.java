@@ -0,0 +1,154 @@
+package es.iespuerto.mr.flora.service.importer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.iespuerto.mr.flora.dto.PlantImportReport;
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+import jakarta.persistence.EntityManager;
+
+public class PlantImporterTest {
+
+    private PlantImporter importer;
+    private PlantRepository plantRepository;
+    private EntityManager entityManager;
+    private Session session;
+    private List<List<Plant>> savedBatches;
+
+    @BeforeEach
+    void setUp() {
+        plantRepository = mock(PlantRepository.class);
+        entityManager = mock(EntityManager.class);
+        session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        savedBatches = new ArrayList<>();
+
+        importer = new PlantImporter();
+        importer.setPlantRepository(plantRepository);
+        importer.setObjectMapper(new ObjectMapper());
+        importer.setTransactionManager(mock(PlatformTransactionManager.class));
+        importer.setEntityManager(entityManager);
+        importer.setDefaultBatchSize(2);
+    }
+
+    @Test
+    void importCsvWritesValidRowsInBatches() throws IOException {
+        PlantImportReport report = importCsv("Rosa,Rosa spp.\nDrago,Dracaena draco\nMagarza,Argyranthemum frutescens\n", null);
+
+        assertEquals(3, report.getReceived());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertEquals(2, report.getBatchSize());
+        assertEquals(2, savedBatches.size());
+        assertEquals(2, savedBatches.get(0).size());
+        assertEquals("Magarza", savedBatches.get(1).get(0).getCommonName());
+        verify(session, times(2)).setJdbcBatchSize(2);
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importCsvHonoursHeaderColumnOrderAndQuotes() throws IOException {
+        PlantImportReport report = importCsv("scientific_name,common_name\n\"Echium wildpretii, subsp. wildpretii\",Tajinaste rojo\n", 10);
+
+        assertEquals(1, report.getImported());
+        Plant plant = savedBatches.get(0).get(0);
+        assertEquals("Tajinaste rojo", plant.getCommonName());
+        assertEquals("Echium wildpretii, subsp. wildpretii", plant.getScientificName());
+    }
+
+    @Test
+    void importCsvReportsInvalidRowsByLineNumber() throws IOException {
+        PlantImportReport report = importCsv("commonName,scientificName\nRosa,Rosa spp.\n,Tulipa spp.\n\"Drago,Dracaena\n", null);
+
+        assertEquals(3, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(3, report.getErrors().get(0).getRow());
+        assertEquals("commonName is required", report.getErrors().get(0).getMessage());
+        assertEquals(4, report.getErrors().get(1).getRow());
+    }
+
+    @Test
+    void importCsvRejectsIncompleteHeader() {
+        assertThrows(InvalidRequestException.class, () -> importCsv("common_name,family\nRosa,Rosaceae\n", null));
+    }
+
+    @Test
+    void importJsonReportsRowsByPosition() throws IOException {
+        String json = "[{\"commonName\":\"Rosa\",\"scientificName\":\"Rosa spp.\"}, 42,"
+                + " {\"commonName\":\"Drago\"}, {\"commonName\":\"Magarza\",\"scientificName\":\"Argyranthemum frutescens\"}]";
+
+        PlantImportReport report = importer.importPlants(stream(json), PlantImportFormat.JSON, null, savedBatches::add);
+
+        assertEquals(4, report.getReceived());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals("Expected a JSON object", report.getErrors().get(0).getMessage());
+        assertEquals(3, report.getErrors().get(1).getRow());
+        assertEquals("scientificName is required", report.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void importJsonStopsAtMalformedInputKeepingPreviousRows() throws IOException {
+        String json = "[{\"commonName\":\"Rosa\",\"scientificName\":\"Rosa spp.\"}, {\"commonName\": }";
+
+        PlantImportReport report = importer.importPlants(stream(json), PlantImportFormat.JSON, null, savedBatches::add);
+
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertTrue(report.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void importJsonRejectsInputThatIsNotAnArray() {
+        assertThrows(InvalidRequestException.class,
+                () -> importer.importPlants(stream("{\"commonName\":\"Rosa\"}"), PlantImportFormat.JSON, null, savedBatches::add));
+    }
+
+    @Test
+    void importReportsEveryRowOfARejectedBatch() throws IOException {
+        when(plantRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(List.of());
+
+        PlantImportReport report = importCsv("Rosa,Rosa spp.\nDrago,Dracaena draco\nMagarza,Argyranthemum frutescens\n", null);
+
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(1, report.getErrors().get(0).getRow());
+        assertEquals(2, report.getErrors().get(1).getRow());
+        assertEquals(1, savedBatches.size());
+    }
+
+    @Test
+    void validateChecksRequiredFieldsAndLength() {
+        assertNull(PlantImporter.validate("Rosa", "Rosa spp."));
+        assertEquals("scientificName is required", PlantImporter.validate("Rosa", " "));
+        assertEquals("commonName is longer than 255 characters", PlantImporter.validate("x".repeat(256), "Rosa spp."));
+    }
+
+    private PlantImportReport importCsv(String csv, Integer batchSize) throws IOException {
+        return importer.importPlants(stream(csv), PlantImportFormat.CSV, batchSize, savedBatches::add);
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,157 @@
+package es.iespuerto.mr.flora.service.popularity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.repository.FavoriteRepository;
+import es.iespuerto.mr.flora.repository.FavoriteRepository.PlantFavoriteCount;
+
+public class PlantPopularityIndexTest {
+
+    private FavoriteRepository favoriteRepository;
+    private PlantPopularityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        favoriteRepository = mock(FavoriteRepository.class);
+        when(favoriteRepository.countFavoritesByPlant()).thenReturn(Arrays.asList(count(1, 2), count(2, 5), count(3, 2)));
+        index = new PlantPopularityIndex();
+        index.setFavoriteRepository(favoriteRepository);
+        index.setRefreshInterval(Duration.ZERO);
+        index.rebuild();
+    }
+
+    @Test
+    void topRanksByFavoritesThenId() {
+        assertEquals(List.of(2, 1, 3), ids(index.top(10)));
+        assertEquals(5, index.top(1).get(0).getFavorites());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void topHonoursLimit() {
+        assertEquals(List.of(2, 1), ids(index.top(2)));
+    }
+
+    @Test
+    void incrementAndDecrementReorderTheRanking() {
+        index.increment(3);
+        index.increment(4);
+        assertEquals(List.of(2, 3, 1, 4), ids(index.top(10)));
+
+        index.decrement(3);
+        index.decrement(3);
+        assertEquals(List.of(2, 1, 3, 4), ids(index.top(10)));
+    }
+
+    @Test
+    void plantsWithoutFavoritesAreLeftOut() {
+        index.decrement(1);
+        index.decrement(1);
+        index.decrement(9);
+
+        assertEquals(List.of(2, 3), ids(index.top(10)));
+    }
+
+    @Test
+    void removeDropsThePlant() {
+        index.remove(2);
+
+        assertEquals(List.of(1, 3), ids(index.top(10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rankingIsRebuiltOnlyAfterTheRefreshInterval() {
+        index.setRefreshInterval(Duration.ofHours(1));
+        index.increment(3);
+        index.increment(3);
+        index.increment(3);
+        index.increment(3);
+
+        assertEquals(List.of(2, 1, 3), ids(index.top(10)));
+
+        index.setRefreshInterval(Duration.ZERO);
+        assertEquals(List.of(3, 2, 1), ids(index.top(10)));
+    }
+
+    @Test
+    void rankingKeepsOnlyTheTopPlants() {
+        List<PlantFavoriteCount> counts = new ArrayList<>();
+        for (int id = 1; id <= PlantPopularityIndex.MAX_LIMIT + 50; id++) {
+            counts.add(count(id, id));
+        }
+        when(favoriteRepository.countFavoritesByPlant()).thenReturn(counts);
+        index.rebuild();
+
+        List<PlantPopularityIndex.Ranked> top = index.top(PlantPopularityIndex.MAX_LIMIT + 50);
+
+        assertEquals(PlantPopularityIndex.MAX_LIMIT, top.size());
+        assertEquals(PlantPopularityIndex.MAX_LIMIT + 50, top.get(0).getPlantId());
+        assertEquals(51, top.get(top.size() - 1).getPlantId());
+    }
+
+    @Test
+    void concurrentIncrementsAreAllCounted() throws InterruptedException {
+        int threads = 8;
+        int perThread = 1000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    index.increment(7);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        PlantPopularityIndex.Ranked first = index.top(1).get(0);
+        assertEquals(7, first.getPlantId());
+        assertEquals(threads * perThread, first.getFavorites());
+    }
+
+    @Test
+    void negativeRefreshIntervalIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.setRefreshInterval(Duration.ofSeconds(-1)));
+    }
+
+    private static List<Integer> ids(List<PlantPopularityIndex.Ranked> ranking) {
+        return ranking.stream().map(PlantPopularityIndex.Ranked::getPlantId).collect(Collectors.toList());
+    }
+
+    private static PlantFavoriteCount count(int plantId, long favorites) {
+        return new PlantFavoriteCount() {
+            @Override
+            public int getPlantId() {
+                return plantId;
+            }
+
+            @Override
+            public long getFavorites() {
+                return favorites;
+            }
+        };
+    }
+}
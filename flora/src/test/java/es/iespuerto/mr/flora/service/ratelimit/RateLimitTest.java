@@ -0,0 +1,36 @@
+package es.iespuerto.mr.flora.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class RateLimitTest {
+
+    @Test
+    void parseReadsCapacityAndPeriod() {
+        RateLimit limit = RateLimit.parse("20/1m");
+
+        assertEquals(20, limit.getCapacity());
+        assertEquals(Duration.ofMinutes(1), limit.getPeriod());
+        assertEquals(3_000_000_000L, limit.intervalNanos());
+    }
+
+    @Test
+    void parseAcceptsIsoPeriodsAndSpaces() {
+        RateLimit limit = RateLimit.parse(" 5 / PT30S ");
+
+        assertEquals(5, limit.getCapacity());
+        assertEquals(Duration.ofSeconds(30), limit.getPeriod());
+        assertEquals("5/PT30S", limit.toString());
+    }
+
+    @Test
+    void invalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("20"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("x/1m"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("0/1m"));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.parse("5/0s"));
+    }
+}
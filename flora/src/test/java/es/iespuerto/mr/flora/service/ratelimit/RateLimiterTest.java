@@ -0,0 +1,126 @@
+package es.iespuerto.mr.flora.service.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+
+    @Test
+    void burstUpToCapacityIsAllowedThenRejected() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(3, Duration.ofSeconds(3)), 10, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertEquals(SECOND, limiter.tryAcquire("ip"));
+    }
+
+    @Test
+    void tokensRefillOverThePeriod() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(3, Duration.ofSeconds(3)), 10, clock::get);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip");
+        }
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(SECOND / 2, limiter.tryAcquire("ip"));
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.tryAcquire("ip"));
+        assertTrue(limiter.tryAcquire("ip") > 0);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(1, Duration.ofMinutes(1)), 10, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertEquals(2, limiter.size());
+    }
+
+    @Test
+    void evictIdleDropsOnlyFullBuckets() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(2, Duration.ofSeconds(10)), 10, clock::get);
+        limiter.tryAcquire("a");
+        clock.addAndGet(3 * SECOND);
+        limiter.tryAcquire("b");
+
+        clock.addAndGet(3 * SECOND);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+        clock.addAndGet(3 * SECOND);
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void fullMapLeavesNewKeysUnlimitedAndCountsOverflow() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(1, Duration.ofMinutes(1)), 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertEquals(2, limiter.size());
+        assertEquals(2, limiter.overflowCount());
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    void fullMapIsEvictedWhenBucketsHaveRefilled() {
+        RateLimiter limiter = new RateLimiter(new RateLimit(1, Duration.ofSeconds(1)), 1, clock::get);
+        limiter.tryAcquire("a");
+        clock.addAndGet(2 * SECOND);
+
+        assertEquals(0, limiter.tryAcquire("b"));
+        assertTrue(limiter.tryAcquire("b") > 0);
+        assertEquals(0, limiter.overflowCount());
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        RateLimiter limiter = new RateLimiter(new RateLimit(100, Duration.ofHours(1)), 10);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire("ip") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void maxKeysMustBePositive() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(new RateLimit(1, Duration.ofSeconds(1)), 0));
+    }
+}
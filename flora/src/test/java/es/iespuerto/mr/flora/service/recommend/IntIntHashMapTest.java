@@ -0,0 +1,92 @@
+package es.iespuerto.mr.flora.service.recommend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IntIntHashMapTest {
+
+    @Test
+    void addToInsertsAndAccumulates() {
+        IntIntHashMap map = new IntIntHashMap();
+
+        assertEquals(1, map.addTo(7, 1));
+        assertEquals(3, map.addTo(7, 2));
+        assertEquals(-1, map.addTo(0, -1));
+
+        assertEquals(3, map.get(7));
+        assertEquals(-1, map.get(0));
+        assertEquals(0, map.get(8));
+        assertTrue(map.containsKey(0));
+        assertFalse(map.containsKey(8));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void removeDropsOnlyThatKey() {
+        IntIntHashMap map = new IntIntHashMap();
+        for (int key = 1; key <= 20; key++) {
+            map.addTo(key, key);
+        }
+
+        assertTrue(map.remove(5));
+        assertFalse(map.remove(5));
+        assertFalse(map.containsKey(5));
+        assertEquals(19, map.size());
+        for (int key = 1; key <= 20; key++) {
+            if (key != 5) {
+                assertEquals(key, map.get(key));
+            }
+        }
+    }
+
+    @Test
+    void forEachAndKeysVisitEveryEntry() {
+        IntIntHashMap map = new IntIntHashMap();
+        map.addTo(3, 30);
+        map.addTo(1, 10);
+        map.addTo(2, 20);
+
+        int[] sum = {0};
+        map.forEach((key, value) -> sum[0] += key * value);
+        int[] keys = map.keys();
+        Arrays.sort(keys);
+
+        assertEquals(140, sum[0]);
+        assertArrayEquals(new int[] {1, 2, 3}, keys);
+    }
+
+    @Test
+    void minValueKeyIsRejected() {
+        IntIntHashMap map = new IntIntHashMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.addTo(Integer.MIN_VALUE, 1));
+        assertFalse(map.containsKey(Integer.MIN_VALUE));
+        assertFalse(map.remove(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        Random random = new Random(42);
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                int delta = random.nextInt(5) + 1;
+                assertEquals((int) expected.merge(key, delta, Integer::sum), map.addTo(key, delta));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value.intValue(), map.get(key)));
+    }
+}
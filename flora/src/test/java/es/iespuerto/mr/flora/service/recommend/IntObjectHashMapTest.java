@@ -0,0 +1,75 @@
+package es.iespuerto.mr.flora.service.recommend;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class IntObjectHashMapTest {
+
+    @Test
+    void putGetAndReplace() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "uno");
+        map.put(2, "dos");
+        map.put(1, "one");
+
+        assertEquals("one", map.get(1));
+        assertEquals("dos", map.get(2));
+        assertNull(map.get(3));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void removeReturnsThePreviousValue() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "uno");
+
+        assertEquals("uno", map.remove(1));
+        assertNull(map.remove(1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    void forEachVisitsEveryEntry() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, "a");
+        map.put(2, "b");
+
+        Map<Integer, String> visited = new HashMap<>();
+        map.forEach(visited::put);
+
+        assertEquals(Map.of(1, "a", 2, "b"), visited);
+    }
+
+    @Test
+    void minValueKeyIsRejected() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Integer.MIN_VALUE, "x"));
+        assertNull(map.get(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        Random random = new Random(7);
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+}
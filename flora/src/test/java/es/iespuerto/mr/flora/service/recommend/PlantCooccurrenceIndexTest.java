@@ -0,0 +1,152 @@
+package es.iespuerto.mr.flora.service.recommend;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+public class PlantCooccurrenceIndexTest {
+
+    private PlantCooccurrenceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PlantCooccurrenceIndex();
+        // User 1 likes 1, 2, 3; user 2 likes 1, 2; user 3 likes 1, 4
+        index.add(1, 1);
+        index.add(1, 2);
+        index.add(1, 3);
+        index.add(2, 1);
+        index.add(2, 2);
+        index.add(3, 1);
+        index.add(3, 4);
+    }
+
+    @Test
+    void relatedRanksByCosineSimilarity() {
+        List<PlantCooccurrenceIndex.Related> related = index.related(2, 10);
+
+        // 2 (2 users) shares two users with 1 (3 users) and one with 3 (1 user)
+        assertEquals(List.of(1, 3), ids(related));
+        assertEquals(2, related.get(0).getSharedUsers());
+        assertEquals(2 / Math.sqrt(6), related.get(0).getScore(), 1e-9);
+        assertEquals(1, related.get(1).getSharedUsers());
+        assertEquals(1 / Math.sqrt(2), related.get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void relatedBreaksTiesBySharedUsersThenId() {
+        assertEquals(List.of(2, 3, 4), ids(index.related(1, 10)));
+        assertEquals(List.of(2), ids(index.related(1, 1)));
+    }
+
+    @Test
+    void relatedIsEmptyForUnknownOrLonelyPlants() {
+        index.add(4, 9);
+
+        assertTrue(index.related(9, 10).isEmpty());
+        assertTrue(index.related(42, 10).isEmpty());
+    }
+
+    @Test
+    void removeUndoesTheCooccurrences() {
+        index.remove(1, 3);
+
+        assertTrue(index.related(3, 10).isEmpty());
+        assertEquals(List.of(1), ids(index.related(2, 10)));
+        assertEquals(List.of(2, 4), ids(index.related(1, 10)));
+    }
+
+    @Test
+    void duplicateFavoritesCountOnceUntilTheLastIsRemoved() {
+        index.add(1, 3);
+        assertEquals(1, index.related(2, 10).get(1).getSharedUsers());
+
+        index.remove(1, 3);
+        assertEquals(List.of(1, 3), ids(index.related(2, 10)));
+
+        index.remove(1, 3);
+        assertEquals(List.of(1), ids(index.related(2, 10)));
+    }
+
+    @Test
+    void removeIgnoresUnknownFavorites() {
+        index.remove(1, 4);
+        index.remove(9, 1);
+
+        assertEquals(List.of(2, 3, 4), ids(index.related(1, 10)));
+    }
+
+    @Test
+    void removePlantDropsItEverywhere() {
+        index.removePlant(2);
+
+        assertTrue(index.related(2, 10).isEmpty());
+        assertEquals(List.of(3, 4), ids(index.related(1, 10)));
+
+        // New favorites of user 1 no longer pair with the deleted plant
+        index.add(1, 5);
+        assertEquals(List.of(3, 1), ids(index.related(5, 10)));
+    }
+
+    @Test
+    void rowsArePrunedToTheStrongestNeighbours() {
+        PlantCooccurrenceIndex pruned = new PlantCooccurrenceIndex();
+        pruned.setMaxNeighbours(PlantCooccurrenceIndex.MAX_RELATED);
+        // Plant 1000 shares two users with plants 1..50 and then one user with plant 51
+        for (int user = 1; user <= 2; user++) {
+            pruned.add(user, 1000);
+            for (int plant = 1; plant <= PlantCooccurrenceIndex.MAX_RELATED; plant++) {
+                pruned.add(user, plant);
+            }
+        }
+        pruned.add(3, 1000);
+        pruned.add(3, 51);
+
+        List<PlantCooccurrenceIndex.Related> related = pruned.related(1000, PlantCooccurrenceIndex.MAX_RELATED);
+
+        assertEquals(PlantCooccurrenceIndex.MAX_RELATED, related.size());
+        assertTrue(ids(related).contains(51));
+        assertEquals(PlantCooccurrenceIndex.MAX_RELATED - 1,
+                related.stream().filter(r -> r.getSharedUsers() == 2).count());
+    }
+
+    @Test
+    void maxNeighboursBelowMaxRelatedIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> index.setMaxNeighbours(PlantCooccurrenceIndex.MAX_RELATED - 1));
+    }
+
+    @Test
+    void rebuildStreamsFavoritesFromTheDatabase() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        int[][] favorites = {{1, 5}, {1, 6}, {2, 5}, {2, 6}, {2, 7}};
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int[] favorite : favorites) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt(1)).thenReturn(favorite[0]);
+                when(rs.getInt(2)).thenReturn(favorite[1]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        index.setJdbcTemplate(jdbcTemplate);
+
+        index.rebuild();
+
+        assertEquals(List.of(6, 7), ids(index.related(5, 10)));
+        assertTrue(index.related(1, 10).isEmpty());
+    }
+
+    private static List<Integer> ids(List<PlantCooccurrenceIndex.Related> related) {
+        return related.stream().map(PlantCooccurrenceIndex.Related::getPlantId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,171 @@
+package es.iespuerto.mr.flora.service.refresh;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.model.RefreshToken;
+import es.iespuerto.mr.flora.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RefreshTokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00Z");
+
+    private final List<RefreshToken> rows = new ArrayList<>();
+    private RefreshTokenRepository repository;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            token.setId(rows.size() + 1);
+            rows.add(token);
+            return token;
+        });
+        when(repository.findByTokenHash(anyString())).thenAnswer(invocation -> rows.stream()
+                .filter(t -> t.getTokenHash().equals(invocation.getArgument(0)))
+                .findFirst());
+        when(repository.markUsed(anyLong(), any(Instant.class))).thenAnswer(invocation -> {
+            long id = invocation.getArgument(0);
+            for (RefreshToken token : rows) {
+                if (token.getId() == id && token.getUsedAt() == null) {
+                    token.setUsedAt(invocation.getArgument(1));
+                    return 1;
+                }
+            }
+            return 0;
+        });
+        when(repository.deleteFamily(anyString())).thenAnswer(invocation -> {
+            int before = rows.size();
+            rows.removeIf(t -> t.getFamilyId().equals(invocation.getArgument(0)));
+            return before - rows.size();
+        });
+        service = new RefreshTokenService();
+        service.setRefreshTokenRepository(repository);
+        service.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        service.setLifetime(Duration.ofDays(14));
+    }
+
+    @Test
+    void issueStoresOnlyTheHashOfTheToken() {
+        String token = service.issue("Manuel");
+
+        assertEquals(43, token.length());
+        assertEquals(1, rows.size());
+        RefreshToken stored = rows.get(0);
+        assertNotEquals(token, stored.getTokenHash());
+        assertEquals(RefreshTokenService.hash(token), stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+        assertEquals("Manuel", stored.getUsername());
+        assertEquals(NOW.plus(Duration.ofDays(14)), stored.getExpiresAt());
+    }
+
+    @Test
+    void issueStartsANewFamilyEachTime() {
+        String first = service.issue("Manuel");
+        String second = service.issue("Manuel");
+
+        assertNotEquals(first, second);
+        assertNotEquals(rows.get(0).getFamilyId(), rows.get(1).getFamilyId());
+    }
+
+    @Test
+    void rotateReplacesTokenWithinTheFamily() {
+        String token = service.issue("Manuel");
+
+        RefreshTokenService.Rotation rotation = service.rotate(token).orElseThrow();
+
+        assertEquals("Manuel", rotation.getUsername());
+        assertNotEquals(token, rotation.getToken());
+        assertEquals(2, rows.size());
+        assertEquals(NOW, rows.get(0).getUsedAt());
+        assertEquals(rows.get(0).getFamilyId(), rows.get(1).getFamilyId());
+        assertTrue(service.rotate(rotation.getToken()).isPresent());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        String stolen = service.issue("Manuel");
+        String current = service.rotate(stolen).orElseThrow().getToken();
+        String other = service.issue("Manuel");
+
+        assertTrue(service.rotate(stolen).isEmpty());
+
+        assertTrue(service.rotate(current).isEmpty());
+        assertTrue(service.rotate(other).isPresent());
+    }
+
+    @Test
+    void losingTheRaceToMarkTheTokenCountsAsReuse() {
+        String token = service.issue("Manuel");
+        when(repository.markUsed(anyLong(), any(Instant.class))).thenReturn(0);
+
+        assertTrue(service.rotate(token).isEmpty());
+        verify(repository).deleteFamily(anyString());
+    }
+
+    @Test
+    void unknownOrExpiredTokensAreRejected() {
+        String token = service.issue("Manuel");
+
+        assertTrue(service.rotate("unknown").isEmpty());
+        service.setClock(Clock.fixed(NOW.plus(Duration.ofDays(14)), ZoneOffset.UTC));
+        assertTrue(service.rotate(token).isEmpty());
+        verify(repository, never()).markUsed(anyLong(), any());
+    }
+
+    @Test
+    void revokeDeletesTheFamilyOfTheToken() {
+        String token = service.issue("Manuel");
+        String rotated = service.rotate(token).orElseThrow().getToken();
+
+        service.revoke(rotated);
+
+        assertTrue(rows.isEmpty());
+        service.revoke("unknown");
+    }
+
+    @Test
+    void revokeUserAndCompactDelegateToRepository() {
+        service.revokeUser("Manuel");
+        service.compact();
+
+        verify(repository).deleteByUser("Manuel");
+        verify(repository).deleteExpired(NOW);
+    }
+
+    @Test
+    void bindToRegistersRefreshCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        String token = service.issue("Manuel");
+        service.rotate(token);
+        service.rotate(token);
+        service.rotate("unknown");
+
+        assertEquals(1.0, registry.get("flora.auth.refresh").tag("result", "issued").functionCounter().count());
+        assertEquals(1.0, registry.get("flora.auth.refresh").tag("result", "rotated").functionCounter().count());
+        assertEquals(1.0, registry.get("flora.auth.refresh").tag("result", "reused").functionCounter().count());
+        assertEquals(1.0, registry.get("flora.auth.refresh").tag("result", "rejected").functionCounter().count());
+    }
+
+    @Test
+    void lifetimeMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> service.setLifetime(Duration.ZERO));
+        assertEquals(Duration.ofDays(14), service.getLifetime());
+    }
+}
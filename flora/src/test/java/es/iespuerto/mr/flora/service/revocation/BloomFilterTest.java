@@ -0,0 +1,69 @@
+package es.iespuerto.mr.flora.service.revocation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    void keysPutAreAlwaysFound() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put('t', "token-" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain('t', "token-" + i));
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain('t', "token"));
+        assertFalse(filter.mightContain('u', ""));
+    }
+
+    @Test
+    void namespacesAreSeparate() {
+        BloomFilter filter = new BloomFilter(100, 0.001);
+        filter.put('u', "Manuel");
+
+        assertTrue(filter.mightContain('u', "Manuel"));
+        assertFalse(filter.mightContain('t', "Manuel"));
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredOne() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put('t', "revoked-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain('t', "valid-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void sizingIsDerivedFromTheParameters() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertEquals(1_000, filter.expectedInsertions());
+        assertEquals(7, filter.hashes());
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+}
@@ -0,0 +1,242 @@
+package es.iespuerto.mr.flora.service.revocation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.exception.InvalidRequestException;
+import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
+import es.iespuerto.mr.flora.model.TokenRevocation;
+import es.iespuerto.mr.flora.model.User;
+import es.iespuerto.mr.flora.repository.TokenRevocationRepository;
+import es.iespuerto.mr.flora.repository.UserRepository;
+import es.iespuerto.mr.flora.security.JwtPrincipal;
+import es.iespuerto.mr.flora.security.JwtUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T10:00:00.500Z");
+
+    private final List<TokenRevocation> rows = new ArrayList<>();
+    private TokenRevocationRepository repository;
+    private UserRepository userRepository;
+    private JwtUtils jwtUtils;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(TokenRevocationRepository.class);
+        when(repository.save(any(TokenRevocation.class))).thenAnswer(invocation -> {
+            TokenRevocation revocation = invocation.getArgument(0);
+            revocation.setId(rows.size() + 1);
+            rows.add(revocation);
+            return revocation;
+        });
+        when(repository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(Instant.class), any(Instant.class)))
+                .thenAnswer(invocation -> {
+                    Instant since = invocation.getArgument(0);
+                    Instant now = invocation.getArgument(1);
+                    return rows.stream()
+                            .filter(r -> !r.getRevokedAt().isBefore(since) && r.getExpiresAt().isAfter(now))
+                            .collect(Collectors.toList());
+                });
+        when(repository.deleteExpired(any(Instant.class))).thenAnswer(invocation -> {
+            Instant now = invocation.getArgument(0);
+            int before = rows.size();
+            rows.removeIf(r -> !r.getExpiresAt().isAfter(now));
+            return before - rows.size();
+        });
+        userRepository = mock(UserRepository.class);
+        jwtUtils = mock(JwtUtils.class);
+        when(jwtUtils.getTokenLifetime()).thenReturn(Duration.ofHours(10));
+        service = newService();
+    }
+
+    private TokenRevocationService newService() {
+        TokenRevocationService created = new TokenRevocationService();
+        created.setTokenRevocationRepository(repository);
+        created.setUserRepository(userRepository);
+        created.setJwtUtils(jwtUtils);
+        created.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        created.setExpectedEntries(4);
+        created.load();
+        return created;
+    }
+
+    private static JwtPrincipal token(String tokenId, String username, Instant issuedAt) {
+        return new JwtPrincipal(tokenId, username, List.of("ROLE_USER"), issuedAt, issuedAt.plus(Duration.ofHours(10)));
+    }
+
+    @Test
+    void tokenIsNotRevokedByDefault() {
+        assertFalse(service.isRevoked(token("jti-1", "Manuel", NOW)));
+    }
+
+    @Test
+    void revokeTokenRevokesOnlyThatToken() {
+        service.revokeToken(token("jti-1", "Manuel", NOW));
+
+        assertTrue(service.isRevoked(token("jti-1", "Manuel", NOW)));
+        assertFalse(service.isRevoked(token("jti-2", "Manuel", NOW)));
+        assertEquals(1, rows.size());
+        assertEquals("jti-1", rows.get(0).getTokenId());
+        assertEquals(NOW.plus(Duration.ofHours(10)), rows.get(0).getExpiresAt());
+    }
+
+    @Test
+    void revokeTokenWithoutIdIsRejected() {
+        JwtPrincipal principal = new JwtPrincipal("Manuel", List.of(), NOW.plusSeconds(60));
+
+        assertThrows(InvalidRequestException.class, () -> service.revokeToken(principal));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void revokeUserRevokesTokensIssuedUpToTheRevocation() throws ResourceNotFoundException {
+        when(userRepository.findByName("Manuel")).thenReturn(Optional.of(new User()));
+
+        service.revokeUser("Manuel");
+
+        assertTrue(service.isRevoked(token("jti-1", "Manuel", NOW.minus(Duration.ofHours(1)))));
+        // Issue times have second precision, so a token of the same second is revoked as well
+        assertTrue(service.isRevoked(token("jti-2", "Manuel", Instant.parse("2026-10-18T10:00:00Z"))));
+        assertFalse(service.isRevoked(token("jti-3", "Manuel", NOW.plusSeconds(1))));
+        assertFalse(service.isRevoked(token("jti-4", "Pedro", NOW.minusSeconds(60))));
+        assertNull(rows.get(0).getTokenId());
+        assertEquals(Instant.parse("2026-10-18T20:00:00Z"), rows.get(0).getExpiresAt());
+    }
+
+    @Test
+    void revokeUserTreatsTokensWithoutIssueTimeAsRevoked() throws ResourceNotFoundException {
+        when(userRepository.findByName("Manuel")).thenReturn(Optional.of(new User()));
+        service.revokeUser("Manuel");
+
+        assertTrue(service.isRevoked(new JwtPrincipal("Manuel", List.of(), NOW.plusSeconds(60))));
+    }
+
+    @Test
+    void revokeUnknownUserThrows() {
+        when(userRepository.findByName("ghost")).thenReturn(Optional.empty());
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> service.revokeUser("ghost"));
+        assertEquals("User not found for this name :: ghost", exception.getMessage());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void loadRestoresRevocationsAfterRestart() {
+        service.revokeToken(token("jti-1", "Manuel", NOW));
+
+        TokenRevocationService restarted = newService();
+
+        assertTrue(restarted.isRevoked(token("jti-1", "Manuel", NOW)));
+        assertEquals(1, restarted.size());
+    }
+
+    @Test
+    void syncPicksUpRevocationsMadeOnOtherNodes() {
+        TokenRevocationService other = newService();
+        other.revokeToken(token("jti-1", "Manuel", NOW));
+        assertFalse(service.isRevoked(token("jti-1", "Manuel", NOW)));
+
+        service.sync();
+
+        assertTrue(service.isRevoked(token("jti-1", "Manuel", NOW)));
+        service.sync();
+        assertEquals(1, service.size());
+    }
+
+    @Test
+    void syncPicksUpRevocationsCommittedAfterALaterSync() {
+        service.sync();
+        // Revoked before that read on another node, but committed only after it
+        TokenRevocation late = new TokenRevocation("jti-late", "Manuel", NOW.minusSeconds(5),
+                NOW.plus(Duration.ofHours(1)));
+        late.setId(1);
+        rows.add(late);
+
+        service.setClock(Clock.fixed(NOW.plusSeconds(10), ZoneOffset.UTC));
+        service.sync();
+
+        assertTrue(service.isRevoked(token("jti-late", "Manuel", NOW)));
+    }
+
+    @Test
+    void syncOnlyReachesBackTheOverlapBeforeThePreviousRead() {
+        service.setSyncOverlap(Duration.ofSeconds(30));
+        service.sync();
+        TokenRevocation stale = new TokenRevocation("jti-stale", "Manuel", NOW.minusSeconds(60),
+                NOW.plus(Duration.ofHours(1)));
+        stale.setId(1);
+        rows.add(stale);
+
+        service.setClock(Clock.fixed(NOW.plusSeconds(10), ZoneOffset.UTC));
+        service.sync();
+
+        assertFalse(service.isRevoked(token("jti-stale", "Manuel", NOW)));
+    }
+
+    @Test
+    void compactDropsRevocationsOfExpiredTokens() {
+        service.revokeToken(token("jti-old", "Manuel", NOW.minus(Duration.ofHours(9))));
+        service.revokeToken(token("jti-new", "Manuel", NOW));
+
+        service.setClock(Clock.fixed(NOW.plus(Duration.ofHours(2)), ZoneOffset.UTC));
+        service.compact();
+
+        assertEquals(1, service.size());
+        assertEquals(1, rows.size());
+        assertEquals("jti-new", rows.get(0).getTokenId());
+        assertFalse(service.isRevoked(token("jti-old", "Manuel", NOW.minus(Duration.ofHours(9)))));
+        assertTrue(service.isRevoked(token("jti-new", "Manuel", NOW)));
+    }
+
+    @Test
+    void filterGrowsBeyondItsConfiguredSize() {
+        for (int i = 0; i < 50; i++) {
+            service.revokeToken(token("jti-" + i, "Manuel", NOW));
+        }
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(service.isRevoked(token("jti-" + i, "Manuel", NOW)));
+        }
+        assertEquals(50, service.size());
+    }
+
+    @Test
+    void bindToRegistersRevocationMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        service.revokeToken(token("jti-1", "Manuel", NOW));
+
+        service.isRevoked(token("jti-1", "Manuel", NOW));
+        service.isRevoked(token("jti-2", "Pedro", NOW));
+
+        assertEquals(1.0, registry.get("flora.auth.revocations").gauge().value());
+        assertEquals(4.0, registry.get("flora.auth.revocations.capacity").gauge().value());
+        assertEquals(1.0, registry.get("flora.auth.revocation.checks").tag("result", "revoked").functionCounter().count());
+        double answered = registry.get("flora.auth.revocation.checks").tag("result", "negative").functionCounter().count()
+                + registry.get("flora.auth.revocation.checks").tag("result", "false-positive").functionCounter().count();
+        assertEquals(1.0, answered);
+    }
+
+    @Test
+    void invalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.setExpectedEntries(0));
+        assertThrows(IllegalArgumentException.class, () -> service.setFalsePositiveRate(1.0));
+    }
+}
@@ -0,0 +1,44 @@
+package es.iespuerto.mr.flora.service.runtime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ExecutionModeReporterTest {
+
+    private static ExecutionModeReporter reporter(MockEnvironment environment) {
+        ExecutionModeReporter reporter = new ExecutionModeReporter();
+        reporter.setEnvironment(environment);
+        return reporter;
+    }
+
+    @Test
+    void platformThreadsByDefault() {
+        ExecutionModeReporter reporter = reporter(new MockEnvironment());
+
+        assertFalse(reporter.isVirtualThreadsRequested());
+        assertFalse(reporter.isVirtualThreads());
+        reporter.report();
+    }
+
+    @Test
+    void virtualThreadsOnlyWhenRequestedAndSupported() {
+        ExecutionModeReporter reporter = reporter(
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        assertTrue(reporter.isVirtualThreadsRequested());
+        assertEquals(Runtime.version().feature() >= 21, reporter.isVirtualThreads());
+        reporter.report();
+    }
+
+    @Test
+    void bindToRegistersGauge() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        reporter(new MockEnvironment()).bindTo(registry);
+
+        assertEquals(0.0, registry.get("flora.execution.virtual-threads").gauge().value());
+    }
+}
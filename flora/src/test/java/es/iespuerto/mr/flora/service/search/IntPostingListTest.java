@@ -0,0 +1,40 @@
+package es.iespuerto.mr.flora.service.search;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntPostingListTest {
+
+    @Test
+    void addKeepsIdsSortedAndUnique() {
+        IntPostingList list = new IntPostingList();
+
+        assertTrue(list.add(5));
+        assertTrue(list.add(1));
+        assertTrue(list.add(9));
+        assertTrue(list.add(3));
+        assertFalse(list.add(5));
+
+        assertArrayEquals(new int[] {1, 3, 5, 9}, list.toArray());
+        assertEquals(4, list.size());
+    }
+
+    @Test
+    void removeDeletesIdIfPresent() {
+        IntPostingList list = new IntPostingList();
+        list.add(1);
+        list.add(2);
+
+        assertTrue(list.remove(1));
+        assertFalse(list.remove(7));
+
+        assertFalse(list.contains(1));
+        assertTrue(list.contains(2));
+        assertEquals(2, list.get(0));
+    }
+
+    @Test
+    void newListIsEmpty() {
+        assertTrue(new IntPostingList().isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package es.iespuerto.mr.flora.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+
+public class PlantSearchIndexTest {
+
+    private PlantSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        PlantRepository plantRepository = mock(PlantRepository.class);
+        when(plantRepository.findAll()).thenReturn(Arrays.asList(
+                plant(1, "Rosa", "Rosa spp."),
+                plant(2, "Tulipán", "Tulipa spp."),
+                plant(3, "Drago", "Dracaena draco")));
+        index = new PlantSearchIndex();
+        index.setPlantRepository(plantRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void searchIgnoresAccentsAndCase() {
+        List<PlantSummary> results = index.search("TULIPAN", 10);
+
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getId());
+    }
+
+    @Test
+    void searchMatchesPrefixOfScientificName() {
+        List<PlantSummary> results = index.search("dracae", 10);
+
+        assertEquals(3, results.get(0).getId());
+    }
+
+    @Test
+    void searchRanksClosestMatchFirst() {
+        index.index(plant(4, "Rosal silvestre", "Rosa canina"));
+
+        List<PlantSummary> results = index.search("rosa", 10);
+
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).getId());
+        assertEquals(4, results.get(1).getId());
+    }
+
+    @Test
+    void searchReturnsEmptyForShortOrUnknownQueries() {
+        assertTrue(index.search("r", 10).isEmpty());
+        assertTrue(index.search("xyzzy", 10).isEmpty());
+    }
+
+    @Test
+    void indexReplacesPreviousVersionOfPlant() {
+        index.index(plant(1, "Magarza", "Argyranthemum frutescens"));
+
+        assertTrue(index.search("rosa", 10).isEmpty());
+        assertEquals(1, index.search("magarza", 10).get(0).getId());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void removeDropsPlantFromResults() {
+        index.remove(2);
+
+        assertTrue(index.search("tulipan", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void searchHonoursLimit() {
+        index.index(plant(4, "Rosal", "Rosa canina"));
+
+        assertEquals(1, index.search("rosa", 1).size());
+    }
+
+    private static Plant plant(int id, String commonName, String scientificName) {
+        Plant plant = new Plant(commonName, scientificName);
+        plant.setId(id);
+        return plant;
+    }
+}
@@ -0,0 +1,129 @@
+package es.iespuerto.mr.flora.service.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.dto.PlantSummary;
+import es.iespuerto.mr.flora.model.Plant;
+import es.iespuerto.mr.flora.repository.FavoriteRepository;
+import es.iespuerto.mr.flora.repository.FavoriteRepository.PlantFavoriteCount;
+import es.iespuerto.mr.flora.repository.PlantRepository;
+
+public class PlantSuggestIndexTest {
+
+    private PlantSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        PlantRepository plantRepository = mock(PlantRepository.class);
+        when(plantRepository.findAll()).thenReturn(Arrays.asList(
+                plant(1, "Rosa", "Rosa spp."),
+                plant(2, "Rosal silvestre", "Rosa canina"),
+                plant(3, "Romero", "Salvia rosmarinus"),
+                plant(4, "Tulipán", "Tulipa spp.")));
+        FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+        when(favoriteRepository.countFavoritesByPlant()).thenReturn(Arrays.asList(count(2, 5), count(3, 2)));
+        index = new PlantSuggestIndex();
+        index.setPlantRepository(plantRepository);
+        index.setFavoriteRepository(favoriteRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void suggestRanksByFavoritesThenId() {
+        assertEquals(List.of(2, 3, 1), ids(index.suggest("ro", 10)));
+        assertEquals(List.of(2, 1), ids(index.suggest("ros", 10)));
+    }
+
+    @Test
+    void suggestIgnoresAccentsAndCaseAndMatchesScientificName() {
+        assertEquals(List.of(4), ids(index.suggest("TULIPÁ", 10)));
+        assertEquals(List.of(3), ids(index.suggest("salvia r", 10)));
+    }
+
+    @Test
+    void suggestReturnsEmptyForUnknownOrBlankPrefixes() {
+        assertTrue(index.suggest("rosax", 10).isEmpty());
+        assertTrue(index.suggest("x", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    void suggestHonoursLimit() {
+        assertEquals(List.of(2), ids(index.suggest("ro", 1)));
+    }
+
+    @Test
+    void adjustFavoritesReranksSuggestions() {
+        index.adjustFavorites(1, 10);
+
+        assertEquals(List.of(1, 2, 3), ids(index.suggest("ro", 10)));
+
+        index.adjustFavorites(1, -10);
+
+        assertEquals(List.of(2, 3, 1), ids(index.suggest("ro", 10)));
+    }
+
+    @Test
+    void indexSplitsEdgesAndReplacesPreviousVersion() {
+        index.index(plant(5, "Ro", "Rob"));
+        index.index(plant(1, "Drago", "Dracaena draco"));
+
+        assertEquals(List.of(2, 3, 5), ids(index.suggest("ro", 10)));
+        assertEquals(List.of(1), ids(index.suggest("dra", 10)));
+    }
+
+    @Test
+    void removeDropsPlantAndKeepsSiblings() {
+        index.remove(2);
+
+        assertEquals(List.of(3, 1), ids(index.suggest("ro", 10)));
+        assertEquals(List.of(1), ids(index.suggest("rosa", 10)));
+        assertTrue(index.suggest("rosal", 10).isEmpty());
+    }
+
+    @Test
+    void keepsOnlyTopKPerNode() {
+        for (int id = 10; id < 30; id++) {
+            index.index(plant(id, "Magarza " + id, null));
+        }
+        index.adjustFavorites(29, 1);
+
+        List<PlantSummary> suggestions = index.suggest("mag", 100);
+
+        assertEquals(PlantSuggestIndex.TOP_K, suggestions.size());
+        assertEquals(29, suggestions.get(0).getId());
+        assertEquals(10, suggestions.get(1).getId());
+    }
+
+    private static List<Integer> ids(List<PlantSummary> summaries) {
+        return summaries.stream().map(PlantSummary::getId).collect(Collectors.toList());
+    }
+
+    private static PlantFavoriteCount count(int plantId, long favorites) {
+        return new PlantFavoriteCount() {
+            @Override
+            public int getPlantId() {
+                return plantId;
+            }
+
+            @Override
+            public long getFavorites() {
+                return favorites;
+            }
+        };
+    }
+
+    private static Plant plant(int id, String commonName, String scientificName) {
+        Plant plant = new Plant(commonName, scientificName);
+        plant.setId(id);
+        return plant;
+    }
+}
@@ -0,0 +1,23 @@
+package es.iespuerto.mr.flora.service.search;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextNormalizerTest {
+
+    @Test
+    void normalizeRemovesAccentsAndCase() {
+        assertEquals("tulipan", TextNormalizer.normalize("Tulipán"));
+        assertEquals("arboles", TextNormalizer.normalize("ÁRBOLES"));
+    }
+
+    @Test
+    void normalizeCollapsesPunctuationAndSpaces() {
+        assertEquals("rosa spp", TextNormalizer.normalize("  Rosa   spp. "));
+    }
+
+    @Test
+    void normalizeReturnsEmptyStringForNull() {
+        assertEquals("", TextNormalizer.normalize(null));
+    }
+}
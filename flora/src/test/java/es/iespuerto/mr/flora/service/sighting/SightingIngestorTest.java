@@ -0,0 +1,147 @@
+package es.iespuerto.mr.flora.service.sighting;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import es.iespuerto.mr.flora.model.Sighting;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SightingIngestorTest {
+
+    private final List<Sighting> stored = Collections.synchronizedList(new ArrayList<>());
+    private SightingJdbcWriter writer;
+    private SightingIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        writer = mock(SightingJdbcWriter.class);
+        when(writer.write(anyList())).thenAnswer(invocation -> {
+            List<Sighting> batch = invocation.getArgument(0);
+            stored.addAll(batch);
+            return batch.size();
+        });
+        ingestor = new SightingIngestor();
+        ingestor.setWriter(writer);
+        ingestor.setCapacity(4);
+        ingestor.setBatchSize(3);
+        ingestor.setShutdownTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestor.stop();
+    }
+
+    @Test
+    void offerIsRejectedBeforeStart() {
+        assertFalse(ingestor.offer(sighting(1)));
+        assertFalse(ingestor.isRunning());
+    }
+
+    @Test
+    void writerStoresOfferedSightings() throws InterruptedException {
+        ingestor.start();
+
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(ingestor.offer(sighting(i)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (stored.size() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(3, stored.size());
+        assertEquals(0, ingestor.depth());
+    }
+
+    @Test
+    void offerIsRejectedWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(writer.write(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<Sighting> batch = invocation.getArgument(0);
+            stored.addAll(batch);
+            return batch.size();
+        });
+        ingestor.start();
+
+        // The first sighting keeps the writer busy, the next four fill the buffer
+        assertTrue(ingestor.offer(sighting(0)));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(ingestor.offer(sighting(i)));
+        }
+        assertFalse(ingestor.offer(sighting(5)));
+        assertEquals(4, ingestor.depth());
+
+        release.countDown();
+        ingestor.stop();
+
+        assertEquals(5, stored.size());
+    }
+
+    @Test
+    void stopFlushesBufferAndRejectsNewSightings() {
+        ingestor.start();
+        for (int i = 1; i <= 4; i++) {
+            ingestor.offer(sighting(i));
+        }
+
+        ingestor.stop();
+
+        assertEquals(4, stored.size());
+        assertFalse(ingestor.isRunning());
+        assertFalse(ingestor.offer(sighting(5)));
+    }
+
+    @Test
+    void writerSurvivesFailingBatches() {
+        when(writer.write(anyList())).thenThrow(new IllegalStateException("database down"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ingestor.bindTo(registry);
+        ingestor.start();
+
+        ingestor.offer(sighting(1));
+        ingestor.stop();
+
+        assertEquals(1.0, registry.get("flora.sightings.failed").functionCounter().count());
+        assertEquals(0.0, registry.get("flora.sightings.written").functionCounter().count());
+    }
+
+    @Test
+    void bindToPublishesCountersAndBufferDepth() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ingestor.bindTo(registry);
+        ingestor.start();
+
+        ingestor.offer(sighting(1));
+        ingestor.offer(sighting(2));
+        ingestor.stop();
+        ingestor.offer(sighting(3));
+
+        assertEquals(2.0, registry.get("flora.sightings.received").tag("result", "accepted").functionCounter().count());
+        assertEquals(1.0, registry.get("flora.sightings.received").tag("result", "rejected").functionCounter().count());
+        assertEquals(2.0, registry.get("flora.sightings.written").functionCounter().count());
+        assertEquals(0.0, registry.get("flora.sightings.buffer.depth").gauge().value());
+        assertEquals(4.0, registry.get("flora.sightings.buffer.capacity").gauge().value());
+    }
+
+    private static Sighting sighting(int plantId) {
+        return new Sighting(1, plantId, Instant.parse("2026-05-01T10:00:00Z"));
+    }
+}
@@ -0,0 +1,86 @@
+package es.iespuerto.mr.flora.service.sighting;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.iespuerto.mr.flora.model.Sighting;
+
+public class SightingJdbcWriterTest {
+
+    private static final Instant OBSERVED_AT = Instant.parse("2026-05-01T10:00:00Z");
+
+    private JdbcTemplate jdbcTemplate;
+    private SightingJdbcWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        writer = new SightingJdbcWriter();
+        writer.setJdbcTemplate(jdbcTemplate);
+    }
+
+    @Test
+    void writeSendsOneMultiRowInsert() {
+        Sighting sighting = new Sighting(1, 2, OBSERVED_AT);
+        sighting.setLocationId(3);
+        sighting.setLatitude(28.27);
+        sighting.setLongitude(-16.64);
+
+        assertEquals(2, writer.write(List.of(sighting, new Sighting(4, 5, OBSERVED_AT))));
+
+        ArgumentCaptor<Object[]> parameters = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(eq(SightingJdbcWriter.statement(2)), parameters.capture());
+        Object[] values = parameters.getValue();
+        assertEquals(12, values.length);
+        assertEquals(1, values[0]);
+        assertEquals(3, values[2]);
+        assertEquals(OffsetDateTime.parse("2026-05-01T10:00:00Z"), values[3]);
+        assertEquals(-16.64, values[5]);
+        assertNull(values[8]);
+    }
+
+    @Test
+    void writeSplitsLargeBatchesIntoStatements() {
+        List<Sighting> sightings = new ArrayList<>();
+        for (int i = 0; i < SightingJdbcWriter.MAX_ROWS_PER_STATEMENT + 1; i++) {
+            sightings.add(new Sighting(1, 2, OBSERVED_AT));
+        }
+
+        assertEquals(sightings.size(), writer.write(sightings));
+
+        verify(jdbcTemplate).update(eq(SightingJdbcWriter.statement(SightingJdbcWriter.MAX_ROWS_PER_STATEMENT)), any(Object[].class));
+        verify(jdbcTemplate).update(eq(SightingJdbcWriter.statement(1)), any(Object[].class));
+    }
+
+    @Test
+    void writeRetriesRowByRowWhenStatementFails() {
+        Sighting good = new Sighting(1, 2, OBSERVED_AT);
+        Sighting bad = new Sighting(1, 999, OBSERVED_AT);
+        when(jdbcTemplate.update(eq(SightingJdbcWriter.statement(2)), any(Object[].class)))
+                .thenThrow(new DataIntegrityViolationException("fk"));
+        when(jdbcTemplate.update(eq(SightingJdbcWriter.statement(1)), any(Object[].class)))
+                .thenReturn(1)
+                .thenThrow(new DataIntegrityViolationException("fk"));
+
+        assertEquals(1, writer.write(List.of(good, bad)));
+        verify(jdbcTemplate, times(2)).update(eq(SightingJdbcWriter.statement(1)), any(Object[].class));
+    }
+
+    @Test
+    void statementHasOnePlaceholderGroupPerRow() {
+        assertEquals("INSERT INTO sightings (user_id, plant_id, location_id, observed_at, latitude, longitude) "
+                + "VALUES (?, ?, ?, ?, ?, ?), (?, ?, ?, ?, ?, ?)", SightingJdbcWriter.statement(2));
+    }
+}
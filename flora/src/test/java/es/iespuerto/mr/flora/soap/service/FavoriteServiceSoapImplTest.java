@@ -12,6 +12,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import es.iespuerto.mr.flora.dto.FavoriteBatch;
+import es.iespuerto.mr.flora.dto.FavoriteBatchResult;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Favorite;
 import es.iespuerto.mr.flora.service.FavoriteServiceInterface;
@@ -73,6 +75,16 @@ public class FavoriteServiceSoapImplTest {
         });
     }
 
+    @Test
+    void applyFavoriteBatchDelegatesToService() throws ResourceNotFoundException {
+        FavoriteBatch batch = new FavoriteBatch(1, List.of(2), List.of(3));
+        FavoriteBatchResult result = new FavoriteBatchResult(1, 1, 1, new int[] {2});
+
+        when(favoriteService.applyFavoriteBatch(batch)).thenReturn(result);
+
+        assertSame(result, favoriteServiceSoap.applyFavoriteBatch(batch));
+    }
+
     @Test
     void addFavoritePlantSavesAndReturnsFavorite() {
         Favorite favorite = new Favorite();
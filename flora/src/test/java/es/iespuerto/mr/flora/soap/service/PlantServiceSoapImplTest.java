@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import es.iespuerto.mr.flora.dto.PlantPage;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.Plant;
 import es.iespuerto.mr.flora.service.PlantServiceInterface;
@@ -48,6 +49,28 @@ public class PlantServiceSoapImplTest {
 
 
 
+    @Test
+    void getPlantsPageReturnsPage() {
+        Plant plant = new Plant();
+        plant.setId(1);
+
+        when(plantService.getPlantsPage(null, 1)).thenReturn(new PlantPage(Arrays.asList(plant), "next"));
+
+        PlantPage page = plantServiceSoap.getPlantsPage(null, 1);
+
+        assertEquals(1, page.getItems().get(0).getId());
+        assertEquals("next", page.getNextCursor());
+    }
+
+    @Test
+    void getPlantsPageThrowsWebServiceExceptionOnInvalidCursor() {
+        when(plantService.getPlantsPage("bad", 1)).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        assertThrows(WebServiceException.class, () -> {
+            plantServiceSoap.getPlantsPage("bad", 1);
+        });
+    }
+
     @Test
     void getPlantByIdReturnsPlantIfExists() throws ResourceNotFoundException {
         Plant plant = new Plant();
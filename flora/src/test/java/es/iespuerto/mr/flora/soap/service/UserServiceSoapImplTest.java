@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import es.iespuerto.mr.flora.dto.UserSummary;
 import es.iespuerto.mr.flora.exception.ResourceNotFoundException;
 import es.iespuerto.mr.flora.model.User;
 import es.iespuerto.mr.flora.service.UserServiceInterface;
@@ -32,14 +33,10 @@ public class UserServiceSoapImplTest {
 
     @Test
     void getAllUsersReturnsAllUsers() {
-        User user1 = new User();
-        user1.setId(1);
-        User user2 = new User();
-        user2.setId(2);
+        when(userService.getAllUsers()).thenReturn(Arrays.asList(
+                new UserSummary(1, "Manuel", "ROLE_ADMIN"), new UserSummary(2, "Pedro", "ROLE_USER")));
 
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(user1, user2));
-
-        List<User> users = userServiceSoap.getAllUsers();
+        List<UserSummary> users = userServiceSoap.getAllUsers();
 
         assertEquals(2, users.size());
         assertEquals(1, users.get(0).getId());